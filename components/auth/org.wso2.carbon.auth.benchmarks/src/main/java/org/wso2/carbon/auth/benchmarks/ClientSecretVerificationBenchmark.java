@@ -0,0 +1,85 @@
+/*
+ *
+ *   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+
+package org.wso2.carbon.auth.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.auth.client.registration.ClientSecretVerifier;
+import org.wso2.carbon.auth.client.registration.exception.ClientRegistrationDAOException;
+import org.wso2.carbon.auth.core.configuration.models.CacheConfiguration;
+import org.wso2.carbon.auth.core.configuration.models.ClientSecretConfiguration;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of the client secret check done on every /token request, with client secrets stored in plain text or
+ * hashed, and with the verified credential cache on or off. Hashing without the cache is the per request key
+ * derivation cost the cache is meant to avoid.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClientSecretVerificationBenchmark {
+
+    private static final String CLIENT_ID = "benchmark-client";
+    private static final String SECRET = "c2VjcmV0LWZvci1iZW5jaG1hcms";
+
+    @Param({"false", "true"})
+    private boolean hashingEnabled;
+
+    @Param({"true", "false"})
+    private boolean cacheEnabled;
+
+    @Param("10000")
+    private int hashIterations;
+
+    private ClientSecretVerifier verifier;
+    private String storedSecret;
+
+    @Setup
+    public void setup() throws ClientRegistrationDAOException {
+
+        ClientSecretConfiguration configuration = new ClientSecretConfiguration();
+        configuration.setHashingEnabled(hashingEnabled);
+        configuration.setHashIterations(hashIterations);
+        configuration.setVerifiedCredentialCacheConfigs(new CacheConfiguration(cacheEnabled, 10000, 60L));
+        verifier = new ClientSecretVerifier(configuration);
+        storedSecret = verifier.getStoredSecret(SECRET);
+    }
+
+    @Benchmark
+    public boolean verify() throws ClientRegistrationDAOException {
+
+        return verifier.verify(CLIENT_ID, SECRET, storedSecret);
+    }
+}
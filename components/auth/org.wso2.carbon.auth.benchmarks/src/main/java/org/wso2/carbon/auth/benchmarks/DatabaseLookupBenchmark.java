@@ -0,0 +1,299 @@
+/*
+ *
+ *   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.auth.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.auth.core.test.common.util.AuthCoreTestUtil;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency of the token, authorization code and user lookups done on the request path, against an H2 database
+ * created from the shipped scripts and loaded with {@code rows} tokens, codes and users. With {@code indexed} false
+ * the lookup indexes are dropped after the schema is created, which is what databases created before the indexes
+ * were added look like. The queries are the ones issued by the DAOs and the JDBC user store connector.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class DatabaseLookupBenchmark {
+
+    private static final String DBSCRIPTS_PATH = ".." + File.separator + ".." + File.separator + ".."
+            + File.separator + "features" + File.separator + "auth-features" + File.separator
+            + "org.wso2.carbon.auth.core.feature" + File.separator + "resources" + File.separator + "dbscripts"
+            + File.separator;
+    private static final String[] LOOKUP_INDEXES = {"IDX_ACCESS_TOKEN_REFRESH_TOKEN", "IDX_ACCESS_TOKEN_USER_GRANT",
+            "IDX_AUTHORIZATION_CODE", "IDX_USER_NAME_MAPPING_USER_ID", "IDX_USER_ATTRIBUTES_ATTR_VALUE",
+            "IDX_GROUP_ATTRIBUTES_ATTR_VALUE", "IDX_PASSWORD_USER_UNIQUE_ID", "IDX_PASSWORD_INFO_USER_ID"};
+    private static final int APPLICATIONS = 100;
+    private static final int SCOPE_HASHES = 10;
+    private static final int BATCH_SIZE = 10000;
+    private static final String USER_NAME_ATTRIBUTE_URI = "urn:ietf:params:scim:schemas:core:2.0:User:userName";
+    private static final String REDIRECT_URI = "https://localhost/callback";
+
+    private static final String TOKEN_BY_REFRESH_TOKEN = "SELECT AUTH_OAUTH2_ACCESS_TOKEN.ID, ACCESS_TOKEN, "
+            + "TOKEN_STATE, TOKEN_SCOPE FROM AUTH_OAUTH2_ACCESS_TOKEN INNER JOIN AUTH_OAUTH2_APPLICATION ON "
+            + "AUTH_OAUTH2_ACCESS_TOKEN.CONSUMER_KEY_ID = AUTH_OAUTH2_APPLICATION.ID LEFT OUTER JOIN "
+            + "AUTH_OAUTH2_ACCESS_TOKEN_SCOPE ON AUTH_OAUTH2_ACCESS_TOKEN_SCOPE.TOKEN_ID = AUTH_OAUTH2_ACCESS_TOKEN.ID "
+            + "WHERE REFRESH_TOKEN = ? AND CLIENT_ID = ?";
+    private static final String ACTIVE_TOKEN_OF_USER = "SELECT AUTH_OAUTH2_ACCESS_TOKEN.ID, ACCESS_TOKEN, "
+            + "TOKEN_STATE, TOKEN_SCOPE FROM AUTH_OAUTH2_ACCESS_TOKEN INNER JOIN AUTH_OAUTH2_APPLICATION ON "
+            + "AUTH_OAUTH2_ACCESS_TOKEN.CONSUMER_KEY_ID = AUTH_OAUTH2_APPLICATION.ID LEFT OUTER JOIN "
+            + "AUTH_OAUTH2_ACCESS_TOKEN_SCOPE ON AUTH_OAUTH2_ACCESS_TOKEN_SCOPE.TOKEN_ID = AUTH_OAUTH2_ACCESS_TOKEN.ID "
+            + "WHERE AUTH_OAUTH2_ACCESS_TOKEN.AUTHZ_USER = ? AND GRANT_TYPE = ? AND CLIENT_ID = ? "
+            + "AND TOKEN_STATE = 'ACTIVE' AND TOKEN_SCOPE_HASH = ?";
+    private static final String AUTHORIZATION_CODE = "SELECT SCOPE FROM AUTH_OAUTH2_AUTHORIZATION_CODE "
+            + "WHERE CLIENT_ID = ? AND AUTHORIZATION_CODE = ? AND REDIRECT_URI = ?";
+    private static final String PSEUDO_NAME_OF_USER = "SELECT PSEUDO_NAME FROM AUTH_USER_NAME_MAPPING "
+            + "WHERE USER_IDENTIFIER = ?";
+    private static final String USER_BY_ATTRIBUTE = "SELECT AUTH_UM_USER.USER_UNIQUE_ID FROM AUTH_UM_USER "
+            + "INNER JOIN AUTH_UM_USER_ATTRIBUTES ON AUTH_UM_USER_ATTRIBUTES.USER_ID = AUTH_UM_USER.ID "
+            + "WHERE AUTH_UM_USER_ATTRIBUTES.ATTR_ID = (SELECT ID FROM AUTH_UM_ATTRIBUTES WHERE ATTR_URI = ?) "
+            + "AND AUTH_UM_USER_ATTRIBUTES.ATTR_VALUE = ?";
+    private static final String PASSWORD_INFO = "SELECT USER_UNIQUE_ID, PASSWORD, PASSWORD_SALT, HASH_ALGO, "
+            + "ITERATION_COUNT, KEY_LENGTH FROM AUTH_UM_PASSWORD LEFT JOIN AUTH_UM_PASSWORD_INFO "
+            + "ON AUTH_UM_PASSWORD.ID = AUTH_UM_PASSWORD_INFO.USER_ID WHERE USER_UNIQUE_ID = ?";
+
+    @Param("1000000")
+    private int rows;
+
+    @Param({"true", "false"})
+    private boolean indexed;
+
+    private File databaseDirectory;
+    private Connection authConnection;
+    private Connection umConnection;
+
+    @Setup
+    public void setup() throws Exception {
+
+        databaseDirectory = Files.createTempDirectory("lookup-benchmark").toFile();
+        authConnection = DriverManager.getConnection("jdbc:h2:" + databaseDirectory.getAbsolutePath()
+                + File.separator + "AUTH_DB");
+        umConnection = DriverManager.getConnection("jdbc:h2:" + databaseDirectory.getAbsolutePath()
+                + File.separator + "UM_DB");
+        AuthCoreTestUtil.executeSQLScript(DBSCRIPTS_PATH + "auth" + File.separator + "h2.sql", authConnection);
+        AuthCoreTestUtil.executeSQLScript(DBSCRIPTS_PATH + "um" + File.separator + "h2.sql", umConnection);
+        if (!indexed) {
+            dropLookupIndexes(authConnection);
+            dropLookupIndexes(umConnection);
+        }
+        loadTokens();
+        loadUsers();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+
+        for (Connection connection : new Connection[]{authConnection, umConnection}) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DROP ALL OBJECTS DELETE FILES");
+            }
+            connection.close();
+        }
+        databaseDirectory.delete();
+    }
+
+    @Benchmark
+    public boolean tokenByRefreshToken() throws SQLException {
+
+        int token = ThreadLocalRandom.current().nextInt(rows);
+        return exists(authConnection, TOKEN_BY_REFRESH_TOKEN, "refresh-token-" + token,
+                "client-" + token % APPLICATIONS);
+    }
+
+    @Benchmark
+    public boolean activeTokenOfUser() throws SQLException {
+
+        int token = ThreadLocalRandom.current().nextInt(rows);
+        return exists(authConnection, ACTIVE_TOKEN_OF_USER, "user-" + token, "password",
+                "client-" + token % APPLICATIONS, "scope-hash-" + token % SCOPE_HASHES);
+    }
+
+    @Benchmark
+    public boolean authorizationCode() throws SQLException {
+
+        int code = ThreadLocalRandom.current().nextInt(rows);
+        return exists(authConnection, AUTHORIZATION_CODE, "client-" + code % APPLICATIONS, "code-" + code,
+                REDIRECT_URI);
+    }
+
+    @Benchmark
+    public boolean pseudoNameOfUser() throws SQLException {
+
+        return exists(authConnection, PSEUDO_NAME_OF_USER, "user-" + ThreadLocalRandom.current().nextInt(rows));
+    }
+
+    @Benchmark
+    public boolean userByAttribute() throws SQLException {
+
+        return exists(umConnection, USER_BY_ATTRIBUTE, USER_NAME_ATTRIBUTE_URI,
+                "user-" + ThreadLocalRandom.current().nextInt(rows));
+    }
+
+    @Benchmark
+    public boolean passwordInfo() throws SQLException {
+
+        return exists(umConnection, PASSWORD_INFO, "user-id-" + ThreadLocalRandom.current().nextInt(rows));
+    }
+
+    private static boolean exists(Connection connection, String query, String... parameters) throws SQLException {
+
+        try (PreparedStatement statement = connection.prepareStatement(query)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setString(i + 1, parameters[i]);
+            }
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+
+    private static void dropLookupIndexes(Connection connection) throws SQLException {
+
+        try (Statement statement = connection.createStatement()) {
+            for (String index : LOOKUP_INDEXES) {
+                statement.execute("DROP INDEX IF EXISTS " + index);
+            }
+        }
+    }
+
+    private void loadTokens() throws SQLException {
+
+        authConnection.setAutoCommit(false);
+        try (PreparedStatement application = authConnection.prepareStatement("INSERT INTO AUTH_OAUTH2_APPLICATION "
+                + "(ID, CLIENT_ID, CLIENT_SECRET, APP_NAME) VALUES (?, ?, ?, ?)")) {
+            for (int i = 0; i < APPLICATIONS; i++) {
+                application.setInt(1, i);
+                application.setString(2, "client-" + i);
+                application.setString(3, "secret-" + i);
+                application.setString(4, "application-" + i);
+                application.addBatch();
+            }
+            application.executeBatch();
+        }
+        try (PreparedStatement token = authConnection.prepareStatement("INSERT INTO AUTH_OAUTH2_ACCESS_TOKEN "
+                + "(ID, ACCESS_TOKEN, REFRESH_TOKEN, CONSUMER_KEY_ID, AUTHZ_USER, TIME_CREATED, VALIDITY_PERIOD, "
+                + "TOKEN_SCOPE_HASH, TOKEN_STATE, GRANT_TYPE) VALUES (?, ?, ?, ?, ?, ?, 3600, ?, 'ACTIVE', "
+                + "'password')");
+                PreparedStatement scope = authConnection.prepareStatement("INSERT INTO "
+                        + "AUTH_OAUTH2_ACCESS_TOKEN_SCOPE (TOKEN_ID, TOKEN_SCOPE) VALUES (?, 'default')");
+                PreparedStatement code = authConnection.prepareStatement("INSERT INTO "
+                        + "AUTH_OAUTH2_AUTHORIZATION_CODE (CLIENT_ID, AUTHORIZATION_CODE, REDIRECT_URI, SCOPE) "
+                        + "VALUES (?, ?, ?, 'default')");
+                PreparedStatement mapping = authConnection.prepareStatement("INSERT INTO AUTH_USER_NAME_MAPPING "
+                        + "(PSEUDO_NAME, USER_IDENTIFIER) VALUES (?, ?)")) {
+            long timeCreated = System.currentTimeMillis();
+            for (int i = 0; i < rows; i++) {
+                token.setInt(1, i);
+                token.setString(2, "access-token-" + i);
+                token.setString(3, "refresh-token-" + i);
+                token.setString(4, String.valueOf(i % APPLICATIONS));
+                token.setString(5, "user-" + i);
+                token.setLong(6, timeCreated);
+                token.setString(7, "scope-hash-" + i % SCOPE_HASHES);
+                token.addBatch();
+                scope.setInt(1, i);
+                scope.addBatch();
+                code.setString(1, "client-" + i % APPLICATIONS);
+                code.setString(2, "code-" + i);
+                code.setString(3, REDIRECT_URI);
+                code.addBatch();
+                mapping.setString(1, "pseudo-name-" + i);
+                mapping.setString(2, "user-" + i);
+                mapping.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0 || i == rows - 1) {
+                    token.executeBatch();
+                    scope.executeBatch();
+                    code.executeBatch();
+                    mapping.executeBatch();
+                    authConnection.commit();
+                }
+            }
+        }
+        authConnection.setAutoCommit(true);
+    }
+
+    private void loadUsers() throws SQLException {
+
+        umConnection.setAutoCommit(false);
+        try (PreparedStatement attribute = umConnection.prepareStatement("INSERT INTO AUTH_UM_ATTRIBUTES (ID, "
+                + "ATTR_NAME, ATTR_URI, DISPLAY_NAME, REQUIRED, REGEX, UNIQUENESS) VALUES (1, 'uid', ?, "
+                + "'Username', TRUE, '.*', 1)")) {
+            attribute.setString(1, USER_NAME_ATTRIBUTE_URI);
+            attribute.executeUpdate();
+        }
+        try (PreparedStatement user = umConnection.prepareStatement("INSERT INTO AUTH_UM_USER (ID, USER_UNIQUE_ID) "
+                + "VALUES (?, ?)");
+                PreparedStatement userAttribute = umConnection.prepareStatement("INSERT INTO "
+                        + "AUTH_UM_USER_ATTRIBUTES (ATTR_ID, ATTR_VALUE, USER_ID) VALUES (1, ?, ?)");
+                PreparedStatement password = umConnection.prepareStatement("INSERT INTO AUTH_UM_PASSWORD (ID, "
+                        + "PASSWORD, USER_UNIQUE_ID) VALUES (?, 'hash', ?)");
+                PreparedStatement passwordInfo = umConnection.prepareStatement("INSERT INTO AUTH_UM_PASSWORD_INFO "
+                        + "(ID, PASSWORD_SALT, HASH_ALGO, ITERATION_COUNT, KEY_LENGTH, USER_ID) "
+                        + "VALUES (?, 'salt', 'SHA256', 4096, 256, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                user.setInt(1, i);
+                user.setString(2, "user-id-" + i);
+                user.addBatch();
+                userAttribute.setString(1, "user-" + i);
+                userAttribute.setInt(2, i);
+                userAttribute.addBatch();
+                password.setInt(1, i);
+                password.setString(2, "user-id-" + i);
+                password.addBatch();
+                passwordInfo.setInt(1, i);
+                passwordInfo.setString(2, String.valueOf(i));
+                passwordInfo.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0 || i == rows - 1) {
+                    user.executeBatch();
+                    userAttribute.executeBatch();
+                    password.executeBatch();
+                    passwordInfo.executeBatch();
+                    umConnection.commit();
+                }
+            }
+        }
+        umConnection.setAutoCommit(true);
+    }
+}
@@ -0,0 +1,171 @@
+/*
+ *
+ *   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+
+package org.wso2.carbon.auth.benchmarks;
+
+import com.nimbusds.oauth2.sdk.GrantType;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.auth.core.configuration.models.AuthConfiguration;
+import org.wso2.carbon.auth.core.configuration.models.KeyManagerConfiguration;
+import org.wso2.carbon.auth.core.exception.AuthException;
+import org.wso2.carbon.auth.oauth.OAuthConstants;
+import org.wso2.carbon.auth.oauth.OAuthUtils;
+import org.wso2.carbon.auth.oauth.TokenGenerator;
+import org.wso2.carbon.auth.oauth.configuration.models.OAuthConfiguration;
+import org.wso2.carbon.auth.oauth.dto.AccessTokenContext;
+import org.wso2.carbon.auth.oauth.impl.JWTTokenGenerator;
+import org.wso2.carbon.auth.oauth.internal.ServiceReferenceHolder;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.security.spec.ECGenParameterSpec;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of JWT access token issuance for each signature algorithm. RSA keys are read from the key store, EC
+ * keys are generated for the curve of the algorithm.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JWTTokenGeneratorBenchmark {
+
+    @Param({"SHA256withRSA", "SHA512withRSA", "SHA256withEC", "SHA384withEC", "SHA512withEC", "SHA256withHMAC",
+            "SHA512withHMAC"})
+    private String signatureAlgorithm;
+
+    @Param("src/test/resources/wso2carbon.jks")
+    private String keyStoreLocation;
+
+    private static final String HMAC_SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    private TokenGenerator tokenGenerator;
+    private com.nimbusds.oauth2.sdk.Scope scope;
+
+    @Setup
+    public void setup() throws AuthException, GeneralSecurityException {
+
+        OAuthConfiguration oAuthConfiguration = new OAuthConfiguration();
+        oAuthConfiguration.setSignatureAlgorithm(signatureAlgorithm);
+        ServiceReferenceHolder.getInstance().setConfig(oAuthConfiguration);
+        KeyManagerConfiguration keyManagerConfiguration = new KeyManagerConfiguration();
+        keyManagerConfiguration.setKeyStoreLocation(keyStoreLocation);
+        keyManagerConfiguration.setHmacSecret(HMAC_SECRET);
+        AuthConfiguration authConfiguration = new AuthConfiguration();
+        authConfiguration.setKeyManagerConfigs(keyManagerConfiguration);
+        ServiceReferenceHolder.getInstance().setAuthConfiguration(authConfiguration);
+        if (signatureAlgorithm.endsWith("EC")) {
+            KeyPair keyPair = generateECKeyPair();
+            ServiceReferenceHolder.getInstance().setPrivateKey(keyPair.getPrivate());
+            ServiceReferenceHolder.getInstance().setPublicKey(new PublicKeyCertificate(keyPair.getPublic()));
+        } else {
+            ServiceReferenceHolder.getInstance().setPrivateKey(OAuthUtils.extractPrivateKeyFromCertificate());
+            ServiceReferenceHolder.getInstance().setPublicKey(OAuthUtils.extractPublicKeyFromCertificate());
+        }
+        tokenGenerator = new JWTTokenGenerator();
+        scope = new com.nimbusds.oauth2.sdk.Scope("default");
+    }
+
+    @Benchmark
+    public AccessTokenContext generateAccessToken() {
+
+        AccessTokenContext context = new AccessTokenContext();
+        context.getParams().put(OAuthConstants.VALIDITY_PERIOD, 3600L);
+        context.getParams().put(OAuthConstants.SCOPES, scope);
+        context.getParams().put(OAuthConstants.AUTH_USER, "admin");
+        context.getParams().put(OAuthConstants.CLIENT_ID, "abcd-1234");
+        context.getParams().put(OAuthConstants.GRANT_TYPE, GrantType.PASSWORD.getValue());
+        tokenGenerator.generateAccessToken(context);
+        return context;
+    }
+
+    private KeyPair generateECKeyPair() throws GeneralSecurityException {
+
+        String curve;
+        if (signatureAlgorithm.startsWith("SHA256")) {
+            curve = "secp256r1";
+        } else if (signatureAlgorithm.startsWith("SHA384")) {
+            curve = "secp384r1";
+        } else {
+            curve = "secp521r1";
+        }
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+        keyPairGenerator.initialize(new ECGenParameterSpec(curve));
+        return keyPairGenerator.generateKeyPair();
+    }
+
+    /**
+     * Certificate wrapping a generated public key, only its encoded form is used to compute the thumbprint
+     */
+    private static class PublicKeyCertificate extends Certificate {
+
+        private final PublicKey publicKey;
+
+        PublicKeyCertificate(PublicKey publicKey) {
+
+            super("X.509");
+            this.publicKey = publicKey;
+        }
+
+        @Override
+        public byte[] getEncoded() {
+
+            return publicKey.getEncoded();
+        }
+
+        @Override
+        public void verify(PublicKey key) {
+
+        }
+
+        @Override
+        public void verify(PublicKey key, String sigProvider) {
+
+        }
+
+        @Override
+        public String toString() {
+
+            return publicKey.toString();
+        }
+
+        @Override
+        public PublicKey getPublicKey() {
+
+            return publicKey;
+        }
+    }
+}
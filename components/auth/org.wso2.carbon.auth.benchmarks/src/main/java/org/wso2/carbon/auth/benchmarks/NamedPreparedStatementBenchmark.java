@@ -0,0 +1,108 @@
+/*
+ *
+ *   Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.auth.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.auth.user.store.connector.jdbc.queries.MySQLFamilySQLQueryFactory;
+import org.wso2.carbon.auth.user.store.util.NamedPreparedStatement;
+import org.wso2.carbon.auth.user.store.util.NamedQuery;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Throughput of preparing a user store query and binding its named parameters, parsing the named query on every call
+ * as opposed to preparing it from a query parsed once. The connection does no work, so only the statement
+ * preparation overhead of the connector is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NamedPreparedStatementBenchmark {
+
+    private static final Pattern PLACEHOLDER = Pattern.compile(":(\\w+);");
+
+    @Param({"sql_query_get_user_attributes", "sql_query_get_user_from_attribute", "sql_query_add_user_attributes"})
+    private String queryType;
+
+    private Connection connection;
+    private String sqlQuery;
+    private NamedQuery namedQuery;
+    private String[] placeholders;
+
+    @Setup
+    public void setup() throws SQLException {
+
+        PreparedStatement preparedStatement = (PreparedStatement) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class[]{PreparedStatement.class}, (proxy, method, args) -> null);
+        connection = (Connection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class[]{Connection.class}, (proxy, method, args) -> preparedStatement);
+
+        sqlQuery = new MySQLFamilySQLQueryFactory().getQueries().get(queryType);
+        namedQuery = new NamedQuery(sqlQuery);
+
+        Set<String> names = new LinkedHashSet<>();
+        Matcher matcher = PLACEHOLDER.matcher(sqlQuery);
+        while (matcher.find()) {
+            names.add(matcher.group(1));
+        }
+        placeholders = names.toArray(new String[names.size()]);
+    }
+
+    @Benchmark
+    public PreparedStatement prepareParsed() throws SQLException {
+
+        return bind(new NamedPreparedStatement(connection, namedQuery));
+    }
+
+    @Benchmark
+    public PreparedStatement prepareFromString() throws SQLException {
+
+        return bind(new NamedPreparedStatement(connection, sqlQuery));
+    }
+
+    private PreparedStatement bind(NamedPreparedStatement namedPreparedStatement) throws SQLException {
+
+        for (String placeholder : placeholders) {
+            namedPreparedStatement.setString(placeholder, placeholder);
+        }
+        return namedPreparedStatement.getPreparedStatement();
+    }
+}
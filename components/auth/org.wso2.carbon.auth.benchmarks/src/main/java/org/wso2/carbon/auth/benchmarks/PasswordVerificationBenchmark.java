@@ -0,0 +1,94 @@
+/*
+ *
+ *   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.auth.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.auth.user.store.connector.PasswordHandler;
+import org.wso2.carbon.auth.user.store.connector.jdbc.DefaultPasswordHandler;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Throughput of verifying a user password against its stored PBKDF2 hash, using the shared default password handler
+ * and, as a baseline, a key factory looked up for every hash. A low iteration count exposes the per call overhead
+ * around the key derivation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PasswordVerificationBenchmark {
+
+    private static final char[] PASSWORD = "benchmark-password".toCharArray();
+    private static final String SALT = "6a4d0a0c-6d3a-4b1e-9a63-0b8c4d5e2f11";
+    private static final String HASH_ALGO = "SHA256";
+
+    @Param({"1", "4096"})
+    private int iterationCount;
+
+    @Param("256")
+    private int keyLength;
+
+    private PasswordHandler passwordHandler;
+    private String storedHash;
+
+    @Setup
+    public void setup() throws NoSuchAlgorithmException {
+
+        passwordHandler = new DefaultPasswordHandler();
+        storedHash = passwordHandler.hashPassword(PASSWORD, SALT, HASH_ALGO, iterationCount, keyLength);
+    }
+
+    @Benchmark
+    public boolean verify() throws NoSuchAlgorithmException {
+
+        return storedHash.equals(passwordHandler.hashPassword(PASSWORD, SALT, HASH_ALGO, iterationCount,
+                keyLength));
+    }
+
+    @Benchmark
+    public boolean verifyWithKeyFactoryLookup() throws GeneralSecurityException {
+
+        PBEKeySpec keySpec = new PBEKeySpec(PASSWORD, SALT.getBytes(StandardCharsets.UTF_8), iterationCount,
+                keyLength);
+        byte[] hash = SecretKeyFactory.getInstance("PBKDF2WithHmac" + HASH_ALGO).generateSecret(keySpec)
+                .getEncoded();
+        return storedHash.equals(Base64.getEncoder().encodeToString(hash));
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *
+ *   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+
+package org.wso2.carbon.auth.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.auth.core.AuthConstants;
+import org.wso2.carbon.auth.core.encryption.SymmetricEncryption;
+import org.wso2.carbon.auth.core.exception.CryptoException;
+import org.wso2.carbon.auth.core.util.CryptoUtil;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of client secret encryption and decryption through {@link CryptoUtil}. The *WithKeyReload benchmarks
+ * load the symmetric key from the secure vault on every call, which is what CryptoUtil used to do, and serve as the
+ * baseline for the cached key.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SymmetricEncryptionBenchmark {
+
+    @Param("src/test")
+    private String runtimePath;
+
+    private CryptoUtil cryptoUtil;
+    private byte[] plainText;
+    private byte[] cipherText;
+
+    @Setup
+    public void setup() throws CryptoException {
+
+        System.setProperty(AuthConstants.WSO2_RUNTIME_PATH, runtimePath);
+        cryptoUtil = CryptoUtil.getDefaultCryptoUtil();
+        plainText = "c2VjcmV0LWZvci1iZW5jaG1hcms".getBytes(StandardCharsets.UTF_8);
+        cipherText = cryptoUtil.encrypt(plainText);
+    }
+
+    @Benchmark
+    public byte[] encrypt() throws CryptoException {
+
+        return cryptoUtil.encrypt(plainText);
+    }
+
+    @Benchmark
+    public byte[] decrypt() throws CryptoException {
+
+        return cryptoUtil.decrypt(cipherText);
+    }
+
+    @Benchmark
+    public byte[] encryptWithKeyReload() throws CryptoException {
+
+        SymmetricEncryption.getInstance().reloadSymmetricKey();
+        return cryptoUtil.encrypt(plainText);
+    }
+
+    @Benchmark
+    public byte[] decryptWithKeyReload() throws CryptoException {
+
+        SymmetricEncryption.getInstance().reloadSymmetricKey();
+        return cryptoUtil.decrypt(cipherText);
+    }
+}
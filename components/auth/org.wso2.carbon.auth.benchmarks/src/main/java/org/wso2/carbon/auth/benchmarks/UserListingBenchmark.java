@@ -0,0 +1,181 @@
+/*
+ *
+ *   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.auth.benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.wso2.carbon.auth.core.test.common.util.AuthCoreTestUtil;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of listing a page of users with LIMIT/OFFSET against seeking after the last user of the previous page, on an
+ * H2 database created from the shipped user store script and loaded with {@code rows} users. {@code position} is
+ * the number of users before the page. {@code keysetWalk} pages through every user the way a provisioning job does.
+ * The queries are the ones issued by the JDBC user store connector.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+public class UserListingBenchmark {
+
+    private static final String UM_SCRIPT_PATH = ".." + File.separator + ".." + File.separator + ".."
+            + File.separator + "features" + File.separator + "auth-features" + File.separator
+            + "org.wso2.carbon.auth.core.feature" + File.separator + "resources" + File.separator + "dbscripts"
+            + File.separator + "um" + File.separator + "h2.sql";
+    private static final int BATCH_SIZE = 10000;
+
+    private static final String LIST_USER_IDS = "SELECT AUTH_UM_USER.USER_UNIQUE_ID FROM AUTH_UM_USER "
+            + "LIMIT ? OFFSET ?";
+    private static final String LIST_USER_IDS_FROM_START = "SELECT USER_UNIQUE_ID FROM AUTH_UM_USER "
+            + "ORDER BY ID LIMIT ?";
+    private static final String LIST_USER_IDS_AFTER = "SELECT USER_UNIQUE_ID FROM AUTH_UM_USER "
+            + "WHERE ID > (SELECT ID FROM AUTH_UM_USER WHERE USER_UNIQUE_ID = ?) ORDER BY ID LIMIT ?";
+
+    @Param("1000000")
+    private int rows;
+
+    @Param("100")
+    private int pageSize;
+
+    @Param({"0", "500000", "999900"})
+    private int position;
+
+    private File databaseDirectory;
+    private Connection connection;
+
+    @Setup
+    public void setup() throws Exception {
+
+        databaseDirectory = Files.createTempDirectory("listing-benchmark").toFile();
+        connection = DriverManager.getConnection("jdbc:h2:" + databaseDirectory.getAbsolutePath()
+                + File.separator + "UM_DB");
+        AuthCoreTestUtil.executeSQLScript(UM_SCRIPT_PATH, connection);
+        loadUsers();
+    }
+
+    @TearDown
+    public void tearDown() throws SQLException {
+
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP ALL OBJECTS DELETE FILES");
+        }
+        connection.close();
+        databaseDirectory.delete();
+    }
+
+    @Benchmark
+    public List<String> offsetPage() throws SQLException {
+
+        try (PreparedStatement statement = connection.prepareStatement(LIST_USER_IDS)) {
+            statement.setInt(1, pageSize);
+            statement.setInt(2, position);
+            return read(statement);
+        }
+    }
+
+    @Benchmark
+    public List<String> keysetPage() throws SQLException {
+
+        return listAfter(position == 0 ? null : "user-id-" + (position - 1));
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int keysetWalk() throws SQLException {
+
+        int users = 0;
+        String cursor = null;
+        List<String> page;
+        while (!(page = listAfter(cursor)).isEmpty()) {
+            users += page.size();
+            cursor = page.get(page.size() - 1);
+        }
+        return users;
+    }
+
+    private List<String> listAfter(String cursor) throws SQLException {
+
+        if (cursor == null) {
+            try (PreparedStatement statement = connection.prepareStatement(LIST_USER_IDS_FROM_START)) {
+                statement.setInt(1, pageSize);
+                return read(statement);
+            }
+        }
+        try (PreparedStatement statement = connection.prepareStatement(LIST_USER_IDS_AFTER)) {
+            statement.setString(1, cursor);
+            statement.setInt(2, pageSize);
+            return read(statement);
+        }
+    }
+
+    private static List<String> read(PreparedStatement statement) throws SQLException {
+
+        List<String> ids = new ArrayList<>();
+        try (ResultSet resultSet = statement.executeQuery()) {
+            while (resultSet.next()) {
+                ids.add(resultSet.getString(1));
+            }
+        }
+        return ids;
+    }
+
+    private void loadUsers() throws SQLException {
+
+        connection.setAutoCommit(false);
+        try (PreparedStatement user = connection.prepareStatement("INSERT INTO AUTH_UM_USER (ID, USER_UNIQUE_ID) "
+                + "VALUES (?, ?)")) {
+            for (int i = 0; i < rows; i++) {
+                user.setInt(1, i);
+                user.setString(2, "user-id-" + i);
+                user.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0 || i == rows - 1) {
+                    user.executeBatch();
+                    connection.commit();
+                }
+            }
+        }
+        connection.setAutoCommit(true);
+    }
+}
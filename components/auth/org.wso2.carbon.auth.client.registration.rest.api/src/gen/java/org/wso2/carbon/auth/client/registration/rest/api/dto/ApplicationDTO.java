@@ -63,10 +63,10 @@ public class ApplicationDTO   {
   }
 
    /**
-   * Get clientSecret
+   * Not returned by get and update requests when client secrets are stored hashed.
    * @return clientSecret
   **/
-  @ApiModelProperty(value = "")
+  @ApiModelProperty(value = "Not returned by get and update requests when client secrets are stored hashed.")
   public String getClientSecret() {
     return clientSecret;
   }
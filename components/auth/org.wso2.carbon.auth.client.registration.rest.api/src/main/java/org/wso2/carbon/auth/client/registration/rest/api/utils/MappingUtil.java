@@ -19,6 +19,7 @@
 package org.wso2.carbon.auth.client.registration.rest.api.utils;
 
 import org.apache.commons.lang3.StringUtils;
+import org.wso2.carbon.auth.client.registration.ClientSecretHasher;
 import org.wso2.carbon.auth.client.registration.Constants;
 import org.wso2.carbon.auth.client.registration.model.Application;
 import org.wso2.carbon.auth.client.registration.rest.api.dto.ApplicationDTO;
@@ -36,7 +37,8 @@ import java.util.UUID;
  */
 public class MappingUtil {
     /**
-     * This method convert the Dto object into Model
+     * This method convert the Dto object into Model. A client secret which is stored hashed is left out, as it
+     * cannot be used as the secret of the client.
      *
      * @param application Model instance with application data
      * @return ApplicationDTO Contains data of an application
@@ -46,7 +48,9 @@ public class MappingUtil {
         List<String> grantTypes = new ArrayList<>(Arrays.asList(application.getGrantTypes().
                 split(AuthConstants.GRANT_TYPE_DELIMITER)));
         applicationDTO.setClientName(application.getClientName());
-        applicationDTO.setClientSecret(application.getClientSecret());
+        if (!ClientSecretHasher.isHashed(application.getClientSecret())) {
+            applicationDTO.setClientSecret(application.getClientSecret());
+        }
         applicationDTO.setClientId(application.getClientId());
         applicationDTO.setGrantTypes(grantTypes);
         applicationDTO.setRedirectUris(extractCallBackUrlFromRegex(application.getCallBackUrl()));
@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.auth.client.registration.rest.api.utils;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.auth.client.registration.ClientSecretHasher;
+import org.wso2.carbon.auth.client.registration.model.Application;
+import org.wso2.carbon.auth.client.registration.rest.api.dto.ApplicationDTO;
+
+public class MappingUtilTest {
+
+    @Test
+    public void testApplicationModelToApplicationDTOWithPlainSecret() throws Exception {
+
+        ApplicationDTO applicationDTO = MappingUtil.applicationModelToApplicationDTO(application("secret"));
+        Assert.assertEquals(applicationDTO.getClientId(), "client1");
+        Assert.assertEquals(applicationDTO.getClientSecret(), "secret");
+    }
+
+    @Test
+    public void testApplicationModelToApplicationDTOWithHashedSecret() throws Exception {
+
+        String hashedSecret = new ClientSecretHasher(1000).hash("secret");
+        ApplicationDTO applicationDTO = MappingUtil.applicationModelToApplicationDTO(application(hashedSecret));
+        Assert.assertEquals(applicationDTO.getClientId(), "client1");
+        Assert.assertNull(applicationDTO.getClientSecret());
+    }
+
+    private Application application(String clientSecret) {
+
+        Application application = new Application();
+        application.setClientId("client1");
+        application.setClientSecret(clientSecret);
+        application.setClientName("app1");
+        application.setGrantTypes("password");
+        application.setCallBackUrl("http://localhost/url1");
+        return application;
+    }
+}
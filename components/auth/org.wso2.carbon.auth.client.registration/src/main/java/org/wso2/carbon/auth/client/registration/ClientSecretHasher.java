@@ -0,0 +1,123 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.auth.client.registration;
+
+import org.wso2.carbon.auth.client.registration.exception.ClientRegistrationDAOException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.security.spec.KeySpec;
+import java.util.Base64;
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+
+/**
+ * Hashes client secrets with salted PBKDF2 and verifies secrets against stored values. A hashed secret is stored as
+ * {PBKDF2}iterations:salt:hash, which carries everything needed to verify it, so the iteration count can be raised
+ * without invalidating existing secrets. Stored values without the prefix are treated as plain text secrets.
+ */
+public class ClientSecretHasher {
+
+    private static final String PREFIX = "{PBKDF2}";
+    private static final String SEPARATOR = ":";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_LENGTH = 16;
+    private static final int KEY_LENGTH = 256;
+    private static final SecureRandom secureRandom = new SecureRandom();
+
+    private final int iterations;
+
+    public ClientSecretHasher(int iterations) {
+
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("Client secret hash iterations should be positive");
+        }
+        this.iterations = iterations;
+    }
+
+    /**
+     * Check whether a stored client secret is hashed
+     *
+     * @param storedSecret stored client secret
+     * @return true if the secret is stored as a hash
+     */
+    public static boolean isHashed(String storedSecret) {
+
+        return storedSecret != null && storedSecret.startsWith(PREFIX);
+    }
+
+    /**
+     * Hash a client secret with a new random salt
+     *
+     * @param secret client secret
+     * @return value to be stored
+     * @throws ClientRegistrationDAOException if the hash cannot be computed
+     */
+    public String hash(String secret) throws ClientRegistrationDAOException {
+
+        byte[] salt = new byte[SALT_LENGTH];
+        secureRandom.nextBytes(salt);
+        Base64.Encoder encoder = Base64.getEncoder();
+        return PREFIX + iterations + SEPARATOR + encoder.encodeToString(salt) + SEPARATOR
+                + encoder.encodeToString(pbkdf2(secret, salt, iterations));
+    }
+
+    /**
+     * Check whether a client secret matches a stored value, in time independent of where the values differ
+     *
+     * @param secret       client secret presented by the client
+     * @param storedSecret stored client secret, either hashed or plain text
+     * @return true if the secret matches
+     * @throws ClientRegistrationDAOException if the hash cannot be computed
+     */
+    public boolean matches(String secret, String storedSecret) throws ClientRegistrationDAOException {
+
+        if (secret == null || storedSecret == null) {
+            return false;
+        }
+        if (!isHashed(storedSecret)) {
+            return MessageDigest.isEqual(secret.getBytes(StandardCharsets.UTF_8),
+                    storedSecret.getBytes(StandardCharsets.UTF_8));
+        }
+        String[] parts = storedSecret.substring(PREFIX.length()).split(SEPARATOR);
+        if (parts.length != 3) {
+            throw new ClientRegistrationDAOException("Malformed hashed client secret");
+        }
+        try {
+            Base64.Decoder decoder = Base64.getDecoder();
+            byte[] expected = decoder.decode(parts[2]);
+            return MessageDigest.isEqual(pbkdf2(secret, decoder.decode(parts[1]), Integer.parseInt(parts[0])),
+                    expected);
+        } catch (IllegalArgumentException e) {
+            throw new ClientRegistrationDAOException("Malformed hashed client secret", e);
+        }
+    }
+
+    private static byte[] pbkdf2(String secret, byte[] salt, int iterations) throws ClientRegistrationDAOException {
+
+        KeySpec spec = new PBEKeySpec(secret.toCharArray(), salt, iterations, KEY_LENGTH);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new ClientRegistrationDAOException("Error while hashing client secret", e);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.auth.client.registration;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.client.registration.exception.ClientRegistrationDAOException;
+import org.wso2.carbon.auth.core.ServiceReferenceHolder;
+import org.wso2.carbon.auth.core.cache.ExpiringCache;
+import org.wso2.carbon.auth.core.configuration.models.CacheConfiguration;
+import org.wso2.carbon.auth.core.configuration.models.ClientSecretConfiguration;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Stores and verifies client secrets. When hashing is enabled new secrets are stored as salted PBKDF2 hashes, and
+ * successful verifications of hashed secrets are remembered for a short time as a SHA-256 digest of the presented
+ * secret, so that the key derivation is paid once per cache period instead of on every token request. Failed
+ * verifications are never cached.
+ */
+public class ClientSecretVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(ClientSecretVerifier.class);
+    private static final String CACHE_NAME = "VerifiedClientCredentialCache";
+    private static volatile ClientSecretVerifier instance;
+
+    private final boolean hashingEnabled;
+    private final ClientSecretHasher hasher;
+    private final boolean cacheEnabled;
+    private final ExpiringCache<String, VerifiedCredential> verifiedCredentials;
+
+    public ClientSecretVerifier(ClientSecretConfiguration configuration) {
+
+        this.hashingEnabled = configuration.isHashingEnabled();
+        this.hasher = new ClientSecretHasher(configuration.getHashIterations());
+        CacheConfiguration cacheConfiguration = configuration.getVerifiedCredentialCacheConfigs();
+        this.cacheEnabled = cacheConfiguration.isEnabled();
+        this.verifiedCredentials = new ExpiringCache<>(CACHE_NAME, cacheConfiguration.getMaxEntries(),
+                cacheConfiguration.getExpiryTime() * 1000L);
+    }
+
+    public static ClientSecretVerifier getInstance() {
+
+        if (instance == null) {
+            synchronized (ClientSecretVerifier.class) {
+                if (instance == null) {
+                    instance = new ClientSecretVerifier(ServiceReferenceHolder.getInstance().getAuthConfiguration()
+                            .getClientSecretConfigs());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Forget the verified credentials of a client in the shared verifier, if the shared verifier has been created
+     *
+     * @param clientId client ID
+     */
+    public static void invalidateEntry(String clientId) {
+
+        ClientSecretVerifier verifier = instance;
+        if (verifier != null) {
+            verifier.invalidate(clientId);
+        }
+    }
+
+    public boolean isHashingEnabled() {
+
+        return hashingEnabled;
+    }
+
+    /**
+     * Get the value to be stored for a new client secret
+     *
+     * @param secret client secret
+     * @return hashed secret if hashing is enabled, the secret itself otherwise
+     * @throws ClientRegistrationDAOException if the hash cannot be computed
+     */
+    public String getStoredSecret(String secret) throws ClientRegistrationDAOException {
+
+        if (!hashingEnabled || secret == null) {
+            return secret;
+        }
+        return hasher.hash(secret);
+    }
+
+    /**
+     * Verify a client secret against the stored value of the client
+     *
+     * @param clientId     client ID
+     * @param secret       client secret presented by the client
+     * @param storedSecret stored client secret, either hashed or plain text
+     * @return true if the secret matches
+     * @throws ClientRegistrationDAOException if the hash cannot be computed
+     */
+    public boolean verify(String clientId, String secret, String storedSecret)
+            throws ClientRegistrationDAOException {
+
+        if (secret == null || storedSecret == null) {
+            return false;
+        }
+        if (!cacheEnabled || !ClientSecretHasher.isHashed(storedSecret)) {
+            return hasher.matches(secret, storedSecret);
+        }
+        byte[] digest = sha256(secret);
+        VerifiedCredential verified = verifiedCredentials.get(clientId);
+        // the stored value is part of the entry, so a changed secret never matches an old entry
+        if (verified != null && verified.storedSecret.equals(storedSecret)
+                && MessageDigest.isEqual(verified.digest, digest)) {
+            return true;
+        }
+        if (!hasher.matches(secret, storedSecret)) {
+            return false;
+        }
+        verifiedCredentials.put(clientId, new VerifiedCredential(storedSecret, digest));
+        return true;
+    }
+
+    /**
+     * Forget the verified credentials of a client. Must be called whenever a client is updated or deleted.
+     *
+     * @param clientId client ID
+     */
+    public void invalidate(String clientId) {
+
+        log.debug("Invalidating verified credentials of client: {}", clientId);
+        verifiedCredentials.invalidate(clientId);
+    }
+
+    public int getCacheSize() {
+
+        return verifiedCredentials.size();
+    }
+
+    public long getCacheHitCount() {
+
+        return verifiedCredentials.getHitCount();
+    }
+
+    public long getCacheMissCount() {
+
+        return verifiedCredentials.getMissCount();
+    }
+
+    private static byte[] sha256(String secret) throws ClientRegistrationDAOException {
+
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new ClientRegistrationDAOException("Error while computing client secret digest", e);
+        }
+    }
+
+    private static final class VerifiedCredential {
+
+        private final String storedSecret;
+        private final byte[] digest;
+
+        private VerifiedCredential(String storedSecret, byte[] digest) {
+
+            this.storedSecret = storedSecret;
+            this.digest = digest;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+/*
+ *
+ *   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+
+package org.wso2.carbon.auth.client.registration.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.client.registration.model.Application;
+import org.wso2.carbon.auth.core.ServiceReferenceHolder;
+import org.wso2.carbon.auth.core.cache.ExpiringCache;
+import org.wso2.carbon.auth.core.configuration.models.CacheConfiguration;
+
+import java.util.ArrayList;
+
+/**
+ * In-memory cache of registered applications keyed by client ID, so that token issuance, authorization and client
+ * authentication do not read the application tables on every request. Entries must be invalidated whenever an
+ * application is updated or deleted. Copies are cached and returned, so callers may modify what they get.
+ */
+public class ApplicationCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ApplicationCache.class);
+    private static final String CACHE_NAME = "ApplicationCache";
+    private static volatile ApplicationCache instance;
+
+    private final boolean enabled;
+    private final ExpiringCache<String, Application> cache;
+
+    public ApplicationCache(CacheConfiguration cacheConfiguration) {
+
+        this.enabled = cacheConfiguration.isEnabled();
+        this.cache = new ExpiringCache<>(CACHE_NAME, cacheConfiguration.getMaxEntries(),
+                cacheConfiguration.getExpiryTime() * 1000L);
+    }
+
+    public static ApplicationCache getInstance() {
+
+        if (instance == null) {
+            synchronized (ApplicationCache.class) {
+                if (instance == null) {
+                    instance = new ApplicationCache(ServiceReferenceHolder.getInstance().getAuthConfiguration()
+                            .getApplicationCacheConfigs());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Remove an application from the shared cache, if the shared cache has been created
+     *
+     * @param clientId client ID of the application
+     */
+    public static void invalidateEntry(String clientId) {
+
+        ApplicationCache applicationCache = instance;
+        if (applicationCache != null) {
+            applicationCache.invalidate(clientId);
+        }
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Get a cached application
+     *
+     * @param clientId client ID of the application
+     * @return copy of the cached application or null if the application is not cached
+     */
+    public Application get(String clientId) {
+
+        if (!enabled || clientId == null) {
+            return null;
+        }
+        Application application = cache.get(clientId);
+        return application != null ? copy(application) : null;
+    }
+
+    /**
+     * Cache an application
+     *
+     * @param application application to be cached
+     */
+    public void put(Application application) {
+
+        if (!enabled || application == null || application.getClientId() == null) {
+            return;
+        }
+        cache.put(application.getClientId(), copy(application));
+    }
+
+    /**
+     * Remove an application from the cache. Must be called whenever an application is updated or deleted.
+     *
+     * @param clientId client ID of the application
+     */
+    public void invalidate(String clientId) {
+
+        if (clientId == null) {
+            return;
+        }
+        log.debug("Invalidating application cache entry of client: {}", clientId);
+        cache.invalidate(clientId);
+    }
+
+    /**
+     * Remove all applications from the cache
+     */
+    public void invalidateAll() {
+
+        cache.invalidateAll();
+    }
+
+    public int size() {
+
+        return cache.size();
+    }
+
+    public long getHitCount() {
+
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+
+        return cache.getMissCount();
+    }
+
+    public long getEvictionCount() {
+
+        return cache.getEvictionCount();
+    }
+
+    public double getHitRatio() {
+
+        return cache.getHitRatio();
+    }
+
+    private static Application copy(Application application) {
+
+        Application copy = new Application();
+        copy.setId(application.getId());
+        copy.setClientId(application.getClientId());
+        copy.setClientSecret(application.getClientSecret());
+        copy.setAuthUser(application.getAuthUser());
+        copy.setCallBackUrl(application.getCallBackUrl());
+        copy.setGrantTypes(application.getGrantTypes());
+        copy.setClientName(application.getClientName());
+        copy.setOauthVersion(application.getOauthVersion());
+        copy.setAppState(application.getAppState());
+        copy.setUserAccessTokenExpiryTime(application.getUserAccessTokenExpiryTime());
+        copy.setApplicationAccessTokenExpiryTime(application.getApplicationAccessTokenExpiryTime());
+        copy.setRefreshTokenExpiryTime(application.getRefreshTokenExpiryTime());
+        copy.setTokenType(application.getTokenType());
+        copy.setAudiences(application.getAudiences() != null ? new ArrayList<>(application.getAudiences()) : null);
+        return copy;
+    }
+}
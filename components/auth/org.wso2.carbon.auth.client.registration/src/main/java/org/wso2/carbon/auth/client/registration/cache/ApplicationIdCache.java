@@ -0,0 +1,134 @@
+/*
+ *
+ *   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+
+package org.wso2.carbon.auth.client.registration.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.client.registration.dao.ApplicationDAO;
+import org.wso2.carbon.auth.client.registration.dao.impl.DAOFactory;
+import org.wso2.carbon.auth.client.registration.exception.ClientRegistrationDAOException;
+import org.wso2.carbon.auth.client.registration.model.Application;
+import org.wso2.carbon.auth.core.ServiceReferenceHolder;
+import org.wso2.carbon.auth.core.cache.ExpiringCache;
+import org.wso2.carbon.auth.core.configuration.models.CacheConfiguration;
+
+import javax.annotation.CheckForNull;
+
+/**
+ * In-memory cache of client ID to application ID mappings, so that tokens can be stored against their application
+ * without looking the application up on every write. Entries are loaded with ApplicationDAO.getApplication and must
+ * be invalidated when an application is deleted, since a client ID registered again gets a new application ID.
+ */
+public class ApplicationIdCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ApplicationIdCache.class);
+    private static final String CACHE_NAME = "ApplicationIdCache";
+    private static volatile ApplicationIdCache instance;
+
+    private final ApplicationDAO applicationDAO;
+    private final boolean enabled;
+    private final ExpiringCache<String, Integer> cache;
+
+    public ApplicationIdCache(ApplicationDAO applicationDAO, CacheConfiguration cacheConfiguration) {
+
+        this.applicationDAO = applicationDAO;
+        this.enabled = cacheConfiguration.isEnabled();
+        this.cache = new ExpiringCache<>(CACHE_NAME, cacheConfiguration.getMaxEntries(),
+                cacheConfiguration.getExpiryTime() * 1000L);
+    }
+
+    public static ApplicationIdCache getInstance() throws ClientRegistrationDAOException {
+
+        if (instance == null) {
+            synchronized (ApplicationIdCache.class) {
+                if (instance == null) {
+                    CacheConfiguration cacheConfiguration = ServiceReferenceHolder.getInstance().getAuthConfiguration()
+                            .getApplicationIdCacheConfigs();
+                    instance = new ApplicationIdCache(DAOFactory.getApplicationDAO(), cacheConfiguration);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Remove the mapping of a client ID from the shared cache, if the shared cache has been created
+     *
+     * @param clientId client ID
+     */
+    public static void invalidateEntry(String clientId) {
+
+        ApplicationIdCache cache = instance;
+        if (cache != null) {
+            cache.invalidate(clientId);
+        }
+    }
+
+    /**
+     * Get the ID of the application a client ID is registered with
+     *
+     * @param clientId client ID
+     * @return application ID or null if there is no application with the client ID
+     * @throws ClientRegistrationDAOException if the application cannot be retrieved
+     */
+    @CheckForNull
+    public Integer getApplicationId(String clientId) throws ClientRegistrationDAOException {
+
+        Integer applicationId = enabled ? cache.get(clientId) : null;
+        if (applicationId != null) {
+            return applicationId;
+        }
+        Application application = applicationDAO.getApplication(clientId);
+        if (application == null) {
+            return null;
+        }
+        if (enabled) {
+            cache.put(clientId, application.getId());
+        }
+        return application.getId();
+    }
+
+    /**
+     * Remove the mapping of a client ID. Must be called whenever an application is deleted.
+     *
+     * @param clientId client ID
+     */
+    public void invalidate(String clientId) {
+
+        log.debug("Invalidating application ID cache entry of client: {}", clientId);
+        cache.invalidate(clientId);
+    }
+
+    public int size() {
+
+        return cache.size();
+    }
+
+    public long getHitCount() {
+
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+
+        return cache.getMissCount();
+    }
+}
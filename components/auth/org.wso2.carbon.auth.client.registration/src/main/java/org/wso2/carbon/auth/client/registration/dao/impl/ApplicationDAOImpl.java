@@ -19,6 +19,7 @@
 package org.wso2.carbon.auth.client.registration.dao.impl;
 
 import org.apache.commons.lang3.StringUtils;
+import org.wso2.carbon.auth.client.registration.ClientSecretVerifier;
 import org.wso2.carbon.auth.client.registration.Constants;
 import org.wso2.carbon.auth.client.registration.dao.ApplicationDAO;
 import org.wso2.carbon.auth.client.registration.exception.ClientRegistrationDAOException;
@@ -57,6 +58,7 @@ public class ApplicationDAOImpl implements ApplicationDAO {
             try (ResultSet rs = statement.executeQuery()) {
                 if (rs.next()) {
                     Application data = new Application();
+                    data.setId(rs.getInt("ID"));
                     data.setClientId(clientId);
                     /* todo add encryption util
                     data.setClientSecret(
@@ -118,7 +120,12 @@ public class ApplicationDAOImpl implements ApplicationDAO {
                     String.format("Error occurred while registering Client App (clientId : %s, redirectUri : %s",
                             application.getClientId(), application.getCallBackUrl()), e);
         }
-        return getApplication(application.getClientId());
+        Application createdApplication = getApplication(application.getClientId());
+        if (createdApplication != null) {
+            // a hashed secret cannot be read back, so hand the registered secret to the caller this once
+            createdApplication.setClientSecret(application.getClientSecret());
+        }
+        return createdApplication;
     }
 
     @Override
@@ -139,6 +146,7 @@ public class ApplicationDAOImpl implements ApplicationDAO {
         final String query = "INSERT INTO AUTH_OAUTH2_APPLICATION " +
                 "(CLIENT_ID, CLIENT_SECRET, AUTHZ_USER, APP_NAME, OAUTH_VERSION," +
                 " REDIRECT_URI, GRANT_TYPES, APP_ACCESS_TOKEN_EXPIRE_TIME,TOKEN_TYPE) VALUES (?,?,?,?,?,?,?,?,?) ";
+        String storedSecret = ClientSecretVerifier.getInstance().getStoredSecret(application.getClientSecret());
 
         try (Connection connection = DAOUtil.getAuthConnection();
                 PreparedStatement statement = connection.prepareStatement(query)) {
@@ -149,7 +157,7 @@ public class ApplicationDAOImpl implements ApplicationDAO {
                 /* todo add encryption util
                 statement.setString(2, persistenceProcessor.getProcessedClientSecret(application.getClientSecret()));
                 */
-                statement.setString(2, application.getClientSecret());
+                statement.setString(2, storedSecret);
                 statement.setString(3, application.getAuthUser());
                 statement.setString(4, application.getClientName());
                 statement.setString(5, application.getOauthVersion());
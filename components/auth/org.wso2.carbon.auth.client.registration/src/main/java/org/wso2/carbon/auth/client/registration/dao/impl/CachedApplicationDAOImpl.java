@@ -0,0 +1,82 @@
+/*
+ *
+ *   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+
+package org.wso2.carbon.auth.client.registration.dao.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.client.registration.cache.ApplicationCache;
+import org.wso2.carbon.auth.client.registration.dao.ApplicationDAO;
+import org.wso2.carbon.auth.client.registration.exception.ClientRegistrationDAOException;
+import org.wso2.carbon.auth.client.registration.model.Application;
+
+import javax.annotation.CheckForNull;
+
+/**
+ * ApplicationDAO implementation which serves application lookups from the application cache and delegates
+ * everything else to the wrapped ApplicationDAO
+ */
+public class CachedApplicationDAOImpl implements ApplicationDAO {
+    private static final Logger log = LoggerFactory.getLogger(CachedApplicationDAOImpl.class);
+    private final ApplicationDAO applicationDAO;
+    private final ApplicationCache applicationCache;
+
+    /**
+     * Constructor is package private, use factory class to create an instance of this class
+     */
+    CachedApplicationDAOImpl(ApplicationDAO applicationDAO, ApplicationCache applicationCache) {
+
+        this.applicationDAO = applicationDAO;
+        this.applicationCache = applicationCache;
+    }
+
+    @Override
+    @CheckForNull
+    public Application getApplication(String clientId) throws ClientRegistrationDAOException {
+
+        Application application = applicationCache.get(clientId);
+        if (application != null) {
+            log.debug("Application of client: {} found in cache", clientId);
+            return application;
+        }
+        application = applicationDAO.getApplication(clientId);
+        applicationCache.put(application);
+        return application;
+    }
+
+    @Override
+    public void deleteApplication(String clientId) throws ClientRegistrationDAOException {
+
+        applicationDAO.deleteApplication(clientId);
+    }
+
+    @Override
+    public Application createApplication(Application application) throws ClientRegistrationDAOException {
+
+        return applicationDAO.createApplication(application);
+    }
+
+    @Override
+    public Application updateApplication(String clientId, Application application)
+            throws ClientRegistrationDAOException {
+
+        return applicationDAO.updateApplication(clientId, application);
+    }
+}
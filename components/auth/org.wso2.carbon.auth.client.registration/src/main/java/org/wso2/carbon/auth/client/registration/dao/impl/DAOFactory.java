@@ -22,6 +22,7 @@ package org.wso2.carbon.auth.client.registration.dao.impl;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.client.registration.cache.ApplicationCache;
 import org.wso2.carbon.auth.client.registration.dao.ApplicationDAO;
 import org.wso2.carbon.auth.client.registration.exception.ClientRegistrationDAOException;
 
@@ -40,7 +41,7 @@ public class DAOFactory {
     private static final String ORACLE = "Oracle";
 
     public static ApplicationDAO getApplicationDAO() throws ClientRegistrationDAOException {
-        return new ApplicationDAOImpl();
+        return new CachedApplicationDAOImpl(new ApplicationDAOImpl(), ApplicationCache.getInstance());
         // commented since core refactoring is required to fix activate order
         /*
         try (Connection connection = DAOUtil.getAuthConnection()) {
@@ -25,6 +25,9 @@ import com.nimbusds.oauth2.sdk.OAuth2Error;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.auth.client.registration.ClientRegistrationHandler;
+import org.wso2.carbon.auth.client.registration.ClientSecretVerifier;
+import org.wso2.carbon.auth.client.registration.cache.ApplicationCache;
+import org.wso2.carbon.auth.client.registration.cache.ApplicationIdCache;
 import org.wso2.carbon.auth.client.registration.dao.ApplicationDAO;
 import org.wso2.carbon.auth.client.registration.dto.ClientRegistrationResponse;
 import org.wso2.carbon.auth.client.registration.exception.ClientRegistrationDAOException;
@@ -99,7 +102,13 @@ public class ClientRegistrationHandlerImpl implements ClientRegistrationHandler
         ClientRegistrationResponse clientRegistrationResponse = new ClientRegistrationResponse();
 
         try {
-            Application application = applicationDAO.updateApplication(clientId, modifiedApplication);
+            Application application;
+            try {
+                application = applicationDAO.updateApplication(clientId, modifiedApplication);
+            } finally {
+                ApplicationCache.invalidateEntry(clientId);
+                ClientSecretVerifier.invalidateEntry(clientId);
+            }
             if (application != null) {
                 clientRegistrationResponse.setApplication(application);
                 clientRegistrationResponse.setIsSuccessful(true);
@@ -125,7 +134,13 @@ public class ClientRegistrationHandlerImpl implements ClientRegistrationHandler
     public ClientRegistrationResponse deleteApplication(String clientId) {
         ClientRegistrationResponse clientRegistrationResponse = new ClientRegistrationResponse();
         try {
-            applicationDAO.deleteApplication(clientId);
+            try {
+                applicationDAO.deleteApplication(clientId);
+            } finally {
+                ApplicationCache.invalidateEntry(clientId);
+                ApplicationIdCache.invalidateEntry(clientId);
+                ClientSecretVerifier.invalidateEntry(clientId);
+            }
             clientRegistrationResponse.setIsSuccessful(true);
         } catch (ClientRegistrationDAOException e) {
             log.error("Error while deleting the Client Application with client ID: " + clientId, e);
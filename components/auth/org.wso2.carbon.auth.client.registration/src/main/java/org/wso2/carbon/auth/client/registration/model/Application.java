@@ -26,6 +26,7 @@ import java.util.Objects;
  * Application Model
  */
 public class Application {
+    private int id;
     private String clientId;
     private String clientSecret;
     private String authUser;
@@ -187,4 +188,17 @@ public class Application {
     public String getTokenType() {
         return tokenType;
     }
+
+    /**
+     * Get the ID of the application row, which tokens refer to
+     *
+     * @return application ID
+     */
+    public int getId() {
+        return id;
+    }
+
+    public void setId(int id) {
+        this.id = id;
+    }
 }
@@ -0,0 +1,89 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.auth.client.registration;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.auth.core.configuration.models.CacheConfiguration;
+import org.wso2.carbon.auth.core.configuration.models.ClientSecretConfiguration;
+
+public class ClientSecretVerifierTest {
+
+    private static final String CLIENT_ID = "client-id";
+    private static final String SECRET = "client-secret";
+
+    @Test
+    public void testHashedSecret() throws Exception {
+        ClientSecretVerifier verifier = new ClientSecretVerifier(createConfiguration(true, true));
+        String storedSecret = verifier.getStoredSecret(SECRET);
+        Assert.assertTrue(ClientSecretHasher.isHashed(storedSecret));
+        Assert.assertNotEquals(storedSecret, verifier.getStoredSecret(SECRET), "Hashes should be salted");
+
+        Assert.assertTrue(verifier.verify(CLIENT_ID, SECRET, storedSecret));
+        Assert.assertFalse(verifier.verify(CLIENT_ID, "wrong-secret", storedSecret));
+        Assert.assertFalse(verifier.verify(CLIENT_ID, null, storedSecret));
+    }
+
+    @Test
+    public void testPlainSecret() throws Exception {
+        ClientSecretVerifier verifier = new ClientSecretVerifier(createConfiguration(false, true));
+        Assert.assertEquals(verifier.getStoredSecret(SECRET), SECRET);
+        Assert.assertTrue(verifier.verify(CLIENT_ID, SECRET, SECRET));
+        Assert.assertFalse(verifier.verify(CLIENT_ID, "wrong-secret", SECRET));
+        Assert.assertEquals(verifier.getCacheSize(), 0);
+    }
+
+    @Test
+    public void testVerifiedCredentialCache() throws Exception {
+        ClientSecretVerifier verifier = new ClientSecretVerifier(createConfiguration(true, true));
+        String storedSecret = verifier.getStoredSecret(SECRET);
+
+        Assert.assertFalse(verifier.verify(CLIENT_ID, "wrong-secret", storedSecret));
+        Assert.assertEquals(verifier.getCacheSize(), 0, "Failed verifications should not be cached");
+
+        Assert.assertTrue(verifier.verify(CLIENT_ID, SECRET, storedSecret));
+        Assert.assertTrue(verifier.verify(CLIENT_ID, SECRET, storedSecret));
+        Assert.assertEquals(verifier.getCacheHitCount(), 1);
+        Assert.assertFalse(verifier.verify(CLIENT_ID, "wrong-secret", storedSecret));
+
+        // an entry verified against an old stored secret must not be used after the secret changed
+        String newStoredSecret = verifier.getStoredSecret("new-secret");
+        Assert.assertFalse(verifier.verify(CLIENT_ID, SECRET, newStoredSecret));
+
+        verifier.invalidate(CLIENT_ID);
+        Assert.assertEquals(verifier.getCacheSize(), 0);
+    }
+
+    @Test
+    public void testStoredSecretsRemainValidAfterChangingIterations() throws Exception {
+        ClientSecretConfiguration configuration = createConfiguration(true, false);
+        configuration.setHashIterations(1000);
+        String storedSecret = new ClientSecretVerifier(configuration).getStoredSecret(SECRET);
+        configuration.setHashIterations(2000);
+        Assert.assertTrue(new ClientSecretVerifier(configuration).verify(CLIENT_ID, SECRET, storedSecret));
+    }
+
+    private ClientSecretConfiguration createConfiguration(boolean hashingEnabled, boolean cacheEnabled) {
+        ClientSecretConfiguration configuration = new ClientSecretConfiguration();
+        configuration.setHashingEnabled(hashingEnabled);
+        configuration.setHashIterations(1000);
+        configuration.setVerifiedCredentialCacheConfigs(new CacheConfiguration(cacheEnabled, 10, 60L));
+        return configuration;
+    }
+}
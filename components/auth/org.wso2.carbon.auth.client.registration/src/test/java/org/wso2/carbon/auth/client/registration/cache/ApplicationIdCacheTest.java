@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.auth.client.registration.cache;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.auth.client.registration.dao.ApplicationDAO;
+import org.wso2.carbon.auth.client.registration.model.Application;
+import org.wso2.carbon.auth.core.configuration.models.CacheConfiguration;
+
+public class ApplicationIdCacheTest {
+
+    private static final String CLIENT_ID = "client-id";
+
+    @Test
+    public void testGetApplicationIdLoadsOnce() throws Exception {
+        ApplicationDAO applicationDAO = Mockito.mock(ApplicationDAO.class);
+        Application application = new Application();
+        application.setId(7);
+        application.setClientId(CLIENT_ID);
+        Mockito.when(applicationDAO.getApplication(CLIENT_ID)).thenReturn(application);
+        ApplicationIdCache cache = new ApplicationIdCache(applicationDAO, new CacheConfiguration(true, 10, 60L));
+
+        Assert.assertEquals(cache.getApplicationId(CLIENT_ID), Integer.valueOf(7));
+        Assert.assertEquals(cache.getApplicationId(CLIENT_ID), Integer.valueOf(7));
+        Mockito.verify(applicationDAO, Mockito.times(1)).getApplication(CLIENT_ID);
+        Assert.assertEquals(cache.getHitCount(), 1);
+
+        cache.invalidate(CLIENT_ID);
+        Assert.assertEquals(cache.getApplicationId(CLIENT_ID), Integer.valueOf(7));
+        Mockito.verify(applicationDAO, Mockito.times(2)).getApplication(CLIENT_ID);
+    }
+
+    @Test
+    public void testGetApplicationIdOfUnknownClient() throws Exception {
+        ApplicationDAO applicationDAO = Mockito.mock(ApplicationDAO.class);
+        ApplicationIdCache cache = new ApplicationIdCache(applicationDAO, new CacheConfiguration(true, 10, 60L));
+
+        Assert.assertNull(cache.getApplicationId(CLIENT_ID));
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void testDisabledCache() throws Exception {
+        ApplicationDAO applicationDAO = Mockito.mock(ApplicationDAO.class);
+        Application application = new Application();
+        application.setId(3);
+        Mockito.when(applicationDAO.getApplication(CLIENT_ID)).thenReturn(application);
+        ApplicationIdCache cache = new ApplicationIdCache(applicationDAO, new CacheConfiguration(false, 10, 60L));
+
+        cache.getApplicationId(CLIENT_ID);
+        cache.getApplicationId(CLIENT_ID);
+        Mockito.verify(applicationDAO, Mockito.times(2)).getApplication(CLIENT_ID);
+        Assert.assertEquals(cache.size(), 0);
+    }
+}
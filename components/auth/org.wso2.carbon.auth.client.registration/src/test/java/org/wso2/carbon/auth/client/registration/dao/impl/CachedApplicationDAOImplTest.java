@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.auth.client.registration.dao.impl;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.auth.client.registration.cache.ApplicationCache;
+import org.wso2.carbon.auth.client.registration.dao.ApplicationDAO;
+import org.wso2.carbon.auth.client.registration.model.Application;
+import org.wso2.carbon.auth.core.configuration.models.CacheConfiguration;
+
+import java.util.ArrayList;
+import java.util.Collections;
+
+public class CachedApplicationDAOImplTest {
+
+    private static final String CLIENT_ID = "client-id";
+
+    @Test
+    public void testGetApplicationFromCache() throws Exception {
+        ApplicationDAO applicationDAO = Mockito.mock(ApplicationDAO.class);
+        Mockito.when(applicationDAO.getApplication(CLIENT_ID)).thenReturn(createApplication());
+        ApplicationCache applicationCache = new ApplicationCache(new CacheConfiguration(true, 10, 60L));
+        ApplicationDAO cachedApplicationDAO = new CachedApplicationDAOImpl(applicationDAO, applicationCache);
+
+        Application application = cachedApplicationDAO.getApplication(CLIENT_ID);
+        Assert.assertEquals(cachedApplicationDAO.getApplication(CLIENT_ID), application);
+        Mockito.verify(applicationDAO, Mockito.times(1)).getApplication(CLIENT_ID);
+        Assert.assertEquals(applicationCache.getHitCount(), 1);
+        Assert.assertEquals(applicationCache.getMissCount(), 1);
+        Assert.assertEquals(applicationCache.getHitRatio(), 0.5);
+
+        // changes made by a caller must not leak into the cache
+        application.setCallBackUrl("http://modified");
+        application.getAudiences().add("modified");
+        Application cached = cachedApplicationDAO.getApplication(CLIENT_ID);
+        Assert.assertEquals(cached.getCallBackUrl(), "http://localhost/callback");
+        Assert.assertEquals(cached.getAudiences(), Collections.singletonList("audience"));
+        Assert.assertEquals(cached.getId(), 5);
+    }
+
+    @Test
+    public void testInvalidateApplication() throws Exception {
+        ApplicationDAO applicationDAO = Mockito.mock(ApplicationDAO.class);
+        Mockito.when(applicationDAO.getApplication(CLIENT_ID)).thenReturn(createApplication());
+        ApplicationCache applicationCache = new ApplicationCache(new CacheConfiguration(true, 10, 60L));
+        ApplicationDAO cachedApplicationDAO = new CachedApplicationDAOImpl(applicationDAO, applicationCache);
+
+        cachedApplicationDAO.getApplication(CLIENT_ID);
+        applicationCache.invalidate(CLIENT_ID);
+        cachedApplicationDAO.getApplication(CLIENT_ID);
+        Mockito.verify(applicationDAO, Mockito.times(2)).getApplication(CLIENT_ID);
+    }
+
+    @Test
+    public void testUnknownAndDisabled() throws Exception {
+        ApplicationDAO applicationDAO = Mockito.mock(ApplicationDAO.class);
+        ApplicationCache applicationCache = new ApplicationCache(new CacheConfiguration(true, 10, 60L));
+        ApplicationDAO cachedApplicationDAO = new CachedApplicationDAOImpl(applicationDAO, applicationCache);
+        Assert.assertNull(cachedApplicationDAO.getApplication(CLIENT_ID));
+        Assert.assertEquals(applicationCache.size(), 0);
+
+        Mockito.when(applicationDAO.getApplication(CLIENT_ID)).thenReturn(createApplication());
+        ApplicationCache disabledCache = new ApplicationCache(new CacheConfiguration(false, 10, 60L));
+        cachedApplicationDAO = new CachedApplicationDAOImpl(applicationDAO, disabledCache);
+        cachedApplicationDAO.getApplication(CLIENT_ID);
+        cachedApplicationDAO.getApplication(CLIENT_ID);
+        Mockito.verify(applicationDAO, Mockito.times(3)).getApplication(CLIENT_ID);
+        Assert.assertEquals(disabledCache.size(), 0);
+    }
+
+    private Application createApplication() {
+        Application application = new Application();
+        application.setId(5);
+        application.setClientId(CLIENT_ID);
+        application.setClientSecret("secret");
+        application.setCallBackUrl("http://localhost/callback");
+        application.setAudiences(new ArrayList<>(Collections.singletonList("audience")));
+        return application;
+    }
+}
@@ -39,6 +39,7 @@ public class Constants {
     public static final String LDAP_USERNAME_ATTRIBUTE = "ldap.UserNameAttribute";
     public static final String LDAP_USERNAME_SEARCH_FILTER = "ldap.UserNameSearchFilter";
     public static final String LDAP_USERNAME_LIST_FILTER = "ldap.UserNameListFilter";
+    public static final String LDAP_EXPORT_PAGE_SIZE = "ldap.ExportPageSize";
 
     public static final String LDAP_GROUP_SEARCH_BASE = "ldap.GroupSearchBase";
     public static final String LDAP_GROUP_ENTRY_OBJECT_CLASS = "ldap.GroupEntryObjectClass";
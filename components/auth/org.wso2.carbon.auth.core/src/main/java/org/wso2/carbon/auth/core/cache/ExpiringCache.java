@@ -0,0 +1,262 @@
+/*
+ *
+ *   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+
+package org.wso2.carbon.auth.core.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Bounded in-memory cache where every entry carries its own expiry time. When the cache is full the oldest
+ * entry is evicted. Lookups only take a shared lock, so concurrent reads do not block each other.
+ *
+ * @param <K> type of the cache key
+ * @param <V> type of the cached value
+ */
+public class ExpiringCache<K, V> {
+
+    private static final Logger log = LoggerFactory.getLogger(ExpiringCache.class);
+
+    private final String name;
+    private final int maxEntries;
+    private final long timeToLiveMillis;
+    private final Map<K, CacheEntry<V>> entries = new LinkedHashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+
+    /**
+     * Create a cache
+     *
+     * @param name             name of the cache, used for logging
+     * @param maxEntries       maximum number of entries kept in the cache
+     * @param timeToLiveMillis maximum time an entry is kept in the cache
+     */
+    public ExpiringCache(String name, int maxEntries, long timeToLiveMillis) {
+
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache " + name + " should allow at least one entry");
+        }
+        this.name = name;
+        this.maxEntries = maxEntries;
+        this.timeToLiveMillis = timeToLiveMillis;
+    }
+
+    /**
+     * Get a cached value
+     *
+     * @param key cache key
+     * @return cached value or null if there is no unexpired entry for the key
+     */
+    public V get(K key) {
+
+        CacheEntry<V> entry;
+        lock.readLock().lock();
+        try {
+            entry = entries.get(key);
+        } finally {
+            lock.readLock().unlock();
+        }
+        if (entry == null) {
+            missCount.increment();
+            return null;
+        }
+        if (entry.isExpired(System.currentTimeMillis())) {
+            lock.writeLock().lock();
+            try {
+                if (entries.remove(key, entry)) {
+                    evictionCount.increment();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+            missCount.increment();
+            return null;
+        }
+        hitCount.increment();
+        return entry.value;
+    }
+
+    /**
+     * Add a value to the cache which expires after the configured time to live
+     *
+     * @param key   cache key
+     * @param value value to be cached
+     */
+    public void put(K key, V value) {
+
+        put(key, value, Long.MAX_VALUE);
+    }
+
+    /**
+     * Add a value to the cache which expires at the given time or after the configured time to live, whichever
+     * comes first
+     *
+     * @param key        cache key
+     * @param value      value to be cached
+     * @param expiryTime latest time the entry may be served, in epoch milliseconds
+     */
+    public void put(K key, V value, long expiryTime) {
+
+        long now = System.currentTimeMillis();
+        long expiresAt = Math.min(expiryTime, now + timeToLiveMillis);
+        if (expiresAt <= now) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            entries.remove(key);
+            entries.put(key, new CacheEntry<>(value, expiresAt));
+            if (entries.size() > maxEntries) {
+                evict();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove the entry of the given key
+     *
+     * @param key cache key
+     */
+    public void invalidate(K key) {
+
+        lock.writeLock().lock();
+        try {
+            entries.remove(key);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove every entry which holds the given value
+     *
+     * @param value cached value
+     */
+    public void invalidateValue(V value) {
+
+        lock.writeLock().lock();
+        try {
+            entries.values().removeIf(entry -> entry.value.equals(value));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Remove all entries of the cache
+     */
+    public void invalidateAll() {
+
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public String getName() {
+
+        return name;
+    }
+
+    public long getHitCount() {
+
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+
+        return missCount.sum();
+    }
+
+    /**
+     * Get the number of entries removed because they expired or because the cache was full
+     *
+     * @return eviction count
+     */
+    public long getEvictionCount() {
+
+        return evictionCount.sum();
+    }
+
+    public double getHitRatio() {
+
+        long hits = hitCount.sum();
+        long total = hits + missCount.sum();
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    /**
+     * Drop the oldest entries until the cache is back within its bound. Expired entries are dropped lazily on
+     * lookup. Must be called while holding the write lock.
+     */
+    private void evict() {
+
+        Iterator<CacheEntry<V>> iterator = entries.values().iterator();
+        while (entries.size() > maxEntries && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictionCount.increment();
+        }
+        if (log.isDebugEnabled()) {
+            log.debug("Cache {} is full, hits: {}, misses: {}, evictions: {}", name, hitCount.sum(),
+                    missCount.sum(), evictionCount.sum());
+        }
+    }
+
+    private static final class CacheEntry<V> {
+
+        private final V value;
+        private final long expiresAt;
+
+        private CacheEntry(V value, long expiresAt) {
+
+            this.value = value;
+            this.expiresAt = expiresAt;
+        }
+
+        private boolean isExpired(long now) {
+
+            return now >= expiresAt;
+        }
+    }
+}
@@ -32,6 +32,12 @@ public class AuthConfiguration {
 
     @Element(description = "Key Manager Configurations")
     private KeyManagerConfiguration keyManagerConfigs = new KeyManagerConfiguration();
+    @Element(description = "Client ID to application ID cache configurations")
+    private CacheConfiguration applicationIdCacheConfigs = new CacheConfiguration(true, 10000, 900L);
+    @Element(description = "Application cache configurations")
+    private CacheConfiguration applicationCacheConfigs = new CacheConfiguration(true, 10000, 300L);
+    @Element(description = "Client secret storage and verification configurations")
+    private ClientSecretConfiguration clientSecretConfigs = new ClientSecretConfiguration();
 
     public KeyManagerConfiguration getKeyManagerConfigs() {
         return keyManagerConfigs;
@@ -41,4 +47,28 @@ public class AuthConfiguration {
 
         this.keyManagerConfigs = keyManagerConfigs;
     }
+
+    public CacheConfiguration getApplicationIdCacheConfigs() {
+        return applicationIdCacheConfigs;
+    }
+
+    public void setApplicationIdCacheConfigs(CacheConfiguration applicationIdCacheConfigs) {
+        this.applicationIdCacheConfigs = applicationIdCacheConfigs;
+    }
+
+    public CacheConfiguration getApplicationCacheConfigs() {
+        return applicationCacheConfigs;
+    }
+
+    public void setApplicationCacheConfigs(CacheConfiguration applicationCacheConfigs) {
+        this.applicationCacheConfigs = applicationCacheConfigs;
+    }
+
+    public ClientSecretConfiguration getClientSecretConfigs() {
+        return clientSecretConfigs;
+    }
+
+    public void setClientSecretConfigs(ClientSecretConfiguration clientSecretConfigs) {
+        this.clientSecretConfigs = clientSecretConfigs;
+    }
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.auth.core.configuration.models;
+
+import org.wso2.carbon.config.annotation.Configuration;
+import org.wso2.carbon.config.annotation.Element;
+
+/**
+ * Class to hold client secret storage and verification configurations
+ */
+@Configuration(description = "Client secret configurations")
+public class ClientSecretConfiguration {
+
+    @Element(description = "Store client secrets as salted PBKDF2 hashes instead of plain text")
+    private boolean hashingEnabled = false;
+
+    @Element(description = "PBKDF2 iteration count used when hashing new client secrets")
+    private int hashIterations = 10000;
+
+    @Element(description = "Cache of successfully verified client credentials, so that the hash is computed once "
+            + "per cache period instead of on every request")
+    private CacheConfiguration verifiedCredentialCacheConfigs = new CacheConfiguration(true, 10000, 60L);
+
+    public boolean isHashingEnabled() {
+        return hashingEnabled;
+    }
+
+    public void setHashingEnabled(boolean hashingEnabled) {
+        this.hashingEnabled = hashingEnabled;
+    }
+
+    public int getHashIterations() {
+        return hashIterations;
+    }
+
+    public void setHashIterations(int hashIterations) {
+        this.hashIterations = hashIterations;
+    }
+
+    public CacheConfiguration getVerifiedCredentialCacheConfigs() {
+        return verifiedCredentialCacheConfigs;
+    }
+
+    public void setVerifiedCredentialCacheConfigs(CacheConfiguration verifiedCredentialCacheConfigs) {
+        this.verifiedCredentialCacheConfigs = verifiedCredentialCacheConfigs;
+    }
+}
@@ -38,6 +38,8 @@ public class KeyManagerConfiguration {
     private String keyStoreAlias = "wso2carbon";
     @Element(description = "KeyPassword")
     private String keyPassword = "wso2carbon";
+    @Element(description = "Secret used to sign JWTs with HMAC algorithms, at least as long as the hash output")
+    private String hmacSecret = "";
 
     public long getDefaultTokenValidityPeriod() {
         return defaultTokenValidityPeriod;
@@ -78,4 +80,12 @@ public class KeyManagerConfiguration {
     public void setKeyPassword(String keyPassword) {
         this.keyPassword = keyPassword;
     }
+
+    public String getHmacSecret() {
+        return hmacSecret;
+    }
+
+    public void setHmacSecret(String hmacSecret) {
+        this.hmacSecret = hmacSecret;
+    }
 }
@@ -43,15 +43,17 @@ import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
 
 /**
- * This class is used to handle symmetric encryption related tasks
+ * This class is used to handle symmetric encryption related tasks. The symmetric key is loaded once and kept in
+ * memory until it is reloaded, and each thread keeps its own initialized {@link Cipher} instances.
  */
 public class SymmetricEncryption {
 
     private static SymmetricEncryption instance = null;
 
-    private SecretKey symmetricKey = null;
+    private volatile SecretKey symmetricKey = null;
     private static String symmetricKeyEncryptAlgoDefault = "AES";
     private String propertyKey = "symmetric.key";
+    private final ThreadLocal<CipherHolder> cipherHolder = ThreadLocal.withInitial(CipherHolder::new);
 
     public static synchronized SymmetricEncryption getInstance() {
         if (instance == null) {
@@ -60,12 +62,37 @@ public class SymmetricEncryption {
         return instance;
     }
 
+    /**
+     * Load the symmetric key if it is not loaded yet
+     *
+     * @throws CryptoException if the symmetric key cannot be loaded
+     */
     public void generateSymmetricKey() throws CryptoException {
 
+        if (symmetricKey == null) {
+            synchronized (this) {
+                if (symmetricKey == null) {
+                    symmetricKey = loadSymmetricKey();
+                }
+            }
+        }
+    }
+
+    /**
+     * Read the symmetric key again from the secure vault and replace the key in use. Used when the key is rotated.
+     *
+     * @throws CryptoException if the symmetric key cannot be loaded, the key in use is kept in that case
+     */
+    public synchronized void reloadSymmetricKey() throws CryptoException {
+
+        symmetricKey = loadSymmetricKey();
+    }
+
+    private SecretKey loadSymmetricKey() throws CryptoException {
+
         String secretAlias;
         String encryptionAlgo;
         Properties properties;
-        boolean isSymmetricKeyFromFile = false;
 
         try {
 
@@ -73,33 +100,29 @@ public class SymmetricEncryption {
                     System.getProperty(AuthConstants.WSO2_RUNTIME_PATH) + File.separator + "resources" + File.separator
                             + "auth" + File.separator + AuthConstants.SYMMETRIC_KEY_PROPERTIES_FILE_NAME;
             File symmetricPropertiesFile = new File(symmetricPropertiesFilePath);
-            if (symmetricPropertiesFile.exists()) {
-                try (FileInputStream fileInputStream = new FileInputStream(symmetricPropertiesFile)) {
-                    properties = new Properties();
-                    properties.load(fileInputStream);
-                }
-
-                String secVaultYamlFilePath =
-                        System.getProperty(AuthConstants.WSO2_RUNTIME_PATH) + File.separator + "resources"
-                                + File.separator + "auth" + File.separator
-                                + AuthConstants.SECURE_VAULT_CONFIG_YAML_FILE_NAME;
-                File secVaultYamlFile = new File(secVaultYamlFilePath);
-                Path configPath = Paths.get(secVaultYamlFile.toURI());
-                SecureVault secureVault = new SecureVaultFactory().getSecureVault(configPath)
-                        .orElseThrow(() -> new SecureVaultException("Error in getting secure vault instance"));
-
-                secretAlias = properties.getProperty(propertyKey);
-                encryptionAlgo = symmetricKeyEncryptAlgoDefault;
-
-                symmetricKey = new SecretKeySpec(new String(secureVault.resolve(secretAlias)).getBytes(
-                        Charset.defaultCharset()), 0,
-                        secureVault.resolve(secretAlias).length, encryptionAlgo);
-                isSymmetricKeyFromFile = true;
-            }
-
-            if (!isSymmetricKeyFromFile) {
+            if (!symmetricPropertiesFile.exists()) {
                 throw new CryptoException("Error in generating symmetric key. Symmetric key is not available.");
             }
+            try (FileInputStream fileInputStream = new FileInputStream(symmetricPropertiesFile)) {
+                properties = new Properties();
+                properties.load(fileInputStream);
+            }
+
+            String secVaultYamlFilePath =
+                    System.getProperty(AuthConstants.WSO2_RUNTIME_PATH) + File.separator + "resources"
+                            + File.separator + "auth" + File.separator
+                            + AuthConstants.SECURE_VAULT_CONFIG_YAML_FILE_NAME;
+            File secVaultYamlFile = new File(secVaultYamlFilePath);
+            Path configPath = Paths.get(secVaultYamlFile.toURI());
+            SecureVault secureVault = new SecureVaultFactory().getSecureVault(configPath)
+                    .orElseThrow(() -> new SecureVaultException("Error in getting secure vault instance"));
+
+            secretAlias = properties.getProperty(propertyKey);
+            encryptionAlgo = symmetricKeyEncryptAlgoDefault;
+
+            char[] secret = secureVault.resolve(secretAlias);
+            return new SecretKeySpec(new String(secret).getBytes(Charset.defaultCharset()), 0, secret.length,
+                    encryptionAlgo);
         } catch (IOException e) {
             throw new CryptoException("Error in generating symmetric key", e);
         } catch (SecureVaultException e) {
@@ -108,34 +131,70 @@ public class SymmetricEncryption {
     }
 
     public byte[] encryptWithSymmetricKey(byte[] plainText) throws CryptoException {
-        Cipher c = null;
         byte[] encryptedData = null;
-        String encryptionAlgo;
         try {
-            encryptionAlgo = symmetricKeyEncryptAlgoDefault;
-            c = Cipher.getInstance(encryptionAlgo);
-            c.init(Cipher.ENCRYPT_MODE, symmetricKey);
-            encryptedData = c.doFinal(plainText);
+            encryptedData = getCipher(Cipher.ENCRYPT_MODE).doFinal(plainText);
         } catch (Exception e) {
+            cipherHolder.remove();
             throw new CryptoException("Error when encrypting data.", e);
         }
         return encryptedData;
     }
 
     public byte[] decryptWithSymmetricKey(byte[] encryptionBytes) throws CryptoException {
-        Cipher c = null;
         byte[] decryptedData = null;
-        String encryptionAlgo;
         try {
-            encryptionAlgo = symmetricKeyEncryptAlgoDefault;
-            c = Cipher.getInstance(encryptionAlgo);
-            c.init(Cipher.DECRYPT_MODE, symmetricKey);
-            decryptedData = c.doFinal(encryptionBytes);
+            decryptedData = getCipher(Cipher.DECRYPT_MODE).doFinal(encryptionBytes);
         } catch (InvalidKeyException | BadPaddingException | IllegalBlockSizeException |
                 NoSuchAlgorithmException | NoSuchPaddingException e) {
+            cipherHolder.remove();
             throw new CryptoException("Error when decrypting data.", e);
         }
         return decryptedData;
     }
 
+    /**
+     * Get the cipher of the current thread for the given mode, initialized with the key in use. A cipher is
+     * initialized again only when the key has been reloaded since it was last used.
+     */
+    private Cipher getCipher(int mode) throws InvalidKeyException, NoSuchAlgorithmException,
+            NoSuchPaddingException {
+
+        SecretKey key = symmetricKey;
+        if (key == null) {
+            throw new InvalidKeyException("Symmetric key is not loaded");
+        }
+        CipherHolder holder = cipherHolder.get();
+        if (holder.key != key) {
+            holder.key = key;
+            holder.encryptCipher = null;
+            holder.decryptCipher = null;
+        }
+        if (mode == Cipher.ENCRYPT_MODE) {
+            if (holder.encryptCipher == null) {
+                holder.encryptCipher = createCipher(mode, key);
+            }
+            return holder.encryptCipher;
+        }
+        if (holder.decryptCipher == null) {
+            holder.decryptCipher = createCipher(mode, key);
+        }
+        return holder.decryptCipher;
+    }
+
+    private static Cipher createCipher(int mode, SecretKey key) throws InvalidKeyException,
+            NoSuchAlgorithmException, NoSuchPaddingException {
+
+        Cipher cipher = Cipher.getInstance(symmetricKeyEncryptAlgoDefault);
+        cipher.init(mode, key);
+        return cipher;
+    }
+
+    private static final class CipherHolder {
+
+        private SecretKey key;
+        private Cipher encryptCipher;
+        private Cipher decryptCipher;
+    }
+
 }
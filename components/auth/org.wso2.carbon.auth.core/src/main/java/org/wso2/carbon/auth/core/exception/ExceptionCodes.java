@@ -29,6 +29,7 @@ public enum ExceptionCodes implements ExceptionCodeHandler {
     INTERNAL_ERROR(900300, "General Error", 500, "Server Error Occurred"),
     DAO_EXCEPTION(900301, "Internal server error", 500, " Error occurred while persisting/retrieving data"),
     DATA_NOT_FOUND(900302, "Data not found", 404, "Data not found"),
+    SERVICE_UNAVAILABLE(900303, "Service unavailable", 503, "Server is too busy to process the request"),
 
     //scopes related exception codes
     SCOPE_ALREADY_EXISTS(900400, "Resource already exists", 409, "A scope already exists with same name"),
@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.auth.core.cache;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class ExpiringCacheTest {
+
+    @Test
+    public void testGetAndPut() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>("test", 10, 60000L);
+        Assert.assertNull(cache.get("key"));
+        cache.put("key", "value");
+        Assert.assertEquals(cache.get("key"), "value");
+        Assert.assertEquals(cache.getHitCount(), 1);
+        Assert.assertEquals(cache.getMissCount(), 1);
+        Assert.assertEquals(cache.getHitRatio(), 0.5);
+    }
+
+    @Test
+    public void testEntryExpiry() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>("test", 10, 60000L);
+        cache.put("expired", "value", System.currentTimeMillis() - 1);
+        Assert.assertNull(cache.get("expired"));
+        Assert.assertEquals(cache.size(), 0);
+
+        cache.put("shortLived", "value", System.currentTimeMillis() + 1);
+        long waitUntil = System.currentTimeMillis() + 5;
+        while (System.currentTimeMillis() < waitUntil) {
+            Thread.yield();
+        }
+        Assert.assertNull(cache.get("shortLived"));
+        Assert.assertEquals(cache.getEvictionCount(), 1);
+    }
+
+    @Test
+    public void testEvictionWhenFull() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>("test", 2, 60000L);
+        cache.put(1, 1);
+        cache.put(2, 2);
+        cache.put(3, 3);
+        Assert.assertEquals(cache.size(), 2);
+        Assert.assertNull(cache.get(1));
+        Assert.assertEquals(cache.get(3), Integer.valueOf(3));
+        Assert.assertEquals(cache.getEvictionCount(), 1);
+    }
+
+    @Test
+    public void testInvalidate() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>("test", 10, 60000L);
+        cache.put("a", "a");
+        cache.put("b", "b");
+        cache.invalidate("a");
+        Assert.assertNull(cache.get("a"));
+        Assert.assertEquals(cache.get("b"), "b");
+        cache.invalidateAll();
+        Assert.assertEquals(cache.size(), 0);
+    }
+
+    @Test
+    public void testInvalidateValue() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>("test", 10, 60000L);
+        cache.put("a", "user1");
+        cache.put("b", "user1");
+        cache.put("c", "user2");
+        cache.invalidateValue("user1");
+        Assert.assertNull(cache.get("a"));
+        Assert.assertNull(cache.get("b"));
+        Assert.assertEquals(cache.get("c"), "user2");
+    }
+
+    @Test(expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidSize() {
+        new ExpiringCache<String, String>("test", 0, 60000L);
+    }
+}
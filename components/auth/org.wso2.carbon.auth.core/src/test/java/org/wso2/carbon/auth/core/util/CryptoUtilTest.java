@@ -24,6 +24,7 @@ import org.testng.annotations.AfterClass;
 import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 import org.wso2.carbon.auth.core.AuthConstants;
+import org.wso2.carbon.auth.core.encryption.SymmetricEncryption;
 
 import java.io.File;
 
@@ -53,6 +54,17 @@ public class CryptoUtilTest {
                 "Base64 decoded and decrypted " + SAMPLE_ENCRYPTED_BASE64_ENCODED + " is wrong");
     }
 
+    @Test
+    public void testEncryptAndDecryptAfterKeyReload() throws Exception {
+        SymmetricEncryption.getInstance().reloadSymmetricKey();
+        String base64Encoded = CryptoUtil.getDefaultCryptoUtil()
+                .encryptAndBase64Encode(SAMPLE.getBytes(Charsets.UTF_8));
+        Assert.assertEquals(base64Encoded, SAMPLE_ENCRYPTED_BASE64_ENCODED,
+                "Encrypted and base64 encoded " + SAMPLE + " is wrong after reloading the key");
+        String decrypted = new String(CryptoUtil.getDefaultCryptoUtil().base64DecodeAndDecrypt(base64Encoded));
+        Assert.assertEquals(decrypted, SAMPLE, "Decrypted value is wrong after reloading the key");
+    }
+
     @AfterClass
     public void after() {
         System.clearProperty(AuthConstants.WSO2_RUNTIME_PATH);
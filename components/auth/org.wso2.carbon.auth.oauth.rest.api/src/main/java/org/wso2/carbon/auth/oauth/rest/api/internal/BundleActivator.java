@@ -27,7 +27,11 @@ import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.client.registration.exception.ClientRegistrationDAOException;
 import org.wso2.carbon.auth.core.impl.UserNameMapperFactory;
+import org.wso2.carbon.auth.oauth.dao.impl.DAOFactory;
+import org.wso2.carbon.auth.oauth.exception.OAuthDAOException;
+import org.wso2.carbon.auth.oauth.impl.GrantHandlerRegistry;
 import org.wso2.carbon.auth.user.mgt.UserStoreManager;
 
 /**
@@ -45,6 +49,13 @@ public class BundleActivator {
     protected void start(BundleContext bundleContext) {
 
         ServiceReferenceHolder.getInstance().setUserNameMapper(UserNameMapperFactory.getInstance().getUserNameMapper());
+        try {
+            GrantHandlerRegistry.getInstance().reload(ServiceReferenceHolder.getInstance().getUserNameMapper(),
+                    ServiceReferenceHolder.getInstance().getUserStoreManager(), DAOFactory.getClientDAO(),
+                    org.wso2.carbon.auth.client.registration.dao.impl.DAOFactory.getApplicationDAO());
+        } catch (OAuthDAOException | ClientRegistrationDAOException e) {
+            log.error("Error while loading grant handlers, they will be loaded on the first token request", e);
+        }
         log.debug("Authentication Endpoint Activated");
     }
 
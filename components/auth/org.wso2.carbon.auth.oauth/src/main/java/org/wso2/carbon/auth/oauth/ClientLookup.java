@@ -21,9 +21,12 @@
 package org.wso2.carbon.auth.oauth;
 
 import org.apache.commons.lang3.mutable.MutableBoolean;
+import org.wso2.carbon.auth.client.registration.model.Application;
 import org.wso2.carbon.auth.oauth.dto.AccessTokenContext;
+import org.wso2.carbon.auth.oauth.exception.OAuthDAOException;
 
 import java.util.Map;
+import javax.annotation.CheckForNull;
 
 /**
  * Interface for looking up client information
@@ -39,4 +42,18 @@ public interface ClientLookup {
      */
     String getClientId(String authorization, AccessTokenContext context, Map<String, String> queryParameters,
             MutableBoolean haltExecution);
+
+    /**
+     * Authenticate the client of a request and get its application, loading the application only once
+     *
+     * @param authorization   Authorization header
+     * @param context         AccessTokenContext object that stores context information during request processing
+     * @param queryParameters Query parameters of the request
+     * @param haltExecution   State variable indicating if an error has occurred which should halt further execution
+     * @return Application of the client or null if the client could not be authenticated
+     * @throws OAuthDAOException if the application cannot be retrieved
+     */
+    @CheckForNull
+    Application authenticateClient(String authorization, AccessTokenContext context,
+            Map<String, String> queryParameters, MutableBoolean haltExecution) throws OAuthDAOException;
 }
@@ -0,0 +1,154 @@
+/*
+ *
+ *   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+
+package org.wso2.carbon.auth.oauth.cache;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.core.cache.ExpiringCache;
+import org.wso2.carbon.auth.core.configuration.models.CacheConfiguration;
+import org.wso2.carbon.auth.oauth.configuration.models.OAuthConfiguration;
+import org.wso2.carbon.auth.oauth.dto.AccessTokenDTO;
+import org.wso2.carbon.auth.oauth.dto.TokenState;
+import org.wso2.carbon.auth.oauth.internal.ServiceReferenceHolder;
+
+/**
+ * In-memory cache of active access tokens used to serve token lookups without hitting the database. Entries are
+ * keyed by the SHA-256 hash of the token and never outlive the token itself.
+ */
+public class AccessTokenCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessTokenCache.class);
+    private static final String CACHE_NAME = "AccessTokenCache";
+    private static volatile AccessTokenCache instance;
+
+    private final boolean enabled;
+    private final ExpiringCache<String, AccessTokenDTO> cache;
+
+    public AccessTokenCache(CacheConfiguration cacheConfiguration) {
+
+        this.enabled = cacheConfiguration.isEnabled();
+        this.cache = new ExpiringCache<>(CACHE_NAME, cacheConfiguration.getMaxEntries(),
+                cacheConfiguration.getExpiryTime() * 1000L);
+    }
+
+    public static AccessTokenCache getInstance() {
+
+        if (instance == null) {
+            synchronized (AccessTokenCache.class) {
+                if (instance == null) {
+                    OAuthConfiguration configuration = ServiceReferenceHolder.getInstance().getAuthConfigurations();
+                    CacheConfiguration cacheConfiguration = configuration != null ?
+                            configuration.getTokenCacheConfigs() : new CacheConfiguration();
+                    instance = new AccessTokenCache(cacheConfiguration);
+                }
+            }
+        }
+        return instance;
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Get cached token information
+     *
+     * @param accessToken access token
+     * @return cached token information or null if the token is not cached
+     */
+    public AccessTokenDTO get(String accessToken) {
+
+        if (!enabled || accessToken == null) {
+            return null;
+        }
+        return cache.get(DigestUtils.sha256Hex(accessToken));
+    }
+
+    /**
+     * Cache token information until the token expires or the cache entry expires, whichever comes first. Only
+     * active tokens are cached.
+     *
+     * @param accessTokenDTO token information
+     */
+    public void put(AccessTokenDTO accessTokenDTO) {
+
+        if (!enabled || accessTokenDTO == null || accessTokenDTO.getAccessToken() == null
+                || !TokenState.ACTIVE.toString().equalsIgnoreCase(accessTokenDTO.getTokenState())) {
+            return;
+        }
+        long expiryTime;
+        if (accessTokenDTO.getValidityPeriod() < 0) {
+            expiryTime = Long.MAX_VALUE;
+        } else {
+            expiryTime = accessTokenDTO.getTimeCreated() + accessTokenDTO.getValidityPeriod() * 1000L;
+        }
+        cache.put(DigestUtils.sha256Hex(accessTokenDTO.getAccessToken()), accessTokenDTO, expiryTime);
+    }
+
+    /**
+     * Remove a token from the cache. Must be called whenever a token is revoked or replaced.
+     *
+     * @param accessToken access token
+     */
+    public void invalidate(String accessToken) {
+
+        if (accessToken == null) {
+            return;
+        }
+        log.debug("Invalidating access token cache entry");
+        cache.invalidate(DigestUtils.sha256Hex(accessToken));
+    }
+
+    /**
+     * Remove all tokens from the cache
+     */
+    public void invalidateAll() {
+
+        cache.invalidateAll();
+    }
+
+    public int size() {
+
+        return cache.size();
+    }
+
+    public long getHitCount() {
+
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+
+        return cache.getMissCount();
+    }
+
+    public long getEvictionCount() {
+
+        return cache.getEvictionCount();
+    }
+
+    public double getHitRatio() {
+
+        return cache.getHitRatio();
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ *
+ *   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+
+package org.wso2.carbon.auth.oauth.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.oauth.configuration.models.OAuthConfiguration;
+import org.wso2.carbon.auth.oauth.dao.OAuthDAO;
+import org.wso2.carbon.auth.oauth.dao.impl.DAOFactory;
+import org.wso2.carbon.auth.oauth.exception.OAuthDAOException;
+import org.wso2.carbon.auth.oauth.internal.ServiceReferenceHolder;
+
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * In-memory copy of the identifiers of access tokens which are no longer active and have not expired yet. Self
+ * contained tokens are checked against this list instead of being looked up in the database. The list is loaded
+ * again from the database once the refresh interval has elapsed, by a single request thread while others keep using
+ * the previous copy.
+ */
+public class RevokedTokenList {
+
+    private static final Logger log = LoggerFactory.getLogger(RevokedTokenList.class);
+    private static volatile RevokedTokenList instance;
+    /**
+     * Tokens which expired shortly before the list is loaded are kept, tokens are accepted for a short while after
+     * their expiry time to allow for clock skew.
+     */
+    private static final long EXPIRY_MARGIN_MILLIS = 60 * 1000L;
+
+    private final OAuthDAO oauthDAO;
+    private final long refreshIntervalMillis;
+    private final ReentrantLock refreshLock = new ReentrantLock();
+    private volatile Set<String> revokedTokens;
+    private volatile long lastRefreshTime;
+
+    public RevokedTokenList(OAuthDAO oauthDAO, long refreshIntervalMillis) {
+
+        this.oauthDAO = oauthDAO;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+    }
+
+    public static RevokedTokenList getInstance() throws OAuthDAOException {
+
+        if (instance == null) {
+            synchronized (RevokedTokenList.class) {
+                if (instance == null) {
+                    OAuthConfiguration configuration = ServiceReferenceHolder.getInstance().getAuthConfigurations();
+                    long refreshInterval = configuration != null ?
+                            configuration.getRevokedTokenListRefreshInterval() :
+                            new OAuthConfiguration().getRevokedTokenListRefreshInterval();
+                    instance = new RevokedTokenList(DAOFactory.getClientDAO(), refreshInterval * 1000L);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Check whether a token has been revoked
+     *
+     * @param tokenIdentifier access token or the alias of a JWT access token
+     * @return true if the token is no longer active
+     * @throws OAuthDAOException if the list has never been loaded and cannot be loaded now
+     */
+    public boolean isRevoked(String tokenIdentifier) throws OAuthDAOException {
+
+        Set<String> tokens = revokedTokens;
+        if (tokens == null) {
+            refresh();
+            tokens = revokedTokens;
+        } else if (System.currentTimeMillis() - lastRefreshTime >= refreshIntervalMillis
+                && refreshLock.tryLock()) {
+            try {
+                tokens = load();
+            } catch (OAuthDAOException e) {
+                // keep using the previous copy, the next request after the interval tries again
+                lastRefreshTime = System.currentTimeMillis();
+                log.error("Error while reloading the revoked token list, using the previous list", e);
+            } finally {
+                refreshLock.unlock();
+            }
+        }
+        return tokens.contains(tokenIdentifier);
+    }
+
+    /**
+     * Load the list from the database now
+     *
+     * @throws OAuthDAOException if the list cannot be loaded
+     */
+    public void refresh() throws OAuthDAOException {
+
+        refreshLock.lock();
+        try {
+            load();
+        } finally {
+            refreshLock.unlock();
+        }
+    }
+
+    public int size() {
+
+        Set<String> tokens = revokedTokens;
+        return tokens == null ? 0 : tokens.size();
+    }
+
+    private Set<String> load() throws OAuthDAOException {
+
+        Set<String> tokens = Collections.unmodifiableSet(
+                oauthDAO.getInactiveAccessTokens(System.currentTimeMillis() - EXPIRY_MARGIN_MILLIS));
+        revokedTokens = tokens;
+        lastRefreshTime = System.currentTimeMillis();
+        if (log.isDebugEnabled()) {
+            log.debug("Loaded {} revoked access tokens", tokens.size());
+        }
+        return tokens;
+    }
+}
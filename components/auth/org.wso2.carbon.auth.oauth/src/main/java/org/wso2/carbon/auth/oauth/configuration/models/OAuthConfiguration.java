@@ -21,6 +21,7 @@ import com.nimbusds.oauth2.sdk.GrantType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.auth.client.registration.Constants;
+import org.wso2.carbon.auth.core.configuration.models.CacheConfiguration;
 import org.wso2.carbon.auth.oauth.impl.AuthCodeGrantHandlerImpl;
 import org.wso2.carbon.auth.oauth.impl.ClientCredentialsGrantHandlerImpl;
 import org.wso2.carbon.auth.oauth.impl.DefaultTokenGenerator;
@@ -31,6 +32,7 @@ import org.wso2.carbon.auth.oauth.impl.RoleBasedScopeValidator;
 import org.wso2.carbon.config.annotation.Configuration;
 import org.wso2.carbon.config.annotation.Element;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -67,6 +69,18 @@ public class OAuthConfiguration {
     private String signatureAlgorithm = "SHA256withRSA";
     @Element(description = "Persist AccessToken Alias")
     private boolean persistAccessTokenAlias = true;
+    @Element(description = "Access token cache configurations")
+    private CacheConfiguration tokenCacheConfigs = new CacheConfiguration(true, 10000, 300L);
+    @Element(description = "Validate signed JWT access tokens locally during introspection")
+    private boolean localJWTValidation = true;
+    @Element(description = "Revoked token list refresh interval in seconds")
+    private long revokedTokenListRefreshInterval = 30L;
+    @Element(description = "Audiences accepted when validating JWT access tokens locally, in addition to the client id")
+    private List<String> jwtAudiences = new ArrayList<>();
+    @Element(description = "Access token persistence configurations")
+    private TokenPersistenceConfiguration tokenPersistenceConfigs = new TokenPersistenceConfiguration();
+    @Element(description = "Expired token and authorization code cleanup configurations")
+    private TokenCleanupConfiguration tokenCleanupConfigs = new TokenCleanupConfiguration();
 
     public long getDefaultTokenValidityPeriod() {
 
@@ -178,6 +192,66 @@ public class OAuthConfiguration {
         this.persistAccessTokenAlias = persistAccessTokenAlias;
     }
 
+    public CacheConfiguration getTokenCacheConfigs() {
+
+        return tokenCacheConfigs;
+    }
+
+    public void setTokenCacheConfigs(CacheConfiguration tokenCacheConfigs) {
+
+        this.tokenCacheConfigs = tokenCacheConfigs;
+    }
+
+    public boolean isLocalJWTValidation() {
+
+        return localJWTValidation;
+    }
+
+    public void setLocalJWTValidation(boolean localJWTValidation) {
+
+        this.localJWTValidation = localJWTValidation;
+    }
+
+    public long getRevokedTokenListRefreshInterval() {
+
+        return revokedTokenListRefreshInterval;
+    }
+
+    public void setRevokedTokenListRefreshInterval(long revokedTokenListRefreshInterval) {
+
+        this.revokedTokenListRefreshInterval = revokedTokenListRefreshInterval;
+    }
+
+    public List<String> getJwtAudiences() {
+
+        return jwtAudiences;
+    }
+
+    public void setJwtAudiences(List<String> jwtAudiences) {
+
+        this.jwtAudiences = jwtAudiences;
+    }
+
+    public TokenPersistenceConfiguration getTokenPersistenceConfigs() {
+
+        return tokenPersistenceConfigs;
+    }
+
+    public void setTokenPersistenceConfigs(TokenPersistenceConfiguration tokenPersistenceConfigs) {
+
+        this.tokenPersistenceConfigs = tokenPersistenceConfigs;
+    }
+
+    public TokenCleanupConfiguration getTokenCleanupConfigs() {
+
+        return tokenCleanupConfigs;
+    }
+
+    public void setTokenCleanupConfigs(TokenCleanupConfiguration tokenCleanupConfigs) {
+
+        this.tokenCleanupConfigs = tokenCleanupConfigs;
+    }
+
     private Map<String, String> populateDefaultGrantTypes() {
 
         Map<String, String> grantTypes = new HashMap();
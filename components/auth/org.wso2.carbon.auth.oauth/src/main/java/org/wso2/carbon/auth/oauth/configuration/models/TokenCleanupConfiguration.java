@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.auth.oauth.configuration.models;
+
+import org.wso2.carbon.config.annotation.Configuration;
+import org.wso2.carbon.config.annotation.Element;
+
+/**
+ * Class to hold expired token and authorization code cleanup configurations
+ */
+@Configuration(description = "Token Cleanup Configurations")
+public class TokenCleanupConfiguration {
+
+    @Element(description = "Periodically delete expired tokens and stale authorization codes")
+    private boolean enabled = true;
+    @Element(description = "Interval between cleanup runs in seconds")
+    private long cleanupInterval = 3600L;
+    @Element(description = "Time in seconds tokens are kept after they expire")
+    private long retentionPeriod = 86400L;
+    @Element(description = "Time in seconds authorization codes are kept after they are issued")
+    private long authorizationCodeRetentionPeriod = 3600L;
+    @Element(description = "Maximum number of rows deleted in a transaction")
+    private int batchSize = 500;
+    @Element(description = "Pause in milliseconds between two batches, so that other writes are not held up")
+    private long batchInterval = 100L;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getCleanupInterval() {
+        return cleanupInterval;
+    }
+
+    public void setCleanupInterval(long cleanupInterval) {
+        this.cleanupInterval = cleanupInterval;
+    }
+
+    public long getRetentionPeriod() {
+        return retentionPeriod;
+    }
+
+    public void setRetentionPeriod(long retentionPeriod) {
+        this.retentionPeriod = retentionPeriod;
+    }
+
+    public long getAuthorizationCodeRetentionPeriod() {
+        return authorizationCodeRetentionPeriod;
+    }
+
+    public void setAuthorizationCodeRetentionPeriod(long authorizationCodeRetentionPeriod) {
+        this.authorizationCodeRetentionPeriod = authorizationCodeRetentionPeriod;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getBatchInterval() {
+        return batchInterval;
+    }
+
+    public void setBatchInterval(long batchInterval) {
+        this.batchInterval = batchInterval;
+    }
+}
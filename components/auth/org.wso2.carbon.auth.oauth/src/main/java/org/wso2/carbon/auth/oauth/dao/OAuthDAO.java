@@ -25,7 +25,9 @@ import org.wso2.carbon.auth.oauth.dto.AccessTokenData;
 import org.wso2.carbon.auth.oauth.exception.OAuthDAOException;
 
 import java.net.URI;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 
@@ -83,6 +85,14 @@ public interface OAuthDAO {
      */
     void addAccessTokenInfo(AccessTokenData accessTokenData) throws OAuthDAOException;
 
+    /**
+     * Add information of several access tokens in a single batch
+     *
+     * @param accessTokenDataList Access token related data of the tokens
+     * @throws OAuthDAOException if a DAO Error is encountered
+     */
+    void addAccessTokenInfo(List<AccessTokenData> accessTokenDataList) throws OAuthDAOException;
+
     /**
      * Get access token related information
      *
@@ -114,4 +124,38 @@ public interface OAuthDAO {
      * @throws OAuthDAOException throws if a error occurred
      */
     AccessTokenDTO getTokenInfo(String refreshToken, String consumerKey) throws OAuthDAOException;
+
+    /**
+     * Get the identifiers of access tokens which are no longer active but have not expired yet. Expired tokens are
+     * rejected on their expiry time, so they are left out. JWT access tokens are identified by their alias when
+     * aliases are persisted.
+     *
+     * @param unexpiredAt time in epoch milliseconds at which the tokens must not have expired
+     * @return identifiers of the inactive access tokens
+     * @throws OAuthDAOException throws if a error occurred
+     */
+    Set<String> getInactiveAccessTokens(long unexpiredAt) throws OAuthDAOException;
+
+    /**
+     * Delete a batch of access tokens which expired before the given time. Active tokens are kept until both the
+     * access token and its refresh token have expired, inactive tokens until the access token has expired so that
+     * they are still reported as inactive while they could be presented. The scopes of the tokens are deleted with
+     * them.
+     *
+     * @param expiredBefore tokens which expired before this time are deleted, in epoch milliseconds
+     * @param limit         maximum number of tokens deleted
+     * @return access tokens of the deleted rows
+     * @throws OAuthDAOException throws if a error occurred
+     */
+    List<String> deleteExpiredAccessTokens(long expiredBefore, int limit) throws OAuthDAOException;
+
+    /**
+     * Delete a batch of authorization codes issued before the given time
+     *
+     * @param createdBefore codes issued before this time are deleted, in epoch milliseconds
+     * @param limit         maximum number of codes deleted
+     * @return number of deleted codes
+     * @throws OAuthDAOException throws if a error occurred
+     */
+    int deleteAuthCodes(long createdBefore, int limit) throws OAuthDAOException;
 }
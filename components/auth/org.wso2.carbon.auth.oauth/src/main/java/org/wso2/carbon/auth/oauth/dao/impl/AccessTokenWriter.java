@@ -0,0 +1,387 @@
+/*
+ *
+ *   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+
+package org.wso2.carbon.auth.oauth.dao.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.oauth.configuration.models.OAuthConfiguration;
+import org.wso2.carbon.auth.oauth.configuration.models.TokenPersistenceConfiguration;
+import org.wso2.carbon.auth.oauth.dao.OAuthDAO;
+import org.wso2.carbon.auth.oauth.dto.AccessTokenData;
+import org.wso2.carbon.auth.oauth.dto.TokenState;
+import org.wso2.carbon.auth.oauth.exception.OAuthDAOException;
+import org.wso2.carbon.auth.oauth.internal.ServiceReferenceHolder;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Writes issued access tokens to the database in batches on a background thread. Tokens waiting to be written are
+ * kept in memory so that they can be looked up before they reach the database. When the queue is full tokens are
+ * written on the calling thread.
+ */
+public class AccessTokenWriter {
+
+    private static final Logger log = LoggerFactory.getLogger(AccessTokenWriter.class);
+    private static volatile AccessTokenWriter instance;
+
+    private final OAuthDAO oauthDAO;
+    private final boolean enabled;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final BlockingQueue<AccessTokenData> queue;
+    private final Map<String, AccessTokenData> pendingAccessTokens = new ConcurrentHashMap<>();
+    private final Map<String, AccessTokenData> pendingRefreshTokens = new ConcurrentHashMap<>();
+    private final Map<List<String>, AccessTokenData> pendingUserTokens = new ConcurrentHashMap<>();
+    private final LongAdder writtenCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder synchronousWriteCount = new LongAdder();
+    private final LongAdder flushCount = new LongAdder();
+    private final LongAdder totalFlushTime = new LongAdder();
+    private final AtomicLong lastFlushTime = new AtomicLong();
+    private volatile boolean running;
+    private Thread writerThread;
+
+    /**
+     * Create a writer
+     *
+     * @param oauthDAO      DAO the tokens are written with
+     * @param configuration token persistence configurations
+     */
+    public AccessTokenWriter(OAuthDAO oauthDAO, TokenPersistenceConfiguration configuration) {
+
+        this.oauthDAO = oauthDAO;
+        this.enabled = configuration.isAsync();
+        this.batchSize = Math.max(1, configuration.getBatchSize());
+        this.flushIntervalMillis = configuration.getFlushInterval();
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, configuration.getQueueSize()));
+    }
+
+    public static AccessTokenWriter getInstance() {
+
+        if (instance == null) {
+            synchronized (AccessTokenWriter.class) {
+                if (instance == null) {
+                    OAuthConfiguration configuration = ServiceReferenceHolder.getInstance().getAuthConfigurations();
+                    TokenPersistenceConfiguration persistenceConfiguration = configuration != null ?
+                            configuration.getTokenPersistenceConfigs() : new TokenPersistenceConfiguration();
+                    instance = new AccessTokenWriter(new OAuthDAOImpl(), persistenceConfiguration);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Write the tokens waiting in the queue and stop the shared writer, if it has been started
+     */
+    public static void shutdownInstance() {
+
+        synchronized (AccessTokenWriter.class) {
+            if (instance != null) {
+                instance.stop();
+                instance = null;
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Queue a token to be written. The token can be looked up with {@link #getPendingAccessToken(String)} until it
+     * has been written.
+     *
+     * @param accessTokenData access token related data, later changes to it are not written
+     * @throws OAuthDAOException if the queue is full and the token cannot be written on the calling thread
+     */
+    public void add(AccessTokenData accessTokenData) throws OAuthDAOException {
+
+        start();
+        AccessTokenData tokenData = copy(accessTokenData);
+        addPending(tokenData);
+        if (!queue.offer(tokenData)) {
+            removePending(tokenData);
+            synchronousWriteCount.increment();
+            log.debug("Access token queue is full, writing the token synchronously");
+            oauthDAO.addAccessTokenInfo(tokenData);
+        }
+    }
+
+    /**
+     * Get a token which has not been written yet
+     *
+     * @param accessToken access token
+     * @return access token related data or null if the token is not waiting to be written
+     */
+    public AccessTokenData getPendingAccessToken(String accessToken) {
+
+        return accessToken == null ? null : pendingAccessTokens.get(accessToken);
+    }
+
+    /**
+     * Get the latest active token which has not been written yet and was issued to the given user, client, grant
+     * type and scopes, so that it can be reused like one read from the database
+     *
+     * @param authUser     authenticated user
+     * @param grantType    grant type
+     * @param clientId     client id
+     * @param hashedScopes hash of the token scopes
+     * @return access token related data or null if no such token is waiting to be written
+     */
+    public AccessTokenData getPendingAccessToken(String authUser, String grantType, String clientId,
+            String hashedScopes) {
+
+        return pendingUserTokens.get(Arrays.asList(authUser, grantType, clientId, hashedScopes));
+    }
+
+    /**
+     * Get a token which has not been written yet by its refresh token
+     *
+     * @param refreshToken refresh token
+     * @return access token related data or null if the token is not waiting to be written
+     */
+    public AccessTokenData getPendingRefreshToken(String refreshToken) {
+
+        return refreshToken == null ? null : pendingRefreshTokens.get(refreshToken);
+    }
+
+    /**
+     * Write the tokens waiting in the queue and stop the writer thread
+     */
+    public synchronized void stop() {
+
+        // the thread notices within a poll timeout, it is not interrupted since that may break a JDBC call
+        running = false;
+        if (writerThread != null) {
+            try {
+                writerThread.join(TimeUnit.SECONDS.toMillis(30));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            writerThread = null;
+        }
+        List<AccessTokenData> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Get the number of tokens waiting to be written
+     *
+     * @return queue depth
+     */
+    public int getQueueDepth() {
+
+        return queue.size();
+    }
+
+    public long getWrittenCount() {
+
+        return writtenCount.sum();
+    }
+
+    /**
+     * Get the number of tokens which could not be written
+     *
+     * @return failed token count
+     */
+    public long getFailedCount() {
+
+        return failedCount.sum();
+    }
+
+    /**
+     * Get the number of tokens written on the calling thread because the queue was full
+     *
+     * @return synchronous write count
+     */
+    public long getSynchronousWriteCount() {
+
+        return synchronousWriteCount.sum();
+    }
+
+    public long getFlushCount() {
+
+        return flushCount.sum();
+    }
+
+    /**
+     * Get the time taken to write the last batch
+     *
+     * @return flush latency in milliseconds
+     */
+    public long getLastFlushLatency() {
+
+        return TimeUnit.NANOSECONDS.toMillis(lastFlushTime.get());
+    }
+
+    /**
+     * Get the average time taken to write a batch
+     *
+     * @return flush latency in milliseconds
+     */
+    public double getAverageFlushLatency() {
+
+        long flushes = flushCount.sum();
+        return flushes == 0 ? 0 : (double) TimeUnit.NANOSECONDS.toMillis(totalFlushTime.sum()) / flushes;
+    }
+
+    private void start() {
+
+        if (!running) {
+            synchronized (this) {
+                if (!running) {
+                    writerThread = new Thread(this::run, "AccessTokenWriter");
+                    writerThread.setDaemon(true);
+                    running = true;
+                    writerThread.start();
+                }
+            }
+        }
+    }
+
+    private void run() {
+
+        List<AccessTokenData> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                AccessTokenData tokenData = queue.poll(1, TimeUnit.SECONDS);
+                if (tokenData == null) {
+                    continue;
+                }
+                batch.add(tokenData);
+                // wait a little for more tokens so that bursts are written together
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) {
+                        break;
+                    }
+                    tokenData = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (tokenData == null) {
+                        break;
+                    }
+                    batch.add(tokenData);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<AccessTokenData> batch) {
+
+        long startTime = System.nanoTime();
+        try {
+            oauthDAO.addAccessTokenInfo(batch);
+            writtenCount.add(batch.size());
+        } catch (OAuthDAOException | RuntimeException e) {
+            // runtime exceptions such as pool or driver errors must not end the writer thread
+            log.error("Error while writing a batch of " + batch.size() + " access tokens, writing them one by one",
+                    e);
+            // a single bad token fails the whole batch, do not lose the others
+            for (AccessTokenData tokenData : batch) {
+                try {
+                    oauthDAO.addAccessTokenInfo(tokenData);
+                    writtenCount.increment();
+                } catch (OAuthDAOException | RuntimeException ex) {
+                    failedCount.increment();
+                    log.error("Error while writing access token of client: " + tokenData.getClientId(), ex);
+                }
+            }
+        } finally {
+            for (AccessTokenData tokenData : batch) {
+                removePending(tokenData);
+            }
+            long flushTime = System.nanoTime() - startTime;
+            lastFlushTime.set(flushTime);
+            totalFlushTime.add(flushTime);
+            flushCount.increment();
+            if (log.isDebugEnabled()) {
+                log.debug("Wrote {} access tokens in {} ms, {} tokens waiting", batch.size(),
+                        TimeUnit.NANOSECONDS.toMillis(flushTime), queue.size());
+            }
+        }
+    }
+
+    private void addPending(AccessTokenData tokenData) {
+
+        pendingAccessTokens.put(tokenData.getAccessToken(), tokenData);
+        if (tokenData.getRefreshToken() != null) {
+            pendingRefreshTokens.put(tokenData.getRefreshToken(), tokenData);
+        }
+        if (tokenData.getTokenState() == TokenState.ACTIVE) {
+            pendingUserTokens.put(getUserTokenKey(tokenData), tokenData);
+        }
+    }
+
+    private void removePending(AccessTokenData tokenData) {
+
+        pendingAccessTokens.remove(tokenData.getAccessToken(), tokenData);
+        if (tokenData.getRefreshToken() != null) {
+            pendingRefreshTokens.remove(tokenData.getRefreshToken(), tokenData);
+        }
+        pendingUserTokens.remove(getUserTokenKey(tokenData), tokenData);
+    }
+
+    private static List<String> getUserTokenKey(AccessTokenData tokenData) {
+
+        return Arrays.asList(tokenData.getAuthUser(), tokenData.getGrantType(), tokenData.getClientId(),
+                tokenData.getHashedScopes());
+    }
+
+    private static AccessTokenData copy(AccessTokenData accessTokenData) {
+
+        AccessTokenData tokenData = new AccessTokenData();
+        tokenData.setAccessToken(accessTokenData.getAccessToken());
+        tokenData.setRefreshToken(accessTokenData.getRefreshToken());
+        tokenData.setAuthUser(accessTokenData.getAuthUser());
+        tokenData.setClientId(accessTokenData.getClientId());
+        tokenData.setGrantType(accessTokenData.getGrantType());
+        tokenData.setScopes(new ArrayList<>(accessTokenData.getScopes()));
+        tokenData.setHashedScopes(accessTokenData.getHashedScopes());
+        tokenData.setAccessTokenCreatedTime(accessTokenData.getAccessTokenCreatedTime());
+        tokenData.setRefreshTokenCreatedTime(accessTokenData.getRefreshTokenCreatedTime());
+        tokenData.setAccessTokenValidityPeriod(accessTokenData.getAccessTokenValidityPeriod());
+        tokenData.setRefreshTokenValidityPeriod(accessTokenData.getRefreshTokenValidityPeriod());
+        tokenData.setTokenState(accessTokenData.getTokenState());
+        return tokenData;
+    }
+}
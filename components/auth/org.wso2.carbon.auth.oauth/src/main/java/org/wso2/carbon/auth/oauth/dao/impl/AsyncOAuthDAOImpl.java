@@ -0,0 +1,160 @@
+/*
+ *
+ *   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+
+package org.wso2.carbon.auth.oauth.dao.impl;
+
+import org.wso2.carbon.auth.oauth.dao.OAuthDAO;
+import org.wso2.carbon.auth.oauth.dto.AccessTokenDTO;
+import org.wso2.carbon.auth.oauth.dto.AccessTokenData;
+import org.wso2.carbon.auth.oauth.exception.OAuthDAOException;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+
+/**
+ * OAuthDAO implementation which hands issued access tokens to the access token writer instead of writing them on
+ * the calling thread. Tokens which have not been written yet are served from the writer.
+ */
+public class AsyncOAuthDAOImpl implements OAuthDAO {
+    private final OAuthDAO oauthDAO;
+    private final AccessTokenWriter accessTokenWriter;
+
+    /**
+     * Constructor is package private, use factory class to create an instance of this class
+     */
+    AsyncOAuthDAOImpl(OAuthDAO oauthDAO, AccessTokenWriter accessTokenWriter) {
+
+        this.oauthDAO = oauthDAO;
+        this.accessTokenWriter = accessTokenWriter;
+    }
+
+    @Override
+    public Optional<Optional<String>> getRedirectUri(String clientId) throws OAuthDAOException {
+
+        return oauthDAO.getRedirectUri(clientId);
+    }
+
+    @Override
+    public void addAuthCodeInfo(String authCode, String clientId, String scope, @Nullable URI redirectUri)
+            throws OAuthDAOException {
+
+        oauthDAO.addAuthCodeInfo(authCode, clientId, scope, redirectUri);
+    }
+
+    @Override
+    @CheckForNull
+    public String getScopeForAuthCode(String authCode, String clientId, @Nullable URI redirectUri)
+            throws OAuthDAOException {
+
+        return oauthDAO.getScopeForAuthCode(authCode, clientId, redirectUri);
+    }
+
+    @Override
+    public boolean isClientCredentialsValid(String clientId, String clientSecret) throws OAuthDAOException {
+
+        return oauthDAO.isClientCredentialsValid(clientId, clientSecret);
+    }
+
+    @Override
+    public void addAccessTokenInfo(AccessTokenData accessTokenData) throws OAuthDAOException {
+
+        accessTokenWriter.add(accessTokenData);
+    }
+
+    @Override
+    public void addAccessTokenInfo(List<AccessTokenData> accessTokenDataList) throws OAuthDAOException {
+
+        for (AccessTokenData accessTokenData : accessTokenDataList) {
+            accessTokenWriter.add(accessTokenData);
+        }
+    }
+
+    @Override
+    public AccessTokenDTO getTokenInfo(String authUser, String grantType, String clientId, String scopes)
+            throws OAuthDAOException {
+
+        AccessTokenData pendingToken = accessTokenWriter.getPendingAccessToken(authUser, grantType, clientId, scopes);
+        if (pendingToken != null) {
+            return toAccessTokenDTO(pendingToken);
+        }
+        return oauthDAO.getTokenInfo(authUser, grantType, clientId, scopes);
+    }
+
+    @Override
+    public AccessTokenDTO getTokenInfo(String accessToken) throws OAuthDAOException {
+
+        AccessTokenData pendingToken = accessTokenWriter.getPendingAccessToken(accessToken);
+        if (pendingToken != null) {
+            return toAccessTokenDTO(pendingToken);
+        }
+        return oauthDAO.getTokenInfo(accessToken);
+    }
+
+    @Override
+    public AccessTokenDTO getTokenInfo(String refreshToken, String consumerKey) throws OAuthDAOException {
+
+        AccessTokenData pendingToken = accessTokenWriter.getPendingRefreshToken(refreshToken);
+        if (pendingToken != null && pendingToken.getClientId().equals(consumerKey)) {
+            return toAccessTokenDTO(pendingToken);
+        }
+        return oauthDAO.getTokenInfo(refreshToken, consumerKey);
+    }
+
+    @Override
+    public Set<String> getInactiveAccessTokens(long unexpiredAt) throws OAuthDAOException {
+
+        return oauthDAO.getInactiveAccessTokens(unexpiredAt);
+    }
+
+    @Override
+    public List<String> deleteExpiredAccessTokens(long expiredBefore, int limit) throws OAuthDAOException {
+
+        return oauthDAO.deleteExpiredAccessTokens(expiredBefore, limit);
+    }
+
+    @Override
+    public int deleteAuthCodes(long createdBefore, int limit) throws OAuthDAOException {
+
+        return oauthDAO.deleteAuthCodes(createdBefore, limit);
+    }
+
+    private static AccessTokenDTO toAccessTokenDTO(AccessTokenData accessTokenData) {
+
+        AccessTokenDTO accessTokenDTO = new AccessTokenDTO();
+        accessTokenDTO.setAccessToken(accessTokenData.getAccessToken());
+        accessTokenDTO.setRefreshToken(accessTokenData.getRefreshToken());
+        accessTokenDTO.setConsumerKey(accessTokenData.getClientId());
+        accessTokenDTO.setAuthUser(accessTokenData.getAuthUser());
+        accessTokenDTO.setTimeCreated(accessTokenData.getAccessTokenCreatedTime().toEpochMilli());
+        accessTokenDTO.setRefreshTokenCreatedTime(accessTokenData.getRefreshTokenCreatedTime() == null ? 0 :
+                accessTokenData.getRefreshTokenCreatedTime().toEpochMilli());
+        accessTokenDTO.setValidityPeriod(accessTokenData.getAccessTokenValidityPeriod());
+        accessTokenDTO.setRefreshTokenValidityPeriod(accessTokenData.getRefreshTokenValidityPeriod());
+        accessTokenDTO.setTokenScopeHash(accessTokenData.getHashedScopes());
+        accessTokenDTO.setTokenState(accessTokenData.getTokenState().toString());
+        accessTokenDTO.setGrantType(accessTokenData.getGrantType());
+        accessTokenDTO.setScopes(String.join(" ", accessTokenData.getScopes()));
+        return accessTokenDTO;
+    }
+}
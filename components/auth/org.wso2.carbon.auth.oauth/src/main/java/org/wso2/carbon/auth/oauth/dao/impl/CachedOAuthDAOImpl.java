@@ -0,0 +1,142 @@
+/*
+ *
+ *   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+
+package org.wso2.carbon.auth.oauth.dao.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.oauth.cache.AccessTokenCache;
+import org.wso2.carbon.auth.oauth.dao.OAuthDAO;
+import org.wso2.carbon.auth.oauth.dto.AccessTokenDTO;
+import org.wso2.carbon.auth.oauth.dto.AccessTokenData;
+import org.wso2.carbon.auth.oauth.exception.OAuthDAOException;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.CheckForNull;
+import javax.annotation.Nullable;
+
+/**
+ * OAuthDAO implementation which serves access token lookups from the access token cache and delegates everything
+ * else to the wrapped OAuthDAO
+ */
+public class CachedOAuthDAOImpl implements OAuthDAO {
+    private static final Logger log = LoggerFactory.getLogger(CachedOAuthDAOImpl.class);
+    private final OAuthDAO oauthDAO;
+    private final AccessTokenCache accessTokenCache;
+
+    /**
+     * Constructor is package private, use factory class to create an instance of this class
+     */
+    CachedOAuthDAOImpl(OAuthDAO oauthDAO, AccessTokenCache accessTokenCache) {
+
+        this.oauthDAO = oauthDAO;
+        this.accessTokenCache = accessTokenCache;
+    }
+
+    @Override
+    public Optional<Optional<String>> getRedirectUri(String clientId) throws OAuthDAOException {
+
+        return oauthDAO.getRedirectUri(clientId);
+    }
+
+    @Override
+    public void addAuthCodeInfo(String authCode, String clientId, String scope, @Nullable URI redirectUri)
+            throws OAuthDAOException {
+
+        oauthDAO.addAuthCodeInfo(authCode, clientId, scope, redirectUri);
+    }
+
+    @Override
+    @CheckForNull
+    public String getScopeForAuthCode(String authCode, String clientId, @Nullable URI redirectUri)
+            throws OAuthDAOException {
+
+        return oauthDAO.getScopeForAuthCode(authCode, clientId, redirectUri);
+    }
+
+    @Override
+    public boolean isClientCredentialsValid(String clientId, String clientSecret) throws OAuthDAOException {
+
+        return oauthDAO.isClientCredentialsValid(clientId, clientSecret);
+    }
+
+    @Override
+    public void addAccessTokenInfo(AccessTokenData accessTokenData) throws OAuthDAOException {
+
+        oauthDAO.addAccessTokenInfo(accessTokenData);
+    }
+
+    @Override
+    public void addAccessTokenInfo(List<AccessTokenData> accessTokenDataList) throws OAuthDAOException {
+
+        oauthDAO.addAccessTokenInfo(accessTokenDataList);
+    }
+
+    @Override
+    public AccessTokenDTO getTokenInfo(String authUser, String grantType, String clientId, String scopes)
+            throws OAuthDAOException {
+
+        return oauthDAO.getTokenInfo(authUser, grantType, clientId, scopes);
+    }
+
+    @Override
+    public AccessTokenDTO getTokenInfo(String accessToken) throws OAuthDAOException {
+
+        AccessTokenDTO accessTokenDTO = accessTokenCache.get(accessToken);
+        if (accessTokenDTO != null) {
+            log.debug("Access token found in cache");
+            return accessTokenDTO;
+        }
+        accessTokenDTO = oauthDAO.getTokenInfo(accessToken);
+        accessTokenCache.put(accessTokenDTO);
+        return accessTokenDTO;
+    }
+
+    @Override
+    public AccessTokenDTO getTokenInfo(String refreshToken, String consumerKey) throws OAuthDAOException {
+
+        return oauthDAO.getTokenInfo(refreshToken, consumerKey);
+    }
+
+    @Override
+    public Set<String> getInactiveAccessTokens(long unexpiredAt) throws OAuthDAOException {
+
+        return oauthDAO.getInactiveAccessTokens(unexpiredAt);
+    }
+
+    @Override
+    public List<String> deleteExpiredAccessTokens(long expiredBefore, int limit) throws OAuthDAOException {
+
+        List<String> deletedTokens = oauthDAO.deleteExpiredAccessTokens(expiredBefore, limit);
+        for (String accessToken : deletedTokens) {
+            accessTokenCache.invalidate(accessToken);
+        }
+        return deletedTokens;
+    }
+
+    @Override
+    public int deleteAuthCodes(long createdBefore, int limit) throws OAuthDAOException {
+
+        return oauthDAO.deleteAuthCodes(createdBefore, limit);
+    }
+}
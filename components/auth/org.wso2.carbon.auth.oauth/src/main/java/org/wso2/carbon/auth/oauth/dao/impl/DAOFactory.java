@@ -22,6 +22,7 @@ package org.wso2.carbon.auth.oauth.dao.impl;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.oauth.cache.AccessTokenCache;
 import org.wso2.carbon.auth.oauth.dao.OAuthDAO;
 import org.wso2.carbon.auth.oauth.exception.OAuthDAOException;
 
@@ -40,6 +41,15 @@ public class DAOFactory {
     private static final String ORACLE = "Oracle";
 
     public static OAuthDAO getClientDAO() throws OAuthDAOException {
-        return new OAuthDAOImpl();
+        OAuthDAO oauthDAO = new OAuthDAOImpl();
+        AccessTokenWriter accessTokenWriter = AccessTokenWriter.getInstance();
+        if (accessTokenWriter.isEnabled()) {
+            oauthDAO = new AsyncOAuthDAOImpl(oauthDAO, accessTokenWriter);
+        }
+        AccessTokenCache accessTokenCache = AccessTokenCache.getInstance();
+        if (accessTokenCache.isEnabled()) {
+            return new CachedOAuthDAOImpl(oauthDAO, accessTokenCache);
+        }
+        return oauthDAO;
     }
 }
@@ -22,6 +22,11 @@ package org.wso2.carbon.auth.oauth.dao.impl;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.client.registration.ClientSecretVerifier;
+import org.wso2.carbon.auth.client.registration.cache.ApplicationCache;
+import org.wso2.carbon.auth.client.registration.cache.ApplicationIdCache;
+import org.wso2.carbon.auth.client.registration.exception.ClientRegistrationDAOException;
+import org.wso2.carbon.auth.client.registration.model.Application;
 import org.wso2.carbon.auth.core.datasource.DAOUtil;
 import org.wso2.carbon.auth.oauth.constants.JDBCAuthConstants;
 import org.wso2.carbon.auth.oauth.dao.OAuthDAO;
@@ -34,13 +39,16 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
-import java.sql.Timestamp;
+import java.sql.Statement;
 import java.sql.Types;
 import java.util.ArrayList;
-import java.util.Calendar;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.TimeZone;
+import java.util.Set;
 import javax.annotation.CheckForNull;
 import javax.annotation.Nullable;
 
@@ -49,7 +57,18 @@ import javax.annotation.Nullable;
  */
 public class OAuthDAOImpl implements OAuthDAO {
     private static final Logger log = LoggerFactory.getLogger(OAuthDAOImpl.class);
-    private static final String UTC = "UTC";
+    // token row joined with its scopes, a token with n scopes comes as n rows
+    private static final String TOKEN_INFO_QUERY = "SELECT AUTH_OAUTH2_ACCESS_TOKEN.ID, ACCESS_TOKEN, REFRESH_TOKEN, "
+            + "CLIENT_ID, AUTH_OAUTH2_ACCESS_TOKEN.AUTHZ_USER, TIME_CREATED, REFRESH_TOKEN_TIME_CREATED, "
+            + "VALIDITY_PERIOD, REFRESH_TOKEN_VALIDITY_PERIOD, TOKEN_SCOPE_HASH, TOKEN_STATE, USER_TYPE, GRANT_TYPE, "
+            + "TOKEN_SCOPE FROM AUTH_OAUTH2_ACCESS_TOKEN INNER JOIN AUTH_OAUTH2_APPLICATION ON "
+            + "AUTH_OAUTH2_ACCESS_TOKEN.CONSUMER_KEY_ID = AUTH_OAUTH2_APPLICATION.ID LEFT OUTER JOIN "
+            + "AUTH_OAUTH2_ACCESS_TOKEN_SCOPE ON AUTH_OAUTH2_ACCESS_TOKEN_SCOPE.TOKEN_ID = "
+            + "AUTH_OAUTH2_ACCESS_TOKEN.ID ";
+    private static final String TOKEN_INFO_ORDER = "ORDER BY AUTH_OAUTH2_ACCESS_TOKEN.ID, "
+            + "AUTH_OAUTH2_ACCESS_TOKEN_SCOPE.ID";
+    // number of access tokens bound to a single IN clause when reading back generated IDs
+    private static final int MAX_TOKENS_PER_QUERY = 500;
 
     /**
      * Constructor is package private, use factory class to create an instance of this class
@@ -60,6 +79,17 @@ public class OAuthDAOImpl implements OAuthDAO {
     @Override
     public Optional<Optional<String>> getRedirectUri(String clientId) throws OAuthDAOException {
         log.debug("Calling getRedirectUri for clientId: {}", clientId);
+        if (ApplicationCache.getInstance().isEnabled()) {
+            try {
+                Application application = org.wso2.carbon.auth.client.registration.dao.impl.DAOFactory
+                        .getApplicationDAO().getApplication(clientId);
+                return application != null ? Optional.of(Optional.ofNullable(application.getCallBackUrl())) :
+                        Optional.empty();
+            } catch (ClientRegistrationDAOException e) {
+                throw new OAuthDAOException(
+                        String.format("Error occurred while getting client public info(clientId : %s", clientId), e);
+            }
+        }
         final String query = "SELECT REDIRECT_URI FROM AUTH_OAUTH2_APPLICATION WHERE CLIENT_ID = ?";
 
         try (Connection connection = DAOUtil.getAuthConnection();
@@ -129,18 +159,18 @@ public class OAuthDAOImpl implements OAuthDAO {
     public boolean isClientCredentialsValid(String clientId, String clientSecret) throws OAuthDAOException {
         log.debug("Calling isClientCredentialsValid for clientId: {}", clientId);
 
-        final String query = "SELECT 1 FROM AUTH_OAUTH2_APPLICATION WHERE CLIENT_ID = ? AND CLIENT_SECRET = ?";
+        final String query = "SELECT CLIENT_SECRET FROM AUTH_OAUTH2_APPLICATION WHERE CLIENT_ID = ?";
 
         try (Connection connection = DAOUtil.getAuthConnection();
                 PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, clientId);
-            statement.setString(2, clientSecret);
 
             try (ResultSet rs = statement.executeQuery()) {
-                return rs.next();
+                return rs.next() && ClientSecretVerifier.getInstance().verify(clientId, clientSecret,
+                        rs.getString("CLIENT_SECRET"));
             }
 
-        } catch (SQLException e) {
+        } catch (SQLException | ClientRegistrationDAOException e) {
             throw new OAuthDAOException(
                     "Error occurred while checking if client credentials valid(clientId: " + clientId, e);
         }
@@ -150,11 +180,64 @@ public class OAuthDAOImpl implements OAuthDAO {
     public void addAccessTokenInfo(AccessTokenData accessTokenData) throws OAuthDAOException {
         log.debug("Calling addAccessTokenInfo for clientId: {}", accessTokenData.getClientId());
 
+        try {
+            List<AccessTokenData> accessTokenDataList = Collections.singletonList(accessTokenData);
+            addAccessTokenInfoInDB(accessTokenDataList, getApplicationIds(accessTokenDataList));
+        } catch (SQLException e) {
+            throw new OAuthDAOException(
+                    "Error occurred while adding access token info(clientId: " + accessTokenData.getClientId(), e);
+        }
+    }
+
+    @Override
+    public void addAccessTokenInfo(List<AccessTokenData> accessTokenDataList) throws OAuthDAOException {
+        log.debug("Calling addAccessTokenInfo for {} tokens", accessTokenDataList.size());
+
+        try {
+            addAccessTokenInfoInDB(accessTokenDataList, getApplicationIds(accessTokenDataList));
+        } catch (SQLException e) {
+            throw new OAuthDAOException("Error occurred while adding info of " + accessTokenDataList.size()
+                    + " access tokens", e);
+        }
+    }
+
+    /**
+     * Resolve the application IDs of the clients the tokens are issued to, so that the token rows can be inserted
+     * without looking up the application table within the insert
+     *
+     * @param accessTokenDataList tokens to be stored
+     * @return application IDs by client ID
+     * @throws OAuthDAOException if a client is not registered or its application cannot be retrieved
+     */
+    private Map<String, Integer> getApplicationIds(List<AccessTokenData> accessTokenDataList)
+            throws OAuthDAOException {
+
+        Map<String, Integer> applicationIds = new HashMap<>();
+        try {
+            for (AccessTokenData accessTokenData : accessTokenDataList) {
+                String clientId = accessTokenData.getClientId();
+                if (!applicationIds.containsKey(clientId)) {
+                    Integer applicationId = ApplicationIdCache.getInstance().getApplicationId(clientId);
+                    if (applicationId == null) {
+                        throw new OAuthDAOException("No application found for clientId: " + clientId);
+                    }
+                    applicationIds.put(clientId, applicationId);
+                }
+            }
+        } catch (ClientRegistrationDAOException e) {
+            throw new OAuthDAOException("Error occurred while retrieving the application of access tokens", e);
+        }
+        return applicationIds;
+    }
+
+    private void addAccessTokenInfoInDB(List<AccessTokenData> accessTokenDataList,
+            Map<String, Integer> applicationIds) throws SQLException {
+
         try (Connection connection = DAOUtil.getAuthConnection()) {
             try {
                 connection.setAutoCommit(false);
-                addAccessTokenInfoInDB(connection, accessTokenData);
-                persistingTokenScopes(connection, accessTokenData);
+                List<Integer> tokenIds = addAccessTokenInfoInDB(connection, accessTokenDataList, applicationIds);
+                persistingTokenScopes(connection, accessTokenDataList, tokenIds);
                 connection.commit();
             } catch (SQLException e) {
                 connection.rollback();
@@ -162,237 +245,315 @@ public class OAuthDAOImpl implements OAuthDAO {
             } finally {
                 connection.setAutoCommit(DAOUtil.isAutoCommitAuth());
             }
-        } catch (SQLException e) {
-            throw new OAuthDAOException(
-                    "Error occurred while adding access token info(clientId: " + accessTokenData.getClientId(), e);
         }
-
     }
 
     @Override
     public AccessTokenDTO getTokenInfo(String authUser, String grantType, String clientId, String hashedscopes)
             throws OAuthDAOException {
         log.debug("Calling getTokenInfo for clientId: {}", clientId);
-        AccessTokenDTO tokenDTO = getTokenInfoWithoutScopes(authUser, grantType, clientId, hashedscopes);
-        if (tokenDTO != null) {
-            return getTokenInfoScopes(tokenDTO);
-        }
-        return null;
-    }
+        final String query = TOKEN_INFO_QUERY + "WHERE AUTH_OAUTH2_ACCESS_TOKEN.AUTHZ_USER = ? AND GRANT_TYPE = ? "
+                + "AND CLIENT_ID = ? AND TOKEN_STATE = 'ACTIVE' AND TOKEN_SCOPE_HASH = ? " + TOKEN_INFO_ORDER;
 
-    private AccessTokenDTO getTokenInfoWithoutScopes(String authUser, String grantType, String clientId,
-            String hashedscopes) throws OAuthDAOException {
-        log.debug("Calling getTokenInfoWithoutScopes for clientId: {}", clientId);
-        final String query =
-                "SELECT ACCESS_TOKEN, REFRESH_TOKEN, CONSUMER_KEY_ID, AUTHZ_USER, GRANT_TYPE, TIME_CREATED, "
-                        + "REFRESH_TOKEN_TIME_CREATED, VALIDITY_PERIOD, REFRESH_TOKEN_VALIDITY_PERIOD, TOKEN_STATE "
-                        + "FROM AUTH_OAUTH2_ACCESS_TOKEN WHERE AUTHZ_USER = ? AND GRANT_TYPE = ? AND "
-                        + "CONSUMER_KEY_ID = (SELECT ID FROM AUTH_OAUTH2_APPLICATION WHERE "
-                        + "CLIENT_ID  = ? ) AND TOKEN_STATE = 'ACTIVE' AND TOKEN_SCOPE_HASH = ?";
-        AccessTokenDTO accessTokenDTO = new AccessTokenDTO();
         try (Connection connection = DAOUtil.getAuthConnection();
                 PreparedStatement statement = connection.prepareStatement(query)) {
-
             statement.setString(1, authUser);
             statement.setString(2, grantType);
             statement.setString(3, clientId);
             statement.setString(4, hashedscopes);
-            try (ResultSet rs = statement.executeQuery()) {
-                if (rs.next()) {
-                    accessTokenDTO.setAccessToken(rs.getString(JDBCAuthConstants.ACCESS_TOKEN));
-                    accessTokenDTO.setRefreshToken(rs.getString(JDBCAuthConstants.REFRESH_TOKEN));
-                    accessTokenDTO.setAuthUser(rs.getString(JDBCAuthConstants.AUTHZ_USER));
-                    accessTokenDTO.setTimeCreated(rs.getTimestamp(JDBCAuthConstants.TIME_CREATED,
-                            Calendar.getInstance(TimeZone.getTimeZone(UTC))).getTime());
-                    Timestamp timestamp = rs.getTimestamp(JDBCAuthConstants.REFRESH_TOKEN_TIME_CREATED,
-                            Calendar.getInstance(TimeZone.getTimeZone(UTC)));
-                    accessTokenDTO.setRefreshTokenCreatedTime(timestamp == null ? 0 : timestamp.getTime());
-                    accessTokenDTO.setValidityPeriod(rs.getInt(JDBCAuthConstants.VALIDITY_PERIOD));
-                    accessTokenDTO
-                            .setRefreshTokenValidityPeriod(rs.getInt(JDBCAuthConstants.REFRESH_TOKEN_VALIDITY_PERIOD));
-                    accessTokenDTO.setTokenState(rs.getString(JDBCAuthConstants.TOKEN_STATE));
-                    accessTokenDTO.setGrantType(rs.getString(JDBCAuthConstants.GRANT_TYPE));
-                    return accessTokenDTO;
-                }
-            }
+            return readTokenInfo(statement);
         } catch (SQLException e) {
             throw new OAuthDAOException(
                     "Error occurred while checking if auth code info is valid(clientId: " + clientId, e);
         }
-        return null;
     }
 
     @Override
     public AccessTokenDTO getTokenInfo(String accessToken) throws OAuthDAOException {
-        AccessTokenDTO tokenDTO = getTokenInfoWithoutScopes(accessToken);
-        if (tokenDTO != null) {
-            return getTokenInfoScopes(tokenDTO);
+        log.debug("Calling getTokenInfo for accessToken");
+        final String query = TOKEN_INFO_QUERY + "WHERE ACCESS_TOKEN = ? " + TOKEN_INFO_ORDER;
+
+        try (Connection connection = DAOUtil.getAuthConnection();
+                PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setString(1, accessToken);
+            return readTokenInfo(statement);
+        } catch (SQLException e) {
+            throw new OAuthDAOException("Error occurred while getting token information", e);
         }
-        return null;
     }
 
-    private AccessTokenDTO getTokenInfoWithoutScopes(String accessToken) throws OAuthDAOException {
-        log.debug("Calling getTokenInfo without scopes for accessToken");
-        AccessTokenDTO accessTokenDTO = new AccessTokenDTO();
-        final String query = "SELECT AUTH_OAUTH2_ACCESS_TOKEN.ID, ACCESS_TOKEN, REFRESH_TOKEN, CLIENT_ID, "
-                + "AUTH_OAUTH2_ACCESS_TOKEN.AUTHZ_USER, TIME_CREATED, REFRESH_TOKEN_TIME_CREATED, VALIDITY_PERIOD, "
-                + "REFRESH_TOKEN_VALIDITY_PERIOD, TOKEN_SCOPE_HASH, TOKEN_STATE, USER_TYPE, GRANT_TYPE "
-                + "FROM AUTH_OAUTH2_ACCESS_TOKEN INNER JOIN  AUTH_OAUTH2_APPLICATION  ON ACCESS_TOKEN = ? AND "
-                + "AUTH_OAUTH2_ACCESS_TOKEN.CONSUMER_KEY_ID = AUTH_OAUTH2_APPLICATION.ID";
+    @Override
+    public AccessTokenDTO getTokenInfo(String refreshToken, String consumerkey) throws OAuthDAOException {
+        log.debug("Calling getTokenInfo from refreshToken, consumerkey");
+        final String query = TOKEN_INFO_QUERY + "WHERE REFRESH_TOKEN = ? AND CLIENT_ID = ? " + TOKEN_INFO_ORDER;
 
         try (Connection connection = DAOUtil.getAuthConnection();
                 PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setString(1, accessToken);
-
-            try (ResultSet rs = statement.executeQuery()) {
-                if (rs.next()) {
-                    accessTokenDTO.setTokenID(rs.getInt(JDBCAuthConstants.ID));
-                    accessTokenDTO.setAccessToken(rs.getString(JDBCAuthConstants.ACCESS_TOKEN));
-                    accessTokenDTO.setRefreshToken(rs.getString(JDBCAuthConstants.REFRESH_TOKEN));
-                    accessTokenDTO.setConsumerKey(rs.getString(JDBCAuthConstants.CLIENT_ID));
-                    accessTokenDTO.setAuthUser(rs.getString(JDBCAuthConstants.AUTHZ_USER));
-                    accessTokenDTO.setTimeCreated(rs.getTimestamp(JDBCAuthConstants.TIME_CREATED,
-                            Calendar.getInstance(TimeZone.getTimeZone(UTC))).getTime());
-                    Timestamp timestamp = rs.getTimestamp(JDBCAuthConstants.REFRESH_TOKEN_TIME_CREATED,
-                            Calendar.getInstance(TimeZone.getTimeZone(UTC)));
-                    accessTokenDTO.setRefreshTokenCreatedTime(timestamp == null ? 0 : timestamp.getTime());
-                    accessTokenDTO.setValidityPeriod(rs.getLong(JDBCAuthConstants.VALIDITY_PERIOD));
-                    accessTokenDTO
-                            .setRefreshTokenValidityPeriod(rs.getLong(JDBCAuthConstants.REFRESH_TOKEN_VALIDITY_PERIOD));
-                    accessTokenDTO.setTokenScopeHash(rs.getString(JDBCAuthConstants.TOKEN_SCOPE_HASH));
-                    accessTokenDTO.setTokenState(rs.getString(JDBCAuthConstants.TOKEN_STATE));
-                    accessTokenDTO.setUserType(rs.getString(JDBCAuthConstants.USER_TYPE));
-                    accessTokenDTO.setGrantType(rs.getString(JDBCAuthConstants.GRANT_TYPE));
-                    return accessTokenDTO;
-                }
-            }
+            statement.setString(1, refreshToken);
+            statement.setString(2, consumerkey);
+            return readTokenInfo(statement);
         } catch (SQLException e) {
             throw new OAuthDAOException("Error occurred while getting token information", e);
         }
-        return null;
     }
 
-    private AccessTokenDTO getTokenInfoScopes(AccessTokenDTO accessTokenDTO) throws OAuthDAOException {
-        log.debug("Calling getTokenInfo with scopes for accessToken");
-        final String query = "SELECT TOKEN_SCOPE FROM AUTH_OAUTH2_ACCESS_TOKEN_SCOPE INNER JOIN "
-                + "AUTH_OAUTH2_ACCESS_TOKEN ON AUTH_OAUTH2_ACCESS_TOKEN_SCOPE.TOKEN_ID=AUTH_OAUTH2_ACCESS_TOKEN.ID "
-                + "AND ACCESS_TOKEN = ?";
-        List<String> scopes = new ArrayList<>();
+    /**
+     * Read the first token returned by a token info query. The query returns a row per scope of the token, the
+     * scopes are collected from the rows of the token.
+     *
+     * @param statement token info query with its parameters set
+     * @return token information or null if there is no matching token
+     * @throws SQLException if the query fails
+     */
+    private AccessTokenDTO readTokenInfo(PreparedStatement statement) throws SQLException {
+
+        try (ResultSet rs = statement.executeQuery()) {
+            if (!rs.next()) {
+                return null;
+            }
+            AccessTokenDTO accessTokenDTO = new AccessTokenDTO();
+            accessTokenDTO.setTokenID(rs.getInt(JDBCAuthConstants.ID));
+            accessTokenDTO.setAccessToken(rs.getString(JDBCAuthConstants.ACCESS_TOKEN));
+            accessTokenDTO.setRefreshToken(rs.getString(JDBCAuthConstants.REFRESH_TOKEN));
+            accessTokenDTO.setConsumerKey(rs.getString(JDBCAuthConstants.CLIENT_ID));
+            accessTokenDTO.setAuthUser(rs.getString(JDBCAuthConstants.AUTHZ_USER));
+            accessTokenDTO.setTimeCreated(rs.getLong(JDBCAuthConstants.TIME_CREATED));
+            accessTokenDTO.setRefreshTokenCreatedTime(rs.getLong(JDBCAuthConstants.REFRESH_TOKEN_TIME_CREATED));
+            accessTokenDTO.setValidityPeriod(rs.getLong(JDBCAuthConstants.VALIDITY_PERIOD));
+            accessTokenDTO.setRefreshTokenValidityPeriod(rs.getLong(JDBCAuthConstants.REFRESH_TOKEN_VALIDITY_PERIOD));
+            accessTokenDTO.setTokenScopeHash(rs.getString(JDBCAuthConstants.TOKEN_SCOPE_HASH));
+            accessTokenDTO.setTokenState(rs.getString(JDBCAuthConstants.TOKEN_STATE));
+            accessTokenDTO.setUserType(rs.getString(JDBCAuthConstants.USER_TYPE));
+            accessTokenDTO.setGrantType(rs.getString(JDBCAuthConstants.GRANT_TYPE));
+
+            List<String> scopes = new ArrayList<>();
+            do {
+                if (rs.getInt(JDBCAuthConstants.ID) != accessTokenDTO.getTokenID()) {
+                    break;
+                }
+                String scope = rs.getString(JDBCAuthConstants.TOKEN_SCOPE);
+                if (scope != null) {
+                    scopes.add(scope);
+                }
+            } while (rs.next());
+            accessTokenDTO.setScopes(String.join(" ", scopes));
+            return accessTokenDTO;
+        }
+    }
+
+    @Override
+    public Set<String> getInactiveAccessTokens(long unexpiredAt) throws OAuthDAOException {
+        log.debug("Calling getInactiveAccessTokens for tokens not expired at {}", unexpiredAt);
+        // the negation of the expiry condition of deleteExpiredAccessTokens
+        final String query = "SELECT ACCESS_TOKEN FROM AUTH_OAUTH2_ACCESS_TOKEN WHERE TOKEN_STATE <> 'ACTIVE' "
+                + "AND (VALIDITY_PERIOD < 0 OR TIME_CREATED >= ? OR VALIDITY_PERIOD >= (? - TIME_CREATED) / 1000)";
+        Set<String> accessTokens = new HashSet<>();
         try (Connection connection = DAOUtil.getAuthConnection();
                 PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setString(1, accessTokenDTO.getAccessToken());
-
+            statement.setLong(1, unexpiredAt);
+            statement.setLong(2, unexpiredAt);
             try (ResultSet rs = statement.executeQuery()) {
                 while (rs.next()) {
-                    scopes.add(rs.getString(JDBCAuthConstants.TOKEN_SCOPE));
+                    accessTokens.add(rs.getString(JDBCAuthConstants.ACCESS_TOKEN));
                 }
             }
         } catch (SQLException e) {
-            throw new OAuthDAOException("Error occurred while getting token information", e);
+            throw new OAuthDAOException("Error occurred while getting inactive access tokens", e);
         }
-        accessTokenDTO.setScopes(String.join(" ", scopes));
-        return accessTokenDTO;
+        return accessTokens;
     }
 
     @Override
-    public AccessTokenDTO getTokenInfo(String refreshToken, String consumerkey) throws OAuthDAOException {
-        AccessTokenDTO tokenDTO = getTokenInfoWithoutScopes(refreshToken, consumerkey);
-        if (tokenDTO != null) {
-            return getTokenInfoScopes(tokenDTO);
+    public List<String> deleteExpiredAccessTokens(long expiredBefore, int limit) throws OAuthDAOException {
+        log.debug("Calling deleteExpiredAccessTokens for tokens expired before {}", expiredBefore);
+
+        // TIME_CREATED < ? lets the creation time index narrow the scan, validity periods are compared in whole
+        // seconds so that large periods cannot overflow
+        final String condition = "TIME_CREATED < ? "
+                + "AND VALIDITY_PERIOD >= 0 AND VALIDITY_PERIOD < (? - TIME_CREATED) / 1000 "
+                + "AND (TOKEN_STATE <> 'ACTIVE' OR REFRESH_TOKEN_TIME_CREATED IS NULL "
+                + "OR (REFRESH_TOKEN_TIME_CREATED < ? AND REFRESH_TOKEN_VALIDITY_PERIOD >= 0 "
+                + "AND REFRESH_TOKEN_VALIDITY_PERIOD < (? - REFRESH_TOKEN_TIME_CREATED) / 1000))";
+        final String query = "SELECT ID, ACCESS_TOKEN FROM AUTH_OAUTH2_ACCESS_TOKEN WHERE " + condition;
+        final String deleteQuery = "DELETE FROM AUTH_OAUTH2_ACCESS_TOKEN WHERE ID = ? AND " + condition;
+
+        try {
+            return deleteRows(query, deleteQuery, limit, expiredBefore, expiredBefore, expiredBefore,
+                    expiredBefore);
+        } catch (SQLException e) {
+            throw new OAuthDAOException("Error occurred while deleting access tokens expired before "
+                    + expiredBefore, e);
         }
-        return null;
     }
 
-    private AccessTokenDTO getTokenInfoWithoutScopes(String refreshToken, String consumerkey) throws OAuthDAOException {
-        log.debug("Calling getTokenInfo from refreshToken, consumerkey");
-        AccessTokenDTO accessTokenDTO = new AccessTokenDTO();
-        final String query = "SELECT AUTH_OAUTH2_ACCESS_TOKEN_SCOPE.TOKEN_ID, ACCESS_TOKEN, REFRESH_TOKEN, CLIENT_ID, "
-                + "AUTH_OAUTH2_ACCESS_TOKEN.AUTHZ_USER, TIME_CREATED, REFRESH_TOKEN_TIME_CREATED, VALIDITY_PERIOD, "
-                + "REFRESH_TOKEN_VALIDITY_PERIOD, TOKEN_SCOPE_HASH, TOKEN_STATE, USER_TYPE, GRANT_TYPE, TOKEN_SCOPE "
-                + "FROM AUTH_OAUTH2_ACCESS_TOKEN INNER JOIN  AUTH_OAUTH2_APPLICATION  ON REFRESH_TOKEN = ? AND "
-                + "CLIENT_ID = ? AND AUTH_OAUTH2_ACCESS_TOKEN.CONSUMER_KEY_ID = AUTH_OAUTH2_APPLICATION.ID "
-                + "LEFT OUTER JOIN AUTH_OAUTH2_ACCESS_TOKEN_SCOPE ON AUTH_OAUTH2_ACCESS_TOKEN_SCOPE.TOKEN_ID = "
-                + "AUTH_OAUTH2_ACCESS_TOKEN.ID";
+    @Override
+    public int deleteAuthCodes(long createdBefore, int limit) throws OAuthDAOException {
+        log.debug("Calling deleteAuthCodes for codes created before {}", createdBefore);
 
-        try (Connection connection = DAOUtil.getAuthConnection();
-                PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setString(1, refreshToken);
-            statement.setString(2, consumerkey);
+        final String query = "SELECT CODE_ID, AUTHORIZATION_CODE FROM AUTH_OAUTH2_AUTHORIZATION_CODE "
+                + "WHERE TIME_CREATED < ?";
+        final String deleteQuery = "DELETE FROM AUTH_OAUTH2_AUTHORIZATION_CODE WHERE CODE_ID = ? AND TIME_CREATED < ?";
 
-            try (ResultSet rs = statement.executeQuery()) {
-                if (rs.next()) {
-                    accessTokenDTO.setTokenID(rs.getInt(JDBCAuthConstants.TOKEN_ID));
-                    accessTokenDTO.setAccessToken(rs.getString(JDBCAuthConstants.ACCESS_TOKEN));
-                    accessTokenDTO.setRefreshToken(rs.getString(JDBCAuthConstants.REFRESH_TOKEN));
-                    accessTokenDTO.setConsumerKey(rs.getString(JDBCAuthConstants.CLIENT_ID));
-                    accessTokenDTO.setAuthUser(rs.getString(JDBCAuthConstants.AUTHZ_USER));
-                    accessTokenDTO.setTimeCreated(rs.getTimestamp(JDBCAuthConstants.TIME_CREATED,
-                            Calendar.getInstance(TimeZone.getTimeZone(UTC))).getTime());
-                    accessTokenDTO.setRefreshTokenCreatedTime(
-                            rs.getTimestamp(JDBCAuthConstants.REFRESH_TOKEN_TIME_CREATED,
-                                    Calendar.getInstance(TimeZone.getTimeZone(UTC))).getTime());
-                    accessTokenDTO.setValidityPeriod(rs.getLong(JDBCAuthConstants.VALIDITY_PERIOD));
-                    accessTokenDTO
-                            .setRefreshTokenValidityPeriod(rs.getLong(JDBCAuthConstants.REFRESH_TOKEN_VALIDITY_PERIOD));
-                    accessTokenDTO.setTokenScopeHash(rs.getString(JDBCAuthConstants.TOKEN_SCOPE_HASH));
-                    accessTokenDTO.setTokenState(rs.getString(JDBCAuthConstants.TOKEN_STATE));
-                    accessTokenDTO.setUserType(rs.getString(JDBCAuthConstants.USER_TYPE));
-                    accessTokenDTO.setGrantType(rs.getString(JDBCAuthConstants.GRANT_TYPE));
-                    return accessTokenDTO;
+        try {
+            return deleteRows(query, deleteQuery, limit, createdBefore).size();
+        } catch (SQLException e) {
+            throw new OAuthDAOException("Error occurred while deleting authorization codes created before "
+                    + createdBefore, e);
+        }
+    }
+
+    /**
+     * Delete at most limit of the rows returned by a query of their IDs and keys. The IDs are selected first and
+     * the rows are deleted by primary key in a single short transaction, so that only the deleted rows are locked.
+     * The delete repeats the condition of the query, so a row which changed in between is kept.
+     *
+     * @param query       query of the ID and the key of the rows, with the condition parameters
+     * @param deleteQuery delete of a row by its ID followed by the condition parameters
+     * @return keys of the deleted rows
+     */
+    private List<String> deleteRows(String query, String deleteQuery, int limit, long... parameters)
+            throws SQLException {
+
+        try (Connection connection = DAOUtil.getAuthConnection()) {
+            List<Integer> ids = new ArrayList<>();
+            List<String> keys = new ArrayList<>();
+            try (PreparedStatement statement = connection.prepareStatement(query)) {
+                statement.setMaxRows(limit);
+                for (int i = 0; i < parameters.length; i++) {
+                    statement.setLong(i + 1, parameters[i]);
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next() && ids.size() < limit) {
+                        ids.add(rs.getInt(1));
+                        keys.add(rs.getString(2));
+                    }
                 }
             }
-        } catch (SQLException e) {
-            throw new OAuthDAOException("Error occurred while getting token information", e);
+            if (ids.isEmpty()) {
+                return Collections.emptyList();
+            }
+            List<String> deletedKeys = new ArrayList<>(ids.size());
+            try (PreparedStatement statement = connection.prepareStatement(deleteQuery)) {
+                connection.setAutoCommit(false);
+                for (Integer id : ids) {
+                    statement.setInt(1, id);
+                    for (int i = 0; i < parameters.length; i++) {
+                        statement.setLong(i + 2, parameters[i]);
+                    }
+                    statement.addBatch();
+                }
+                int[] updateCounts = statement.executeBatch();
+                connection.commit();
+                for (int i = 0; i < updateCounts.length; i++) {
+                    if (updateCounts[i] > 0 || updateCounts[i] == Statement.SUCCESS_NO_INFO) {
+                        deletedKeys.add(keys.get(i));
+                    }
+                }
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(DAOUtil.isAutoCommitAuth());
+            }
+            return deletedKeys;
         }
-        return null;
     }
 
-    private void addAccessTokenInfoInDB(Connection connection, AccessTokenData accessTokenData) throws SQLException {
-        log.debug("Calling addAccessTokenInfoInDB for clientId: {}", accessTokenData.getClientId());
+    /**
+     * Insert the token rows as one batch. The generated IDs, which are needed to insert the scopes of the tokens, are
+     * read back afterwards.
+     *
+     * @return generated IDs of the tokens, in the order of the given list
+     */
+    private List<Integer> addAccessTokenInfoInDB(Connection connection, List<AccessTokenData> accessTokenDataList,
+            Map<String, Integer> applicationIds) throws SQLException {
+        log.debug("Calling addAccessTokenInfoInDB for {} tokens", accessTokenDataList.size());
 
         final String query = "INSERT INTO AUTH_OAUTH2_ACCESS_TOKEN"
                 + "(ACCESS_TOKEN, REFRESH_TOKEN, CONSUMER_KEY_ID, AUTHZ_USER, GRANT_TYPE, TIME_CREATED, "
                 + "REFRESH_TOKEN_TIME_CREATED, VALIDITY_PERIOD, REFRESH_TOKEN_VALIDITY_PERIOD, TOKEN_SCOPE_HASH, "
-                + "TOKEN_STATE) SELECT ?,?, (SELECT ID FROM AUTH_OAUTH2_APPLICATION WHERE CLIENT_ID = ?) ,? ,? ,? ,? ,"
-                + "? ,? ,? ,? FROM AUTH_OAUTH2_APPLICATION WHERE CLIENT_ID = ?";
+                + "TOKEN_STATE) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
 
         try (PreparedStatement statement = connection.prepareStatement(query)) {
-            statement.setString(1, accessTokenData.getAccessToken());
-            statement.setString(2, accessTokenData.getRefreshToken());
-            statement.setString(3, accessTokenData.getClientId());
-            statement.setString(4, accessTokenData.getAuthUser());
-            statement.setString(5, accessTokenData.getGrantType());
-            statement.setTimestamp(6, Timestamp.from(accessTokenData.getAccessTokenCreatedTime()),
-                    Calendar.getInstance(TimeZone.getTimeZone(UTC)));
-            if (accessTokenData.getRefreshTokenCreatedTime() != null) {
-                statement.setTimestamp(7, Timestamp.from(accessTokenData.getRefreshTokenCreatedTime()),
-                        Calendar.getInstance(TimeZone.getTimeZone(UTC)));
-            } else {
-                statement.setNull(7, Types.TIMESTAMP);
+            for (AccessTokenData accessTokenData : accessTokenDataList) {
+                statement.setString(1, accessTokenData.getAccessToken());
+                statement.setString(2, accessTokenData.getRefreshToken());
+                statement.setInt(3, applicationIds.get(accessTokenData.getClientId()));
+                statement.setString(4, accessTokenData.getAuthUser());
+                statement.setString(5, accessTokenData.getGrantType());
+                statement.setLong(6, accessTokenData.getAccessTokenCreatedTime().toEpochMilli());
+                if (accessTokenData.getRefreshTokenCreatedTime() != null) {
+                    statement.setLong(7, accessTokenData.getRefreshTokenCreatedTime().toEpochMilli());
+                } else {
+                    statement.setNull(7, Types.BIGINT);
+                }
+                statement.setLong(8, accessTokenData.getAccessTokenValidityPeriod());
+                statement.setLong(9, accessTokenData.getRefreshTokenValidityPeriod());
+                statement.setString(10, accessTokenData.getHashedScopes());
+                statement.setString(11, accessTokenData.getTokenState().toString());
+                statement.addBatch();
             }
-            statement.setLong(8, accessTokenData.getAccessTokenValidityPeriod());
-            statement.setLong(9, accessTokenData.getRefreshTokenValidityPeriod());
-            statement.setString(10, accessTokenData.getHashedScopes());
-            statement.setString(11, accessTokenData.getTokenState().toString());
-            statement.setString(12, accessTokenData.getClientId());
+            statement.executeBatch();
+        }
+        return getAccessTokenIds(connection, accessTokenDataList);
+    }
+
+    /**
+     * Read the IDs generated for inserted tokens by their access tokens, which are unique. Not every driver returns
+     * all the keys generated by a batch.
+     *
+     * @return token IDs in the order of the given tokens
+     */
+    private List<Integer> getAccessTokenIds(Connection connection, List<AccessTokenData> accessTokenDataList)
+            throws SQLException {
 
-            statement.execute();
+        Map<String, Integer> tokenIds = new HashMap<>();
+        for (int from = 0; from < accessTokenDataList.size(); from += MAX_TOKENS_PER_QUERY) {
+            List<AccessTokenData> chunk = accessTokenDataList.subList(from,
+                    Math.min(from + MAX_TOKENS_PER_QUERY, accessTokenDataList.size()));
+            final String query = "SELECT ID, ACCESS_TOKEN FROM AUTH_OAUTH2_ACCESS_TOKEN WHERE ACCESS_TOKEN IN ("
+                    + String.join(", ", Collections.nCopies(chunk.size(), "?")) + ")";
+            try (PreparedStatement statement = connection.prepareStatement(query)) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    statement.setString(i + 1, chunk.get(i).getAccessToken());
+                }
+                try (ResultSet rs = statement.executeQuery()) {
+                    while (rs.next()) {
+                        tokenIds.put(rs.getString(JDBCAuthConstants.ACCESS_TOKEN), rs.getInt(JDBCAuthConstants.ID));
+                    }
+                }
+            }
+        }
+        List<Integer> orderedTokenIds = new ArrayList<>(accessTokenDataList.size());
+        for (AccessTokenData accessTokenData : accessTokenDataList) {
+            Integer tokenId = tokenIds.get(accessTokenData.getAccessToken());
+            if (tokenId == null) {
+                throw new SQLException("No ID found for access token of clientId: " + accessTokenData.getClientId());
+            }
+            orderedTokenIds.add(tokenId);
         }
+        return orderedTokenIds;
     }
 
-    private void persistingTokenScopes(Connection connection, AccessTokenData accessTokenData) throws SQLException {
-        log.debug("Calling persistingTokenScopes for clientId: {}", accessTokenData.getClientId());
+    private void persistingTokenScopes(Connection connection, List<AccessTokenData> accessTokenDataList,
+            List<Integer> tokenIds) throws SQLException {
+        log.debug("Calling persistingTokenScopes for {} tokens", accessTokenDataList.size());
 
-        final String query = "INSERT INTO AUTH_OAUTH2_ACCESS_TOKEN_SCOPE (TOKEN_ID, "
-                + "TOKEN_SCOPE) VALUES ((SELECT ID FROM AUTH_OAUTH2_ACCESS_TOKEN WHERE ACCESS_TOKEN = ?),?)";
+        final String query = "INSERT INTO AUTH_OAUTH2_ACCESS_TOKEN_SCOPE (TOKEN_ID, TOKEN_SCOPE) VALUES (?, ?)";
 
         try (PreparedStatement statement = connection.prepareStatement(query)) {
-            for (String scope : accessTokenData.getScopes()) {
-                statement.setString(1, accessTokenData.getAccessToken());
-                statement.setString(2, scope);
-                statement.addBatch();
+            boolean hasScopes = false;
+            for (int i = 0; i < accessTokenDataList.size(); i++) {
+                for (String scope : accessTokenDataList.get(i).getScopes()) {
+                    statement.setInt(1, tokenIds.get(i));
+                    statement.setString(2, scope);
+                    statement.addBatch();
+                    hasScopes = true;
+                }
+            }
+            if (hasScopes) {
+                statement.executeBatch();
             }
-            statement.executeBatch();
         }
     }
 
@@ -401,7 +562,7 @@ public class OAuthDAOImpl implements OAuthDAO {
         log.debug("Calling addAuthCodeInfoInDB for clientId: {}", clientId);
 
         final String query = "INSERT INTO AUTH_OAUTH2_AUTHORIZATION_CODE"
-                + "(CLIENT_ID, AUTHORIZATION_CODE, REDIRECT_URI, SCOPE) VALUES(?, ?, ?, ?)";
+                + "(CLIENT_ID, AUTHORIZATION_CODE, REDIRECT_URI, SCOPE, TIME_CREATED) VALUES(?, ?, ?, ?, ?)";
 
         try (Connection connection = DAOUtil.getAuthConnection();
                 PreparedStatement statement = connection.prepareStatement(query)) {
@@ -418,6 +579,7 @@ public class OAuthDAOImpl implements OAuthDAO {
                 }
 
                 statement.setString(4, scope);
+                statement.setLong(5, System.currentTimeMillis());
 
                 statement.execute();
                 connection.commit();
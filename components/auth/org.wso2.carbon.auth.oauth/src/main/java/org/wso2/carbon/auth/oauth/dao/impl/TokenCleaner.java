@@ -0,0 +1,278 @@
+/*
+ *
+ *   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+
+package org.wso2.carbon.auth.oauth.dao.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.oauth.configuration.models.OAuthConfiguration;
+import org.wso2.carbon.auth.oauth.configuration.models.TokenCleanupConfiguration;
+import org.wso2.carbon.auth.oauth.dao.OAuthDAO;
+import org.wso2.carbon.auth.oauth.exception.OAuthDAOException;
+import org.wso2.carbon.auth.oauth.internal.ServiceReferenceHolder;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Periodically deletes expired access tokens and stale authorization codes on a background thread. Rows are deleted
+ * in small batches with a pause in between, so that a cleanup run never holds locks on many rows at once.
+ */
+public class TokenCleaner {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenCleaner.class);
+    private static volatile TokenCleaner instance;
+
+    private final OAuthDAO oauthDAO;
+    private final boolean enabled;
+    private final long cleanupIntervalMillis;
+    private final long retentionMillis;
+    private final long authCodeRetentionMillis;
+    private final int batchSize;
+    private final long batchIntervalMillis;
+    private final LongAdder purgedAccessTokenCount = new LongAdder();
+    private final LongAdder purgedAuthCodeCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+    private final LongAdder totalBatchTime = new LongAdder();
+    private final LongAdder failedRunCount = new LongAdder();
+    private final AtomicLong lastBatchTime = new AtomicLong();
+    private volatile boolean stopped;
+    private ScheduledExecutorService executor;
+
+    /**
+     * Create a cleaner
+     *
+     * @param oauthDAO      DAO the rows are deleted with
+     * @param configuration token cleanup configurations
+     */
+    public TokenCleaner(OAuthDAO oauthDAO, TokenCleanupConfiguration configuration) {
+
+        this.oauthDAO = oauthDAO;
+        this.enabled = configuration.isEnabled();
+        this.cleanupIntervalMillis = TimeUnit.SECONDS.toMillis(Math.max(1, configuration.getCleanupInterval()));
+        this.retentionMillis = TimeUnit.SECONDS.toMillis(Math.max(0, configuration.getRetentionPeriod()));
+        this.authCodeRetentionMillis = TimeUnit.SECONDS.toMillis(
+                Math.max(0, configuration.getAuthorizationCodeRetentionPeriod()));
+        this.batchSize = Math.max(1, configuration.getBatchSize());
+        this.batchIntervalMillis = Math.max(0, configuration.getBatchInterval());
+    }
+
+    public static TokenCleaner getInstance() throws OAuthDAOException {
+
+        if (instance == null) {
+            synchronized (TokenCleaner.class) {
+                if (instance == null) {
+                    OAuthConfiguration configuration = ServiceReferenceHolder.getInstance().getAuthConfigurations();
+                    TokenCleanupConfiguration cleanupConfiguration = configuration != null ?
+                            configuration.getTokenCleanupConfigs() : new TokenCleanupConfiguration();
+                    // the DAO used for token requests, so that purged tokens are dropped from the token cache
+                    instance = new TokenCleaner(DAOFactory.getClientDAO(), cleanupConfiguration);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Stop the shared cleaner, if it has been started
+     */
+    public static void shutdownInstance() {
+
+        synchronized (TokenCleaner.class) {
+            if (instance != null) {
+                instance.stop();
+                instance = null;
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Schedule the periodic cleanup, the first run starts after a cleanup interval
+     */
+    public synchronized void start() {
+
+        if (!enabled || executor != null) {
+            return;
+        }
+        stopped = false;
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "TokenCleaner");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(this::run, cleanupIntervalMillis, cleanupIntervalMillis,
+                TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stop the periodic cleanup. A running cleanup stops after its current batch.
+     */
+    public synchronized void stop() {
+
+        // the thread is not interrupted since that may break a JDBC call
+        stopped = true;
+        if (executor != null) {
+            executor.shutdown();
+            try {
+                executor.awaitTermination(30, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            executor = null;
+        }
+    }
+
+    /**
+     * Delete the access tokens which expired more than the retention period ago and the authorization codes issued
+     * more than the code retention period ago
+     *
+     * @throws OAuthDAOException if a batch cannot be deleted
+     */
+    public void cleanup() throws OAuthDAOException {
+
+        long now = System.currentTimeMillis();
+        int accessTokens = purge((before, limit) -> oauthDAO.deleteExpiredAccessTokens(before, limit).size(),
+                now - retentionMillis, purgedAccessTokenCount);
+        int authCodes = purge(oauthDAO::deleteAuthCodes, now - authCodeRetentionMillis, purgedAuthCodeCount);
+        if (accessTokens > 0 || authCodes > 0) {
+            log.info("Deleted {} expired access tokens and {} authorization codes in {} ms", accessTokens,
+                    authCodes, System.currentTimeMillis() - now);
+        }
+    }
+
+    /**
+     * Get the number of access tokens deleted since the cleaner was created
+     *
+     * @return purged access token count
+     */
+    public long getPurgedAccessTokenCount() {
+
+        return purgedAccessTokenCount.sum();
+    }
+
+    /**
+     * Get the number of authorization codes deleted since the cleaner was created
+     *
+     * @return purged authorization code count
+     */
+    public long getPurgedAuthCodeCount() {
+
+        return purgedAuthCodeCount.sum();
+    }
+
+    public long getBatchCount() {
+
+        return batchCount.sum();
+    }
+
+    /**
+     * Get the number of cleanup runs which stopped because of an error
+     *
+     * @return failed run count
+     */
+    public long getFailedRunCount() {
+
+        return failedRunCount.sum();
+    }
+
+    /**
+     * Get the time taken to delete the last batch
+     *
+     * @return batch latency in milliseconds
+     */
+    public long getLastBatchLatency() {
+
+        return TimeUnit.NANOSECONDS.toMillis(lastBatchTime.get());
+    }
+
+    /**
+     * Get the average time taken to delete a batch
+     *
+     * @return batch latency in milliseconds
+     */
+    public double getAverageBatchLatency() {
+
+        long batches = batchCount.sum();
+        return batches == 0 ? 0 : (double) TimeUnit.NANOSECONDS.toMillis(totalBatchTime.sum()) / batches;
+    }
+
+    private void run() {
+
+        try {
+            cleanup();
+        } catch (OAuthDAOException e) {
+            failedRunCount.increment();
+            log.error("Error while deleting expired access tokens and authorization codes", e);
+        } catch (RuntimeException e) {
+            // an escaping exception would cancel the schedule
+            failedRunCount.increment();
+            log.error("Unexpected error while deleting expired access tokens and authorization codes", e);
+        }
+    }
+
+    /**
+     * Delete batches until a batch comes back short, pausing between batches
+     *
+     * @return number of deleted rows
+     */
+    private int purge(BatchDelete batchDelete, long before, LongAdder purgedCount) throws OAuthDAOException {
+
+        int total = 0;
+        while (!stopped) {
+            long startTime = System.nanoTime();
+            int deleted = batchDelete.delete(before, batchSize);
+            long batchTime = System.nanoTime() - startTime;
+            lastBatchTime.set(batchTime);
+            totalBatchTime.add(batchTime);
+            batchCount.increment();
+            purgedCount.add(deleted);
+            total += deleted;
+            if (log.isDebugEnabled()) {
+                log.debug("Deleted {} rows in {} ms", deleted, TimeUnit.NANOSECONDS.toMillis(batchTime));
+            }
+            if (deleted < batchSize) {
+                break;
+            }
+            try {
+                Thread.sleep(batchIntervalMillis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Deletes a batch of rows older than a given time
+     */
+    private interface BatchDelete {
+
+        int delete(long before, int limit) throws OAuthDAOException;
+    }
+}
@@ -29,6 +29,10 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.commons.lang3.mutable.MutableBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.client.registration.ClientSecretVerifier;
+import org.wso2.carbon.auth.client.registration.dao.ApplicationDAO;
+import org.wso2.carbon.auth.client.registration.exception.ClientRegistrationDAOException;
+import org.wso2.carbon.auth.client.registration.model.Application;
 import org.wso2.carbon.auth.oauth.ClientLookup;
 import org.wso2.carbon.auth.oauth.OAuthConstants;
 import org.wso2.carbon.auth.oauth.dao.OAuthDAO;
@@ -36,6 +40,7 @@ import org.wso2.carbon.auth.oauth.dto.AccessTokenContext;
 import org.wso2.carbon.auth.oauth.exception.OAuthDAOException;
 
 import java.util.Map;
+import javax.annotation.CheckForNull;
 
 /**
  * Client lookup implementation
@@ -44,42 +49,31 @@ public class ClientLookupImpl implements ClientLookup {
 
     private static final Logger log = LoggerFactory.getLogger(ClientLookupImpl.class);
     private OAuthDAO oauthDAO;
+    private ApplicationDAO applicationDAO;
 
     ClientLookupImpl(OAuthDAO oauthDAO) {
 
         this.oauthDAO = oauthDAO;
     }
 
+    ClientLookupImpl(OAuthDAO oauthDAO, ApplicationDAO applicationDAO) {
+
+        this.oauthDAO = oauthDAO;
+        this.applicationDAO = applicationDAO;
+    }
+
     @Override
     public String getClientId(String authorization, AccessTokenContext context, Map<String, String> queryParameters,
                               MutableBoolean haltExecution) {
 
         log.debug("Calling getClientId");
-        ClientID clientId;
-        Secret clientSecret;
-        if (!StringUtils.isEmpty(authorization)) {
-            ClientSecretBasic clientCredentials;
-            try {
-                clientCredentials = ClientSecretBasic.parse(authorization);
-            } catch (ParseException e) {
-                log.info("Error while parsing client credentials: ", e.getMessage());
-                context.setErrorObject(OAuth2Error.INVALID_REQUEST);
-                haltExecution.setTrue();
-                return null;
-            }
-            clientId = clientCredentials.getClientID();
-            clientSecret = clientCredentials.getClientSecret();
-        } else if (queryParameters.get(OAuthConstants.CLIENT_ID_QUERY_PARAM) != null
-                && queryParameters.get(OAuthConstants.CLIENT_SECRET_QUERY_PARAM) != null) {
-            log.debug("Authorization header is missing");
-            clientId = new ClientID(queryParameters.get(OAuthConstants.CLIENT_ID_QUERY_PARAM));
-            clientSecret = new Secret(queryParameters.get(OAuthConstants.CLIENT_SECRET_QUERY_PARAM));
-        } else {
-            log.debug("clientId or clientSecret is missing in request");
-            context.setErrorObject(OAuth2Error.INVALID_REQUEST);
-            haltExecution.setTrue();
+        ClientSecretBasic clientCredentials = getClientCredentials(authorization, context, queryParameters,
+                haltExecution);
+        if (clientCredentials == null) {
             return null;
         }
+        ClientID clientId = clientCredentials.getClientID();
+        Secret clientSecret = clientCredentials.getClientSecret();
 
         try {
             boolean isValid = oauthDAO.isClientCredentialsValid(clientId.getValue(), clientSecret.getValue());
@@ -97,4 +91,66 @@ public class ClientLookupImpl implements ClientLookup {
 
         return null;
     }
+
+    @Override
+    @CheckForNull
+    public Application authenticateClient(String authorization, AccessTokenContext context,
+            Map<String, String> queryParameters, MutableBoolean haltExecution) throws OAuthDAOException {
+
+        log.debug("Calling authenticateClient");
+        ClientSecretBasic clientCredentials = getClientCredentials(authorization, context, queryParameters,
+                haltExecution);
+        if (clientCredentials == null) {
+            return null;
+        }
+        String clientId = clientCredentials.getClientID().getValue();
+
+        Application application;
+        boolean isValid;
+        try {
+            application = applicationDAO.getApplication(clientId);
+            isValid = application != null && ClientSecretVerifier.getInstance().verify(clientId,
+                    clientCredentials.getClientSecret().getValue(), application.getClientSecret());
+        } catch (ClientRegistrationDAOException e) {
+            throw new OAuthDAOException("Error getting client information from the DB", e);
+        }
+        if (!isValid) {
+            log.debug("Invalid credentials provided for client: {}", clientId);
+            context.setErrorObject(OAuth2Error.INVALID_CLIENT);
+            haltExecution.setTrue();
+            return null;
+        }
+        return application;
+    }
+
+    /**
+     * Read the client credentials from the authorization header, or from the query parameters if there is no
+     * authorization header
+     *
+     * @return client credentials or null if the request does not carry valid credentials
+     */
+    @CheckForNull
+    private ClientSecretBasic getClientCredentials(String authorization, AccessTokenContext context,
+            Map<String, String> queryParameters, MutableBoolean haltExecution) {
+
+        if (!StringUtils.isEmpty(authorization)) {
+            try {
+                return ClientSecretBasic.parse(authorization);
+            } catch (ParseException e) {
+                log.info("Error while parsing client credentials: ", e.getMessage());
+                context.setErrorObject(OAuth2Error.INVALID_REQUEST);
+                haltExecution.setTrue();
+                return null;
+            }
+        } else if (queryParameters.get(OAuthConstants.CLIENT_ID_QUERY_PARAM) != null
+                && queryParameters.get(OAuthConstants.CLIENT_SECRET_QUERY_PARAM) != null) {
+            log.debug("Authorization header is missing");
+            return new ClientSecretBasic(new ClientID(queryParameters.get(OAuthConstants.CLIENT_ID_QUERY_PARAM)),
+                    new Secret(queryParameters.get(OAuthConstants.CLIENT_SECRET_QUERY_PARAM)));
+        }
+        log.debug("clientId or clientSecret is missing in request");
+        context.setErrorObject(OAuth2Error.INVALID_REQUEST);
+        haltExecution.setTrue();
+        return null;
+    }
 }
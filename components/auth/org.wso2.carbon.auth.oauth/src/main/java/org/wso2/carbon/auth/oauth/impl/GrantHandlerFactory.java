@@ -31,11 +31,9 @@ import org.wso2.carbon.auth.oauth.GrantHandler;
 import org.wso2.carbon.auth.oauth.OAuthConstants;
 import org.wso2.carbon.auth.oauth.dao.OAuthDAO;
 import org.wso2.carbon.auth.oauth.dto.AccessTokenContext;
-import org.wso2.carbon.auth.oauth.internal.ServiceReferenceHolder;
 import org.wso2.carbon.auth.user.mgt.UserStoreException;
 import org.wso2.carbon.auth.user.mgt.UserStoreManager;
 
-import java.util.Map;
 import java.util.Optional;
 
 /**
@@ -52,7 +50,7 @@ public class GrantHandlerFactory {
     }
 
     /**
-     * Create relevant Grant Handler
+     * Get the relevant Grant Handler. Handlers are shared across requests, see {@link GrantHandlerRegistry}
      *
      * @param grantTypeValue grant type being served
      * @return Grant handler implementation
@@ -62,33 +60,14 @@ public class GrantHandlerFactory {
             throws UserStoreException {
         log.debug("Calling createGrantHandler");
         if (!StringUtils.isEmpty(grantTypeValue)) {
-            Map<String, String> grantTypes = ServiceReferenceHolder.getInstance().getAuthConfigurations()
-                    .getGrantTypes();
-            String grantTypeImplClassName = grantTypes.get(grantTypeValue);
-            if (grantTypeImplClassName == null) {
+            Optional<GrantHandler> grantHandler = GrantHandlerRegistry.getInstance().getGrantHandler(grantTypeValue,
+                    userNameMapper, userStoreManager, oauthDAO, applicationDAO);
+            if (!grantHandler.isPresent()) {
                 log.debug("Requested grant type not found");
                 context.setErrorObject(OAuth2Error.UNSUPPORTED_GRANT_TYPE);
                 haltExecution.setTrue();
-                return Optional.empty();
             }
-            Class<?> grantTypeImplClass = null;
-            GrantHandler grantHandlerImpl = null;
-            try {
-                grantTypeImplClass = Class.forName(grantTypeImplClassName);
-                grantHandlerImpl = (GrantHandler) grantTypeImplClass.newInstance();
-            } catch (InstantiationException | IllegalAccessException e) {
-                log.error("Error instantiation class " + grantTypeImplClass, e);
-                context.setErrorObject(OAuth2Error.UNSUPPORTED_GRANT_TYPE);
-                haltExecution.setTrue();
-                return Optional.empty();
-            } catch (ClassNotFoundException e) {
-                log.error("Requested grant type implementation not found", e);
-                context.setErrorObject(OAuth2Error.UNSUPPORTED_GRANT_TYPE);
-                haltExecution.setTrue();
-                return Optional.empty();
-            }
-            grantHandlerImpl.init(userNameMapper, oauthDAO, userStoreManager, applicationDAO);
-            return Optional.of(grantHandlerImpl);
+            return grantHandler;
         } else {
             context.setErrorObject(OAuth2Error.INVALID_REQUEST);
             haltExecution.setTrue();
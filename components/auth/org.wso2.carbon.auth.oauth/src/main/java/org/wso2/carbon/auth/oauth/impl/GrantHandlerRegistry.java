@@ -0,0 +1,157 @@
+/*
+ *
+ *   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+
+package org.wso2.carbon.auth.oauth.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.client.registration.dao.ApplicationDAO;
+import org.wso2.carbon.auth.core.api.UserNameMapper;
+import org.wso2.carbon.auth.oauth.GrantHandler;
+import org.wso2.carbon.auth.oauth.dao.OAuthDAO;
+import org.wso2.carbon.auth.oauth.internal.ServiceReferenceHolder;
+import org.wso2.carbon.auth.user.mgt.UserStoreManager;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Holds one initialized instance of each configured grant handler. Grant handlers do not keep request state, so
+ * the same instance serves all token requests. The handlers are created again when the configured grant types,
+ * the user store manager or the user name mapper change. The DAOs are not compared, as the token API creates new
+ * DAO instances per request and these all share the same data sources and caches.
+ */
+public class GrantHandlerRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(GrantHandlerRegistry.class);
+    private static final GrantHandlerRegistry instance = new GrantHandlerRegistry();
+
+    private volatile GrantHandlers grantHandlers;
+
+    private GrantHandlerRegistry() {
+
+    }
+
+    public static GrantHandlerRegistry getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Get the grant handler of the given grant type. The handlers are loaded if they were not loaded yet or if they
+     * were loaded for a different configuration.
+     *
+     * @param grantType        grant type being served
+     * @param userNameMapper   Username mapper object
+     * @param userStoreManager user store manager instance
+     * @param oauthDAO         OAuthDAO instance used if the handlers need to be loaded
+     * @param applicationDAO   ApplicationDAO instance used if the handlers need to be loaded
+     * @return Grant handler or empty if the grant type is not configured or its handler could not be created
+     */
+    public Optional<GrantHandler> getGrantHandler(String grantType, UserNameMapper userNameMapper,
+                                                  UserStoreManager userStoreManager, OAuthDAO oauthDAO,
+                                                  ApplicationDAO applicationDAO) {
+
+        Map<String, String> grantTypes = ServiceReferenceHolder.getInstance().getAuthConfigurations()
+                .getGrantTypes();
+        GrantHandlers current = grantHandlers;
+        if (current == null || !current.isLoadedFor(grantTypes, userNameMapper, userStoreManager)) {
+            synchronized (this) {
+                current = grantHandlers;
+                if (current == null || !current.isLoadedFor(grantTypes, userNameMapper, userStoreManager)) {
+                    current = load(grantTypes, userNameMapper, userStoreManager, oauthDAO, applicationDAO);
+                    grantHandlers = current;
+                }
+            }
+        }
+        return Optional.ofNullable(current.handlers.get(grantType));
+    }
+
+    /**
+     * Create and initialize the handlers of all configured grant types, replacing the handlers in use
+     *
+     * @param userNameMapper   Username mapper object
+     * @param userStoreManager user store manager instance
+     * @param oauthDAO         OAuthDAO instance
+     * @param applicationDAO   ApplicationDAO instance
+     */
+    public synchronized void reload(UserNameMapper userNameMapper, UserStoreManager userStoreManager,
+                                    OAuthDAO oauthDAO, ApplicationDAO applicationDAO) {
+
+        Map<String, String> grantTypes = ServiceReferenceHolder.getInstance().getAuthConfigurations()
+                .getGrantTypes();
+        grantHandlers = load(grantTypes, userNameMapper, userStoreManager, oauthDAO, applicationDAO);
+    }
+
+    private GrantHandlers load(Map<String, String> grantTypes, UserNameMapper userNameMapper,
+                               UserStoreManager userStoreManager, OAuthDAO oauthDAO,
+                               ApplicationDAO applicationDAO) {
+
+        Map<String, GrantHandler> handlers = new HashMap<>();
+        for (Map.Entry<String, String> grantType : grantTypes.entrySet()) {
+            Class<?> grantTypeImplClass = null;
+            GrantHandler grantHandlerImpl;
+            try {
+                grantTypeImplClass = Class.forName(grantType.getValue());
+                grantHandlerImpl = (GrantHandler) grantTypeImplClass.newInstance();
+            } catch (InstantiationException | IllegalAccessException e) {
+                log.error("Error instantiation class " + grantTypeImplClass, e);
+                continue;
+            } catch (ClassNotFoundException e) {
+                log.error("Grant type implementation not found for grant type " + grantType.getKey(), e);
+                continue;
+            }
+            grantHandlerImpl.init(userNameMapper, oauthDAO, userStoreManager, applicationDAO);
+            handlers.put(grantType.getKey(), grantHandlerImpl);
+        }
+        log.debug("Loaded grant handlers for grant types: {}", handlers.keySet());
+        return new GrantHandlers(new HashMap<>(grantTypes), Collections.unmodifiableMap(handlers), userNameMapper,
+                userStoreManager);
+    }
+
+    /**
+     * Grant handlers together with the configuration they were created for
+     */
+    private static final class GrantHandlers {
+
+        private final Map<String, String> grantTypes;
+        private final Map<String, GrantHandler> handlers;
+        private final UserNameMapper userNameMapper;
+        private final UserStoreManager userStoreManager;
+
+        private GrantHandlers(Map<String, String> grantTypes, Map<String, GrantHandler> handlers,
+                              UserNameMapper userNameMapper, UserStoreManager userStoreManager) {
+
+            this.grantTypes = grantTypes;
+            this.handlers = handlers;
+            this.userNameMapper = userNameMapper;
+            this.userStoreManager = userStoreManager;
+        }
+
+        private boolean isLoadedFor(Map<String, String> grantTypes, UserNameMapper userNameMapper,
+                                    UserStoreManager userStoreManager) {
+
+            return this.userNameMapper == userNameMapper && this.userStoreManager == userStoreManager
+                    && this.grantTypes.equals(grantTypes);
+        }
+    }
+}
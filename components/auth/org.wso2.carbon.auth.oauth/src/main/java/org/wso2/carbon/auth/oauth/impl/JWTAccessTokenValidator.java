@@ -0,0 +1,254 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+
+package org.wso2.carbon.auth.oauth.impl;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.MACVerifier;
+import com.nimbusds.jose.crypto.RSASSAVerifier;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import org.apache.commons.io.Charsets;
+import org.apache.commons.lang3.StringUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.core.configuration.models.AuthConfiguration;
+import org.wso2.carbon.auth.core.exception.AuthException;
+import org.wso2.carbon.auth.oauth.cache.RevokedTokenList;
+import org.wso2.carbon.auth.oauth.configuration.models.OAuthConfiguration;
+import org.wso2.carbon.auth.oauth.exception.OAuthDAOException;
+import org.wso2.carbon.auth.oauth.internal.ServiceReferenceHolder;
+
+import java.security.PublicKey;
+import java.security.cert.Certificate;
+import java.security.interfaces.ECPublicKey;
+import java.security.interfaces.RSAPublicKey;
+import java.text.ParseException;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Validates signed JWT access tokens without looking them up in the database. The signature is verified with the
+ * key the tokens are signed with, the time, issuer and audience claims are checked and the token is checked against
+ * the revoked token list. The audience has to include the client the token was issued to or a configured audience.
+ */
+public class JWTAccessTokenValidator {
+
+    private static final Logger log = LoggerFactory.getLogger(JWTAccessTokenValidator.class);
+    private static final long TIMESTAMP_SKEW_MILLIS = 5 * 1000L;
+    private static final JWTAccessTokenValidator instance = new JWTAccessTokenValidator(null);
+    private final RevokedTokenList revokedTokenList;
+    private volatile VerificationContext verificationContext;
+
+    /**
+     * Constructor is package private, use getInstance() to get the shared instance
+     *
+     * @param revokedTokenList revoked token list to check tokens against, the shared list if null
+     */
+    JWTAccessTokenValidator(RevokedTokenList revokedTokenList) {
+
+        this.revokedTokenList = revokedTokenList;
+    }
+
+    public static JWTAccessTokenValidator getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Check whether JWT access tokens should be validated locally
+     *
+     * @return true if local validation is enabled
+     */
+    public boolean isEnabled() {
+
+        OAuthConfiguration configuration = ServiceReferenceHolder.getInstance().getAuthConfigurations();
+        return configuration != null && configuration.isLocalJWTValidation();
+    }
+
+    /**
+     * Parse an access token as a signed JWT
+     *
+     * @param accessToken access token
+     * @return signed JWT or null if the token is not a signed JWT, as is the case with opaque tokens
+     */
+    public SignedJWT parse(String accessToken) {
+
+        if (StringUtils.countMatches(accessToken, '.') != 2) {
+            return null;
+        }
+        try {
+            return SignedJWT.parse(accessToken);
+        } catch (ParseException e) {
+            log.debug("Access token is not a signed JWT");
+            return null;
+        }
+    }
+
+    /**
+     * Validate a signed JWT access token
+     *
+     * @param signedJWT signed JWT access token
+     * @return claims of the token
+     * @throws OAuthDAOException if the revoked token list cannot be loaded
+     * @throws AuthException     if the token is not valid, the message gives the reason
+     */
+    public JWTClaimsSet validate(SignedJWT signedJWT) throws AuthException {
+
+        OAuthConfiguration configuration = ServiceReferenceHolder.getInstance().getAuthConfigurations();
+        VerificationContext context = getVerificationContext(configuration);
+        if (!context.algorithm.equals(signedJWT.getHeader().getAlgorithm())) {
+            throw new AuthException("Access token is not signed with " + context.algorithm);
+        }
+        try {
+            if (!signedJWT.verify(context.verifier)) {
+                throw new AuthException("Access token signature validation failed");
+            }
+        } catch (JOSEException e) {
+            throw new AuthException("Error while verifying the access token signature", e);
+        }
+
+        JWTClaimsSet claimsSet;
+        try {
+            claimsSet = signedJWT.getJWTClaimsSet();
+        } catch (ParseException e) {
+            throw new AuthException("Access token claims cannot be parsed", e);
+        }
+        long now = System.currentTimeMillis();
+        Date expirationTime = claimsSet.getExpirationTime();
+        if (expirationTime == null || expirationTime.getTime() <= now - TIMESTAMP_SKEW_MILLIS) {
+            throw new AuthException("Access token expired");
+        }
+        Date notBeforeTime = claimsSet.getNotBeforeTime();
+        if (notBeforeTime != null && notBeforeTime.getTime() - TIMESTAMP_SKEW_MILLIS > now) {
+            throw new AuthException("Access token is not yet valid");
+        }
+        if (!configuration.getTokenIssuer().equals(claimsSet.getIssuer())) {
+            throw new AuthException("Access token issuer is not valid");
+        }
+        if (!isValidAudience(claimsSet, configuration)) {
+            throw new AuthException("Access token audience is not valid");
+        }
+        if (claimsSet.getJWTID() == null) {
+            throw new AuthException("Access token identifier is missing");
+        }
+        // the alias is persisted in place of the token when alias persistence is enabled
+        String tokenIdentifier = configuration.isPersistAccessTokenAlias() ?
+                claimsSet.getJWTID() : signedJWT.getParsedString();
+        RevokedTokenList revokedTokens = revokedTokenList != null ? revokedTokenList : RevokedTokenList.getInstance();
+        if (revokedTokens.isRevoked(tokenIdentifier)) {
+            throw new AuthException("Access token has been revoked");
+        }
+        return claimsSet;
+    }
+
+    /**
+     * The token must be meant for the client it was issued to or for one of the configured audiences
+     */
+    private boolean isValidAudience(JWTClaimsSet claimsSet, OAuthConfiguration configuration) {
+
+        List<String> audience = claimsSet.getAudience();
+        if (audience == null || audience.isEmpty()) {
+            return false;
+        }
+        Object clientId = claimsSet.getClaim(JWTTokenGenerator.AUTHORIZATION_PARTY);
+        if (clientId != null && audience.contains(clientId)) {
+            return true;
+        }
+        List<String> jwtAudiences = configuration.getJwtAudiences();
+        return jwtAudiences != null && !Collections.disjoint(audience, jwtAudiences);
+    }
+
+    /**
+     * Get the verifier built for the key tokens are signed with. It is built again when the key or the signature
+     * algorithm changes.
+     */
+    private VerificationContext getVerificationContext(OAuthConfiguration configuration) throws AuthException {
+
+        JWSAlgorithm algorithm = JWTTokenGenerator.getJWSAlgorithm(configuration.getSignatureAlgorithm());
+        Object verificationKey = getVerificationKey(algorithm);
+        VerificationContext context = verificationContext;
+        if (context == null || !context.isBuiltFor(algorithm, verificationKey)) {
+            context = createVerificationContext(algorithm, verificationKey);
+            verificationContext = context;
+        }
+        return context;
+    }
+
+    private VerificationContext createVerificationContext(JWSAlgorithm algorithm, Object verificationKey)
+            throws AuthException {
+
+        JWSVerifier verifier;
+        try {
+            if (JWSAlgorithm.Family.HMAC_SHA.contains(algorithm)) {
+                if (StringUtils.isEmpty((String) verificationKey)) {
+                    throw new AuthException("HMAC secret is not configured to verify the JWT");
+                }
+                verifier = new MACVerifier(((String) verificationKey).getBytes(Charsets.UTF_8));
+            } else {
+                PublicKey publicKey = verificationKey == null ? null : ((Certificate) verificationKey).getPublicKey();
+                if (JWSAlgorithm.Family.RSA.contains(algorithm) && publicKey instanceof RSAPublicKey) {
+                    verifier = new RSASSAVerifier((RSAPublicKey) publicKey);
+                } else if (JWSAlgorithm.Family.EC.contains(algorithm) && publicKey instanceof ECPublicKey) {
+                    verifier = new ECDSAVerifier((ECPublicKey) publicKey);
+                } else {
+                    throw new AuthException("Public key is not available to verify JWTs signed with " + algorithm);
+                }
+            }
+        } catch (JOSEException e) {
+            throw new AuthException("Invalid signature algorithm provided. " + algorithm, e);
+        }
+        return new VerificationContext(algorithm, verificationKey, verifier);
+    }
+
+    private Object getVerificationKey(JWSAlgorithm algorithm) {
+
+        if (JWSAlgorithm.Family.HMAC_SHA.contains(algorithm)) {
+            AuthConfiguration authConfiguration = ServiceReferenceHolder.getInstance().getAuthConfiguration();
+            return authConfiguration == null ? null : authConfiguration.getKeyManagerConfigs().getHmacSecret();
+        }
+        return ServiceReferenceHolder.getInstance().getPublicKey();
+    }
+
+    /**
+     * Verifier shared by all tokens signed with the same key
+     */
+    private static final class VerificationContext {
+
+        private final JWSAlgorithm algorithm;
+        private final Object verificationKey;
+        private final JWSVerifier verifier;
+
+        private VerificationContext(JWSAlgorithm algorithm, Object verificationKey, JWSVerifier verifier) {
+
+            this.algorithm = algorithm;
+            this.verificationKey = verificationKey;
+            this.verifier = verifier;
+        }
+
+        private boolean isBuiltFor(JWSAlgorithm algorithm, Object verificationKey) {
+
+            return this.algorithm.equals(algorithm) && this.verificationKey == verificationKey;
+        }
+    }
+}
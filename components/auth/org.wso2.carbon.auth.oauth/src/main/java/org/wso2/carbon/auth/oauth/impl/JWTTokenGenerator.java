@@ -19,11 +19,12 @@
 
 package org.wso2.carbon.auth.oauth.impl;
 
-import com.nimbusds.jose.Algorithm;
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSAlgorithm;
 import com.nimbusds.jose.JWSHeader;
 import com.nimbusds.jose.JWSSigner;
+import com.nimbusds.jose.crypto.ECDSASigner;
+import com.nimbusds.jose.crypto.MACSigner;
 import com.nimbusds.jose.crypto.RSASSASigner;
 import com.nimbusds.jose.util.Base64URL;
 import com.nimbusds.jwt.JWTClaimsSet;
@@ -34,6 +35,7 @@ import com.nimbusds.oauth2.sdk.Scope;
 import org.apache.commons.codec.binary.Base64;
 import org.apache.commons.io.Charsets;
 import org.apache.commons.lang3.StringUtils;
+import org.wso2.carbon.auth.core.configuration.models.AuthConfiguration;
 import org.wso2.carbon.auth.core.exception.AuthException;
 import org.wso2.carbon.auth.oauth.OAuthConstants;
 import org.wso2.carbon.auth.oauth.dto.AccessTokenContext;
@@ -41,8 +43,10 @@ import org.wso2.carbon.auth.oauth.internal.ServiceReferenceHolder;
 
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.security.PrivateKey;
 import java.security.cert.Certificate;
 import java.security.cert.CertificateEncodingException;
+import java.security.interfaces.ECPrivateKey;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
@@ -54,7 +58,7 @@ import java.util.UUID;
  */
 public class JWTTokenGenerator extends DefaultTokenGenerator {
 
-    private static final String AUTHORIZATION_PARTY = "azp";
+    static final String AUTHORIZATION_PARTY = "azp";
     private static final String SCOPE = "scope";
     private static final String NONE = "NONE";
     private static final String SHA256_WITH_RSA = "SHA256withRSA";
@@ -66,12 +70,17 @@ public class JWTTokenGenerator extends DefaultTokenGenerator {
     private static final String SHA256_WITH_EC = "SHA256withEC";
     private static final String SHA384_WITH_EC = "SHA384withEC";
     private static final String SHA512_WITH_EC = "SHA512withEC";
-    private Algorithm signatureAlgorithm;
+    private final JWSAlgorithm signatureAlgorithm;
+    private volatile SigningContext signingContext;
 
     public JWTTokenGenerator() throws AuthException {
 
         signatureAlgorithm = mapSignatureAlgorithm(ServiceReferenceHolder.getInstance().getAuthConfigurations()
                 .getSignatureAlgorithm());
+        // the signer and the JWS header are the same for every token, build them once if the keys are loaded
+        if (!JWSAlgorithm.NONE.getName().equals(signatureAlgorithm.getName()) && getSigningKey() != null) {
+            signingContext = createSigningContext();
+        }
     }
 
     @Override
@@ -105,29 +114,88 @@ public class JWTTokenGenerator extends DefaultTokenGenerator {
 
     private String signJwt(JWTClaimsSet jwtClaimsSet) throws AuthException {
 
-        if (JWSAlgorithm.RS256.equals(signatureAlgorithm) || JWSAlgorithm.RS384.equals(signatureAlgorithm) ||
-                JWSAlgorithm.RS512.equals(signatureAlgorithm)) {
-            try {
-                JWSSigner signer = new RSASSASigner(ServiceReferenceHolder.getInstance().getPrivateKey());
-                JWSAlgorithm jwsAlgorithm;
-                if (signatureAlgorithm instanceof JWSAlgorithm) {
-                    jwsAlgorithm = (JWSAlgorithm) signatureAlgorithm;
+        SigningContext context = getSigningContext();
+        SignedJWT signedJWT = new SignedJWT(context.header, jwtClaimsSet);
+        try {
+            signedJWT.sign(context.signer);
+        } catch (JOSEException e) {
+            throw new AuthException("Error while signing the JWT with " + signatureAlgorithm, e);
+        }
+        return signedJWT.serialize();
+    }
+
+    /**
+     * Get the signer and header built for the signing key in use. They are built again when the key is rotated and
+     * the new ones replace the old ones at once, so a token is never signed with a header of another key.
+     */
+    private SigningContext getSigningContext() throws AuthException {
+
+        SigningContext context = signingContext;
+        if (context == null || !context.isBuiltFor(getSigningKey(), getSigningCertificate())) {
+            context = createSigningContext();
+            signingContext = context;
+        }
+        return context;
+    }
+
+    private SigningContext createSigningContext() throws AuthException {
+
+        Object signingKey = getSigningKey();
+        Certificate certificate = getSigningCertificate();
+        JWSHeader.Builder headerBuilder = new JWSHeader.Builder(signatureAlgorithm);
+        JWSSigner signer;
+        try {
+            if (JWSAlgorithm.Family.HMAC_SHA.contains(signatureAlgorithm)) {
+                if (StringUtils.isEmpty((String) signingKey)) {
+                    throw new AuthException("HMAC secret is not configured to sign the JWT");
+                }
+                signer = new MACSigner(((String) signingKey).getBytes(Charsets.UTF_8));
+            } else {
+                if (signingKey == null || certificate == null) {
+                    throw new AuthException("Signing key is not available to sign the JWT");
+                }
+                if (JWSAlgorithm.Family.RSA.contains(signatureAlgorithm)
+                        && "RSA".equalsIgnoreCase(((PrivateKey) signingKey).getAlgorithm())) {
+                    signer = new RSASSASigner((PrivateKey) signingKey);
+                } else if (JWSAlgorithm.Family.EC.contains(signatureAlgorithm) && signingKey instanceof ECPrivateKey) {
+                    signer = new ECDSASigner((ECPrivateKey) signingKey);
                 } else {
-                    throw new AuthException("Signature Algorithm couldn't convert to JWSAlgorithm");
+                    throw new AuthException("Signing key does not support the signature algorithm " +
+                            signatureAlgorithm);
                 }
-                JWSHeader.Builder headerBuilder = new JWSHeader.Builder(jwsAlgorithm);
-                String certThumbPrint = getThumbPrint(ServiceReferenceHolder.getInstance().getPublicKey());
+                String certThumbPrint = getThumbPrint(certificate);
                 headerBuilder.keyID(certThumbPrint);
                 headerBuilder.x509CertThumbprint(new Base64URL(certThumbPrint));
-                SignedJWT signedJWT = new SignedJWT(headerBuilder.build(), jwtClaimsSet);
-                signedJWT.sign(signer);
-                return signedJWT.serialize();
-            } catch (NoSuchAlgorithmException | CertificateEncodingException | JOSEException e) {
-                throw new AuthException("Invalid signature algorithm provided. " + signatureAlgorithm);
             }
-        } else {
-            throw new AuthException("Invalid signature algorithm provided. " + signatureAlgorithm);
+            if (!signer.supportedJWSAlgorithms().contains(signatureAlgorithm)) {
+                throw new AuthException("Signing key does not support the signature algorithm " +
+                        signatureAlgorithm);
+            }
+        } catch (NoSuchAlgorithmException | CertificateEncodingException | JOSEException e) {
+            throw new AuthException("Invalid signature algorithm provided. " + signatureAlgorithm, e);
         }
+        return new SigningContext(signingKey, certificate, signer, headerBuilder.build());
+    }
+
+    /**
+     * Get the key used with the configured signature algorithm, the HMAC secret for HMAC algorithms and the private
+     * key of the key store for RSA and EC algorithms
+     */
+    private Object getSigningKey() {
+
+        if (JWSAlgorithm.Family.HMAC_SHA.contains(signatureAlgorithm)) {
+            AuthConfiguration authConfiguration = ServiceReferenceHolder.getInstance().getAuthConfiguration();
+            return authConfiguration == null ? null : authConfiguration.getKeyManagerConfigs().getHmacSecret();
+        }
+        return ServiceReferenceHolder.getInstance().getPrivateKey();
+    }
+
+    private Certificate getSigningCertificate() {
+
+        if (JWSAlgorithm.Family.HMAC_SHA.contains(signatureAlgorithm)) {
+            return null;
+        }
+        return ServiceReferenceHolder.getInstance().getPublicKey();
     }
 
     private JWTClaimsSet getJWTClaimSet(AccessTokenContext context) {
@@ -176,6 +244,11 @@ public class JWTTokenGenerator extends DefaultTokenGenerator {
      */
     protected JWSAlgorithm mapSignatureAlgorithm(String signatureAlgorithm) throws AuthException {
 
+        return getJWSAlgorithm(signatureAlgorithm);
+    }
+
+    static JWSAlgorithm getJWSAlgorithm(String signatureAlgorithm) throws AuthException {
+
         if (StringUtils.isNotBlank(signatureAlgorithm)) {
             switch (signatureAlgorithm) {
                 case NONE:
@@ -238,4 +311,28 @@ public class JWTTokenGenerator extends DefaultTokenGenerator {
         return buf.toString();
     }
 
+    /**
+     * Signer and JWS header shared by all tokens signed with the same key
+     */
+    private static final class SigningContext {
+
+        private final Object signingKey;
+        private final Certificate certificate;
+        private final JWSSigner signer;
+        private final JWSHeader header;
+
+        private SigningContext(Object signingKey, Certificate certificate, JWSSigner signer, JWSHeader header) {
+
+            this.signingKey = signingKey;
+            this.certificate = certificate;
+            this.signer = signer;
+            this.header = header;
+        }
+
+        private boolean isBuiltFor(Object signingKey, Certificate certificate) {
+
+            return this.signingKey == signingKey && this.certificate == certificate;
+        }
+    }
+
 }
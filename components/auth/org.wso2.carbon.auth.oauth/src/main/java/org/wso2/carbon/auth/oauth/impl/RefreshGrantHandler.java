@@ -29,6 +29,7 @@ import org.wso2.carbon.auth.core.exception.AuthException;
 import org.wso2.carbon.auth.oauth.ClientLookup;
 import org.wso2.carbon.auth.oauth.GrantHandler;
 import org.wso2.carbon.auth.oauth.OAuthConstants;
+import org.wso2.carbon.auth.oauth.cache.AccessTokenCache;
 import org.wso2.carbon.auth.oauth.dao.OAuthDAO;
 import org.wso2.carbon.auth.oauth.dto.AccessTokenContext;
 import org.wso2.carbon.auth.oauth.dto.AccessTokenDTO;
@@ -100,6 +101,8 @@ public class RefreshGrantHandler implements GrantHandler {
                 context.setErrorObject(invalidGrant);
                 return false;
             }
+            // the access token issued with this refresh token is being replaced, drop it from the cache
+            AccessTokenCache.getInstance().invalidate(accessTokenDTO.getAccessToken());
             context.getParams().put(OAuthConstants.AUTH_USER, userNameMapper.getLoggedInUserIDFromPseudoName
                     (accessTokenDTO.getAuthUser()));
             String scopes = queryParameters.get(OAuthConstants.SCOPE_QUERY_PARAM);
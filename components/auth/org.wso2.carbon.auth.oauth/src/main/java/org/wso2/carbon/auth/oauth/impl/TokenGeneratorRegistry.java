@@ -0,0 +1,129 @@
+/*
+ *
+ *   Copyright (c) 2017, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+
+package org.wso2.carbon.auth.oauth.impl;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.oauth.TokenGenerator;
+import org.wso2.carbon.auth.oauth.configuration.models.OAuthConfiguration;
+import org.wso2.carbon.auth.oauth.internal.ServiceReferenceHolder;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Holds one instance of each configured token generator, keyed by token type. Token generators are created when
+ * first requested and created again only when the OAuth configuration changes, so issuing a token does not involve
+ * reflection or repeating the setup done by the generator constructors.
+ */
+public class TokenGeneratorRegistry {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenGeneratorRegistry.class);
+    private static final TokenGeneratorRegistry instance = new TokenGeneratorRegistry();
+
+    private volatile TokenGenerators tokenGenerators;
+
+    private TokenGeneratorRegistry() {
+
+    }
+
+    public static TokenGeneratorRegistry getInstance() {
+
+        return instance;
+    }
+
+    /**
+     * Get the token generator of the given token type
+     *
+     * @param tokenType token type
+     * @return Token generator or empty if the token type is not configured or its generator could not be created
+     */
+    public Optional<TokenGenerator> getTokenGenerator(String tokenType) {
+
+        OAuthConfiguration configuration = ServiceReferenceHolder.getInstance().getAuthConfigurations();
+        TokenGenerators current = tokenGenerators;
+        if (current == null || !current.isLoadedFor(configuration)) {
+            synchronized (this) {
+                current = tokenGenerators;
+                if (current == null || !current.isLoadedFor(configuration)) {
+                    current = load(configuration);
+                    tokenGenerators = current;
+                }
+            }
+        }
+        return Optional.ofNullable(current.generators.get(tokenType));
+    }
+
+    /**
+     * Create the token generators of all configured token types again, replacing the generators in use
+     */
+    public synchronized void reload() {
+
+        tokenGenerators = load(ServiceReferenceHolder.getInstance().getAuthConfigurations());
+    }
+
+    private TokenGenerators load(OAuthConfiguration configuration) {
+
+        Map<String, String> tokenGeneratorClasses = configuration.getTokenGenerators();
+        Map<String, TokenGenerator> generators = new HashMap<>();
+        for (Map.Entry<String, String> tokenGenerator : tokenGeneratorClasses.entrySet()) {
+            Class<?> tokenGenClass = null;
+            try {
+                tokenGenClass = Class.forName(tokenGenerator.getValue());
+                generators.put(tokenGenerator.getKey(), (TokenGenerator) tokenGenClass.getDeclaredConstructor()
+                        .newInstance());
+            } catch (ClassNotFoundException e) {
+                log.error("Token generator implementation not found for token type " + tokenGenerator.getKey(), e);
+            } catch (ReflectiveOperationException e) {
+                log.error("Error instantiation class " + tokenGenClass, e);
+            }
+        }
+        log.debug("Loaded token generators for token types: {}", generators.keySet());
+        return new TokenGenerators(configuration, new HashMap<>(tokenGeneratorClasses),
+                Collections.unmodifiableMap(generators));
+    }
+
+    /**
+     * Token generators together with the configuration they were created for
+     */
+    private static final class TokenGenerators {
+
+        private final OAuthConfiguration configuration;
+        private final Map<String, String> tokenGeneratorClasses;
+        private final Map<String, TokenGenerator> generators;
+
+        private TokenGenerators(OAuthConfiguration configuration, Map<String, String> tokenGeneratorClasses,
+                                Map<String, TokenGenerator> generators) {
+
+            this.configuration = configuration;
+            this.tokenGeneratorClasses = tokenGeneratorClasses;
+            this.generators = generators;
+        }
+
+        private boolean isLoadedFor(OAuthConfiguration configuration) {
+
+            return this.configuration == configuration
+                    && tokenGeneratorClasses.equals(configuration.getTokenGenerators());
+        }
+    }
+}
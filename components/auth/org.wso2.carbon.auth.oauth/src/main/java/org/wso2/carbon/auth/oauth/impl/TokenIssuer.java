@@ -24,9 +24,9 @@ import org.slf4j.LoggerFactory;
 import org.wso2.carbon.auth.client.registration.Constants;
 import org.wso2.carbon.auth.oauth.OAuthConstants;
 import org.wso2.carbon.auth.oauth.TokenGenerator;
-import org.wso2.carbon.auth.oauth.configuration.models.OAuthConfiguration;
 import org.wso2.carbon.auth.oauth.dto.AccessTokenContext;
-import org.wso2.carbon.auth.oauth.internal.ServiceReferenceHolder;
+
+import java.util.Optional;
 
 /**
  * Abstract token issuer and persisting
@@ -40,22 +40,10 @@ public class TokenIssuer {
         context.getParams().put(OAuthConstants.SCOPES, scope);
         String tokenType = (String) context.getParams().getOrDefault(OAuthConstants.TOKEN_TYPE, Constants
                 .DEFAULT_TOKEN_TYPE);
-        OAuthConfiguration configuration = ServiceReferenceHolder.getInstance().getAuthConfigurations();
 
-        String tokenGenClassName = configuration.getTokenGenerators().get(tokenType);
-        if (tokenGenClassName != null) {
-            Class<?> tokenGenClass = null;
-            try {
-                tokenGenClass = Class.forName(tokenGenClassName);
-                TokenGenerator tokenGenImpl = (TokenGenerator) tokenGenClass.newInstance();
-                tokenGenImpl.generateAccessToken(context);
-            } catch (InstantiationException | IllegalAccessException e) {
-                log.error("Error instantiation class " + tokenGenClass, e);
-                context.setErrorObject(OAuth2Error.SERVER_ERROR);
-            } catch (ClassNotFoundException e) {
-                log.error("Requested token type implementation not found", e);
-                context.setErrorObject(OAuth2Error.SERVER_ERROR);
-            }
+        Optional<TokenGenerator> tokenGenerator = TokenGeneratorRegistry.getInstance().getTokenGenerator(tokenType);
+        if (tokenGenerator.isPresent()) {
+            tokenGenerator.get().generateAccessToken(context);
         } else {
             log.error("Requested token type implementation not found");
             context.setErrorObject(OAuth2Error.SERVER_ERROR);
@@ -67,25 +55,11 @@ public class TokenIssuer {
 
         String tokenType = (String) context.getParams().getOrDefault(OAuthConstants.TOKEN_TYPE, Constants
                 .DEFAULT_TOKEN_TYPE);
-        OAuthConfiguration configuration = ServiceReferenceHolder.getInstance().getAuthConfigurations();
 
-        String tokenGenClassName = configuration.getTokenGenerators().get(tokenType);
-        if (tokenGenClassName != null) {
-            Class<?> tokenGenClass = null;
-            try {
-                tokenGenClass = Class.forName(tokenGenClassName);
-                TokenGenerator tokenGenImpl = (TokenGenerator) tokenGenClass.newInstance();
-                context.setSuccessful(true);
-                return tokenGenImpl.renewAccessTokenPerRequest();
-            } catch (InstantiationException | IllegalAccessException e) {
-                log.error("Error instantiation class " + tokenGenClass, e);
-                context.setErrorObject(OAuth2Error.SERVER_ERROR);
-                return false;
-            } catch (ClassNotFoundException e) {
-                log.error("Requested token type implementation not found", e);
-                context.setErrorObject(OAuth2Error.SERVER_ERROR);
-                return false;
-            }
+        Optional<TokenGenerator> tokenGenerator = TokenGeneratorRegistry.getInstance().getTokenGenerator(tokenType);
+        if (tokenGenerator.isPresent()) {
+            context.setSuccessful(true);
+            return tokenGenerator.get().renewAccessTokenPerRequest();
         } else {
             log.error("Requested token type implementation not found");
             context.setErrorObject(OAuth2Error.SERVER_ERROR);
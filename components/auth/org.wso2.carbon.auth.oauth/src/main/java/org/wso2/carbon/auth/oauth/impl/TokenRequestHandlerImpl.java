@@ -26,7 +26,6 @@ import org.apache.commons.lang3.mutable.MutableBoolean;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.auth.client.registration.dao.ApplicationDAO;
-import org.wso2.carbon.auth.client.registration.exception.ClientRegistrationDAOException;
 import org.wso2.carbon.auth.client.registration.model.Application;
 import org.wso2.carbon.auth.core.exception.AuthException;
 import org.wso2.carbon.auth.oauth.ClientLookup;
@@ -36,7 +35,6 @@ import org.wso2.carbon.auth.oauth.TokenRequestHandler;
 import org.wso2.carbon.auth.oauth.configuration.models.OAuthConfiguration;
 import org.wso2.carbon.auth.oauth.dao.OAuthDAO;
 import org.wso2.carbon.auth.oauth.dto.AccessTokenContext;
-import org.wso2.carbon.auth.oauth.exception.OAuthDAOException;
 import org.wso2.carbon.auth.oauth.internal.ServiceReferenceHolder;
 
 import java.util.Map;
@@ -59,7 +57,7 @@ public class TokenRequestHandlerImpl implements TokenRequestHandler {
         this.oauthDAO = oauthDAO;
         this.applicationDAO = applicationDAO;
         this.grantHandlerFactory = grantHandlerFactory;
-        this.clientLookup = new ClientLookupImpl(oauthDAO);
+        this.clientLookup = new ClientLookupImpl(oauthDAO, applicationDAO);
     }
 
     protected TokenRequestHandlerImpl(OAuthDAO oauthDAO, ApplicationDAO applicationDAO, ClientLookup clientLookup,
@@ -94,26 +92,16 @@ public class TokenRequestHandlerImpl implements TokenRequestHandler {
 
         if (haltExecution.isFalse()) {
             if (grantHandler.isPresent()) {
-                Application application;
-                String clientId = clientLookup.getClientId(authorization, context, queryParameters, haltExecution);
-                //client id can be null if it not present in header or payload
-                if (clientId == null) {
-                    log.debug("Provided client id not valid.");
-                    context.setErrorObject(OAuth2Error.INVALID_CLIENT);
-                    return context;
-                }
-
-                try {
-                    application = applicationDAO.getApplication(clientId);
-                } catch (ClientRegistrationDAOException e) {
-                    throw new OAuthDAOException("Error getting client information from the DB", e);
-                }
-                //application can be null if non exist client id is used
+                Application application = clientLookup.authenticateClient(authorization, context, queryParameters,
+                        haltExecution);
+                //application can be null if credentials are not present in header or payload, if they are not
+                //valid or if non exist client id is used
                 if (application == null) {
-                    log.debug("Application for the provided client id not exist.");
+                    log.debug("Provided client credentials not valid.");
                     context.setErrorObject(OAuth2Error.INVALID_CLIENT);
                     return context;
                 }
+                String clientId = application.getClientId();
 
                 OAuthConfiguration authConfigs;
                 long defaultValidityPeriod;
@@ -21,6 +21,7 @@ import org.apache.commons.io.IOUtils;
 import org.osgi.framework.BundleContext;
 import org.osgi.service.component.annotations.Activate;
 import org.osgi.service.component.annotations.Component;
+import org.osgi.service.component.annotations.Deactivate;
 import org.osgi.service.component.annotations.Reference;
 import org.osgi.service.component.annotations.ReferenceCardinality;
 import org.osgi.service.component.annotations.ReferencePolicy;
@@ -31,6 +32,9 @@ import org.wso2.carbon.auth.core.exception.AuthException;
 import org.wso2.carbon.auth.oauth.OAuthUtils;
 import org.wso2.carbon.auth.oauth.configuration.models.OAuthConfiguration;
 import org.wso2.carbon.auth.oauth.constants.JDBCAuthConstants;
+import org.wso2.carbon.auth.oauth.dao.impl.AccessTokenWriter;
+import org.wso2.carbon.auth.oauth.dao.impl.TokenCleaner;
+import org.wso2.carbon.auth.oauth.exception.OAuthDAOException;
 import org.wso2.carbon.config.ConfigurationException;
 import org.wso2.carbon.config.provider.ConfigProvider;
 import org.wso2.carbon.secvault.SecureVault;
@@ -147,7 +151,19 @@ public class ConfigurationActivator {
         } catch (AuthException e) {
             log.error("Error while retrieving certificates", e);
         }
+        try {
+            TokenCleaner.getInstance().start();
+        } catch (OAuthDAOException e) {
+            log.error("Error while starting the token cleaner", e);
+        }
+    }
+
+    @Deactivate
+    protected void deactivate(BundleContext bundleContext) {
 
+        // write the access tokens which are still waiting in the queue
+        AccessTokenWriter.shutdownInstance();
+        TokenCleaner.shutdownInstance();
     }
 
     private Map<String, List<String>> populateDefaultFileBaseScopes() {
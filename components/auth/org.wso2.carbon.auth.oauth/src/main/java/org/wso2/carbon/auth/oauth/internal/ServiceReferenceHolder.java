@@ -41,8 +41,8 @@ public class ServiceReferenceHolder {
     private AuthConfiguration authConfiguration;
     private SecureVault secureVault;
     private ScopeValidator scopeValidator;
-    private PrivateKey privateKey;
-    private Certificate publicKey;
+    private volatile PrivateKey privateKey;
+    private volatile Certificate publicKey;
 
     private ServiceReferenceHolder() {
     }
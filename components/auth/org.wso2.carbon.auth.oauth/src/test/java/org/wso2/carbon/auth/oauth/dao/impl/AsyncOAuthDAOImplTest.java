@@ -0,0 +1,209 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.auth.oauth.dao.impl;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.auth.oauth.configuration.models.TokenPersistenceConfiguration;
+import org.wso2.carbon.auth.oauth.dao.OAuthDAO;
+import org.wso2.carbon.auth.oauth.dto.AccessTokenDTO;
+import org.wso2.carbon.auth.oauth.dto.AccessTokenData;
+import org.wso2.carbon.auth.oauth.dto.TokenState;
+import org.wso2.carbon.auth.oauth.exception.OAuthDAOException;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+public class AsyncOAuthDAOImplTest {
+
+    @Test
+    public void testPendingTokenServedBeforeWrite() throws Exception {
+        OAuthDAO oauthDAO = Mockito.mock(OAuthDAO.class);
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            writeStarted.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(oauthDAO).addAccessTokenInfo(Mockito.anyListOf(AccessTokenData.class));
+        AccessTokenWriter accessTokenWriter = new AccessTokenWriter(oauthDAO, createConfiguration(10));
+        OAuthDAO asyncOAuthDAO = new AsyncOAuthDAOImpl(oauthDAO, accessTokenWriter);
+
+        AccessTokenData accessTokenData = createToken("token1");
+        asyncOAuthDAO.addAccessTokenInfo(accessTokenData);
+        // changes made after the token is handed over are not written
+        accessTokenData.setAuthUser("changed");
+        Assert.assertTrue(writeStarted.await(10, TimeUnit.SECONDS));
+
+        AccessTokenDTO accessTokenDTO = asyncOAuthDAO.getTokenInfo("token1");
+        Assert.assertEquals(accessTokenDTO.getAuthUser(), "admin");
+        Assert.assertEquals(accessTokenDTO.getScopes(), "read write");
+        Assert.assertEquals(accessTokenDTO.getConsumerKey(), "client1");
+        Assert.assertEquals(asyncOAuthDAO.getTokenInfo("refresh-token1", "client1").getAccessToken(), "token1");
+        Assert.assertNull(asyncOAuthDAO.getTokenInfo("refresh-token1", "client2"));
+        // a token issued again for the same request reuses the pending token
+        Assert.assertEquals(asyncOAuthDAO.getTokenInfo("admin", "password", "client1", "read-write-hash")
+                .getAccessToken(), "token1");
+        Mockito.verify(oauthDAO, Mockito.never()).getTokenInfo("token1");
+        Mockito.verify(oauthDAO, Mockito.never()).getTokenInfo(Mockito.anyString(), Mockito.anyString(),
+                Mockito.anyString(), Mockito.anyString());
+
+        release.countDown();
+        accessTokenWriter.stop();
+        Assert.assertNull(accessTokenWriter.getPendingAccessToken("token1"));
+        Assert.assertNull(accessTokenWriter.getPendingAccessToken("admin", "password", "client1", "read-write-hash"));
+        Assert.assertEquals(accessTokenWriter.getWrittenCount(), 1);
+        Assert.assertEquals(accessTokenWriter.getFlushCount(), 1);
+        Assert.assertEquals(accessTokenWriter.getQueueDepth(), 0);
+        asyncOAuthDAO.getTokenInfo("token1");
+        Mockito.verify(oauthDAO, Mockito.times(1)).getTokenInfo("token1");
+    }
+
+    @Test
+    public void testTokensWrittenInBatches() throws Exception {
+        OAuthDAO oauthDAO = Mockito.mock(OAuthDAO.class);
+        List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+        Mockito.doAnswer(invocation -> {
+            batchSizes.add(((List<?>) invocation.getArguments()[0]).size());
+            return null;
+        }).when(oauthDAO).addAccessTokenInfo(Mockito.anyListOf(AccessTokenData.class));
+        AccessTokenWriter accessTokenWriter = new AccessTokenWriter(oauthDAO, createConfiguration(100));
+
+        for (int i = 0; i < 25; i++) {
+            accessTokenWriter.add(createToken("token" + i));
+        }
+        accessTokenWriter.stop();
+        Assert.assertEquals(accessTokenWriter.getWrittenCount(), 25);
+        Assert.assertEquals(batchSizes.stream().mapToInt(Integer::intValue).sum(), 25);
+        Assert.assertTrue(batchSizes.stream().allMatch(size -> size <= 10));
+        Assert.assertTrue(batchSizes.size() < 25);
+    }
+
+    @Test
+    public void testFullQueueWritesSynchronously() throws Exception {
+        OAuthDAO oauthDAO = Mockito.mock(OAuthDAO.class);
+        CountDownLatch writeStarted = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Mockito.doAnswer(invocation -> {
+            writeStarted.countDown();
+            release.await(10, TimeUnit.SECONDS);
+            return null;
+        }).when(oauthDAO).addAccessTokenInfo(Mockito.anyListOf(AccessTokenData.class));
+        AccessTokenWriter accessTokenWriter = new AccessTokenWriter(oauthDAO, createConfiguration(1));
+
+        accessTokenWriter.add(createToken("token1"));
+        Assert.assertTrue(writeStarted.await(10, TimeUnit.SECONDS));
+        accessTokenWriter.add(createToken("token2"));
+        accessTokenWriter.add(createToken("token3"));
+        ArgumentCaptor<AccessTokenData> captor = ArgumentCaptor.forClass(AccessTokenData.class);
+        Mockito.verify(oauthDAO).addAccessTokenInfo(captor.capture());
+        Assert.assertEquals(captor.getValue().getAccessToken(), "token3");
+        Assert.assertEquals(accessTokenWriter.getSynchronousWriteCount(), 1);
+        Assert.assertNull(accessTokenWriter.getPendingAccessToken("token3"));
+
+        release.countDown();
+        accessTokenWriter.stop();
+        Assert.assertEquals(accessTokenWriter.getWrittenCount(), 2);
+    }
+
+    @Test
+    public void testFailedBatchWrittenOneByOne() throws Exception {
+        OAuthDAO oauthDAO = Mockito.mock(OAuthDAO.class);
+        Mockito.doThrow(new OAuthDAOException("Duplicate token")).when(oauthDAO)
+                .addAccessTokenInfo(Mockito.anyListOf(AccessTokenData.class));
+        Mockito.doAnswer(invocation -> {
+            if ("token2".equals(((AccessTokenData) invocation.getArguments()[0]).getAccessToken())) {
+                throw new OAuthDAOException("Duplicate token");
+            }
+            return null;
+        }).when(oauthDAO).addAccessTokenInfo(Mockito.any(AccessTokenData.class));
+        AccessTokenWriter accessTokenWriter = new AccessTokenWriter(oauthDAO, createConfiguration(10));
+
+        accessTokenWriter.add(createToken("token1"));
+        accessTokenWriter.add(createToken("token2"));
+        accessTokenWriter.stop();
+        Assert.assertEquals(accessTokenWriter.getWrittenCount(), 1);
+        Assert.assertEquals(accessTokenWriter.getFailedCount(), 1);
+        Assert.assertNull(accessTokenWriter.getPendingAccessToken("token2"));
+    }
+
+    @Test
+    public void testWriterSurvivesRuntimeException() throws Exception {
+        OAuthDAO oauthDAO = Mockito.mock(OAuthDAO.class);
+        List<String> writtenTokens = Collections.synchronizedList(new ArrayList<>());
+        Mockito.doThrow(new IllegalStateException("Connection pool exhausted")).doAnswer(invocation -> {
+            for (Object tokenData : (List<?>) invocation.getArguments()[0]) {
+                writtenTokens.add(((AccessTokenData) tokenData).getAccessToken());
+            }
+            return null;
+        }).when(oauthDAO).addAccessTokenInfo(Mockito.anyListOf(AccessTokenData.class));
+        Mockito.doThrow(new IllegalStateException("Connection pool exhausted")).when(oauthDAO)
+                .addAccessTokenInfo(Mockito.any(AccessTokenData.class));
+        AccessTokenWriter accessTokenWriter = new AccessTokenWriter(oauthDAO, createConfiguration(10));
+
+        accessTokenWriter.add(createToken("token1"));
+        long deadline = System.currentTimeMillis() + 10000L;
+        while (accessTokenWriter.getFailedCount() == 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        Assert.assertEquals(accessTokenWriter.getFailedCount(), 1);
+
+        // the writer thread is still running and writes later tokens
+        accessTokenWriter.add(createToken("token2"));
+        while (writtenTokens.isEmpty() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10L);
+        }
+        Assert.assertEquals(writtenTokens, Collections.singletonList("token2"));
+        accessTokenWriter.stop();
+        Assert.assertEquals(accessTokenWriter.getWrittenCount(), 1);
+    }
+
+    private TokenPersistenceConfiguration createConfiguration(int queueSize) {
+        TokenPersistenceConfiguration configuration = new TokenPersistenceConfiguration();
+        configuration.setAsync(true);
+        configuration.setQueueSize(queueSize);
+        configuration.setBatchSize(10);
+        configuration.setFlushInterval(50L);
+        return configuration;
+    }
+
+    private AccessTokenData createToken(String accessToken) {
+        AccessTokenData accessTokenData = new AccessTokenData();
+        accessTokenData.setAccessToken(accessToken);
+        accessTokenData.setRefreshToken("refresh-" + accessToken);
+        accessTokenData.setAuthUser("admin");
+        accessTokenData.setClientId("client1");
+        accessTokenData.setGrantType("password");
+        accessTokenData.setScopes(new ArrayList<>(Arrays.asList("read", "write")));
+        accessTokenData.setHashedScopes("read-write-hash");
+        accessTokenData.setAccessTokenCreatedTime(Instant.now());
+        accessTokenData.setRefreshTokenCreatedTime(Instant.now());
+        accessTokenData.setAccessTokenValidityPeriod(3600L);
+        accessTokenData.setRefreshTokenValidityPeriod(3600L);
+        accessTokenData.setTokenState(TokenState.ACTIVE);
+        return accessTokenData;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.auth.oauth.dao.impl;
+
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.auth.core.configuration.models.CacheConfiguration;
+import org.wso2.carbon.auth.oauth.cache.AccessTokenCache;
+import org.wso2.carbon.auth.oauth.dao.OAuthDAO;
+import org.wso2.carbon.auth.oauth.dto.AccessTokenDTO;
+import org.wso2.carbon.auth.oauth.dto.TokenState;
+
+import java.util.Collections;
+
+public class CachedOAuthDAOImplTest {
+
+    @Test
+    public void testGetTokenInfoServedFromCache() throws Exception {
+        OAuthDAO oauthDAO = Mockito.mock(OAuthDAO.class);
+        AccessTokenDTO accessTokenDTO = createToken("token1", 3600, TokenState.ACTIVE.toString());
+        Mockito.when(oauthDAO.getTokenInfo("token1")).thenReturn(accessTokenDTO);
+        AccessTokenCache accessTokenCache = new AccessTokenCache(new CacheConfiguration(true, 10, 300));
+        OAuthDAO cachedOAuthDAO = new CachedOAuthDAOImpl(oauthDAO, accessTokenCache);
+
+        Assert.assertEquals(cachedOAuthDAO.getTokenInfo("token1"), accessTokenDTO);
+        Assert.assertEquals(cachedOAuthDAO.getTokenInfo("token1"), accessTokenDTO);
+        Mockito.verify(oauthDAO, Mockito.times(1)).getTokenInfo("token1");
+        Assert.assertEquals(accessTokenCache.getHitCount(), 1);
+        Assert.assertEquals(accessTokenCache.getMissCount(), 1);
+
+        accessTokenCache.invalidate("token1");
+        cachedOAuthDAO.getTokenInfo("token1");
+        Mockito.verify(oauthDAO, Mockito.times(2)).getTokenInfo("token1");
+    }
+
+    @Test
+    public void testExpiredAndInactiveTokensNotCached() throws Exception {
+        OAuthDAO oauthDAO = Mockito.mock(OAuthDAO.class);
+        AccessTokenDTO expiredToken = createToken("expired", 1, TokenState.ACTIVE.toString());
+        expiredToken.setTimeCreated(System.currentTimeMillis() - 10000);
+        AccessTokenDTO inactiveToken = createToken("inactive", 3600, TokenState.INACTIVE.toString());
+        Mockito.when(oauthDAO.getTokenInfo("expired")).thenReturn(expiredToken);
+        Mockito.when(oauthDAO.getTokenInfo("inactive")).thenReturn(inactiveToken);
+        AccessTokenCache accessTokenCache = new AccessTokenCache(new CacheConfiguration(true, 10, 300));
+        OAuthDAO cachedOAuthDAO = new CachedOAuthDAOImpl(oauthDAO, accessTokenCache);
+
+        cachedOAuthDAO.getTokenInfo("expired");
+        cachedOAuthDAO.getTokenInfo("inactive");
+        Assert.assertEquals(accessTokenCache.size(), 0);
+        Assert.assertNull(cachedOAuthDAO.getTokenInfo("unknown"));
+    }
+
+    @Test
+    public void testDeletedTokensInvalidated() throws Exception {
+        OAuthDAO oauthDAO = Mockito.mock(OAuthDAO.class);
+        Mockito.when(oauthDAO.getTokenInfo("token1")).thenReturn(createToken("token1", 3600,
+                TokenState.ACTIVE.toString()));
+        Mockito.when(oauthDAO.getTokenInfo("token2")).thenReturn(createToken("token2", 3600,
+                TokenState.ACTIVE.toString()));
+        Mockito.when(oauthDAO.deleteExpiredAccessTokens(1000L, 10)).thenReturn(Collections.singletonList("token1"));
+        AccessTokenCache accessTokenCache = new AccessTokenCache(new CacheConfiguration(true, 10, 300));
+        OAuthDAO cachedOAuthDAO = new CachedOAuthDAOImpl(oauthDAO, accessTokenCache);
+        cachedOAuthDAO.getTokenInfo("token1");
+        cachedOAuthDAO.getTokenInfo("token2");
+
+        Assert.assertEquals(cachedOAuthDAO.deleteExpiredAccessTokens(1000L, 10), Collections.singletonList("token1"));
+        Assert.assertNull(accessTokenCache.get("token1"));
+        Assert.assertNotNull(accessTokenCache.get("token2"));
+    }
+
+    private AccessTokenDTO createToken(String accessToken, long validityPeriod, String tokenState) {
+        AccessTokenDTO accessTokenDTO = new AccessTokenDTO();
+        accessTokenDTO.setAccessToken(accessToken);
+        accessTokenDTO.setTimeCreated(System.currentTimeMillis());
+        accessTokenDTO.setValidityPeriod(validityPeriod);
+        accessTokenDTO.setTokenState(tokenState);
+        return accessTokenDTO;
+    }
+}
@@ -41,8 +41,12 @@ import org.wso2.carbon.auth.oauth.exception.OAuthDAOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 public class OAuthDAOImplIntegrationTest extends AuthDAOIntegrationTestBase {
@@ -117,6 +121,10 @@ public class OAuthDAOImplIntegrationTest extends AuthDAOIntegrationTestBase {
         accessTokenData.setTokenState(TokenState.ACTIVE);
         oAuthDAO.addAccessTokenInfo(accessTokenData);
         AccessTokenDTO accessTokenDTO = oAuthDAO.getTokenInfo(accessTokenData.getAccessToken());
+        Assert.assertEquals(accessTokenData.getAccessTokenCreatedTime().toEpochMilli(),
+                accessTokenDTO.getTimeCreated());
+        Assert.assertEquals(accessTokenData.getRefreshTokenCreatedTime().toEpochMilli(), accessTokenDTO
+                .getRefreshTokenCreatedTime());
         Assert.assertEquals(accessTokenData.getAccessTokenValidityPeriod(), accessTokenDTO.getValidityPeriod());
         Assert.assertEquals(accessTokenData.getRefreshTokenValidityPeriod(), accessTokenDTO
                 .getRefreshTokenValidityPeriod());
@@ -190,6 +198,93 @@ public class OAuthDAOImplIntegrationTest extends AuthDAOIntegrationTestBase {
         Assert.assertEquals(accessTokenData.getAuthUser(), accessTokenDTO.getAuthUser());
     }
 
+    @Test
+    public void testGetAccessTokenInfoWithMultipleScopes() throws OAuthDAOException, ClientRegistrationDAOException {
+
+        ApplicationDAO applicationDAO = DAOFactory.getApplicationDAO();
+        OAuthDAO oAuthDAO = new OAuthDAOImpl();
+        Application application = new Application();
+        application.setClientId(UUID.randomUUID().toString());
+        application.setClientSecret(UUID.randomUUID().toString());
+        application.setClientName("testGetAccessTokenInfoWithMultipleScopes");
+        applicationDAO.createApplication(application);
+        AccessTokenData accessTokenData = new AccessTokenData();
+        accessTokenData.setAccessToken(UUID.randomUUID().toString());
+        accessTokenData.setAccessTokenValidityPeriod(3600);
+        accessTokenData.setAuthUser("admin");
+        accessTokenData.setAccessTokenCreatedTime(Instant.now());
+        accessTokenData.setClientId(application.getClientId());
+        accessTokenData.setGrantType("password");
+        accessTokenData.setHashedScopes(OAuthUtils.hashScopes(new Scope("read", "write", "delete")));
+        accessTokenData.setRefreshToken(UUID.randomUUID().toString());
+        accessTokenData.setRefreshTokenCreatedTime(Instant.now());
+        accessTokenData.setRefreshTokenValidityPeriod(15000L);
+        accessTokenData.setScopes(Arrays.asList("read", "write", "delete"));
+        accessTokenData.setTokenState(TokenState.ACTIVE);
+        oAuthDAO.addAccessTokenInfo(accessTokenData);
+
+        AccessTokenData tokenWithoutScopes = new AccessTokenData();
+        tokenWithoutScopes.setAccessToken(UUID.randomUUID().toString());
+        tokenWithoutScopes.setAccessTokenValidityPeriod(3600);
+        tokenWithoutScopes.setAuthUser("admin");
+        tokenWithoutScopes.setAccessTokenCreatedTime(Instant.now());
+        tokenWithoutScopes.setClientId(application.getClientId());
+        tokenWithoutScopes.setGrantType("client_credentials");
+        tokenWithoutScopes.setHashedScopes(OAuthUtils.hashScopes(new Scope()));
+        tokenWithoutScopes.setScopes(Collections.emptyList());
+        tokenWithoutScopes.setTokenState(TokenState.ACTIVE);
+        oAuthDAO.addAccessTokenInfo(tokenWithoutScopes);
+
+        String scopes = String.join(" ", accessTokenData.getScopes());
+        AccessTokenDTO accessTokenDTO = oAuthDAO.getTokenInfo(accessTokenData.getAccessToken());
+        Assert.assertEquals(accessTokenDTO.getScopes(), scopes);
+        Assert.assertEquals(accessTokenDTO.getConsumerKey(), application.getClientId());
+        accessTokenDTO = oAuthDAO.getTokenInfo(accessTokenData.getRefreshToken(), accessTokenData.getClientId());
+        Assert.assertEquals(accessTokenDTO.getScopes(), scopes);
+        Assert.assertEquals(accessTokenDTO.getAccessToken(), accessTokenData.getAccessToken());
+        accessTokenDTO = oAuthDAO.getTokenInfo(accessTokenData.getAuthUser(), accessTokenData.getGrantType(),
+                accessTokenData.getClientId(), accessTokenData.getHashedScopes());
+        Assert.assertEquals(accessTokenDTO.getScopes(), scopes);
+        Assert.assertEquals(accessTokenDTO.getAccessToken(), accessTokenData.getAccessToken());
+
+        accessTokenDTO = oAuthDAO.getTokenInfo(tokenWithoutScopes.getAccessToken());
+        Assert.assertEquals(accessTokenDTO.getScopes(), "");
+        Assert.assertEquals(accessTokenDTO.getRefreshTokenCreatedTime(), 0);
+        Assert.assertNull(oAuthDAO.getTokenInfo(UUID.randomUUID().toString()));
+    }
+
+    @Test
+    public void testAddAccessTokenInfoBatch() throws OAuthDAOException, ClientRegistrationDAOException {
+
+        ApplicationDAO applicationDAO = DAOFactory.getApplicationDAO();
+        OAuthDAO oAuthDAO = new OAuthDAOImpl();
+        Application application = new Application();
+        application.setClientId(UUID.randomUUID().toString());
+        application.setClientSecret(UUID.randomUUID().toString());
+        application.setClientName("testAddAccessTokenInfoBatch");
+        applicationDAO.createApplication(application);
+        List<AccessTokenData> accessTokenDataList = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            AccessTokenData accessTokenData = new AccessTokenData();
+            accessTokenData.setAccessToken(UUID.randomUUID().toString());
+            accessTokenData.setAccessTokenValidityPeriod(3600);
+            accessTokenData.setAuthUser("admin");
+            accessTokenData.setAccessTokenCreatedTime(Instant.now());
+            accessTokenData.setClientId(application.getClientId());
+            accessTokenData.setGrantType("client_credentials");
+            accessTokenData.setHashedScopes(OAuthUtils.hashScopes(new Scope("read", "scope" + i)));
+            accessTokenData.setScopes(Arrays.asList("read", "scope" + i));
+            accessTokenData.setTokenState(TokenState.ACTIVE);
+            accessTokenDataList.add(accessTokenData);
+        }
+        oAuthDAO.addAccessTokenInfo(accessTokenDataList);
+        for (int i = 0; i < 5; i++) {
+            AccessTokenDTO accessTokenDTO = oAuthDAO.getTokenInfo(accessTokenDataList.get(i).getAccessToken());
+            Assert.assertEquals(accessTokenDTO.getScopes(), "read scope" + i);
+            Assert.assertEquals(accessTokenDTO.getConsumerKey(), application.getClientId());
+        }
+    }
+
     @Test
     public void testAddAndGetOauthCode() throws OAuthDAOException, ClientRegistrationDAOException, URISyntaxException {
 
@@ -207,6 +302,123 @@ public class OAuthDAOImplIntegrationTest extends AuthDAOIntegrationTestBase {
                 .getCallBackUrl())), "read");
     }
 
+    @Test
+    public void testDeleteExpiredAccessTokens() throws OAuthDAOException, ClientRegistrationDAOException {
+
+        ApplicationDAO applicationDAO = DAOFactory.getApplicationDAO();
+        OAuthDAO oAuthDAO = new OAuthDAOImpl();
+        Application application = new Application();
+        application.setClientId(UUID.randomUUID().toString());
+        application.setClientSecret(UUID.randomUUID().toString());
+        application.setClientName("testDeleteExpiredAccessTokens");
+        applicationDAO.createApplication(application);
+        Instant twoHoursAgo = Instant.now().minusSeconds(7200);
+        AccessTokenData expired = createToken(application, twoHoursAgo, 3600, TokenState.ACTIVE);
+        expired.setRefreshTokenCreatedTime(twoHoursAgo);
+        expired.setRefreshTokenValidityPeriod(3600);
+        AccessTokenData refreshTokenValid = createToken(application, twoHoursAgo, 3600, TokenState.ACTIVE);
+        refreshTokenValid.setRefreshTokenCreatedTime(twoHoursAgo);
+        refreshTokenValid.setRefreshTokenValidityPeriod(86400);
+        AccessTokenData inactive = createToken(application, twoHoursAgo, 3600, TokenState.INACTIVE);
+        inactive.setRefreshTokenCreatedTime(twoHoursAgo);
+        inactive.setRefreshTokenValidityPeriod(86400);
+        AccessTokenData active = createToken(application, Instant.now(), 3600, TokenState.ACTIVE);
+        AccessTokenData revokedActive = createToken(application, Instant.now(), 3600, TokenState.INACTIVE);
+        AccessTokenData neverExpires = createToken(application, twoHoursAgo, -1, TokenState.ACTIVE);
+        oAuthDAO.addAccessTokenInfo(Arrays.asList(expired, refreshTokenValid, inactive, active, revokedActive,
+                neverExpires));
+
+        // nothing expired before the tokens were issued
+        Assert.assertTrue(oAuthDAO.deleteExpiredAccessTokens(twoHoursAgo.toEpochMilli(), 100).isEmpty());
+        List<String> deletedTokens = new ArrayList<>();
+        List<String> deleted;
+        do {
+            deleted = oAuthDAO.deleteExpiredAccessTokens(System.currentTimeMillis(), 1);
+            Assert.assertTrue(deleted.size() <= 1);
+            deletedTokens.addAll(deleted);
+        } while (!deleted.isEmpty());
+        Assert.assertTrue(deletedTokens.contains(expired.getAccessToken()));
+        Assert.assertTrue(deletedTokens.contains(inactive.getAccessToken()));
+
+        Assert.assertNull(oAuthDAO.getTokenInfo(expired.getAccessToken()));
+        Assert.assertNull(oAuthDAO.getTokenInfo(inactive.getAccessToken()));
+        Assert.assertNotNull(oAuthDAO.getTokenInfo(refreshTokenValid.getAccessToken()));
+        Assert.assertNotNull(oAuthDAO.getTokenInfo(active.getAccessToken()));
+        Assert.assertNotNull(oAuthDAO.getTokenInfo(revokedActive.getAccessToken()));
+        Assert.assertNotNull(oAuthDAO.getTokenInfo(neverExpires.getAccessToken()));
+        Assert.assertTrue(oAuthDAO.getInactiveAccessTokens(System.currentTimeMillis())
+                .contains(revokedActive.getAccessToken()));
+    }
+
+    @Test
+    public void testGetInactiveAccessTokens() throws OAuthDAOException, ClientRegistrationDAOException {
+
+        ApplicationDAO applicationDAO = DAOFactory.getApplicationDAO();
+        OAuthDAO oAuthDAO = new OAuthDAOImpl();
+        Application application = new Application();
+        application.setClientId(UUID.randomUUID().toString());
+        application.setClientSecret(UUID.randomUUID().toString());
+        application.setClientName("testGetInactiveAccessTokens");
+        applicationDAO.createApplication(application);
+        Instant twoHoursAgo = Instant.now().minusSeconds(7200);
+        AccessTokenData expired = createToken(application, twoHoursAgo, 3600, TokenState.INACTIVE);
+        AccessTokenData revoked = createToken(application, Instant.now(), 3600, TokenState.INACTIVE);
+        AccessTokenData neverExpires = createToken(application, twoHoursAgo, -1, TokenState.INACTIVE);
+        AccessTokenData active = createToken(application, Instant.now(), 3600, TokenState.ACTIVE);
+        oAuthDAO.addAccessTokenInfo(Arrays.asList(expired, revoked, neverExpires, active));
+
+        Set<String> inactiveTokens = oAuthDAO.getInactiveAccessTokens(System.currentTimeMillis());
+        Assert.assertFalse(inactiveTokens.contains(expired.getAccessToken()));
+        Assert.assertTrue(inactiveTokens.contains(revoked.getAccessToken()));
+        Assert.assertTrue(inactiveTokens.contains(neverExpires.getAccessToken()));
+        Assert.assertFalse(inactiveTokens.contains(active.getAccessToken()));
+        Assert.assertTrue(oAuthDAO.getInactiveAccessTokens(twoHoursAgo.toEpochMilli())
+                .contains(expired.getAccessToken()));
+    }
+
+    @Test
+    public void testDeleteAuthCodes() throws OAuthDAOException, ClientRegistrationDAOException, URISyntaxException {
+
+        ApplicationDAO applicationDAO = DAOFactory.getApplicationDAO();
+        OAuthDAO oAuthDAO = new OAuthDAOImpl();
+        Application application = new Application();
+        application.setClientId(UUID.randomUUID().toString());
+        application.setClientSecret(UUID.randomUUID().toString());
+        application.setClientName("testDeleteAuthCodes");
+        application.setCallBackUrl("https://localhost");
+        applicationDAO.createApplication(application);
+        URI callBackUrl = new URI(application.getCallBackUrl());
+        List<String> authCodes = Arrays.asList(UUID.randomUUID().toString(), UUID.randomUUID().toString());
+        for (String authCode : authCodes) {
+            oAuthDAO.addAuthCodeInfo(authCode, application.getClientId(), "read", callBackUrl);
+        }
+
+        Assert.assertEquals(oAuthDAO.deleteAuthCodes(System.currentTimeMillis() - 3600000L, 100), 0);
+        Assert.assertEquals(oAuthDAO.deleteAuthCodes(System.currentTimeMillis() + 1, 1), 1);
+        while (oAuthDAO.deleteAuthCodes(System.currentTimeMillis() + 1, 1) > 0) {
+            log.debug("Deleted an authorization code");
+        }
+        for (String authCode : authCodes) {
+            Assert.assertNull(oAuthDAO.getScopeForAuthCode(authCode, application.getClientId(), callBackUrl));
+        }
+    }
+
+    private static AccessTokenData createToken(Application application, Instant createdTime, long validityPeriod,
+            TokenState tokenState) {
+
+        AccessTokenData accessTokenData = new AccessTokenData();
+        accessTokenData.setAccessToken(UUID.randomUUID().toString());
+        accessTokenData.setAccessTokenValidityPeriod(validityPeriod);
+        accessTokenData.setAuthUser("admin");
+        accessTokenData.setAccessTokenCreatedTime(createdTime);
+        accessTokenData.setClientId(application.getClientId());
+        accessTokenData.setGrantType("password");
+        accessTokenData.setHashedScopes(OAuthUtils.hashScopes(new Scope("read")));
+        accessTokenData.setScopes(Collections.singletonList("read"));
+        accessTokenData.setTokenState(tokenState);
+        return accessTokenData;
+    }
+
     @AfterClass
     public void cleanup() throws Exception {
 
@@ -0,0 +1,113 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+package org.wso2.carbon.auth.oauth.dao.impl;
+
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+import org.wso2.carbon.auth.oauth.configuration.models.TokenCleanupConfiguration;
+import org.wso2.carbon.auth.oauth.dao.OAuthDAO;
+import org.wso2.carbon.auth.oauth.exception.OAuthDAOException;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+public class TokenCleanerTest {
+
+    @Test
+    public void testCleanupDeletesInBatches() throws Exception {
+        OAuthDAO oauthDAO = Mockito.mock(OAuthDAO.class);
+        Mockito.when(oauthDAO.deleteExpiredAccessTokens(Mockito.anyLong(), Mockito.eq(2)))
+                .thenReturn(Arrays.asList("token1", "token2"), Arrays.asList("token3", "token4"),
+                        Collections.singletonList("token5"));
+        Mockito.when(oauthDAO.deleteAuthCodes(Mockito.anyLong(), Mockito.eq(2))).thenReturn(0);
+        TokenCleaner tokenCleaner = new TokenCleaner(oauthDAO, createConfiguration());
+
+        long startTime = System.currentTimeMillis();
+        tokenCleaner.cleanup();
+        ArgumentCaptor<Long> expiredBefore = ArgumentCaptor.forClass(Long.class);
+        Mockito.verify(oauthDAO, Mockito.times(3)).deleteExpiredAccessTokens(expiredBefore.capture(),
+                Mockito.eq(2));
+        Assert.assertTrue(expiredBefore.getValue() >= startTime - 60000L);
+        Assert.assertTrue(expiredBefore.getValue() <= System.currentTimeMillis() - 60000L);
+        ArgumentCaptor<Long> createdBefore = ArgumentCaptor.forClass(Long.class);
+        Mockito.verify(oauthDAO).deleteAuthCodes(createdBefore.capture(), Mockito.eq(2));
+        Assert.assertTrue(createdBefore.getValue() <= System.currentTimeMillis() - 10000L);
+        Assert.assertEquals(tokenCleaner.getPurgedAccessTokenCount(), 5);
+        Assert.assertEquals(tokenCleaner.getPurgedAuthCodeCount(), 0);
+        Assert.assertEquals(tokenCleaner.getBatchCount(), 4);
+    }
+
+    @Test
+    public void testStoppedCleanerDoesNotDelete() throws Exception {
+        OAuthDAO oauthDAO = Mockito.mock(OAuthDAO.class);
+        TokenCleaner tokenCleaner = new TokenCleaner(oauthDAO, createConfiguration());
+        tokenCleaner.start();
+        tokenCleaner.stop();
+
+        tokenCleaner.cleanup();
+        Mockito.verify(oauthDAO, Mockito.never()).deleteExpiredAccessTokens(Mockito.anyLong(), Mockito.anyInt());
+        Mockito.verify(oauthDAO, Mockito.never()).deleteAuthCodes(Mockito.anyLong(), Mockito.anyInt());
+    }
+
+    @Test
+    public void testScheduledCleanup() throws Exception {
+        OAuthDAO oauthDAO = Mockito.mock(OAuthDAO.class);
+        Mockito.when(oauthDAO.deleteExpiredAccessTokens(Mockito.anyLong(), Mockito.anyInt()))
+                .thenThrow(new OAuthDAOException("Database is not available"))
+                .thenReturn(Collections.singletonList("token1"));
+        TokenCleanupConfiguration configuration = createConfiguration();
+        configuration.setCleanupInterval(1L);
+        TokenCleaner tokenCleaner = new TokenCleaner(oauthDAO, configuration);
+        tokenCleaner.start();
+        try {
+            // a failed run does not cancel the following runs
+            Mockito.verify(oauthDAO, Mockito.timeout(10000).atLeast(2))
+                    .deleteExpiredAccessTokens(Mockito.anyLong(), Mockito.anyInt());
+        } finally {
+            tokenCleaner.stop();
+        }
+        Assert.assertEquals(tokenCleaner.getFailedRunCount(), 1);
+        Assert.assertTrue(tokenCleaner.getPurgedAccessTokenCount() >= 1);
+    }
+
+    @Test
+    public void testDisabledCleanerIsNotScheduled() throws Exception {
+        OAuthDAO oauthDAO = Mockito.mock(OAuthDAO.class);
+        TokenCleanupConfiguration configuration = createConfiguration();
+        configuration.setEnabled(false);
+        configuration.setCleanupInterval(1L);
+        TokenCleaner tokenCleaner = new TokenCleaner(oauthDAO, configuration);
+        tokenCleaner.start();
+        Thread.sleep(1500);
+        tokenCleaner.stop();
+        Assert.assertFalse(tokenCleaner.isEnabled());
+        Mockito.verifyZeroInteractions(oauthDAO);
+    }
+
+    private TokenCleanupConfiguration createConfiguration() {
+        TokenCleanupConfiguration configuration = new TokenCleanupConfiguration();
+        configuration.setRetentionPeriod(60L);
+        configuration.setAuthorizationCodeRetentionPeriod(10L);
+        configuration.setBatchSize(2);
+        configuration.setBatchInterval(1L);
+        return configuration;
+    }
+}
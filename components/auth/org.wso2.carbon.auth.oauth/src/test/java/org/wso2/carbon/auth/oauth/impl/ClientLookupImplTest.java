@@ -25,6 +25,8 @@ import org.mockito.Mockito;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
+import org.wso2.carbon.auth.client.registration.dao.ApplicationDAO;
+import org.wso2.carbon.auth.client.registration.model.Application;
 import org.wso2.carbon.auth.oauth.ClientLookup;
 import org.wso2.carbon.auth.oauth.OAuthConstants;
 import org.wso2.carbon.auth.oauth.dao.OAuthDAO;
@@ -37,11 +39,13 @@ import java.util.Map;
 public class ClientLookupImplTest {
 
     private OAuthDAO oAuthDAO;
+    private ApplicationDAO applicationDAO;
 
     @BeforeMethod
     public void setup() {
 
         oAuthDAO = Mockito.mock(OAuthDAO.class);
+        applicationDAO = Mockito.mock(ApplicationDAO.class);
     }
 
     @Test
@@ -126,4 +130,52 @@ public class ClientLookupImplTest {
         Assert.assertEquals(accessTokenContext.getErrorObject(), OAuth2Error.INVALID_REQUEST);
         Assert.assertEquals(mutableBoolean, new MutableBoolean(true));
     }
+
+    @Test
+    public void testAuthenticateClient() throws Exception {
+
+        ClientLookup clientLookup = new ClientLookupImpl(oAuthDAO, applicationDAO);
+        String authorization = "Basic YWRtaW46YWRtaW4=";
+        AccessTokenContext accessTokenContext = new AccessTokenContext();
+        MutableBoolean mutableBoolean = new MutableBoolean(false);
+        Application application = new Application();
+        application.setClientId("admin");
+        application.setClientSecret("admin");
+        Mockito.when(applicationDAO.getApplication("admin")).thenReturn(application);
+        Application authenticated = clientLookup.authenticateClient(authorization, accessTokenContext,
+                new HashMap<>(), mutableBoolean);
+        Assert.assertEquals(authenticated, application);
+        Assert.assertEquals(mutableBoolean, new MutableBoolean(false));
+        Mockito.verify(oAuthDAO, Mockito.never()).isClientCredentialsValid(Mockito.anyString(), Mockito.anyString());
+    }
+
+    @Test
+    public void testAuthenticateClientInvalidSecret() throws Exception {
+
+        ClientLookup clientLookup = new ClientLookupImpl(oAuthDAO, applicationDAO);
+        AccessTokenContext accessTokenContext = new AccessTokenContext();
+        Map<String, String> queryParameters = new HashMap<>();
+        queryParameters.put(OAuthConstants.CLIENT_ID_QUERY_PARAM, "admin");
+        queryParameters.put(OAuthConstants.CLIENT_SECRET_QUERY_PARAM, "wrong");
+        MutableBoolean mutableBoolean = new MutableBoolean(false);
+        Application application = new Application();
+        application.setClientId("admin");
+        application.setClientSecret("admin");
+        Mockito.when(applicationDAO.getApplication("admin")).thenReturn(application);
+        Assert.assertNull(clientLookup.authenticateClient("", accessTokenContext, queryParameters, mutableBoolean));
+        Assert.assertEquals(accessTokenContext.getErrorObject(), OAuth2Error.INVALID_CLIENT);
+        Assert.assertEquals(mutableBoolean, new MutableBoolean(true));
+    }
+
+    @Test
+    public void testAuthenticateUnknownClient() throws Exception {
+
+        ClientLookup clientLookup = new ClientLookupImpl(oAuthDAO, applicationDAO);
+        String authorization = "Basic YWRtaW46YWRtaW4=";
+        AccessTokenContext accessTokenContext = new AccessTokenContext();
+        MutableBoolean mutableBoolean = new MutableBoolean(false);
+        Assert.assertNull(clientLookup.authenticateClient(authorization, accessTokenContext, new HashMap<>(),
+                mutableBoolean));
+        Assert.assertEquals(accessTokenContext.getErrorObject(), OAuth2Error.INVALID_CLIENT);
+    }
 }
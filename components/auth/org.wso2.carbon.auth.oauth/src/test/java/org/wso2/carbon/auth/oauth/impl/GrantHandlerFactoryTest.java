@@ -81,6 +81,30 @@ public class GrantHandlerFactoryTest {
         Assert.assertEquals(OAuth2Error.UNSUPPORTED_GRANT_TYPE, context.getErrorObject());
     }
 
+    @Test
+    public void testGrantHandlerIsShared() throws Exception {
+
+        grantTypeValue = GrantType.PASSWORD.getValue();
+        Optional<GrantHandler> handler = new GrantHandlerFactory(userStoreManager, userNameMapper)
+                .createGrantHandler(grantTypeValue, context, oauthDAO, applicationDAO, haltExecution);
+        Optional<GrantHandler> secondHandler = new GrantHandlerFactory(userStoreManager, userNameMapper)
+                .createGrantHandler(grantTypeValue, context, oauthDAO, applicationDAO, haltExecution);
+        Assert.assertTrue(handler.isPresent());
+        Assert.assertSame(handler.get(), secondHandler.get());
+        secondHandler = new GrantHandlerFactory(userStoreManager, userNameMapper)
+                .createGrantHandler(grantTypeValue, context, Mockito.mock(OAuthDAO.class),
+                        Mockito.mock(ApplicationDAO.class), haltExecution);
+        Assert.assertSame(handler.get(), secondHandler.get());
+
+        //handlers are created again once the configured grant types change
+        ServiceReferenceHolder.getInstance().getAuthConfigurations().getGrantTypes()
+                .put(GrantType.PASSWORD.getValue(), PasswordGrantHandlerImpl.class.getName() + "Missing");
+        handler = new GrantHandlerFactory(userStoreManager, userNameMapper)
+                .createGrantHandler(grantTypeValue, context, oauthDAO, applicationDAO, haltExecution);
+        Assert.assertFalse(handler.isPresent());
+        Assert.assertEquals(OAuth2Error.UNSUPPORTED_GRANT_TYPE, context.getErrorObject());
+    }
+
     //test class for grantHandler implementation
     class InstantiationExceptionImpl implements GrantHandler {
 
@@ -0,0 +1,194 @@
+/*
+ *  Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *  WSO2 Inc. licenses this file to you under the Apache License,
+ *  Version 2.0 (the "License"); you may not use this file except
+ *  in compliance with the License.
+ *  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+
+package org.wso2.carbon.auth.oauth.impl;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.util.Base64URL;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.nimbusds.oauth2.sdk.Scope;
+import org.mockito.Mockito;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+import org.wso2.carbon.auth.core.configuration.models.AuthConfiguration;
+import org.wso2.carbon.auth.core.configuration.models.KeyManagerConfiguration;
+import org.wso2.carbon.auth.core.exception.AuthException;
+import org.wso2.carbon.auth.oauth.OAuthConstants;
+import org.wso2.carbon.auth.oauth.OAuthUtils;
+import org.wso2.carbon.auth.oauth.cache.RevokedTokenList;
+import org.wso2.carbon.auth.oauth.configuration.models.OAuthConfiguration;
+import org.wso2.carbon.auth.oauth.dao.OAuthDAO;
+import org.wso2.carbon.auth.oauth.dto.AccessTokenContext;
+import org.wso2.carbon.auth.oauth.internal.ServiceReferenceHolder;
+
+import java.io.File;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.UUID;
+
+public class JWTAccessTokenValidatorTest {
+
+    private OAuthConfiguration oAuthConfiguration;
+    private OAuthDAO oauthDAO;
+    private JWTAccessTokenValidator jwtAccessTokenValidator;
+
+    @BeforeMethod
+    public void init() throws Exception {
+
+        oAuthConfiguration = new OAuthConfiguration();
+        ServiceReferenceHolder.getInstance().setConfig(oAuthConfiguration);
+        KeyManagerConfiguration keyManagerConfiguration = new KeyManagerConfiguration();
+        keyManagerConfiguration.setKeyStoreLocation("src" + File.separator + "test" + File.separator + "resources" +
+                                                            File.separator + "wso2carbon.jks");
+        AuthConfiguration authConfiguration = new AuthConfiguration();
+        authConfiguration.setKeyManagerConfigs(keyManagerConfiguration);
+        ServiceReferenceHolder.getInstance().setAuthConfiguration(authConfiguration);
+        ServiceReferenceHolder.getInstance().setPrivateKey(OAuthUtils.extractPrivateKeyFromCertificate());
+        ServiceReferenceHolder.getInstance().setPublicKey(OAuthUtils.extractPublicKeyFromCertificate());
+        oauthDAO = Mockito.mock(OAuthDAO.class);
+        Mockito.when(oauthDAO.getInactiveAccessTokens(Mockito.anyLong())).thenReturn(new HashSet<>());
+        jwtAccessTokenValidator = new JWTAccessTokenValidator(new RevokedTokenList(oauthDAO, 60000L));
+    }
+
+    @Test
+    public void testValidateJWTToken() throws Exception {
+
+        String token = generateToken();
+        SignedJWT signedJWT = jwtAccessTokenValidator.parse(token);
+        Assert.assertNotNull(signedJWT);
+        JWTClaimsSet claimsSet = jwtAccessTokenValidator.validate(signedJWT);
+        Assert.assertEquals(claimsSet.getSubject(), "admin");
+        Assert.assertEquals(claimsSet.getClaim("azp"), "abcd-1234");
+        Assert.assertEquals(claimsSet.getClaim("scope"), "default");
+
+        //the revoked token list is loaded once and reused for later tokens
+        jwtAccessTokenValidator.validate(jwtAccessTokenValidator.parse(generateToken()));
+        Mockito.verify(oauthDAO, Mockito.times(1)).getInactiveAccessTokens(Mockito.anyLong());
+    }
+
+    @Test
+    public void testParseOpaqueToken() {
+
+        Assert.assertNull(jwtAccessTokenValidator.parse("2d1e8f5e-5bd4-3b5a-9ea7-c1f9bd5b1d2e"));
+        Assert.assertNull(jwtAccessTokenValidator.parse("a.b.c"));
+        Assert.assertNull(jwtAccessTokenValidator.parse(null));
+    }
+
+    @Test
+    public void testValidateTamperedJWTToken() throws Exception {
+
+        String[] parts = generateToken().split("\\.");
+        JWTClaimsSet claimsSet = new JWTClaimsSet.Builder(SignedJWT.parse(generateToken()).getJWTClaimsSet())
+                .subject("attacker").build();
+        String token = parts[0] + "." + Base64URL.encode(claimsSet.toString()) + "." + parts[2];
+        assertInvalid(token, "signature validation failed");
+    }
+
+    @Test
+    public void testValidateExpiredJWTToken() throws Exception {
+
+        long now = System.currentTimeMillis();
+        assertInvalid(sign(claims().expirationTime(new Date(now - 60000L)).build()), "expired");
+        assertInvalid(sign(claims().notBeforeTime(new Date(now + 60000L)).build()), "not yet valid");
+    }
+
+    @Test
+    public void testValidateInfiniteValidityJWTToken() throws Exception {
+
+        //tokens with a negative validity period never expire and carry the maximum expiry time
+        JWTClaimsSet claimsSet = jwtAccessTokenValidator.validate(jwtAccessTokenValidator.parse(
+                sign(claims().expirationTime(new Date(Long.MAX_VALUE)).build())));
+        Assert.assertTrue(claimsSet.getExpirationTime().getTime() > Long.MAX_VALUE - 1000L);
+    }
+
+    @Test
+    public void testValidateJWTTokenClaims() throws Exception {
+
+        assertInvalid(sign(claims().issuer("https://localhost:9443/other").build()), "issuer");
+        assertInvalid(sign(claims().audience(Collections.emptyList()).build()), "audience");
+        assertInvalid(sign(claims().audience("other-client").build()), "audience");
+    }
+
+    @Test
+    public void testValidateJWTTokenConfiguredAudience() throws Exception {
+
+        String token = sign(claims().audience("https://api.example.com").build());
+        assertInvalid(token, "audience");
+        oAuthConfiguration.setJwtAudiences(Collections.singletonList("https://api.example.com"));
+        Assert.assertNotNull(jwtAccessTokenValidator.validate(jwtAccessTokenValidator.parse(token)));
+    }
+
+    @Test
+    public void testValidateRevokedJWTToken() throws Exception {
+
+        SignedJWT signedJWT = jwtAccessTokenValidator.parse(generateToken());
+        jwtAccessTokenValidator.validate(signedJWT);
+        Mockito.when(oauthDAO.getInactiveAccessTokens(Mockito.anyLong()))
+                .thenReturn(Collections.singleton(signedJWT.getJWTClaimsSet().getJWTID()));
+        RevokedTokenList revokedTokenList = new RevokedTokenList(oauthDAO, 60000L);
+        try {
+            new JWTAccessTokenValidator(revokedTokenList).validate(signedJWT);
+            Assert.fail();
+        } catch (AuthException e) {
+            Assert.assertTrue(e.getMessage().contains("revoked"));
+        }
+    }
+
+    private void assertInvalid(String token, String reason) {
+
+        try {
+            jwtAccessTokenValidator.validate(jwtAccessTokenValidator.parse(token));
+            Assert.fail();
+        } catch (AuthException e) {
+            Assert.assertTrue(e.getMessage().contains(reason), e.getMessage());
+        }
+    }
+
+    private JWTClaimsSet.Builder claims() {
+
+        long now = System.currentTimeMillis();
+        return new JWTClaimsSet.Builder().issuer(oAuthConfiguration.getTokenIssuer()).subject("admin")
+                .audience("abcd-1234").claim("azp", "abcd-1234").jwtID(UUID.randomUUID().toString())
+                .issueTime(new Date(now)).notBeforeTime(new Date(now)).expirationTime(new Date(now + 3600000L));
+    }
+
+    private String sign(JWTClaimsSet claimsSet) throws Exception {
+
+        SignedJWT signedJWT = new SignedJWT(new JWSHeader(JWSAlgorithm.RS256), claimsSet);
+        signedJWT.sign(new RSASSASigner(ServiceReferenceHolder.getInstance().getPrivateKey()));
+        return signedJWT.serialize();
+    }
+
+    private String generateToken() throws AuthException {
+
+        AccessTokenContext accessTokenContext = new AccessTokenContext();
+        accessTokenContext.getParams().put(OAuthConstants.VALIDITY_PERIOD, 3600L);
+        accessTokenContext.getParams().put(OAuthConstants.SCOPES, new Scope("default"));
+        accessTokenContext.getParams().put(OAuthConstants.AUTH_USER, "admin");
+        accessTokenContext.getParams().put(OAuthConstants.CLIENT_ID, "abcd-1234");
+        new JWTTokenGenerator().generateAccessToken(accessTokenContext);
+        Assert.assertTrue(accessTokenContext.isSuccessful());
+        return accessTokenContext.getAccessTokenResponse().getTokens().getBearerAccessToken().getValue();
+    }
+}
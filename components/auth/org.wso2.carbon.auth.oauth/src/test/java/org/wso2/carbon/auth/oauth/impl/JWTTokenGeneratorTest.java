@@ -21,12 +21,15 @@ package org.wso2.carbon.auth.oauth.impl;
 
 import com.nimbusds.jose.JOSEException;
 import com.nimbusds.jose.JWSVerifier;
+import com.nimbusds.jose.crypto.ECDSAVerifier;
+import com.nimbusds.jose.crypto.MACVerifier;
 import com.nimbusds.jose.crypto.RSASSAVerifier;
 import com.nimbusds.jwt.JWTClaimsSet;
 import com.nimbusds.jwt.PlainJWT;
 import com.nimbusds.jwt.SignedJWT;
 import com.nimbusds.oauth2.sdk.AccessTokenResponse;
 import com.nimbusds.oauth2.sdk.Scope;
+import org.mockito.Mockito;
 import org.testng.Assert;
 import org.testng.annotations.Test;
 import org.wso2.carbon.auth.core.configuration.models.AuthConfiguration;
@@ -40,7 +43,12 @@ import org.wso2.carbon.auth.oauth.dto.AccessTokenContext;
 import org.wso2.carbon.auth.oauth.internal.ServiceReferenceHolder;
 
 import java.io.File;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.cert.Certificate;
+import java.security.interfaces.ECPublicKey;
 import java.security.interfaces.RSAPublicKey;
+import java.security.spec.ECGenParameterSpec;
 import java.text.ParseException;
 import java.util.Arrays;
 
@@ -109,6 +117,105 @@ public class JWTTokenGeneratorTest {
         Assert.assertTrue(jwt.verify(jwsVerifier));
     }
 
+    @Test
+    public void testGenerateJWTTokenAfterKeyRotation() throws Exception {
+
+        ServiceReferenceHolder.getInstance().setConfig(new OAuthConfiguration());
+        KeyManagerConfiguration keyManagerConfiguration = new KeyManagerConfiguration();
+        keyManagerConfiguration.setKeyStoreLocation("src" + File.separator + "test" + File.separator + "resources" +
+                                                            File.separator + "wso2carbon.jks");
+        AuthConfiguration authConfiguration = new AuthConfiguration();
+        authConfiguration.setKeyManagerConfigs(keyManagerConfiguration);
+        ServiceReferenceHolder.getInstance().setAuthConfiguration(authConfiguration);
+        ServiceReferenceHolder.getInstance().setPrivateKey(OAuthUtils.extractPrivateKeyFromCertificate());
+        ServiceReferenceHolder.getInstance().setPublicKey(OAuthUtils.extractPublicKeyFromCertificate());
+        TokenGenerator tokenGenerator = new JWTTokenGenerator();
+        RSAPublicKey oldPublicKey = (RSAPublicKey) ServiceReferenceHolder.getInstance().getPublicKey().getPublicKey();
+        SignedJWT jwt = SignedJWT.parse(generateToken(tokenGenerator));
+        String keyId = jwt.getHeader().getKeyID();
+        Assert.assertTrue(jwt.verify(new RSASSAVerifier(oldPublicKey)));
+
+        //keys are rotated, tokens should be signed with the new key and carry its key id
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+        Certificate certificate = Mockito.mock(Certificate.class);
+        Mockito.when(certificate.getEncoded()).thenReturn(keyPair.getPublic().getEncoded());
+        Mockito.when(certificate.getPublicKey()).thenReturn(keyPair.getPublic());
+        ServiceReferenceHolder.getInstance().setPrivateKey(keyPair.getPrivate());
+        ServiceReferenceHolder.getInstance().setPublicKey(certificate);
+        jwt = SignedJWT.parse(generateToken(tokenGenerator));
+        Assert.assertNotEquals(jwt.getHeader().getKeyID(), keyId);
+        Assert.assertTrue(jwt.verify(new RSASSAVerifier((RSAPublicKey) keyPair.getPublic())));
+        Assert.assertFalse(jwt.verify(new RSASSAVerifier(oldPublicKey)));
+    }
+
+    @Test
+    public void testGenerateJWTTokenWithECSign() throws Exception {
+
+        OAuthConfiguration oAuthConfiguration = new OAuthConfiguration();
+        oAuthConfiguration.setSignatureAlgorithm("SHA256withEC");
+        ServiceReferenceHolder.getInstance().setConfig(oAuthConfiguration);
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("EC");
+        keyPairGenerator.initialize(new ECGenParameterSpec("secp256r1"));
+        KeyPair keyPair = keyPairGenerator.generateKeyPair();
+        Certificate certificate = Mockito.mock(Certificate.class);
+        Mockito.when(certificate.getEncoded()).thenReturn(keyPair.getPublic().getEncoded());
+        ServiceReferenceHolder.getInstance().setPrivateKey(keyPair.getPrivate());
+        ServiceReferenceHolder.getInstance().setPublicKey(certificate);
+
+        SignedJWT jwt = SignedJWT.parse(generateToken(new JWTTokenGenerator()));
+        Assert.assertEquals(jwt.getHeader().getAlgorithm().getName(), "ES256");
+        Assert.assertNotNull(jwt.getHeader().getKeyID());
+        Assert.assertTrue(jwt.verify(new ECDSAVerifier((ECPublicKey) keyPair.getPublic())));
+
+        //an EC key cannot be used with RSA algorithms
+        oAuthConfiguration.setSignatureAlgorithm("SHA256withRSA");
+        try {
+            new JWTTokenGenerator();
+            Assert.fail();
+        } catch (AuthException e) {
+            Assert.assertTrue(e.getMessage().contains("does not support the signature algorithm"));
+        }
+    }
+
+    @Test
+    public void testGenerateJWTTokenWithHMACSign() throws Exception {
+
+        String secret = "a-shared-secret-which-is-at-least-256-bits";
+        OAuthConfiguration oAuthConfiguration = new OAuthConfiguration();
+        oAuthConfiguration.setSignatureAlgorithm("SHA256withHMAC");
+        ServiceReferenceHolder.getInstance().setConfig(oAuthConfiguration);
+        AuthConfiguration authConfiguration = new AuthConfiguration();
+        authConfiguration.getKeyManagerConfigs().setHmacSecret(secret);
+        ServiceReferenceHolder.getInstance().setAuthConfiguration(authConfiguration);
+
+        SignedJWT jwt = SignedJWT.parse(generateToken(new JWTTokenGenerator()));
+        Assert.assertEquals(jwt.getHeader().getAlgorithm().getName(), "HS256");
+        Assert.assertTrue(jwt.verify(new MACVerifier(secret)));
+
+        //a secret shorter than the hash output is rejected
+        oAuthConfiguration.setSignatureAlgorithm("SHA512withHMAC");
+        try {
+            new JWTTokenGenerator();
+            Assert.fail();
+        } catch (AuthException e) {
+            Assert.assertTrue(e.getMessage().contains("does not support the signature algorithm"));
+        }
+    }
+
+    private String generateToken(TokenGenerator tokenGenerator) {
+
+        AccessTokenContext accessTokenContext = new AccessTokenContext();
+        accessTokenContext.getParams().put(OAuthConstants.VALIDITY_PERIOD, 3600L);
+        accessTokenContext.getParams().put(OAuthConstants.SCOPES, new Scope("default"));
+        accessTokenContext.getParams().put(OAuthConstants.AUTH_USER, "admin");
+        accessTokenContext.getParams().put(OAuthConstants.CLIENT_ID, "abcd-1234");
+        tokenGenerator.generateAccessToken(accessTokenContext);
+        Assert.assertTrue(accessTokenContext.isSuccessful());
+        return accessTokenContext.getAccessTokenResponse().getTokens().getBearerAccessToken().getValue();
+    }
+
     @Test
     public void testGenerateJWTTokenWithUnsupportedSignatureAlgorithm() {
 
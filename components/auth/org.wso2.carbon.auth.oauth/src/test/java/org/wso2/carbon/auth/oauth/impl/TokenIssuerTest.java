@@ -130,6 +130,22 @@ public class TokenIssuerTest {
 
     }
 
+    @Test
+    public void testTokenGeneratorIsReused() {
+        OAuthConfiguration oAuthConfiguration = new OAuthConfiguration();
+        ServiceReferenceHolder.getInstance().setConfig(oAuthConfiguration);
+        TokenGenerator tokenGenerator = TokenGeneratorRegistry.getInstance()
+                .getTokenGenerator(Constants.DEFAULT_TOKEN_TYPE).get();
+        Assert.assertSame(TokenGeneratorRegistry.getInstance().getTokenGenerator(Constants.DEFAULT_TOKEN_TYPE).get(),
+                tokenGenerator);
+
+        oAuthConfiguration.getTokenGenerators().put("abc", DummyTokenGenerator.class.getName());
+        Assert.assertTrue(TokenGeneratorRegistry.getInstance().getTokenGenerator("abc").get()
+                instanceof DummyTokenGenerator);
+        ServiceReferenceHolder.getInstance().setConfig(new OAuthConfiguration());
+        Assert.assertFalse(TokenGeneratorRegistry.getInstance().getTokenGenerator("abc").isPresent());
+    }
+
     static class DummyTokenGenerator implements TokenGenerator {
 
         @Override
@@ -78,11 +78,11 @@ public class TokenRequestHandlerImplTest {
         String clientId = UUID.randomUUID().toString();
         Mockito.when(grantHandlerFactory.createGrantHandler("password", context, oauthDAO, applicationDAO, new
                 MutableBoolean(false))).thenReturn(Optional.of(grantHandler));
-        Mockito.when(clientLookup.getClientId(authorization, context, queryParameters, new MutableBoolean()))
-                .thenReturn(clientId);
         Application application = new Application();
+        application.setClientId(clientId);
         application.setApplicationAccessTokenExpiryTime(123L);
-        Mockito.when(applicationDAO.getApplication(clientId)).thenReturn(application);
+        Mockito.when(clientLookup.authenticateClient(authorization, context, queryParameters, new MutableBoolean()))
+                .thenReturn(application);
         Mockito.when(grantHandler.isAuthorizedClient(application, "password")).thenReturn(true);
         Mockito.when(grantHandler.validateGrant(Mockito.anyString(), Mockito.any(AccessTokenContext.class), Mockito
                 .anyMap())).thenReturn(true);
@@ -118,7 +118,7 @@ public class TokenRequestHandlerImplTest {
         AccessTokenContext context = new AccessTokenContext();
         Mockito.when(grantHandlerFactory.createGrantHandler("password", context, oauthDAO, applicationDAO, new
                 MutableBoolean(false))).thenReturn(Optional.of(grantHandler));
-        Mockito.when(clientLookup.getClientId(authorization, context, queryParameters, new MutableBoolean()))
+        Mockito.when(clientLookup.authenticateClient(authorization, context, queryParameters, new MutableBoolean()))
                 .thenReturn(null);
         AccessTokenContext accessTokenContext = tokenRequestHandler.generateToken(authorization, queryParameters);
         Assert.assertEquals(accessTokenContext.getErrorObject(), OAuth2Error.INVALID_CLIENT);
@@ -127,19 +127,16 @@ public class TokenRequestHandlerImplTest {
     @Test
     public void testGenerateTokenInvalidApp() throws Exception {
 
-        String authorization = "Basic ";
+        String authorization = "Basic YWRtaW46YWRtaW4=";
 
         TokenRequestHandler tokenRequestHandler = new TokenRequestHandlerImpl(oauthDAO, applicationDAO,
-                clientLookup, grantHandlerFactory);
+                grantHandlerFactory);
         Map<String, String> queryParameters = new HashMap<>();
         queryParameters.put(OAuthConstants.GRANT_TYPE_QUERY_PARAM, OAuthConstants.PASSWORD);
         AccessTokenContext context = new AccessTokenContext();
-        String clientId = UUID.randomUUID().toString();
         Mockito.when(grantHandlerFactory.createGrantHandler("password", context, oauthDAO, applicationDAO, new
                 MutableBoolean(false))).thenReturn(Optional.of(grantHandler));
-        Mockito.when(clientLookup.getClientId(authorization, context, queryParameters, new MutableBoolean()))
-                .thenReturn(clientId);
-        Mockito.when(applicationDAO.getApplication(clientId)).thenReturn(null);
+        Mockito.when(applicationDAO.getApplication("admin")).thenReturn(null);
         AccessTokenContext accessTokenContext = tokenRequestHandler.generateToken(authorization, queryParameters);
         Assert.assertEquals(accessTokenContext.getErrorObject(), OAuth2Error.INVALID_CLIENT);
     }
@@ -147,19 +144,16 @@ public class TokenRequestHandlerImplTest {
     @Test
     public void testGenerateTokenWhileThrowsExceptionWhileRetrievingAppingfo() throws Exception {
 
-        String authorization = "Basic ";
+        String authorization = "Basic YWRtaW46YWRtaW4=";
 
         TokenRequestHandler tokenRequestHandler = new TokenRequestHandlerImpl(oauthDAO, applicationDAO,
-                clientLookup, grantHandlerFactory);
+                grantHandlerFactory);
         Map<String, String> queryParameters = new HashMap<>();
         queryParameters.put(OAuthConstants.GRANT_TYPE_QUERY_PARAM, OAuthConstants.PASSWORD);
         AccessTokenContext context = new AccessTokenContext();
-        String clientId = UUID.randomUUID().toString();
         Mockito.when(grantHandlerFactory.createGrantHandler("password", context, oauthDAO, applicationDAO, new
                 MutableBoolean(false))).thenReturn(Optional.of(grantHandler));
-        Mockito.when(clientLookup.getClientId(authorization, context, queryParameters, new MutableBoolean()))
-                .thenReturn(clientId);
-        Mockito.when(applicationDAO.getApplication(clientId)).thenThrow(new ClientRegistrationDAOException("ss"));
+        Mockito.when(applicationDAO.getApplication("admin")).thenThrow(new ClientRegistrationDAOException("ss"));
         try {
             AccessTokenContext accessTokenContext = tokenRequestHandler.generateToken(authorization, queryParameters);
             Assert.fail();
@@ -181,11 +175,11 @@ public class TokenRequestHandlerImplTest {
         String clientId = UUID.randomUUID().toString();
         Mockito.when(grantHandlerFactory.createGrantHandler("password", context, oauthDAO, applicationDAO, new
                 MutableBoolean(false))).thenReturn(Optional.of(grantHandler));
-        Mockito.when(clientLookup.getClientId(authorization, context, queryParameters, new MutableBoolean()))
-                .thenReturn(clientId);
         Application application = new Application();
+        application.setClientId(clientId);
         application.setApplicationAccessTokenExpiryTime(123L);
-        Mockito.when(applicationDAO.getApplication(clientId)).thenReturn(application);
+        Mockito.when(clientLookup.authenticateClient(authorization, context, queryParameters, new MutableBoolean()))
+                .thenReturn(application);
         Mockito.when(grantHandler.isAuthorizedClient(application, "password")).thenReturn(true);
         Mockito.when(grantHandler.validateGrant(Mockito.anyString(), Mockito.any(AccessTokenContext.class), Mockito
                 .anyMap())).thenReturn(false);
@@ -208,11 +202,11 @@ public class TokenRequestHandlerImplTest {
         String clientId = UUID.randomUUID().toString();
         Mockito.when(grantHandlerFactory.createGrantHandler("password", context, oauthDAO, applicationDAO, new
                 MutableBoolean(false))).thenReturn(Optional.of(grantHandler));
-        Mockito.when(clientLookup.getClientId(authorization, context, queryParameters, new MutableBoolean()))
-                .thenReturn(clientId);
         Application application = new Application();
+        application.setClientId(clientId);
         application.setApplicationAccessTokenExpiryTime(123L);
-        Mockito.when(applicationDAO.getApplication(clientId)).thenReturn(application);
+        Mockito.when(clientLookup.authenticateClient(authorization, context, queryParameters, new MutableBoolean()))
+                .thenReturn(application);
         Mockito.when(grantHandler.isAuthorizedClient(application, "password")).thenReturn(true);
         Mockito.when(grantHandler.validateGrant(Mockito.anyString(), Mockito.any(AccessTokenContext.class), Mockito
                 .anyMap())).thenReturn(true);
@@ -235,11 +229,11 @@ public class TokenRequestHandlerImplTest {
         String clientId = UUID.randomUUID().toString();
         Mockito.when(grantHandlerFactory.createGrantHandler("password", context, oauthDAO, applicationDAO, new
                 MutableBoolean(false))).thenReturn(Optional.of(grantHandler));
-        Mockito.when(clientLookup.getClientId(authorization, context, queryParameters, new MutableBoolean()))
-                .thenReturn(clientId);
         Application application = new Application();
+        application.setClientId(clientId);
         application.setApplicationAccessTokenExpiryTime(123L);
-        Mockito.when(applicationDAO.getApplication(clientId)).thenReturn(application);
+        Mockito.when(clientLookup.authenticateClient(authorization, context, queryParameters, new MutableBoolean()))
+                .thenReturn(application);
         Mockito.when(grantHandler.isAuthorizedClient(application, "password")).thenReturn(false);
         AccessTokenContext accessTokenContext = tokenRequestHandler.generateToken(authorization, queryParameters);
         Assert.assertEquals(accessTokenContext.getErrorObject(), OAuth2Error.UNSUPPORTED_GRANT_TYPE);
@@ -61,9 +61,10 @@ public class GroupsApi implements Microservice  {
     public Response groupsGet(@ApiParam(value = "The index of the first element in the result.  ", defaultValue="0") @DefaultValue("0") @QueryParam("startIndex") Integer startIndex
 ,@ApiParam(value = "Number of elements returned in the paginated result. ", defaultValue="25") @DefaultValue("25") @QueryParam("count") Integer count
 ,@ApiParam(value = "A filter expression to request a subset of the result. ") @QueryParam("filter") String filter
+,@ApiParam(value = "Id of the last element of the previous page. When given, the result continues after this element and startIndex is ignored. Cannot be combined with a filter. ") @QueryParam("cursor") String cursor
  ,@Context Request request)
     throws NotFoundException {
-        return delegate.groupsGet(startIndex,count,filter,request);
+        return delegate.groupsGet(startIndex,count,filter,cursor,request);
     }
     @OPTIONS
     @DELETE
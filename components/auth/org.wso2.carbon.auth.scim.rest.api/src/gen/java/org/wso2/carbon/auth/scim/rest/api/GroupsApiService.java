@@ -23,6 +23,7 @@ public abstract class GroupsApiService {
     public abstract Response groupsGet(Integer startIndex
  ,Integer count
  ,String filter
+ ,String cursor
   ,Request request) throws NotFoundException;
     public abstract Response groupsIdDelete(String id
   ,Request request) throws NotFoundException;
@@ -49,6 +49,21 @@ public class UsersApi implements Microservice  {
 
     @OPTIONS
     @GET
+    @Path("/.export")
+    @Consumes({ "application/json" })
+    @Produces({ "application/x-ndjson" })
+    @io.swagger.annotations.ApiOperation(value = "Export users", notes = "Export all users as newline delimited JSON, one user with its attributes per line. Users are streamed from the user store, so the export is not limited to a page. The last line is a status record. It is {\"status\": \"complete\", \"count\": <users>} when every user was exported, or {\"status\": \"error\", \"count\": <users>, \"error\": <message>} when reading the user store failed part way. Since the response status is sent before the users are read, such a failure still returns 200. An export without a status record is truncated. ", response = void.class, tags={ "Users", })
+    @io.swagger.annotations.ApiResponses(value = { 
+        @io.swagger.annotations.ApiResponse(code = 200, message = "OK. Users returned, followed by the status record. ", response = void.class),
+        
+        @io.swagger.annotations.ApiResponse(code = 500, message = "Internal Server Error. The user store could not be accessed. ", response = void.class) })
+    public Response usersExportGet(@ApiParam(value = "Comma separated attribute URIs to export. All attributes are exported when not given. ") @QueryParam("attributes") String attributes
+ ,@Context Request request)
+    throws NotFoundException {
+        return delegate.usersExportGet(attributes,request);
+    }
+    @OPTIONS
+    @GET
     
     @Consumes({ "application/json" })
     @Produces({ "application/json" })
@@ -62,9 +77,10 @@ public class UsersApi implements Microservice  {
     public Response usersGet(@ApiParam(value = "The index of the first element in the result.  ", defaultValue="0") @DefaultValue("0") @QueryParam("startIndex") Integer startIndex
 ,@ApiParam(value = "Number of elements returned in the paginated result. ", defaultValue="25") @DefaultValue("25") @QueryParam("count") Integer count
 ,@ApiParam(value = "A filter expression to request a subset of the result. ") @QueryParam("filter") String filter
+,@ApiParam(value = "Id of the last element of the previous page. When given, the result continues after this element and startIndex is ignored. Cannot be combined with a filter. ") @QueryParam("cursor") String cursor
  ,@Context Request request)
     throws NotFoundException {
-        return delegate.usersGet(startIndex,count,filter,request);
+        return delegate.usersGet(startIndex,count,filter,cursor,request);
     }
     @OPTIONS
     @DELETE
@@ -21,9 +21,12 @@ import javax.ws.rs.core.Response;
 import javax.ws.rs.core.SecurityContext;
 
 public abstract class UsersApiService {
+    public abstract Response usersExportGet(String attributes
+  ,Request request) throws NotFoundException;
     public abstract Response usersGet(Integer startIndex
  ,Integer count
  ,String filter
+ ,String cursor
   ,Request request) throws NotFoundException;
     public abstract Response usersIdDelete(String id
   ,Request request) throws NotFoundException;
@@ -48,11 +48,11 @@ public class GroupsApiServiceImpl extends GroupsApiService {
     }
 
     @Override
-    public Response groupsGet(Integer startIndex, Integer count, String filter, Request request)
+    public Response groupsGet(Integer startIndex, Integer count, String filter, String cursor, Request request)
             throws NotFoundException {
         UserManager userManager;
         try {
-            userManager = SCIMManager.getInstance().getCarbonAuthSCIMUserManager();
+            userManager = SCIMManager.getInstance().getCarbonAuthSCIMUserManager(cursor);
             GroupResourceManager groupResourceManager = new GroupResourceManager();
             SCIMResponse scimResponse = groupResourceManager.listWithGET(userManager, filter, startIndex, count,
                     null, null, null, null);
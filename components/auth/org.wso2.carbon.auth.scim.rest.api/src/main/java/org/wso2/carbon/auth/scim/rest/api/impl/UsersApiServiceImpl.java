@@ -29,14 +29,21 @@ import org.wso2.carbon.auth.scim.rest.api.dto.UserDTO;
 import org.wso2.carbon.auth.scim.rest.api.dto.UserSearchDTO;
 import org.wso2.carbon.auth.scim.rest.api.util.SCIMCharonInitializer;
 import org.wso2.carbon.auth.scim.rest.api.util.SCIMRESTAPIUtils;
+import org.wso2.carbon.auth.scim.rest.api.util.UserExportStreamingOutput;
+import org.wso2.carbon.auth.user.store.connector.UserStoreConnector;
+import org.wso2.carbon.auth.user.store.connector.UserStoreConnectorFactory;
+import org.wso2.carbon.auth.user.store.exception.UserStoreConnectorException;
 import org.wso2.charon3.core.extensions.UserManager;
 import org.wso2.charon3.core.protocol.SCIMResponse;
 import org.wso2.charon3.core.protocol.endpoints.UserResourceManager;
 import org.wso2.msf4j.Request;
 
+import java.util.ArrayList;
+import java.util.List;
 import javax.ws.rs.core.Response;
 
 import static org.wso2.carbon.auth.scim.rest.api.SCIMRESTAPIConstants.ERROR_SCIM_INITIALISATION;
+import static org.wso2.carbon.auth.scim.rest.api.SCIMRESTAPIConstants.MEDIA_TYPE_NDJSON;
 
 /**
  * REST API implementation class for SCIM users
@@ -49,11 +56,32 @@ public class UsersApiServiceImpl extends UsersApiService {
     }
 
     @Override
-    public Response usersGet(Integer startIndex, Integer count, String filter, Request request)
+    public Response usersExportGet(String attributes, Request request) throws NotFoundException {
+        List<String> requiredAttributes = new ArrayList<>();
+        if (attributes != null) {
+            for (String attribute : attributes.split(",")) {
+                if (!attribute.trim().isEmpty()) {
+                    requiredAttributes.add(attribute.trim());
+                }
+            }
+        }
+        UserStoreConnector userStoreConnector;
+        try {
+            userStoreConnector = UserStoreConnectorFactory.getUserStoreConnector();
+        } catch (UserStoreConnectorException e) {
+            log.error("Error while exporting users", e);
+            return SCIMRESTAPIUtils.getSCIMInternalErrorResponse();
+        }
+        return Response.ok(new UserExportStreamingOutput(userStoreConnector, requiredAttributes))
+                .type(MEDIA_TYPE_NDJSON).build();
+    }
+
+    @Override
+    public Response usersGet(Integer startIndex, Integer count, String filter, String cursor, Request request)
             throws NotFoundException {
         UserManager userManager;
         try {
-            userManager = SCIMManager.getInstance().getCarbonAuthSCIMUserManager();
+            userManager = SCIMManager.getInstance().getCarbonAuthSCIMUserManager(cursor);
             UserResourceManager userResourceManager = new UserResourceManager();
             SCIMResponse scimResponse = userResourceManager.listWithGET(userManager, filter, startIndex, count,
                     null, null, null, null);
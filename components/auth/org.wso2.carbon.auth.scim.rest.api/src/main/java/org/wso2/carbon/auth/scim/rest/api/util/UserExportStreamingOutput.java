@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.auth.scim.rest.api.util;
+
+import com.google.gson.JsonObject;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.user.store.connector.Attribute;
+import org.wso2.carbon.auth.user.store.connector.UserCursor;
+import org.wso2.carbon.auth.user.store.connector.UserStoreConnector;
+import org.wso2.carbon.auth.user.store.exception.UserStoreConnectorException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import javax.ws.rs.core.StreamingOutput;
+
+/**
+ * Writes the users of the user store as newline delimited JSON while they are read, so the whole export is never
+ * held in memory. The user store is only read once the response is written.
+ * <p>
+ * The last line is a status record, {"status":"complete","count":n} once every user has been written or
+ * {"status":"error","count":n,"error":"..."} when the export failed part way, so that a client can tell a complete
+ * export from a truncated one. The status of the response has already been sent by then.
+ */
+public class UserExportStreamingOutput implements StreamingOutput {
+    private static final Logger log = LoggerFactory.getLogger(UserExportStreamingOutput.class);
+    private static final String STATUS = "status";
+    private static final String STATUS_COMPLETE = "complete";
+    private static final String STATUS_ERROR = "error";
+    private static final String COUNT = "count";
+    private static final String ERROR = "error";
+    private static final String EXPORT_ERROR_MESSAGE = "Error while exporting users";
+
+    private final UserStoreConnector userStoreConnector;
+    private final List<String> requiredAttributes;
+
+    public UserExportStreamingOutput(UserStoreConnector userStoreConnector, List<String> requiredAttributes) {
+        this.userStoreConnector = userStoreConnector;
+        this.requiredAttributes = requiredAttributes;
+    }
+
+    @Override
+    public void write(OutputStream output) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+        long count = 0;
+        boolean complete = false;
+        try (UserCursor users = userStoreConnector.exportUsers(requiredAttributes)) {
+            while (users.next()) {
+                JsonObject attributes = new JsonObject();
+                for (Attribute attribute : users.getAttributes()) {
+                    attributes.addProperty(attribute.getAttributeUri(), attribute.getAttributeValue());
+                }
+                JsonObject user = new JsonObject();
+                user.addProperty("id", users.getUserId());
+                user.add("attributes", attributes);
+                writeLine(writer, user);
+                count++;
+            }
+            complete = true;
+        } catch (UserStoreConnectorException e) {
+            log.error(EXPORT_ERROR_MESSAGE, e);
+        }
+        JsonObject status = new JsonObject();
+        status.addProperty(STATUS, complete ? STATUS_COMPLETE : STATUS_ERROR);
+        status.addProperty(COUNT, count);
+        if (!complete) {
+            status.addProperty(ERROR, EXPORT_ERROR_MESSAGE);
+        }
+        writeLine(writer, status);
+        writer.flush();
+    }
+
+    private static void writeLine(Writer writer, JsonObject line) throws IOException {
+        writer.write(line.toString());
+        writer.write('\n');
+    }
+}
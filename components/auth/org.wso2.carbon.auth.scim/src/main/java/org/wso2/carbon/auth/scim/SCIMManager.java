@@ -60,13 +60,24 @@ public class SCIMManager {
     }
     
     public CarbonAuthSCIMUserManager getCarbonAuthSCIMUserManager() throws AuthUserManagementException {
+        return getCarbonAuthSCIMUserManager(null);
+    }
+
+    /**
+     * Get a user manager whose lists continue after the given resource id instead of the requested start index.
+     *
+     * @param cursor id of the last resource of the previous page, null to use the start index
+     * @return user manager
+     * @throws AuthUserManagementException if the user manager initialization failed
+     */
+    public CarbonAuthSCIMUserManager getCarbonAuthSCIMUserManager(String cursor) throws AuthUserManagementException {
         //TODO : CarbonAuthSCIMUserManager should be initialized with UserManagement API
         UserStoreConnector userStoreConnector;
         try {
             userStoreConnector = UserStoreConnectorFactory.getUserStoreConnector();
             DefaultClaimManager defaultClaimManager = DefaultClaimManager.getInstance();
             DefaultClaimMetadataStore defaultClaimMetadataStore = new DefaultClaimMetadataStore(defaultClaimManager);
-            return new CarbonAuthSCIMUserManager(userStoreConnector, defaultClaimMetadataStore);
+            return new CarbonAuthSCIMUserManager(userStoreConnector, defaultClaimMetadataStore, cursor);
         } catch (UserStoreConnectorException e) {
             throw new AuthUserManagementException("User manager initialization failed", e);
         }
@@ -59,10 +59,14 @@ import org.wso2.charon3.core.utils.codeutils.Node;
 import org.wso2.charon3.core.utils.codeutils.SearchRequest;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
 import javax.security.auth.callback.PasswordCallback;
 import javax.ws.rs.core.Response;
 
@@ -74,12 +78,20 @@ public class CarbonAuthSCIMUserManager implements UserManager {
     private static Logger log = LoggerFactory.getLogger(CarbonAuthSCIMUserManager.class);
     private UserStoreConnector userStoreConnector;
     private ClaimMetadataStore claimMetadataStore;
+    // Id of the last resource of the previous page, lists continue after it instead of using the start index
+    private String cursor;
 
     //Holds user attribute-name to attribute-info mapping
     private Map<String, AttributeConfiguration> attributeMappings = new HashMap<>();
 
     public CarbonAuthSCIMUserManager(UserStoreConnector userStoreConnector, ClaimMetadataStore claimMetadataStore) {
+        this(userStoreConnector, claimMetadataStore, null);
+    }
+
+    public CarbonAuthSCIMUserManager(UserStoreConnector userStoreConnector, ClaimMetadataStore claimMetadataStore,
+            String cursor) {
         this.userStoreConnector = userStoreConnector;
+        this.cursor = cursor;
         this.claimMetadataStore = claimMetadataStore;
         // todo load from database
         List<AttributeConfiguration> attributes =
@@ -159,6 +171,9 @@ public class CarbonAuthSCIMUserManager implements UserManager {
         List<String> requiredClaims = getRequiredClaims(requiredAttributes);
 
         try {
+            if (cursor != null && rootNode != null) {
+                throw new NotImplementedException("Cursor pagination is not supported with filters.");
+            }
             // check if it is a pagination and filter combination.
             if (sortOrder == null && sortBy == null && rootNode != null) {
                 return listUsersWithPaginationAndFilter(requiredClaims, rootNode, startIndex, count);
@@ -312,6 +327,9 @@ public class CarbonAuthSCIMUserManager implements UserManager {
         log.debug("Listing Users");
         List<String> requiredClaims = getRequiredClaims(requiredAttributes);
         try {
+            if (cursor != null && rootNode != null) {
+                throw new NotImplementedException("Cursor pagination is not supported with filters.");
+            }
             // check if it is a pagination and filter combination.
             if (sortOrder == null && sortBy == null && rootNode != null) {
                 return listGroupsWithPaginationAndFilter(requiredClaims, rootNode, startIndex, count);
@@ -413,10 +431,12 @@ public class CarbonAuthSCIMUserManager implements UserManager {
             for (org.wso2.charon3.core.attributes.Attribute subValue : subValues) {
                 SimpleAttribute valueAttribute =
                         (SimpleAttribute) ((subValue)).getSubAttribute(SCIMConstants.CommonSchemaConstants.VALUE);
-                String userId = (String) valueAttribute.getValue();
-                if (getSCIMUser(userId, requiredClaims, false) != null) {
-                    userIds.add(userId);
-                } else {
+                userIds.add((String) valueAttribute.getValue());
+            }
+
+            Map<String, User> users = getSCIMUsers(userIds, requiredClaims, false);
+            for (String userId : userIds) {
+                if (!users.containsKey(userId)) {
                     String errorMsg = "User with Id " + userId + " does not exist in the system.";
                     log.error(errorMsg);
                     throw new BadRequestException(errorMsg, ResponseCodeConstants.INVALID_VALUE);
@@ -555,20 +575,6 @@ public class CarbonAuthSCIMUserManager implements UserManager {
         return attributeList;
     }
 
-    /**
-     * Returns attributes map from the list
-     *
-     * @param alttributeList attribute list
-     * @return attribute map
-     */
-    private Map<String, String> getAttributeMapFromList(List<Attribute> alttributeList) {
-        Map<String, String> attributesMap = new HashMap<>();
-        for (Attribute attribute : alttributeList) {
-            attributesMap.put(attribute.getAttributeUri(), attribute.getAttributeValue());
-        }
-        return attributesMap;
-    }
-
     /**
      * Get a SCIM user from the uuid
      *
@@ -581,73 +587,77 @@ public class CarbonAuthSCIMUserManager implements UserManager {
      */
     private User getSCIMUser(String userId, List<String> requiredClaims, boolean includeGroups)
             throws CharonException, BadRequestException, UserStoreConnectorException {
+        return getSCIMUsers(Collections.singletonList(userId), requiredClaims, includeGroups).get(userId);
+    }
 
-        List<String> properties = new ArrayList<>();
-        for (String claim : requiredClaims) {
-            String att = claimMetadataStore.getAttributeName(claim);
-            properties.add(att);
-        }
+    /**
+     * Get SCIM users from their uuids, fetching the attributes and the groups of all the users at once
+     *
+     * @param userIds       user ids
+     * @param includeGroups whether to include groups the users belong to
+     * @return SCIM user objects by user id, users that do not exist are not included
+     * @throws BadRequestException         if error occurred while constructing SCIM user object
+     * @throws CharonException             if error occurred while constructing SCIM user object
+     * @throws UserStoreConnectorException if error occurred while connecting to user store
+     */
+    private Map<String, User> getSCIMUsers(List<String> userIds, List<String> requiredClaims, boolean includeGroups)
+            throws CharonException, BadRequestException, UserStoreConnectorException {
 
-        try {
-            List<Attribute> attributeList = userStoreConnector.getUserAttributeValues(userId, properties);
+        Map<String, List<Attribute>> attributesOfUsers =
+                userStoreConnector.getUsersAttributeValues(userIds, getAttributeNames(requiredClaims));
 
-            List<Attribute> claimValueAttributeList = new ArrayList<>();
-            for (String aClaim : requiredClaims) {
-                ClaimMapping mapping = claimMetadataStore.getClaimMapping(aClaim);
-                String property = mapping.getMappedAttribute();
-
-                for (Attribute attr : attributeList) {
-                    if (attr.getAttributeUri().equalsIgnoreCase(property)) {
-                        String value = attr.getAttributeValue();
-                        claimValueAttributeList.add(new Attribute(aClaim, value));
-                        break;
-                    }
-                }
-            }
-            if (attributeList.size() == 0) {
-                //user does not exist
-                return null;
-            }
-
-            // construct the SCIM Object from the attributes
-            User scimUser = (User) SCIMClaimResolver
-                    .constructSCIMObjectFromAttributes(getAttributeMapFromList(claimValueAttributeList),
-                            SCIMCommonConstants.USER);
+        Map<String, List<String>> groupIdsOfUsers = Collections.emptyMap();
+        Map<String, Group> groups = Collections.emptyMap();
+        if (includeGroups && !attributesOfUsers.isEmpty()) {
+            groupIdsOfUsers = userStoreConnector.getGroupIdsOfUsers(new ArrayList<>(attributesOfUsers.keySet()));
+            Set<String> groupIds = new LinkedHashSet<>();
+            groupIdsOfUsers.values().forEach(groupIds::addAll);
 
             SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getGroupResourceSchema();
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil
                     .getOnlyRequiredAttributesURIs((SCIMResourceTypeSchema) CopyUtil.deepCopy(schema), null, null);
-            List<String> requiredGroupClaims = getRequiredClaims(requiredAttributes);
+            groups = getSCIMGroups(new ArrayList<>(groupIds), getRequiredClaims(requiredAttributes), false);
+        }
 
-            if (includeGroups) {
-                //set members of group
-                List<String> groupIds = userStoreConnector.getGroupIdsOfUser(userId);
-                if (groupIds != null) {
-                    for (String groupId : groupIds) {
-                        Optional<Group> group = Optional.ofNullable(getSCIMGroup(groupId, requiredGroupClaims, false));
-                        if (group.isPresent()) {
-                            scimUser.setGroup(null, group.get().getId(), group.get().getDisplayName());
-                        } else {
-                            log.warn("Group " + groupId + " recorded as a group of user " + userId + " but group "
-                                    + "does not exist in the system.");
-                        }
-                    }
-                }
+        Map<String, User> scimUsers = new HashMap<>();
+        for (String userId : userIds) {
+            List<Attribute> attributeList = attributesOfUsers.get(userId);
+            if (attributeList == null || scimUsers.containsKey(userId)) {
+                //user does not exist
+                continue;
             }
 
-            // set the schemas of the scim user
-            scimUser.setSchemas();
-            // set location
-            scimUser.setLocation(SCIMCommonConstants.USERS_LOCATION + "/" + userId);
-
-            return scimUser;
+            try {
+                // construct the SCIM Object from the attributes
+                User scimUser = (User) SCIMClaimResolver
+                        .constructSCIMObjectFromAttributes(getClaimValues(requiredClaims, attributeList),
+                                SCIMCommonConstants.USER);
+
+                //set groups of the user
+                for (String groupId : groupIdsOfUsers.getOrDefault(userId, Collections.emptyList())) {
+                    Group group = groups.get(groupId);
+                    if (group != null) {
+                        scimUser.setGroup(null, group.getId(), group.getDisplayName());
+                    } else {
+                        log.warn("Group " + groupId + " recorded as a group of user " + userId + " but group "
+                                + "does not exist in the system.");
+                    }
+                }
 
-        } catch (NotFoundException e) {
-            String errMsg = "Error in getting user from the userId :" + userId;
-            //Charon wrap exception to SCIMResponse and does not log exceptions so we need to log here
-            log.error(errMsg, e);
-            throw new CharonException(errMsg, e);
+                // set the schemas of the scim user
+                scimUser.setSchemas();
+                // set location
+                scimUser.setLocation(SCIMCommonConstants.USERS_LOCATION + "/" + userId);
+
+                scimUsers.put(userId, scimUser);
+            } catch (NotFoundException e) {
+                String errMsg = "Error in getting user from the userId :" + userId;
+                //Charon wrap exception to SCIMResponse and does not log exceptions so we need to log here
+                log.error(errMsg, e);
+                throw new CharonException(errMsg, e);
+            }
         }
+        return scimUsers;
     }
 
     /**
@@ -662,70 +672,118 @@ public class CarbonAuthSCIMUserManager implements UserManager {
      */
     private Group getSCIMGroup(String groupId, List<String> requiredClaims, boolean includeUsers)
             throws UserStoreConnectorException, CharonException, BadRequestException {
-        List<String> properties = new ArrayList<>();
-        for (String claim : requiredClaims) {
-            String att = claimMetadataStore.getAttributeName(claim);
-            properties.add(att);
-        }
-        try {
-            List<Attribute> attributeList = userStoreConnector.getGroupAttributeValues(groupId, properties);
-            List<Attribute> claimValueAttributeList = new ArrayList<>();
-            for (String aClaim : requiredClaims) {
-                ClaimMapping mapping = claimMetadataStore.getClaimMapping(aClaim);
-                String property = mapping.getMappedAttribute();
+        return getSCIMGroups(Collections.singletonList(groupId), requiredClaims, includeUsers).get(groupId);
+    }
 
-                for (Attribute attr : attributeList) {
-                    if (attr.getAttributeUri().equals(property)) {
-                        String value = attr.getAttributeValue();
-                        claimValueAttributeList.add(new Attribute(aClaim, value));
-                        break;
-                    }
-                }
-            }
+    /**
+     * Get SCIM groups from their uuids, fetching the attributes of all the groups and of all their users at once
+     *
+     * @param groupIds     unique group Ids
+     * @param includeUsers whether to include users of the groups
+     * @return SCIM group objects by group Id, groups that do not exist are not included
+     * @throws UserStoreConnectorException if error occurred while connecting to user store
+     * @throws CharonException             if error occurred while constructing SCIM group object
+     * @throws BadRequestException         if error occurred while constructing SCIM group object
+     */
+    private Map<String, Group> getSCIMGroups(List<String> groupIds, List<String> requiredClaims, boolean includeUsers)
+            throws UserStoreConnectorException, CharonException, BadRequestException {
 
-            if (attributeList.size() == 0) {
-                //group not exists
-                return null;
-            }
+        Map<String, List<Attribute>> attributesOfGroups =
+                userStoreConnector.getGroupsAttributeValues(groupIds, getAttributeNames(requiredClaims));
 
-            Group scimGroup = (Group) SCIMClaimResolver
-                    .constructSCIMObjectFromAttributes(getAttributeMapFromList(claimValueAttributeList),
-                            SCIMCommonConstants.GROUP);
+        Map<String, List<String>> userIdsOfGroups = Collections.emptyMap();
+        Map<String, User> users = Collections.emptyMap();
+        if (includeUsers && !attributesOfGroups.isEmpty()) {
+            userIdsOfGroups = userStoreConnector.getUserIdsOfGroups(new ArrayList<>(attributesOfGroups.keySet()));
+            Set<String> userIds = new LinkedHashSet<>();
+            userIdsOfGroups.values().forEach(userIds::addAll);
 
             SCIMResourceTypeSchema schema = SCIMResourceSchemaManager.getInstance().getUserResourceSchema();
             Map<String, Boolean> requiredAttributes = ResourceManagerUtil
                     .getOnlyRequiredAttributesURIs((SCIMResourceTypeSchema) CopyUtil.deepCopy(schema), null, null);
-            List<String> requiredUserClaims = getRequiredClaims(requiredAttributes);
+            users = getSCIMUsers(new ArrayList<>(userIds), getRequiredClaims(requiredAttributes), false);
+        }
+
+        Map<String, Group> scimGroups = new HashMap<>();
+        for (String groupId : groupIds) {
+            List<Attribute> attributeList = attributesOfGroups.get(groupId);
+            if (attributeList == null || scimGroups.containsKey(groupId)) {
+                //group not exists
+                continue;
+            }
+
+            try {
+                Group scimGroup = (Group) SCIMClaimResolver
+                        .constructSCIMObjectFromAttributes(getClaimValues(requiredClaims, attributeList),
+                                SCIMCommonConstants.GROUP);
 
-            if (includeUsers) {
                 //set members of group
-                List<String> userIds = userStoreConnector.getUserIdsOfGroup(groupId);
-                if (userIds != null) {
-                    for (String userId : userIds) {
-                        Optional<User> user = Optional.ofNullable(getSCIMUser(userId, requiredUserClaims, false));
-                        if (user.isPresent()) {
-                            scimGroup.setMember(user.get().getId(), user.get().getUserName());
-                        } else {
-                            log.warn("User " + userId + " recorded as member of group " + groupId + " but user "
-                                    + "does not exist in the system.");
-                        }
+                for (String userId : userIdsOfGroups.getOrDefault(groupId, Collections.emptyList())) {
+                    User user = users.get(userId);
+                    if (user != null) {
+                        scimGroup.setMember(user.getId(), user.getUserName());
+                    } else {
+                        log.warn("User " + userId + " recorded as member of group " + groupId + " but user "
+                                + "does not exist in the system.");
                     }
                 }
+
+                //set the schemas of the group
+                scimGroup.setSchemas();
+                //set location
+                scimGroup.setLocation(SCIMCommonConstants.GROUPS_LOCATION + "/" + groupId);
+
+                scimGroups.put(groupId, scimGroup);
+            } catch (NotFoundException e) {
+                String errMsg = "Error in getting group from the groupId :" + groupId;
+                //Charon wrap exception to SCIMResponse and does not log exceptions
+                log.error(errMsg, e);
+                throw new CharonException(errMsg, e);
             }
+        }
+        return scimGroups;
+    }
 
-            //set the schemas of the group
-            scimGroup.setSchemas();
-            //set location
-            scimGroup.setLocation(SCIMCommonConstants.GROUPS_LOCATION + "/" + groupId);
+    /**
+     * Returns the user store attribute names of the claims
+     *
+     * @param requiredClaims claim URIs
+     * @return attribute names mapped to the claims
+     */
+    private List<String> getAttributeNames(List<String> requiredClaims) {
+        List<String> properties = new ArrayList<>();
+        if (requiredClaims != null) {
+            for (String claim : requiredClaims) {
+                properties.add(claimMetadataStore.getAttributeName(claim));
+            }
+        }
+        return properties;
+    }
 
-            return scimGroup;
+    /**
+     * Returns the claim values map from the user store attributes
+     *
+     * @param requiredClaims claim URIs
+     * @param attributeList  user store attributes
+     * @return values by claim URI
+     */
+    private Map<String, String> getClaimValues(List<String> requiredClaims, List<Attribute> attributeList) {
+        Map<String, String> attributeValues = new TreeMap<>(String.CASE_INSENSITIVE_ORDER);
+        for (Attribute attribute : attributeList) {
+            attributeValues.putIfAbsent(attribute.getAttributeUri(), attribute.getAttributeValue());
+        }
 
-        } catch (NotFoundException e) {
-            String errMsg = "Error in getting group from the groupId :" + groupId;
-            //Charon wrap exception to SCIMResponse and does not log exceptions
-            log.error(errMsg, e);
-            throw new CharonException(errMsg, e);
+        Map<String, String> claimValues = new HashMap<>();
+        if (requiredClaims != null) {
+            for (String aClaim : requiredClaims) {
+                ClaimMapping mapping = claimMetadataStore.getClaimMapping(aClaim);
+                String value = attributeValues.get(mapping.getMappedAttribute());
+                if (value != null) {
+                    claimValues.put(aClaim, value);
+                }
+            }
         }
+        return claimValues;
     }
 
     /**
@@ -764,9 +822,9 @@ public class CarbonAuthSCIMUserManager implements UserManager {
             // we need to set the first item of the array to be the number of users in the given domain.
             userObjectList.add(userIdsList.size());
 
+            Map<String, User> scimUsers = getSCIMUsers(userIdsList, requiredClaims, true);
             for (String userId : userIdsList) {
-                User scimUser = getSCIMUser(userId, requiredClaims, true);
-                userObjectList.add(scimUser);
+                userObjectList.add(scimUsers.get(userId));
             }
             return userObjectList;
 
@@ -777,7 +835,7 @@ public class CarbonAuthSCIMUserManager implements UserManager {
     }
 
     /**
-     * List users with pagination
+     * List users with pagination, continuing after the cursor instead of the start index when one is given
      *
      * @param startIndex pagination start index
      * @param count      pagination count
@@ -789,14 +847,23 @@ public class CarbonAuthSCIMUserManager implements UserManager {
      */
     private List<Object> listUsersWithPagination(List<String> requiredClaims, int startIndex, int count)
             throws NotImplementedException, CharonException, UserStoreConnectorException, BadRequestException {
-        List<String> userIdsList = userStoreConnector.listConnectorUserIds(startIndex, count);
+        List<String> userIdsList;
+        if (cursor == null) {
+            userIdsList = userStoreConnector.listConnectorUserIds(startIndex, count);
+        } else {
+            try {
+                userIdsList = userStoreConnector.listConnectorUserIdsAfter(cursor, count);
+            } catch (UserNotFoundException e) {
+                throw new BadRequestException("Invalid cursor: " + cursor, ResponseCodeConstants.INVALID_VALUE);
+            }
+        }
         List<Object> userObjectList = new ArrayList<>();
         // we need to set the first item of the array to be the number of users in the given domain.
         userObjectList.add(userIdsList.size());
 
+        Map<String, User> scimUsers = getSCIMUsers(userIdsList, requiredClaims, true);
         for (String userId : userIdsList) {
-            User scimUser = getSCIMUser(userId, requiredClaims, true);
-            userObjectList.add(scimUser);
+            userObjectList.add(scimUsers.get(userId));
         }
         return userObjectList;
     }
@@ -837,9 +904,9 @@ public class CarbonAuthSCIMUserManager implements UserManager {
             // we need to set the first item of the array to be the number of users in the given domain.
             groupObjList.add(groupIds.size());
 
+            Map<String, Group> scimGroups = getSCIMGroups(groupIds, requiredClaims, true);
             for (String groupId : groupIds) {
-                Group scimGroup = getSCIMGroup(groupId, requiredClaims, true);
-                groupObjList.add(scimGroup);
+                groupObjList.add(scimGroups.get(groupId));
             }
             return groupObjList;
 
@@ -850,7 +917,7 @@ public class CarbonAuthSCIMUserManager implements UserManager {
     }
 
     /**
-     * List groups with pagination
+     * List groups with pagination, continuing after the cursor instead of the start index when one is given
      *
      * @param startIndex pagination start index
      * @param count      pagination count
@@ -862,14 +929,23 @@ public class CarbonAuthSCIMUserManager implements UserManager {
      */
     private List<Object> listGroupsWithPagination(List<String> requiredClaims, int startIndex, int count)
             throws NotImplementedException, CharonException, UserStoreConnectorException, BadRequestException {
-            List<String> groupIdsList = userStoreConnector.listConnectorGroupIds(startIndex, count);
+        List<String> groupIdsList;
+        if (cursor == null) {
+            groupIdsList = userStoreConnector.listConnectorGroupIds(startIndex, count);
+        } else {
+            try {
+                groupIdsList = userStoreConnector.listConnectorGroupIdsAfter(cursor, count);
+            } catch (GroupNotFoundException e) {
+                throw new BadRequestException("Invalid cursor: " + cursor, ResponseCodeConstants.INVALID_VALUE);
+            }
+        }
         List<Object> groupObjList = new ArrayList<>();
         // we need to set the first item of the array to be the number of users in the given domain.
         groupObjList.add(groupIdsList.size());
 
+        Map<String, Group> scimGroups = getSCIMGroups(groupIdsList, requiredClaims, true);
         for (String groupId : groupIdsList) {
-            Group scimGroup = getSCIMGroup(groupId, requiredClaims, true);
-            groupObjList.add(scimGroup);
+            groupObjList.add(scimGroups.get(groupId));
         }
         return groupObjList;
     }
@@ -17,6 +17,8 @@
  */
 package org.wso2.carbon.auth.token.introspection.impl;
 
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.auth.core.api.UserNameMapper;
@@ -26,6 +28,7 @@ import org.wso2.carbon.auth.oauth.dao.OAuthDAO;
 import org.wso2.carbon.auth.oauth.dao.impl.DAOFactory;
 import org.wso2.carbon.auth.oauth.dto.AccessTokenDTO;
 import org.wso2.carbon.auth.oauth.exception.OAuthDAOException;
+import org.wso2.carbon.auth.oauth.impl.JWTAccessTokenValidator;
 import org.wso2.carbon.auth.token.introspection.IntrospectionException;
 import org.wso2.carbon.auth.token.introspection.TokenValidator;
 import org.wso2.carbon.auth.token.introspection.TokenValidatorHandler;
@@ -39,6 +42,8 @@ import java.util.HashMap;
  */
 public class TokenValidatorHandlerImpl implements TokenValidatorHandler {
     private static final Logger log = LoggerFactory.getLogger(TokenValidatorHandlerImpl.class);
+    private static final String SCOPE_CLAIM = "scope";
+    private static final String AUTHORIZATION_PARTY_CLAIM = "azp";
 
     @Override
     public void validate(IntrospectionContext context) throws IntrospectionException {
@@ -49,15 +54,48 @@ public class TokenValidatorHandlerImpl implements TokenValidatorHandler {
             return;
         }
 
+        // self contained tokens are validated without looking them up in the database
+        JWTAccessTokenValidator jwtAccessTokenValidator = JWTAccessTokenValidator.getInstance();
+        SignedJWT signedJWT = jwtAccessTokenValidator.isEnabled() ?
+                jwtAccessTokenValidator.parse(context.getAccessToken()) : null;
+        IntrospectionResponse introspectionResponse;
+        if (signedJWT != null) {
+            introspectionResponse = buildIntrospectionResponse(context, signedJWT);
+        } else {
+            introspectionResponse = buildIntrospectionResponse(context, userNameMapper);
+        }
+        if (introspectionResponse == null) {
+            return;
+        }
+        context.setIntrospectionResponse(introspectionResponse);
+        // adding the AccessTokenDO as a context property for further use
+        //        messageContext.addProperty("AccessTokenDO", accessTokenDO);
+
+        if (!tokenValidator.validateAccessDelegation(context)) {
+            buildIntrospectionError(context, "Invalid access delegation");
+            return;
+        }
+
+        if (!tokenValidator.validateScope(context)) {
+            buildIntrospectionError(context, "Scope validation failed");
+            return;
+        }
+
+        context.getIntrospectionResponse().setActive(true);
+    }
+
+    private IntrospectionResponse buildIntrospectionResponse(IntrospectionContext context,
+                                                             UserNameMapper userNameMapper)
+            throws IntrospectionException {
         AccessTokenDTO accessTokenDTO = findAccessToken(context.getAccessToken());
         if (accessTokenDTO == null) {
             buildIntrospectionError(context, "Access token is not valid");
-            return;
+            return null;
         }
 
         if (hasAccessTokenExpired(accessTokenDTO)) {
             buildIntrospectionError(context, "Access token expired");
-            return;
+            return null;
         }
 
         //todo: validate scopes
@@ -91,22 +129,44 @@ public class TokenValidatorHandlerImpl implements TokenValidatorHandler {
         introspectionResponse.setSub("SUB");
         introspectionResponse.setUserContext("context");
         introspectionResponse.setProperties(new HashMap<>());
+        return introspectionResponse;
+    }
 
-        context.setIntrospectionResponse(introspectionResponse);
-        // adding the AccessTokenDO as a context property for further use
-        //        messageContext.addProperty("AccessTokenDO", accessTokenDO);
-
-        if (!tokenValidator.validateAccessDelegation(context)) {
-            buildIntrospectionError(context, "Invalid access delegation");
-            return;
+    private IntrospectionResponse buildIntrospectionResponse(IntrospectionContext context, SignedJWT signedJWT)
+            throws IntrospectionException {
+        JWTClaimsSet claimsSet;
+        try {
+            claimsSet = JWTAccessTokenValidator.getInstance().validate(signedJWT);
+        } catch (OAuthDAOException e) {
+            throw new IntrospectionException("Error occurred while getting revoked tokens", e);
+        } catch (AuthException e) {
+            buildIntrospectionError(context, e.getMessage());
+            return null;
         }
 
-        if (!tokenValidator.validateScope(context)) {
-            buildIntrospectionError(context, "Scope validation failed");
-            return;
+        IntrospectionResponse introspectionResponse = new IntrospectionResponse();
+        // should be in seconds
+        introspectionResponse.setExp(claimsSet.getExpirationTime().getTime() / 1000);
+        if (claimsSet.getIssueTime() != null) {
+            introspectionResponse.setIat(claimsSet.getIssueTime().getTime() / 1000);
+        }
+        if (claimsSet.getNotBeforeTime() != null) {
+            introspectionResponse.setNbf(claimsSet.getNotBeforeTime().getTime() / 1000);
         }
+        Object scope = claimsSet.getClaim(SCOPE_CLAIM);
+        introspectionResponse.setScope(scope == null ? null : scope.toString());
+        // the subject is the user ID, unlike stored tokens which hold the pseudo name
+        introspectionResponse.setUsername(claimsSet.getSubject());
+        Object clientId = claimsSet.getClaim(AUTHORIZATION_PARTY_CLAIM);
+        introspectionResponse.setClientId(clientId == null ? null : clientId.toString());
 
-        context.getIntrospectionResponse().setActive(true);
+        introspectionResponse.setTokenType("user and application");
+        introspectionResponse.setAud(String.join(" ", claimsSet.getAudience()));
+        introspectionResponse.setIss(claimsSet.getIssuer());
+        introspectionResponse.setJti(claimsSet.getJWTID());
+        introspectionResponse.setSub(claimsSet.getSubject());
+        introspectionResponse.setProperties(new HashMap<>());
+        return introspectionResponse;
     }
 
     private void buildIntrospectionError(IntrospectionContext context, String errorMessage) {
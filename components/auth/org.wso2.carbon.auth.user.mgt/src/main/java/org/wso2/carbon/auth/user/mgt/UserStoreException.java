@@ -18,6 +18,7 @@
 package org.wso2.carbon.auth.user.mgt;
 
 import org.wso2.carbon.auth.core.exception.AuthException;
+import org.wso2.carbon.auth.core.exception.ExceptionCodeHandler;
 
 /**
  * Exception class for User store related exceptions
@@ -34,4 +35,8 @@ public class UserStoreException extends AuthException {
     public UserStoreException(String message, Throwable cause) {
         super(message, cause);
     }
+
+    public UserStoreException(String message, Throwable cause, ExceptionCodeHandler code) {
+        super(message, cause, code);
+    }
 }
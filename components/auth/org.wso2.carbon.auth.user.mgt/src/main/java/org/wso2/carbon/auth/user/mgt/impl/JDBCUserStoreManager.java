@@ -19,16 +19,21 @@ package org.wso2.carbon.auth.user.mgt.impl;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.core.exception.ExceptionCodes;
 import org.wso2.carbon.auth.user.mgt.UserStoreException;
 import org.wso2.carbon.auth.user.mgt.UserStoreManager;
+import org.wso2.carbon.auth.user.store.cache.AuthenticationResultCache;
 import org.wso2.carbon.auth.user.store.claim.ClaimMetadataStore;
 import org.wso2.carbon.auth.user.store.claim.DefaultClaimManager;
 import org.wso2.carbon.auth.user.store.claim.DefaultClaimMetadataStore;
 import org.wso2.carbon.auth.user.store.connector.PasswordHandler;
+import org.wso2.carbon.auth.user.store.connector.PasswordHashingExecutor;
+import org.wso2.carbon.auth.user.store.connector.PasswordRehasher;
 import org.wso2.carbon.auth.user.store.connector.UserStoreConnector;
 import org.wso2.carbon.auth.user.store.connector.UserStoreConnectorFactory;
 import org.wso2.carbon.auth.user.store.connector.jdbc.DefaultPasswordHandler;
 import org.wso2.carbon.auth.user.store.constant.UserStoreConstants;
+import org.wso2.carbon.auth.user.store.exception.PasswordHashingRejectedException;
 import org.wso2.carbon.auth.user.store.exception.UserNotFoundException;
 import org.wso2.carbon.auth.user.store.exception.UserStoreConnectorException;
 
@@ -44,21 +49,25 @@ public class JDBCUserStoreManager implements UserStoreManager {
     private UserStoreConnector userStoreConnector;
     private PasswordHandler passwordHandler;
     private ClaimMetadataStore claimMetadataStore;
+    private AuthenticationResultCache authenticationResultCache;
+    // null to use the shared instance, which is looked up on every authentication since it is replaced when the
+    // user store component is restarted
+    private PasswordHashingExecutor passwordHashingExecutor;
+    private PasswordRehasher passwordRehasher;
 
     public JDBCUserStoreManager() throws UserStoreException {
-        try {
-            this.userStoreConnector = UserStoreConnectorFactory.getUserStoreConnector();
-            DefaultClaimManager defaultClaimManager = DefaultClaimManager.getInstance();
-            this.claimMetadataStore = new DefaultClaimMetadataStore(defaultClaimManager);
-        } catch (UserStoreConnectorException e) {
-            throw new UserStoreException("Error while initializing JDBC user store connector", e);
-        }
-        passwordHandler = new DefaultPasswordHandler();
+        this(getDefaultUserStoreConnector(), new DefaultPasswordHandler(), AuthenticationResultCache.getInstance(),
+                null, null);
     }
 
-    protected JDBCUserStoreManager(UserStoreConnector userStoreConnector, PasswordHandler passwordHandler) {
+    protected JDBCUserStoreManager(UserStoreConnector userStoreConnector, PasswordHandler passwordHandler,
+            AuthenticationResultCache authenticationResultCache, PasswordHashingExecutor passwordHashingExecutor,
+            PasswordRehasher passwordRehasher) {
         this.userStoreConnector = userStoreConnector;
         this.passwordHandler = passwordHandler;
+        this.authenticationResultCache = authenticationResultCache;
+        this.passwordHashingExecutor = passwordHashingExecutor;
+        this.passwordRehasher = passwordRehasher;
         DefaultClaimManager defaultClaimManager = DefaultClaimManager.getInstance();
         this.claimMetadataStore = new DefaultClaimMetadataStore(defaultClaimManager);
     }
@@ -68,17 +77,25 @@ public class JDBCUserStoreManager implements UserStoreManager {
 
         try {
             String password = (String) credential;
+            char[] passwordChars = password.toCharArray();
+            if (authenticationResultCache.get(userName, passwordChars) != null) {
+                log.debug("Recent successful authentication of user found in cache");
+                return true;
+            }
             String uid = claimMetadataStore.getAttributeName(UserStoreConstants.CLAIM_USERNAME);
             String userId = userStoreConnector.getConnectorUserId(uid, userName);
+            long generation = authenticationResultCache.getGeneration(userId);
             Map info = userStoreConnector.getUserPasswordInfo(userId);
 
-
-            passwordHandler.setIterationCount((int) info.get(UserStoreConstants.ITERATION_COUNT));
-            passwordHandler.setKeyLength((int) info.get(UserStoreConstants.KEY_LENGTH));
-            String hashedPassword = passwordHandler.hashPassword(password.toCharArray(), (String) info.get
-                            (UserStoreConstants.PASSWORD_SALT), (String) info.get(UserStoreConstants.HASH_ALGO));
+            String hashedPassword = getPasswordHashingExecutor().hashPassword(passwordHandler, passwordChars,
+                    (String) info.get(UserStoreConstants.PASSWORD_SALT),
+                    (String) info.get(UserStoreConstants.HASH_ALGO),
+                    (int) info.get(UserStoreConstants.ITERATION_COUNT),
+                    (int) info.get(UserStoreConstants.KEY_LENGTH));
 
             if (hashedPassword.equals(info.get(UserStoreConstants.PASSWORD))) {
+                authenticationResultCache.put(userName, passwordChars, userId, generation);
+                getPasswordRehasher().rehashIfOutdated(userStoreConnector, userId, passwordChars, info);
                 return true;
             } else {
                 return false;
@@ -90,6 +107,8 @@ public class JDBCUserStoreManager implements UserStoreManager {
             throw new UserStoreException("User not found exception occurred", e);
         } catch (NoSuchAlgorithmException e) {
             throw new UserStoreException("No such algorithm exception occurred", e);
+        } catch (PasswordHashingRejectedException e) {
+            throw new UserStoreException("Password verification rejected", e, ExceptionCodes.SERVICE_UNAVAILABLE);
         }
     }
 
@@ -108,4 +127,22 @@ public class JDBCUserStoreManager implements UserStoreManager {
 
     }
 
+    private static UserStoreConnector getDefaultUserStoreConnector() throws UserStoreException {
+
+        try {
+            return UserStoreConnectorFactory.getUserStoreConnector();
+        } catch (UserStoreConnectorException e) {
+            throw new UserStoreException("Error while initializing JDBC user store connector", e);
+        }
+    }
+
+    private PasswordHashingExecutor getPasswordHashingExecutor() {
+
+        return passwordHashingExecutor != null ? passwordHashingExecutor : PasswordHashingExecutor.getInstance();
+    }
+
+    private PasswordRehasher getPasswordRehasher() {
+
+        return passwordRehasher != null ? passwordRehasher : PasswordRehasher.getInstance();
+    }
 }
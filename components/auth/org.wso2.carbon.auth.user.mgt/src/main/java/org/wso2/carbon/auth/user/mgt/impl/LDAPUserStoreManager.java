@@ -19,16 +19,19 @@ package org.wso2.carbon.auth.user.mgt.impl;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.core.exception.ExceptionCodes;
 import org.wso2.carbon.auth.user.mgt.UserStoreException;
 import org.wso2.carbon.auth.user.mgt.UserStoreManager;
 import org.wso2.carbon.auth.user.store.claim.ClaimMetadataStore;
 import org.wso2.carbon.auth.user.store.claim.DefaultClaimManager;
 import org.wso2.carbon.auth.user.store.claim.DefaultClaimMetadataStore;
 import org.wso2.carbon.auth.user.store.connector.PasswordHandler;
+import org.wso2.carbon.auth.user.store.connector.PasswordHashingExecutor;
 import org.wso2.carbon.auth.user.store.connector.UserStoreConnector;
 import org.wso2.carbon.auth.user.store.connector.UserStoreConnectorFactory;
 import org.wso2.carbon.auth.user.store.connector.jdbc.DefaultPasswordHandler;
 import org.wso2.carbon.auth.user.store.constant.UserStoreConstants;
+import org.wso2.carbon.auth.user.store.exception.PasswordHashingRejectedException;
 import org.wso2.carbon.auth.user.store.exception.UserNotFoundException;
 import org.wso2.carbon.auth.user.store.exception.UserStoreConnectorException;
 
@@ -68,11 +71,12 @@ public class LDAPUserStoreManager implements UserStoreManager {
             String userId = userStoreConnector.getConnectorUserId(uid, userName);
             Map info = userStoreConnector.getUserPasswordInfo(userId);
             PasswordHandler passwordHandler = new DefaultPasswordHandler();
-            passwordHandler.setIterationCount((int) info.get(UserStoreConstants.ITERATION_COUNT));
-            passwordHandler.setKeyLength((int) info.get(UserStoreConstants.KEY_LENGTH));
-            String hashedPassword = passwordHandler
-                    .hashPassword(password.toCharArray(), (String) info.get(UserStoreConstants.PASSWORD_SALT),
-                            (String) info.get(UserStoreConstants.HASH_ALGO));
+            String hashedPassword = PasswordHashingExecutor.getInstance()
+                    .hashPassword(passwordHandler, password.toCharArray(),
+                            (String) info.get(UserStoreConstants.PASSWORD_SALT),
+                            (String) info.get(UserStoreConstants.HASH_ALGO),
+                            (int) info.get(UserStoreConstants.ITERATION_COUNT),
+                            (int) info.get(UserStoreConstants.KEY_LENGTH));
 
             if (hashedPassword.equals(info.get(UserStoreConstants.PASSWORD))) {
                 return true;
@@ -89,6 +93,9 @@ public class LDAPUserStoreManager implements UserStoreManager {
         } catch (NoSuchAlgorithmException e) {
             log.error("No such algorithm exception occurred", e);
             throw new UserStoreException("No such algorithm exception occurred", e);
+        } catch (PasswordHashingRejectedException e) {
+            log.error("Password verification rejected", e);
+            throw new UserStoreException("Password verification rejected", e, ExceptionCodes.SERVICE_UNAVAILABLE);
         }
     }
 
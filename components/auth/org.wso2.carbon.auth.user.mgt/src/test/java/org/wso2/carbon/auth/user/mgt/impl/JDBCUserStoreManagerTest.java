@@ -21,12 +21,18 @@ import org.mockito.Mockito;
 import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
+import org.wso2.carbon.auth.core.configuration.models.CacheConfiguration;
 import org.wso2.carbon.auth.user.mgt.UserStoreException;
 import org.wso2.carbon.auth.user.mgt.UserStoreManager;
+import org.wso2.carbon.auth.user.store.cache.AuthenticationResultCache;
 import org.wso2.carbon.auth.user.store.claim.ClaimConstants;
 import org.wso2.carbon.auth.user.store.connector.PasswordHandler;
+import org.wso2.carbon.auth.user.store.configuration.models.UserStoreConfiguration;
+import org.wso2.carbon.auth.user.store.connector.PasswordHashingExecutor;
+import org.wso2.carbon.auth.user.store.connector.PasswordRehasher;
 import org.wso2.carbon.auth.user.store.connector.UserStoreConnector;
 import org.wso2.carbon.auth.user.store.constant.UserStoreConstants;
+import org.wso2.carbon.auth.user.store.exception.PasswordHashingRejectedException;
 import org.wso2.carbon.auth.user.store.exception.UserNotFoundException;
 import org.wso2.carbon.auth.user.store.exception.UserStoreConnectorException;
 
@@ -36,6 +42,8 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
+import javax.security.auth.callback.PasswordCallback;
+
 public class JDBCUserStoreManagerTest {
 
     String userNameAttrName = "uid";
@@ -50,7 +58,8 @@ public class JDBCUserStoreManagerTest {
                         + "resources" + File.separator + "runtime.home" + File.separator);
         connector = Mockito.mock(UserStoreConnector.class);
         defaultPasswordHandler = Mockito.mock(PasswordHandler.class);
-        userStoreManager = new JDBCUserStoreManager(connector, defaultPasswordHandler);
+        userStoreManager = new JDBCUserStoreManager(connector, defaultPasswordHandler,
+                AuthenticationResultCache.getInstance(), null, null);
         Assert.assertNotNull(userStoreManager);
     }
 
@@ -69,7 +78,7 @@ public class JDBCUserStoreManagerTest {
         info.put(UserStoreConstants.PASSWORD_SALT, "PASSWORD_SALT");
         info.put(UserStoreConstants.HASH_ALGO, "HASH_ALGO");
         Mockito.when(defaultPasswordHandler.hashPassword(password.toCharArray(), (String) info.get(UserStoreConstants
-                .PASSWORD_SALT), (String) info.get(UserStoreConstants.HASH_ALGO))).thenReturn(hashedPass);
+                .PASSWORD_SALT), (String) info.get(UserStoreConstants.HASH_ALGO), 1, 1)).thenReturn(hashedPass);
         Mockito.when(connector.getConnectorUserId(userNameAttrName, username)).thenReturn(userId);
         Mockito.when(connector.getUserPasswordInfo(userId)).thenReturn(info);
 
@@ -78,12 +87,12 @@ public class JDBCUserStoreManagerTest {
         Assert.assertTrue(authenticated);
 
         //wrong pass
-        Mockito.when(info.get(UserStoreConstants.PASSWORD)).thenReturn("wrongPass");
+        info.put(UserStoreConstants.PASSWORD, "wrongPass");
         authenticated = userStoreManager.doAuthenticate(username, password);
         Assert.assertFalse(authenticated);
 
         Mockito.when(defaultPasswordHandler.hashPassword(password.toCharArray(), (String) info.get(UserStoreConstants
-                .PASSWORD_SALT), (String) info.get(UserStoreConstants.HASH_ALGO))).thenThrow(new
+                .PASSWORD_SALT), (String) info.get(UserStoreConstants.HASH_ALGO), 1, 1)).thenThrow(new
                 NoSuchAlgorithmException(""));
         try {
             authenticated = userStoreManager.doAuthenticate(username, password);
@@ -112,6 +121,177 @@ public class JDBCUserStoreManagerTest {
         }
     }
 
+    @Test
+    public void testDoAuthenticateWithResultCache() throws Exception {
+
+        String hashedPass = "a1A1s2S2";
+        String username = "admin";
+        String password = "admin";
+        String userId = "admin@123";
+        Map info = new HashMap();
+        info.put(UserStoreConstants.PASSWORD, hashedPass);
+        info.put(UserStoreConstants.ITERATION_COUNT, 1);
+        info.put(UserStoreConstants.KEY_LENGTH, 1);
+        info.put(UserStoreConstants.PASSWORD_SALT, "PASSWORD_SALT");
+        info.put(UserStoreConstants.HASH_ALGO, "HASH_ALGO");
+        Mockito.when(defaultPasswordHandler.hashPassword(Mockito.any(char[].class), Mockito.anyString(),
+                Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt())).thenReturn("wrongPass");
+        Mockito.when(defaultPasswordHandler.hashPassword(password.toCharArray(), "PASSWORD_SALT", "HASH_ALGO", 1, 1))
+                .thenReturn(hashedPass);
+        Mockito.when(connector.getConnectorUserId(userNameAttrName, username)).thenReturn(userId);
+        Mockito.when(connector.getUserPasswordInfo(userId)).thenReturn(info);
+        AuthenticationResultCache cache = new AuthenticationResultCache(new CacheConfiguration(true, 10, 60L));
+        UserStoreConfiguration configuration = new UserStoreConfiguration();
+        configuration.getPasswordHashingConfigs().setRehashOnLogin(false);
+        UserStoreManager cachedUserStoreManager = new JDBCUserStoreManager(connector, defaultPasswordHandler, cache,
+                PasswordHashingExecutor.getInstance(), new PasswordRehasher(configuration));
+
+        Assert.assertTrue(cachedUserStoreManager.doAuthenticate(username, password));
+        Assert.assertTrue(cachedUserStoreManager.doAuthenticate(username, password));
+        Mockito.verify(connector, Mockito.times(1)).getUserPasswordInfo(userId);
+        Mockito.verify(defaultPasswordHandler, Mockito.times(1)).hashPassword(Mockito.any(char[].class),
+                Mockito.anyString(), Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt());
+        Assert.assertEquals(cache.getHitCount(), 1);
+
+        // failed attempts are not cached
+        Assert.assertFalse(cachedUserStoreManager.doAuthenticate(username, "wrong"));
+        Assert.assertFalse(cachedUserStoreManager.doAuthenticate(username, "wrong"));
+        Assert.assertEquals(cache.size(), 1);
+
+        // a credential change forces the next authentication to the user store
+        cache.invalidate(userId);
+        Assert.assertTrue(cachedUserStoreManager.doAuthenticate(username, password));
+        Mockito.verify(connector, Mockito.times(4)).getUserPasswordInfo(userId);
+    }
+
+    @Test
+    public void testDoAuthenticateDuringCredentialUpdate() throws Exception {
+
+        String username = "admin";
+        String password = "admin";
+        String userId = "admin@123";
+        Map info = new HashMap();
+        info.put(UserStoreConstants.PASSWORD, "a1A1s2S2");
+        info.put(UserStoreConstants.ITERATION_COUNT, 1);
+        info.put(UserStoreConstants.KEY_LENGTH, 1);
+        info.put(UserStoreConstants.PASSWORD_SALT, "PASSWORD_SALT");
+        info.put(UserStoreConstants.HASH_ALGO, "HASH_ALGO");
+        Mockito.when(connector.getConnectorUserId(userNameAttrName, username)).thenReturn(userId);
+        Mockito.when(connector.getUserPasswordInfo(userId)).thenReturn(info);
+        AuthenticationResultCache cache = new AuthenticationResultCache(new CacheConfiguration(true, 10, 60L));
+        // the credentials of the user are updated while the password read before the update is being verified
+        PasswordHashingExecutor passwordHashingExecutor = Mockito.mock(PasswordHashingExecutor.class);
+        Mockito.when(passwordHashingExecutor.hashPassword(Mockito.any(PasswordHandler.class),
+                Mockito.any(char[].class), Mockito.anyString(), Mockito.anyString(), Mockito.anyInt(),
+                Mockito.anyInt())).thenAnswer(invocation -> {
+                    cache.invalidate(userId);
+                    return "a1A1s2S2";
+                });
+        UserStoreConfiguration configuration = new UserStoreConfiguration();
+        configuration.getPasswordHashingConfigs().setRehashOnLogin(false);
+        UserStoreManager cachedUserStoreManager = new JDBCUserStoreManager(connector, defaultPasswordHandler, cache,
+                passwordHashingExecutor, new PasswordRehasher(configuration));
+
+        Assert.assertTrue(cachedUserStoreManager.doAuthenticate(username, password));
+        Assert.assertEquals(cache.size(), 0);
+        Assert.assertNull(cache.get(username, password.toCharArray()));
+
+        // verifications which do not overlap a change are cached again
+        Mockito.when(passwordHashingExecutor.hashPassword(Mockito.any(PasswordHandler.class),
+                Mockito.any(char[].class), Mockito.anyString(), Mockito.anyString(), Mockito.anyInt(),
+                Mockito.anyInt())).thenReturn("a1A1s2S2");
+        Assert.assertTrue(cachedUserStoreManager.doAuthenticate(username, password));
+        Assert.assertEquals(cache.get(username, password.toCharArray()), userId);
+    }
+
+    @Test
+    public void testDoAuthenticateWhenHashingRejected() throws Exception {
+
+        String username = "admin";
+        String userId = "admin@123";
+        Map info = new HashMap();
+        info.put(UserStoreConstants.PASSWORD, "a1A1s2S2");
+        info.put(UserStoreConstants.ITERATION_COUNT, 1);
+        info.put(UserStoreConstants.KEY_LENGTH, 1);
+        info.put(UserStoreConstants.PASSWORD_SALT, "PASSWORD_SALT");
+        info.put(UserStoreConstants.HASH_ALGO, "HASH_ALGO");
+        Mockito.when(connector.getConnectorUserId(userNameAttrName, username)).thenReturn(userId);
+        Mockito.when(connector.getUserPasswordInfo(userId)).thenReturn(info);
+        PasswordHashingExecutor passwordHashingExecutor = Mockito.mock(PasswordHashingExecutor.class);
+        Mockito.when(passwordHashingExecutor.hashPassword(Mockito.any(PasswordHandler.class),
+                Mockito.any(char[].class), Mockito.anyString(), Mockito.anyString(), Mockito.anyInt(),
+                Mockito.anyInt()))
+                .thenThrow(new PasswordHashingRejectedException("Too many concurrent password verifications"));
+        UserStoreManager busyUserStoreManager = new JDBCUserStoreManager(connector, defaultPasswordHandler,
+                new AuthenticationResultCache(new CacheConfiguration(false, 10, 60L)), passwordHashingExecutor, null);
+
+        try {
+            busyUserStoreManager.doAuthenticate(username, "admin");
+            Assert.fail("Authentication should be rejected when password hashing is saturated");
+        } catch (UserStoreException e) {
+            Assert.assertEquals(e.getErrorHandler().getHttpStatusCode(), 503);
+        }
+    }
+
+    @Test
+    public void testDoAuthenticateAfterHashingExecutorRestart() throws Exception {
+
+        String username = "admin";
+        String password = "admin";
+        String userId = "admin@123";
+        Map info = new HashMap();
+        info.put(UserStoreConstants.PASSWORD, "a1A1s2S2");
+        info.put(UserStoreConstants.ITERATION_COUNT, 1);
+        info.put(UserStoreConstants.KEY_LENGTH, 1);
+        info.put(UserStoreConstants.PASSWORD_SALT, "PASSWORD_SALT");
+        info.put(UserStoreConstants.HASH_ALGO, "HASH_ALGO");
+        Mockito.when(defaultPasswordHandler.hashPassword(password.toCharArray(), "PASSWORD_SALT", "HASH_ALGO", 1, 1))
+                .thenReturn("a1A1s2S2");
+        Mockito.when(connector.getConnectorUserId(userNameAttrName, username)).thenReturn(userId);
+        Mockito.when(connector.getUserPasswordInfo(userId)).thenReturn(info);
+
+        Assert.assertTrue(userStoreManager.doAuthenticate(username, password));
+        // the user store component is restarted while the manager is in use
+        PasswordHashingExecutor.shutdownInstance();
+        Assert.assertTrue(userStoreManager.doAuthenticate(username, password));
+    }
+
+    @Test
+    public void testDoAuthenticateRehashesOutdatedPassword() throws Exception {
+
+        String username = "admin";
+        String password = "admin";
+        String userId = "admin@123";
+        UserStoreConfiguration configuration = new UserStoreConfiguration();
+        Map info = new HashMap();
+        info.put(UserStoreConstants.PASSWORD, "a1A1s2S2");
+        info.put(UserStoreConstants.PASSWORD_SALT, "PASSWORD_SALT");
+        info.put(UserStoreConstants.HASH_ALGO, configuration.getHashAlgo());
+        info.put(UserStoreConstants.ITERATION_COUNT, configuration.getIterationCount() / 2);
+        info.put(UserStoreConstants.KEY_LENGTH, configuration.getKeyLength());
+        Mockito.when(defaultPasswordHandler.hashPassword(Mockito.any(char[].class), Mockito.anyString(),
+                Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt())).thenReturn("a1A1s2S2");
+        Mockito.when(connector.getConnectorUserId(userNameAttrName, username)).thenReturn(userId);
+        Mockito.when(connector.getUserPasswordInfo(userId)).thenReturn(info);
+        UserStoreManager rehashingUserStoreManager = new JDBCUserStoreManager(connector, defaultPasswordHandler,
+                new AuthenticationResultCache(new CacheConfiguration(false, 10, 60L)),
+                PasswordHashingExecutor.getInstance(), new PasswordRehasher(configuration));
+
+        Assert.assertTrue(rehashingUserStoreManager.doAuthenticate(username, password));
+        Mockito.verify(connector, Mockito.timeout(5000).times(1)).updateCredentialsIfUnchanged(Mockito.eq(userId),
+                Mockito.any(PasswordCallback.class), Mockito.eq("a1A1s2S2"));
+
+        // credentials hashed with the configured parameters are left as they are
+        Mockito.reset(connector);
+        info.put(UserStoreConstants.ITERATION_COUNT, configuration.getIterationCount());
+        Mockito.when(connector.getConnectorUserId(userNameAttrName, username)).thenReturn(userId);
+        Mockito.when(connector.getUserPasswordInfo(userId)).thenReturn(info);
+        Assert.assertTrue(rehashingUserStoreManager.doAuthenticate(username, password));
+        Thread.sleep(100);
+        Mockito.verify(connector, Mockito.never()).updateCredentialsIfUnchanged(Mockito.anyString(),
+                Mockito.any(PasswordCallback.class), Mockito.anyString());
+    }
+
     @Test
     public void testGetRoleListOfUser() throws UserStoreConnectorException, UserNotFoundException, UserStoreException {
 
@@ -57,13 +57,11 @@ public class LDAPUserStoreManagerTest {
         int keyLength = 256;
         String hashAlgo = "SHA256";
         PasswordHandler passwordHandler = new DefaultPasswordHandler();
-        passwordHandler.setIterationCount(iterationCount);
-        passwordHandler.setKeyLength(keyLength);
         String salt = UserStoreUtil.generateUUID();
         String hashedPassword;
         char[] pass = password.toCharArray();
         try {
-            hashedPassword = passwordHandler.hashPassword(pass, salt, hashAlgo);
+            hashedPassword = passwordHandler.hashPassword(pass, salt, hashAlgo, iterationCount, keyLength);
         } catch (NoSuchAlgorithmException e) {
             throw new UserStoreConnectorException("Error while hashing the password.", e);
         }
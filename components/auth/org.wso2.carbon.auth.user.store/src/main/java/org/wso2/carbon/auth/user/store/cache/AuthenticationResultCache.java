@@ -0,0 +1,218 @@
+/*
+ *
+ *   Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+
+package org.wso2.carbon.auth.user.store.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.core.cache.ExpiringCache;
+import org.wso2.carbon.auth.core.configuration.models.CacheConfiguration;
+import org.wso2.carbon.auth.user.store.configuration.UserStoreConfigurationService;
+import org.wso2.carbon.auth.user.store.configuration.models.UserStoreConfiguration;
+import org.wso2.carbon.auth.user.store.internal.ServiceReferenceHolder;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLongArray;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+/**
+ * In-memory cache of recent successful password verifications, so that repeated authentications of the same user
+ * skip both the user store lookups and the password hashing. Entries are keyed by an HMAC of the user name and the
+ * password under a random key generated at startup, so neither is kept in memory. The cache is disabled by default.
+ * <p>
+ * Any credential or user change drops the cached verifications of that user. A verification which read the
+ * credentials before such a change but finishes after it is not cached, which is detected through a generation
+ * counter that every change of the user increments.
+ */
+public class AuthenticationResultCache {
+
+    private static final Logger log = LoggerFactory.getLogger(AuthenticationResultCache.class);
+    private static final String CACHE_NAME = "AuthenticationResultCache";
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    // users share generation counters so that the counters take fixed memory, a change of one user only keeps
+    // in-flight verifications of the users sharing its counter from being cached
+    private static final int GENERATION_STRIPES = 64;
+    private static volatile AuthenticationResultCache instance;
+
+    private final boolean enabled;
+    private final ExpiringCache<String, String> cache;
+    private final ThreadLocal<Mac> macs;
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    public AuthenticationResultCache(CacheConfiguration cacheConfiguration) {
+
+        this.enabled = cacheConfiguration.isEnabled();
+        this.cache = new ExpiringCache<>(CACHE_NAME, cacheConfiguration.getMaxEntries(),
+                cacheConfiguration.getExpiryTime() * 1000L);
+        byte[] key = new byte[32];
+        new SecureRandom().nextBytes(key);
+        SecretKeySpec keySpec = new SecretKeySpec(key, HMAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+                mac.init(keySpec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("Error while initializing " + HMAC_ALGORITHM, e);
+            }
+        });
+    }
+
+    public static AuthenticationResultCache getInstance() {
+
+        if (instance == null) {
+            synchronized (AuthenticationResultCache.class) {
+                if (instance == null) {
+                    UserStoreConfigurationService configurationService = ServiceReferenceHolder.getInstance()
+                            .getUserStoreConfigurationService();
+                    UserStoreConfiguration configuration = configurationService != null ?
+                            configurationService.getUserStoreConfiguration() : new UserStoreConfiguration();
+                    instance = new AuthenticationResultCache(configuration.getAuthenticationCacheConfigs());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Forget the verifications of a user in the shared cache because the credentials of the user changed, if the
+     * shared cache has been created
+     *
+     * @param userId connector user ID of the changed user
+     */
+    public static void invalidateEntry(String userId) {
+
+        AuthenticationResultCache authenticationResultCache = instance;
+        if (authenticationResultCache != null) {
+            authenticationResultCache.invalidate(userId);
+        }
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Get the user whose credentials were recently verified
+     *
+     * @param userName user name
+     * @param password password
+     * @return connector user ID of the user or null if the credentials were not verified recently
+     */
+    public String get(String userName, char[] password) {
+
+        if (!enabled) {
+            return null;
+        }
+        return cache.get(getKey(userName, password));
+    }
+
+    /**
+     * Get the generation of the verifications of a user. It must be read before the credentials of the user are
+     * read from the user store, and passed to {@link #put(String, char[], String, long)}.
+     *
+     * @param userId connector user ID of the user
+     * @return current generation
+     */
+    public long getGeneration(String userId) {
+
+        return generations.get(getStripe(userId));
+    }
+
+    /**
+     * Remember a successful verification, unless the user changed since the given generation was read
+     *
+     * @param userName   user name
+     * @param password   password
+     * @param userId     connector user ID of the user
+     * @param generation generation of the user read before the verified credentials were read
+     */
+    public void put(String userName, char[] password, String userId, long generation) {
+
+        if (!enabled) {
+            return;
+        }
+        String key = getKey(userName, password);
+        cache.put(key, userId);
+        // a change which is not seen here increments the generation after this check and then removes the entry
+        if (generations.get(getStripe(userId)) != generation) {
+            cache.invalidate(key);
+        }
+    }
+
+    /**
+     * Forget verifications because the credentials or the user name of a user changed. Must be called whenever a
+     * credential is updated or deleted, or a user is updated or deleted.
+     *
+     * @param userId connector user ID of the changed user
+     */
+    public void invalidate(String userId) {
+
+        if (!enabled) {
+            return;
+        }
+        log.debug("Clearing authentication results of user: {} since the user changed", userId);
+        generations.incrementAndGet(getStripe(userId));
+        cache.invalidateValue(userId);
+    }
+
+    public int size() {
+
+        return cache.size();
+    }
+
+    public long getHitCount() {
+
+        return cache.getHitCount();
+    }
+
+    public long getMissCount() {
+
+        return cache.getMissCount();
+    }
+
+    private static int getStripe(String userId) {
+
+        return (userId.hashCode() & Integer.MAX_VALUE) % GENERATION_STRIPES;
+    }
+
+    private String getKey(String userName, char[] password) {
+
+        Mac mac = macs.get();
+        byte[] userNameBytes = userName.getBytes(StandardCharsets.UTF_8);
+        // the length prefix keeps (ab, c) and (a, bc) apart
+        mac.update(ByteBuffer.allocate(4).putInt(userNameBytes.length).array());
+        mac.update(userNameBytes);
+        ByteBuffer passwordBytes = StandardCharsets.UTF_8.encode(CharBuffer.wrap(password));
+        mac.update(passwordBytes);
+        if (passwordBytes.hasArray()) {
+            Arrays.fill(passwordBytes.array(), (byte) 0);
+        }
+        return Base64.getEncoder().encodeToString(mac.doFinal());
+    }
+}
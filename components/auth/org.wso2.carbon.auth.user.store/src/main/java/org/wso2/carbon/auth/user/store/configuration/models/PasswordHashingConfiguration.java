@@ -0,0 +1,95 @@
+/*
+ *
+ *   Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+
+package org.wso2.carbon.auth.user.store.configuration.models;
+
+import org.wso2.carbon.config.annotation.Configuration;
+import org.wso2.carbon.config.annotation.Element;
+
+/**
+ * Class to hold the configurations of the thread pool passwords are hashed on during authentication
+ */
+@Configuration(description = "Password Hashing Configurations")
+public class PasswordHashingConfiguration {
+
+    @Element(description = "Hash passwords on a dedicated thread pool instead of the request thread")
+    private boolean enabled = true;
+    @Element(description = "Number of hashing threads, half of the available processors when zero or less")
+    private int poolSize = 0;
+    @Element(description = "Maximum number of authentications waiting for a hashing thread, further requests are "
+            + "rejected")
+    private int queueSize = 100;
+    @Element(description = "Maximum time in milliseconds to wait for a password to be hashed")
+    private long maxWaitTime = 5000L;
+    @Element(description = "Rehash passwords stored with a different hash algorithm, iteration count or key length "
+            + "than the configured ones after a successful login")
+    private boolean rehashOnLogin = true;
+    @Element(description = "Maximum number of passwords waiting to be rehashed, further passwords are rehashed on a "
+            + "later login")
+    private int rehashQueueSize = 1000;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+        this.poolSize = poolSize;
+    }
+
+    public int getQueueSize() {
+        return queueSize;
+    }
+
+    public void setQueueSize(int queueSize) {
+        this.queueSize = queueSize;
+    }
+
+    public long getMaxWaitTime() {
+        return maxWaitTime;
+    }
+
+    public void setMaxWaitTime(long maxWaitTime) {
+        this.maxWaitTime = maxWaitTime;
+    }
+
+    public boolean isRehashOnLogin() {
+        return rehashOnLogin;
+    }
+
+    public void setRehashOnLogin(boolean rehashOnLogin) {
+        this.rehashOnLogin = rehashOnLogin;
+    }
+
+    public int getRehashQueueSize() {
+        return rehashQueueSize;
+    }
+
+    public void setRehashQueueSize(int rehashQueueSize) {
+        this.rehashQueueSize = rehashQueueSize;
+    }
+}
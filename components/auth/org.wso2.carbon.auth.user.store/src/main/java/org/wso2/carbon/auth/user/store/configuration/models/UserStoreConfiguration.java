@@ -21,6 +21,7 @@
 package org.wso2.carbon.auth.user.store.configuration.models;
 
 import org.wso2.carbon.auth.core.Constants;
+import org.wso2.carbon.auth.core.configuration.models.CacheConfiguration;
 import org.wso2.carbon.auth.user.store.configuration.DefaultAttributes;
 import org.wso2.carbon.config.annotation.Configuration;
 import org.wso2.carbon.config.annotation.Element;
@@ -70,6 +71,12 @@ public class UserStoreConfiguration {
     @Element(description = "Password key length")
     private int keyLength = 256;
 
+    @Element(description = "Cache of recent successful password verifications")
+    private CacheConfiguration authenticationCacheConfigs = new CacheConfiguration(false, 10000, 60L);
+
+    @Element(description = "Thread pool used to hash passwords during authentication")
+    private PasswordHashingConfiguration passwordHashingConfigs = new PasswordHashingConfiguration();
+
     public UserStoreConfiguration() {
         populateJDBCDefaultProperties();
         populateLDAPDefaultProperties();
@@ -174,6 +181,22 @@ public class UserStoreConfiguration {
         this.keyLength = keyLength;
     }
 
+    public CacheConfiguration getAuthenticationCacheConfigs() {
+        return authenticationCacheConfigs;
+    }
+
+    public void setAuthenticationCacheConfigs(CacheConfiguration authenticationCacheConfigs) {
+        this.authenticationCacheConfigs = authenticationCacheConfigs;
+    }
+
+    public PasswordHashingConfiguration getPasswordHashingConfigs() {
+        return passwordHashingConfigs;
+    }
+
+    public void setPasswordHashingConfigs(PasswordHashingConfiguration passwordHashingConfigs) {
+        this.passwordHashingConfigs = passwordHashingConfigs;
+    }
+
     public Map<String, Object> getJdbcProperties() {
         return jdbcProperties;
     }
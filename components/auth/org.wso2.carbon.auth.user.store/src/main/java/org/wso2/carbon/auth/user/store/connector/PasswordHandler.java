@@ -24,27 +24,16 @@ import java.security.NoSuchAlgorithmException;
 public interface PasswordHandler {
 
     /**
-     * Hash the given password using given algorithm.
+     * Hash the given password using given algorithm. Implementations must be thread-safe.
      *
-     * @param password Password to be hashed.
-     * @param salt     Salt to be used to hash the password.
-     * @param hashAlgo Hashing algorithm to be used. (SHA1, SHA256, SHA512, etc..)
+     * @param password       Password to be hashed.
+     * @param salt           Salt to be used to hash the password.
+     * @param hashAlgo       Hashing algorithm to be used. (SHA1, SHA256, SHA512, etc..)
+     * @param iterationCount Iteration count for the hash.
+     * @param keyLength      Key length of the hash.
      * @return Hash as a <code>String</code>
      * @throws NoSuchAlgorithmException No such algorithm exception.
      */
-    String hashPassword(char[] password, String salt, String hashAlgo) throws NoSuchAlgorithmException;
-
-    /**
-     * Set iteration count for the hash.
-     *
-     * @param iterationCount Iteration count.
-     */
-    void setIterationCount(int iterationCount);
-
-    /**
-     * Key length of the hash.
-     *
-     * @param keyLength Key length.
-     */
-    void setKeyLength(int keyLength);
+    String hashPassword(char[] password, String salt, String hashAlgo, int iterationCount, int keyLength)
+            throws NoSuchAlgorithmException;
 }
@@ -0,0 +1,242 @@
+/*
+ *
+ *   Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+
+package org.wso2.carbon.auth.user.store.connector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.user.store.configuration.UserStoreConfigurationService;
+import org.wso2.carbon.auth.user.store.configuration.models.PasswordHashingConfiguration;
+import org.wso2.carbon.auth.user.store.configuration.models.UserStoreConfiguration;
+import org.wso2.carbon.auth.user.store.exception.PasswordHashingRejectedException;
+import org.wso2.carbon.auth.user.store.internal.ServiceReferenceHolder;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hashes passwords for authentication on a dedicated, bounded thread pool so that a burst of logins cannot occupy
+ * every request thread with key derivation. When all hashing threads are busy and the queue is full, or a password is
+ * not hashed within the configured wait time, the request is rejected with {@link PasswordHashingRejectedException}.
+ */
+public class PasswordHashingExecutor {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingExecutor.class);
+    private static volatile PasswordHashingExecutor instance;
+
+    private final boolean enabled;
+    private final long maxWaitTimeMillis;
+    private final ThreadPoolExecutor executor;
+    private final LongAdder completedCount = new LongAdder();
+    private final LongAdder rejectedCount = new LongAdder();
+    private final LongAdder timedOutCount = new LongAdder();
+    private final LongAdder totalQueueWaitTime = new LongAdder();
+    private final LongAdder totalHashTime = new LongAdder();
+
+    /**
+     * Create an executor
+     *
+     * @param configuration password hashing configurations
+     */
+    public PasswordHashingExecutor(PasswordHashingConfiguration configuration) {
+
+        this.enabled = configuration.isEnabled();
+        this.maxWaitTimeMillis = configuration.getMaxWaitTime();
+        int poolSize = configuration.getPoolSize() > 0 ? configuration.getPoolSize() :
+                Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, configuration.getQueueSize())), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hashing-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public static PasswordHashingExecutor getInstance() {
+
+        if (instance == null) {
+            synchronized (PasswordHashingExecutor.class) {
+                if (instance == null) {
+                    UserStoreConfigurationService configurationService = ServiceReferenceHolder.getInstance()
+                            .getUserStoreConfigurationService();
+                    UserStoreConfiguration configuration = configurationService != null ?
+                            configurationService.getUserStoreConfiguration() : new UserStoreConfiguration();
+                    instance = new PasswordHashingExecutor(configuration.getPasswordHashingConfigs());
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Stop the shared executor, if it has been started
+     */
+    public static void shutdownInstance() {
+
+        synchronized (PasswordHashingExecutor.class) {
+            if (instance != null) {
+                instance.shutdown();
+                instance = null;
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Hash a password with the given handler on a hashing thread. The calling thread waits for the result.
+     *
+     * @param passwordHandler password handler
+     * @param password        password to be hashed
+     * @param salt            salt of the stored hash
+     * @param hashAlgo        hashing algorithm of the stored hash
+     * @param iterationCount  iteration count of the stored hash
+     * @param keyLength       key length of the stored hash
+     * @return hash as a <code>String</code>
+     * @throws NoSuchAlgorithmException         if the hashing algorithm is not supported
+     * @throws PasswordHashingRejectedException if the hashing threads are saturated
+     */
+    public String hashPassword(PasswordHandler passwordHandler, char[] password, String salt, String hashAlgo,
+            int iterationCount, int keyLength) throws NoSuchAlgorithmException {
+
+        if (!enabled) {
+            long start = System.nanoTime();
+            String hash = passwordHandler.hashPassword(password, salt, hashAlgo, iterationCount, keyLength);
+            totalHashTime.add(System.nanoTime() - start);
+            completedCount.increment();
+            return hash;
+        }
+        long submitted = System.nanoTime();
+        Future<String> future;
+        try {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                totalQueueWaitTime.add(start - submitted);
+                try {
+                    return passwordHandler.hashPassword(password, salt, hashAlgo, iterationCount, keyLength);
+                } finally {
+                    totalHashTime.add(System.nanoTime() - start);
+                    completedCount.increment();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCount.increment();
+            log.debug("Password hashing queue is full, rejecting the authentication request");
+            throw new PasswordHashingRejectedException("Too many concurrent password verifications", e);
+        }
+        try {
+            return future.get(maxWaitTimeMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timedOutCount.increment();
+            throw new PasswordHashingRejectedException("Password was not hashed within " + maxWaitTimeMillis
+                    + " milliseconds", e);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new PasswordHashingRejectedException("Interrupted while waiting for the password to be hashed", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof NoSuchAlgorithmException) {
+                throw (NoSuchAlgorithmException) cause;
+            } else if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IllegalStateException("Error while hashing the password", cause);
+        }
+    }
+
+    /**
+     * Stop the hashing threads. Passwords which are being hashed are completed.
+     */
+    public void shutdown() {
+
+        executor.shutdown();
+    }
+
+    public int getQueueDepth() {
+
+        return executor.getQueue().size();
+    }
+
+    public int getActiveCount() {
+
+        return executor.getActiveCount();
+    }
+
+    public long getCompletedCount() {
+
+        return completedCount.sum();
+    }
+
+    /**
+     * Get the number of requests rejected because the queue was full
+     *
+     * @return rejected count
+     */
+    public long getRejectedCount() {
+
+        return rejectedCount.sum();
+    }
+
+    /**
+     * Get the number of requests rejected because the password was not hashed within the maximum wait time
+     *
+     * @return timed out count
+     */
+    public long getTimedOutCount() {
+
+        return timedOutCount.sum();
+    }
+
+    /**
+     * Get the average time passwords waited for a hashing thread
+     *
+     * @return average queue wait time in milliseconds
+     */
+    public double getAverageQueueWaitTime() {
+
+        long count = completedCount.sum();
+        return count == 0 ? 0 : totalQueueWaitTime.sum() / 1_000_000.0 / count;
+    }
+
+    /**
+     * Get the average time taken to hash a password
+     *
+     * @return average hash time in milliseconds
+     */
+    public double getAverageHashTime() {
+
+        long count = completedCount.sum();
+        return count == 0 ? 0 : totalHashTime.sum() / 1_000_000.0 / count;
+    }
+}
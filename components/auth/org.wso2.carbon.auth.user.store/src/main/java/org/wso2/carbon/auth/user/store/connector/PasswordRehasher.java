@@ -0,0 +1,231 @@
+/*
+ *
+ *   Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ *   WSO2 Inc. licenses this file to you under the Apache License,
+ *   Version 2.0 (the "License"); you may not use this file except
+ *   in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *  Unless required by applicable law or agreed to in writing,
+ *  software distributed under the License is distributed on an
+ *  "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ *  KIND, either express or implied.  See the License for the
+ *  specific language governing permissions and limitations
+ *  under the License.
+ *
+ */
+
+package org.wso2.carbon.auth.user.store.connector;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.wso2.carbon.auth.user.store.configuration.UserStoreConfigurationService;
+import org.wso2.carbon.auth.user.store.configuration.models.UserStoreConfiguration;
+import org.wso2.carbon.auth.user.store.constant.UserStoreConstants;
+import org.wso2.carbon.auth.user.store.exception.UserStoreConnectorException;
+import org.wso2.carbon.auth.user.store.internal.ServiceReferenceHolder;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.security.auth.callback.PasswordCallback;
+
+/**
+ * Upgrades stored password hashes to the configured hash algorithm, iteration count and key length after a
+ * successful login, so that hashing parameters can be changed without migrating every credential at once. Passwords
+ * are rehashed one at a time on a background thread, off the login request path.
+ */
+public class PasswordRehasher {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordRehasher.class);
+    private static volatile PasswordRehasher instance;
+
+    private final boolean enabled;
+    private final String hashAlgo;
+    private final int iterationCount;
+    private final int keyLength;
+    private final ThreadPoolExecutor executor;
+    private final Set<String> pendingUsers = ConcurrentHashMap.newKeySet();
+    private final LongAdder rehashedCount = new LongAdder();
+    private final LongAdder skippedCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder droppedCount = new LongAdder();
+
+    /**
+     * Create a rehasher
+     *
+     * @param configuration user store configuration which holds the current hashing parameters
+     */
+    public PasswordRehasher(UserStoreConfiguration configuration) {
+
+        this.enabled = configuration.getPasswordHashingConfigs().isRehashOnLogin();
+        this.hashAlgo = configuration.getHashAlgo();
+        this.iterationCount = configuration.getIterationCount();
+        this.keyLength = configuration.getKeyLength();
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, configuration.getPasswordHashingConfigs().getRehashQueueSize())),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "password-rehashing");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    public static PasswordRehasher getInstance() {
+
+        if (instance == null) {
+            synchronized (PasswordRehasher.class) {
+                if (instance == null) {
+                    UserStoreConfigurationService configurationService = ServiceReferenceHolder.getInstance()
+                            .getUserStoreConfigurationService();
+                    UserStoreConfiguration configuration = configurationService != null ?
+                            configurationService.getUserStoreConfiguration() : new UserStoreConfiguration();
+                    instance = new PasswordRehasher(configuration);
+                }
+            }
+        }
+        return instance;
+    }
+
+    /**
+     * Stop the shared rehasher, if it has been started. Passwords waiting to be rehashed are rehashed on a later
+     * login.
+     */
+    public static void shutdownInstance() {
+
+        synchronized (PasswordRehasher.class) {
+            if (instance != null) {
+                instance.shutdown();
+                instance = null;
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+
+        return enabled;
+    }
+
+    /**
+     * Check whether a stored password was hashed with parameters other than the configured ones
+     *
+     * @param passwordInfo password information of the user as returned by
+     *                     {@link UserStoreConnector#getUserPasswordInfo(String)}
+     * @return true if the password should be rehashed
+     */
+    public boolean isOutdated(Map passwordInfo) {
+
+        return !hashAlgo.equalsIgnoreCase((String) passwordInfo.get(UserStoreConstants.HASH_ALGO))
+                || iterationCount != (int) passwordInfo.get(UserStoreConstants.ITERATION_COUNT)
+                || keyLength != (int) passwordInfo.get(UserStoreConstants.KEY_LENGTH);
+    }
+
+    /**
+     * Rehash a verified password in the background if it was hashed with outdated parameters. The stored credential
+     * is only replaced if it has not changed since it was verified.
+     *
+     * @param userStoreConnector connector the credential is stored in
+     * @param userId             connector user ID of the user
+     * @param password           password which was verified against the stored hash
+     * @param passwordInfo       password information the password was verified with
+     * @return true if the password was queued to be rehashed
+     */
+    public boolean rehashIfOutdated(UserStoreConnector userStoreConnector, String userId, char[] password,
+            Map passwordInfo) {
+
+        if (!enabled || !isOutdated(passwordInfo) || !pendingUsers.add(userId)) {
+            return false;
+        }
+        char[] verifiedPassword = password.clone();
+        String verifiedHash = (String) passwordInfo.get(UserStoreConstants.PASSWORD);
+        try {
+            executor.execute(() -> {
+                try {
+                    rehash(userStoreConnector, userId, verifiedPassword, verifiedHash);
+                } finally {
+                    Arrays.fill(verifiedPassword, '\0');
+                    pendingUsers.remove(userId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            Arrays.fill(verifiedPassword, '\0');
+            pendingUsers.remove(userId);
+            droppedCount.increment();
+            log.debug("Password rehash queue is full, the password will be rehashed on a later login");
+            return false;
+        }
+    }
+
+    private void rehash(UserStoreConnector userStoreConnector, String userId, char[] password, String verifiedHash) {
+
+        PasswordCallback passwordCallback = new PasswordCallback("password", false);
+        passwordCallback.setPassword(password);
+        try {
+            if (userStoreConnector.updateCredentialsIfUnchanged(userId, passwordCallback, verifiedHash)) {
+                rehashedCount.increment();
+            } else {
+                skippedCount.increment();
+            }
+        } catch (UserStoreConnectorException e) {
+            failedCount.increment();
+            log.warn("Error while rehashing the password of user " + userId, e);
+        } finally {
+            passwordCallback.clearPassword();
+        }
+    }
+
+    /**
+     * Stop the rehashing thread. The password which is being rehashed is completed.
+     */
+    public void shutdown() {
+
+        executor.shutdown();
+    }
+
+    public int getQueueDepth() {
+
+        return executor.getQueue().size();
+    }
+
+    public long getRehashedCount() {
+
+        return rehashedCount.sum();
+    }
+
+    /**
+     * Get the number of queued passwords which were not rehashed because the credential changed in the meantime
+     *
+     * @return skipped count
+     */
+    public long getSkippedCount() {
+
+        return skippedCount.sum();
+    }
+
+    public long getFailedCount() {
+
+        return failedCount.sum();
+    }
+
+    /**
+     * Get the number of outdated passwords which were not queued because the queue was full
+     *
+     * @return dropped count
+     */
+    public long getDroppedCount() {
+
+        return droppedCount.sum();
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2016, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.wso2.carbon.auth.user.store.connector;
+
+import org.wso2.carbon.auth.user.store.exception.UserStoreConnectorException;
+
+import java.util.List;
+
+/**
+ * Forward only cursor over the users of a user store together with their attributes. Only the current user is held
+ * in memory, the rest are read from the user store as the cursor advances. The cursor holds a user store connection
+ * until it is closed.
+ */
+public interface UserCursor extends AutoCloseable {
+
+    /**
+     * Move to the next user.
+     *
+     * @return false if there are no more users.
+     * @throws UserStoreConnectorException User Store Connector Exception.
+     */
+    boolean next() throws UserStoreConnectorException;
+
+    /**
+     * Get the id of the current user.
+     *
+     * @return Connector user id.
+     */
+    String getUserId();
+
+    /**
+     * Get the attributes of the current user.
+     *
+     * @return Attributes of the user, empty if the user has none of the requested attributes.
+     */
+    List<Attribute> getAttributes();
+
+    /**
+     * Release the user store connection held by the cursor.
+     *
+     * @throws UserStoreConnectorException User Store Connector Exception.
+     */
+    @Override
+    void close() throws UserStoreConnectorException;
+}
@@ -74,6 +74,19 @@ public interface UserStoreConnector {
      */
     List<String> listConnectorUserIds(int offset, int length) throws UserStoreConnectorException;
 
+    /**
+     * List connector user ids that come after the given user id, in the order the user store keeps them.
+     * Unlike {@link #listConnectorUserIds(int, int)} the cost of a page does not depend on its position.
+     *
+     * @param cursor Id of the last user of the previous page, null to start from the first user.
+     * @param length Number of users to retrieve.
+     * @return List of connector user ids.
+     * @throws UserNotFoundException       If the store needs the cursor user to seek and it does not exist.
+     * @throws UserStoreConnectorException User Store Connector Exception.
+     */
+    List<String> listConnectorUserIdsAfter(String cursor, int length) throws UserNotFoundException,
+            UserStoreConnectorException;
+
     /**
      * Retrieve attributes of the user with the given ID.
      *
@@ -93,6 +106,27 @@ public interface UserStoreConnector {
     List<Attribute> getUserAttributeValues(String userID, List<String> requiredAttribute)
             throws UserStoreConnectorException;
 
+    /**
+     * Retrieve attributes of the users with the given IDs at once.
+     *
+     * @param userIds           IDs of the users whose claims are requested
+     * @param requiredAttribute Attributes to retrieve, all the attributes are retrieved if null or empty
+     * @return Attributes by user ID, users without any of the attributes are not included
+     * @throws UserStoreConnectorException User Store Connector Exception.
+     */
+    Map<String, List<Attribute>> getUsersAttributeValues(List<String> userIds, List<String> requiredAttribute)
+            throws UserStoreConnectorException;
+
+    /**
+     * Open a cursor over all the users and their attributes. The users are streamed from the user store in batches
+     * as the cursor advances, so the whole user store can be read without holding it in memory.
+     *
+     * @param requiredAttribute Attributes to retrieve, all the attributes are retrieved if null or empty
+     * @return Cursor positioned before the first user, which must be closed by the caller
+     * @throws UserStoreConnectorException User Store Connector Exception.
+     */
+    UserCursor exportUsers(List<String> requiredAttribute) throws UserStoreConnectorException;
+
 
     /**
      * Get connector group id from unique attribute..
@@ -129,6 +163,19 @@ public interface UserStoreConnector {
      */
     List<String> listConnectorGroupIds(int offset, int length) throws UserStoreConnectorException;
 
+    /**
+     * List connector group ids that come after the given group id, in the order the user store keeps them.
+     * Unlike {@link #listConnectorGroupIds(int, int)} the cost of a page does not depend on its position.
+     *
+     * @param cursor Id of the last group of the previous page, null to start from the first group.
+     * @param length Number of groups to retrieve.
+     * @return List of connector group ids.
+     * @throws GroupNotFoundException      If the store needs the cursor group to seek and it does not exist.
+     * @throws UserStoreConnectorException User Store Connector Exception.
+     */
+    List<String> listConnectorGroupIdsAfter(String cursor, int length) throws GroupNotFoundException,
+            UserStoreConnectorException;
+
     /**
      * Get all of the attributes that belongs to this group.
      *
@@ -148,6 +195,17 @@ public interface UserStoreConnector {
     List<Attribute> getGroupAttributeValues(String groupId, List<String> requiredAttribute)
             throws UserStoreConnectorException;
 
+    /**
+     * Get the attributes of the groups with the given IDs at once.
+     *
+     * @param groupIds          Ids of the groups.
+     * @param requiredAttribute Attributes to retrieve, all the attributes are retrieved if null or empty.
+     * @return Attributes by group Id, groups without any of the attributes are not included.
+     * @throws UserStoreConnectorException User Store Connector Exception.
+     */
+    Map<String, List<Attribute>> getGroupsAttributeValues(List<String> groupIds, List<String> requiredAttribute)
+            throws UserStoreConnectorException;
+
 
     /**
      * Checks whether the user is in the group.
@@ -232,6 +290,15 @@ public interface UserStoreConnector {
      */
     List<String> getUserIdsOfGroup(String groupIdentifier) throws UserStoreConnectorException;
 
+    /**
+     * Retrieves current members (users) of the given groups at once
+     *
+     * @param groupIdentifiers ids of the groups
+     * @return current member Ids (user Ids) by group id, groups without members are not included
+     * @throws UserStoreConnectorException when error occurred while getting users of groups
+     */
+    Map<String, List<String>> getUserIdsOfGroups(List<String> groupIdentifiers) throws UserStoreConnectorException;
+
     /**
      * Retrieves current groups (roles) of a given user
      *
@@ -241,6 +308,15 @@ public interface UserStoreConnector {
      */
     List<String> getGroupIdsOfUser(String userIdentifier) throws UserStoreConnectorException;
 
+    /**
+     * Retrieves current groups (roles) of the given users at once
+     *
+     * @param userIdentifiers ids of the users
+     * @return current group Ids (roles) by user id, users without groups are not included
+     * @throws UserStoreConnectorException when error occurred while getting groups of users
+     */
+    Map<String, List<String>> getGroupIdsOfUsers(List<String> userIdentifiers) throws UserStoreConnectorException;
+
     /**
      * Retrieves current groups (roles) of a given user
      *
@@ -328,6 +404,19 @@ public interface UserStoreConnector {
     String updateCredentials(String userIdentifier, PasswordCallback passwordCallback) throws
             UserStoreConnectorException;
 
+    /**
+     * Update the user credentials only if the stored password hash is still the given one. The check and the update
+     * are done as a single atomic operation.
+     *
+     * @param userIdentifier      unique user id of the connector
+     * @param passwordCallback    Callback which contains credentials.
+     * @param currentPasswordHash password hash which is expected to be stored for the user
+     * @return true if the credentials were updated, false if the stored password hash had changed
+     * @throws UserStoreConnectorException Credential Store Exception.
+     */
+    boolean updateCredentialsIfUnchanged(String userIdentifier, PasswordCallback passwordCallback,
+            String currentPasswordHash) throws UserStoreConnectorException;
+
     /**
      * Delete credential
      *
@@ -18,51 +18,53 @@ package org.wso2.carbon.auth.user.store.connector.jdbc;
 import org.wso2.carbon.auth.user.store.connector.PasswordHandler;
 import org.wso2.carbon.auth.user.store.exception.StoreException;
 
-import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
 import java.security.NoSuchAlgorithmException;
 import java.security.spec.InvalidKeySpecException;
-import java.security.spec.KeySpec;
 import java.util.Base64;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
 
 /**
- * Default implementation of the password handler.
- *
+ * Default implementation of the password handler. The handler is stateless and can be shared between threads. Key
+ * factories are not thread-safe, so each thread keeps its own key factory per algorithm instead of looking one up for
+ * every hash.
  */
 public class DefaultPasswordHandler implements PasswordHandler {
-    
-    private static final String KEY_FACTORY_ALGO_HEAD = "PBKDF2WithHmac";
 
-    private int iterationCount = 4096;
-    private int keyLength = 256;
+    private static final String KEY_FACTORY_ALGO_HEAD = "PBKDF2WithHmac";
+    private static final ThreadLocal<Map<String, SecretKeyFactory>> KEY_FACTORIES = ThreadLocal.withInitial(
+            HashMap::new);
 
     @Override
-    public String hashPassword(char[] password, String salt, String hashAlgo) throws NoSuchAlgorithmException {
-        String keyFactoryAlgorithm = KEY_FACTORY_ALGO_HEAD + hashAlgo.toUpperCase(Locale.ENGLISH);
+    public String hashPassword(char[] password, String salt, String hashAlgo, int iterationCount, int keyLength)
+            throws NoSuchAlgorithmException {
 
-        KeySpec keySpec = new PBEKeySpec(password, salt.getBytes(Charset.forName("UTF-8")), iterationCount,
+        PBEKeySpec keySpec = new PBEKeySpec(password, salt.getBytes(StandardCharsets.UTF_8), iterationCount,
                 keyLength);
-        SecretKeyFactory secretKeyFactory = SecretKeyFactory.getInstance(keyFactoryAlgorithm);
-
         try {
-            byte[] hash = secretKeyFactory.generateSecret(keySpec).getEncoded();
+            byte[] hash = getKeyFactory(hashAlgo).generateSecret(keySpec).getEncoded();
             return Base64.getEncoder().encodeToString(hash);
         } catch (InvalidKeySpecException e) {
             throw new StoreException("Invalid key specification.", e);
+        } finally {
+            keySpec.clearPassword();
         }
     }
 
-    @Override
-    public void setIterationCount(int iterationCount) {
-        this.iterationCount = iterationCount;        
-    }
+    private static SecretKeyFactory getKeyFactory(String hashAlgo) throws NoSuchAlgorithmException {
 
-    @Override
-    public void setKeyLength(int keyLength) {
-        this.keyLength = keyLength;        
+        Map<String, SecretKeyFactory> factories = KEY_FACTORIES.get();
+        SecretKeyFactory secretKeyFactory = factories.get(hashAlgo);
+        if (secretKeyFactory == null) {
+            secretKeyFactory = SecretKeyFactory.getInstance(KEY_FACTORY_ALGO_HEAD + hashAlgo.toUpperCase(Locale
+                    .ENGLISH));
+            factories.put(hashAlgo, secretKeyFactory);
+        }
+        return secretKeyFactory;
     }
-
 }
@@ -21,6 +21,7 @@ package org.wso2.carbon.auth.user.store.connector.jdbc;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.auth.core.exception.TemplateExceptionCodes;
+import org.wso2.carbon.auth.user.store.cache.AuthenticationResultCache;
 import org.wso2.carbon.auth.user.store.claim.ClaimConstants;
 import org.wso2.carbon.auth.user.store.claim.DefaultClaimManager;
 //import org.wso2.carbon.auth.user.store.claim.DefaultClaimMetadataStore;
@@ -32,6 +33,7 @@ import org.wso2.carbon.auth.user.store.configuration.models.Uniqueness;
 import org.wso2.carbon.auth.user.store.configuration.models.UserStoreConfiguration;
 import org.wso2.carbon.auth.user.store.connector.Attribute;
 import org.wso2.carbon.auth.user.store.connector.PasswordHandler;
+import org.wso2.carbon.auth.user.store.connector.UserCursor;
 import org.wso2.carbon.auth.user.store.connector.UserStoreConnector;
 import org.wso2.carbon.auth.user.store.connector.jdbc.queries.MySQLFamilySQLQueryFactory;
 import org.wso2.carbon.auth.user.store.constant.DatabaseColumnNames;
@@ -44,18 +46,22 @@ import org.wso2.carbon.auth.user.store.exception.UserNotFoundException;
 import org.wso2.carbon.auth.user.store.exception.UserStoreConnectorException;
 import org.wso2.carbon.auth.user.store.internal.ServiceReferenceHolder;
 import org.wso2.carbon.auth.user.store.util.NamedPreparedStatement;
+import org.wso2.carbon.auth.user.store.util.NamedQuery;
 import org.wso2.carbon.auth.user.store.util.UnitOfWork;
 import org.wso2.carbon.auth.user.store.util.UserStoreUtil;
 import org.wso2.carbon.datasource.core.exception.DataSourceException;
 
 import java.security.NoSuchAlgorithmException;
 import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
@@ -73,10 +79,19 @@ import javax.sql.DataSource;
 public class JDBCUserStoreConnector implements UserStoreConnector {
 
     private static Logger log = LoggerFactory.getLogger(JDBCUserStoreConnector.class);
+    /**
+     * Maximum number of IDs bound to a single IN clause of a bulk query.
+     */
+    private static final int MAX_IDS_PER_QUERY = 500;
+    /**
+     * Number of rows fetched from the database at a time while exporting users, unless configured otherwise.
+     */
+    private static final int DEFAULT_EXPORT_FETCH_SIZE = 1000;
     protected DataSource dataSource;
     protected UserStoreConfiguration userStoreConfig;
     protected String userStoreId;
     protected Map<String, String> sqlQueries;
+    protected Map<String, NamedQuery> namedQueries;
     private Map<String, Object> properties;
 
     protected void loadQueries(Map<String, String> properties) {
@@ -95,6 +110,16 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         // If there are matching queries in the properties, we have to override the default and replace with them.
         sqlQueries.putAll(sqlQueries.keySet().stream().filter(properties::containsKey)
                 .collect(Collectors.toMap(key -> key, properties::get)));
+
+        // parse the queries once, statements are prepared from the parsed form on every call
+        namedQueries = new HashMap<>();
+        for (Entry<String, String> query : sqlQueries.entrySet()) {
+            try {
+                namedQueries.put(query.getKey(), new NamedQuery(query.getValue()));
+            } catch (SQLException e) {
+                throw new StoreException("Invalid sql query specified for " + query.getKey() + ".", e);
+            }
+        }
     }
 
     @Override
@@ -143,7 +168,7 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection())) {
 
             NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_USER_FROM_ATTRIBUTE));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_USER_FROM_ATTRIBUTE));
 
             namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_URI, attributeUri);
             namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_VALUE, attributeValue);
@@ -178,7 +203,7 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection())) {
             NamedPreparedStatement listUsersNamedPreparedStatement = new NamedPreparedStatement(
                     unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_USER_IDS_BY_ATTRIBUTE));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_USER_IDS_BY_ATTRIBUTE));
             listUsersNamedPreparedStatement
                     .setString(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_URI, attributeUri);
 
@@ -221,7 +246,7 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection())) {
             NamedPreparedStatement listUsersNamedPreparedStatement = new NamedPreparedStatement(
                     unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_USER_IDS));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_USER_IDS));
             listUsersNamedPreparedStatement.setInt(JDBCConnectorConstants.SQLPlaceholders.LENGTH, length);
             listUsersNamedPreparedStatement.setInt(JDBCConnectorConstants.SQLPlaceholders.OFFSET, offset);
 
@@ -243,13 +268,40 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         }
     }
 
+    @Override
+    public List<String> listConnectorUserIdsAfter(String cursor, int length)
+            throws UserNotFoundException, UserStoreConnectorException {
+
+        try {
+            List<String> userList = listIdsAfter(cursor, length,
+                    JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_USER_IDS_FROM_START,
+                    JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_USER_IDS_AFTER,
+                    JDBCConnectorConstants.SQLPlaceholders.USER_ID, DatabaseColumnNames.User.USER_UNIQUE_ID);
+            // A short page is either the end of the list or a cursor that does not exist, tell them apart here so
+            // that a removed user does not silently end the listing.
+            if (cursor != null && (length < 0 || userList.size() < length) && !isExisting(cursor,
+                    JDBCConnectorConstants.QueryTypes.SQL_QUERY_IS_USER_EXISTS,
+                    JDBCConnectorConstants.SQLPlaceholders.USER_ID)) {
+                throw new UserNotFoundException("User not found with the given cursor: " + cursor);
+            }
+
+            if (log.isDebugEnabled()) {
+                log.debug("{} users retrieved from identity store: {}.", userList.size(), userStoreId);
+            }
+
+            return userList;
+        } catch (SQLException e) {
+            throw new UserStoreConnectorException("Error occurred while listing users.", e);
+        }
+    }
+
     @Override
     public List<Attribute> getUserAttributeValues(String userId) throws UserStoreConnectorException {
 
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection())) {
 
             NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_USER_ATTRIBUTES));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_USER_ATTRIBUTES));
             namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.USER_ID, userId);
             try (ResultSet resultSet = namedPreparedStatement.getPreparedStatement().executeQuery()) {
 
@@ -276,7 +328,90 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
 
     @Override public List<Attribute> getUserAttributeValues(String userID, List<String> requiredAttribute)
             throws UserStoreConnectorException {
-        return getUserAttributeValues(userID);
+
+        if (requiredAttribute == null || requiredAttribute.isEmpty()) {
+            return getUserAttributeValues(userID);
+        }
+
+        List<String> attributeUris = new ArrayList<>(new LinkedHashSet<>(requiredAttribute));
+        try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection())) {
+
+            NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_USER_ATTRIBUTES_FROM_URI),
+                    Collections.singletonMap(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_URIS,
+                            attributeUris.size()));
+            namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.USER_ID, userID);
+            namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_URIS, attributeUris);
+            try (ResultSet resultSet = namedPreparedStatement.getPreparedStatement().executeQuery()) {
+
+                List<Attribute> userAttributes = new ArrayList<>();
+
+                while (resultSet.next()) {
+                    Attribute attribute = new Attribute();
+                    attribute.setAttributeUri(resultSet.getString(DatabaseColumnNames.UserAttributes.ATTR_URI));
+                    attribute.setAttributeValue(resultSet.getString(DatabaseColumnNames.UserAttributes.ATTR_VALUE));
+                    userAttributes.add(attribute);
+                }
+
+                if (log.isDebugEnabled()) {
+                    log.debug("{} of {} requested attributes of user: {} retrieved from identity store: {}.",
+                            userAttributes.size(), attributeUris.size(), userID, userStoreId);
+                }
+
+                return userAttributes;
+            }
+        } catch (SQLException e) {
+            throw new UserStoreConnectorException("Error occurred while retrieving user attributes.", e);
+        }
+    }
+
+    @Override
+    public Map<String, List<Attribute>> getUsersAttributeValues(List<String> userIds, List<String> requiredAttribute)
+            throws UserStoreConnectorException {
+
+        try {
+            return getAttributeValues(userIds, requiredAttribute,
+                    JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_ATTRIBUTES_OF_USERS,
+                    JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_ATTRIBUTES_OF_USERS_FROM_URI,
+                    JDBCConnectorConstants.SQLPlaceholders.USER_UNIQUE_IDS, DatabaseColumnNames.User.USER_UNIQUE_ID);
+        } catch (SQLException e) {
+            throw new UserStoreConnectorException("Error occurred while retrieving attributes of users.", e);
+        }
+    }
+
+    @Override
+    public UserCursor exportUsers(List<String> requiredAttribute) throws UserStoreConnectorException {
+
+        List<String> attributeUris = requiredAttribute == null ? Collections.emptyList()
+                : new ArrayList<>(new LinkedHashSet<>(requiredAttribute));
+        NamedQuery namedQuery = namedQueries.get(attributeUris.isEmpty() ?
+                JDBCConnectorConstants.QueryTypes.SQL_QUERY_EXPORT_USERS :
+                JDBCConnectorConstants.QueryTypes.SQL_QUERY_EXPORT_USERS_FROM_URI);
+
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            // Drivers such as PostgreSQL only use the fetch size to stream rows inside a transaction.
+            connection.setAutoCommit(false);
+            NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(connection, namedQuery,
+                    Collections.singletonMap(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_URIS,
+                            attributeUris.size()));
+            if (!attributeUris.isEmpty()) {
+                namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_URIS, attributeUris);
+            }
+            PreparedStatement preparedStatement = namedPreparedStatement.getPreparedStatement();
+            preparedStatement.setFetchSize(getExportFetchSize());
+            return new JDBCUserCursor(connection, preparedStatement, preparedStatement.executeQuery());
+        } catch (SQLException e) {
+            if (connection != null) {
+                try {
+                    connection.close();
+                } catch (SQLException ex) {
+                    log.error("Error occurred while closing the connection.", ex);
+                }
+            }
+            throw new UserStoreConnectorException("Error occurred while exporting users.", e);
+        }
     }
 
     @Override
@@ -286,7 +421,7 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection())) {
 
             NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_GROUP_FROM_ATTRIBUTE));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_GROUP_FROM_ATTRIBUTE));
 
             namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_URI, attributeUri);
             namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_VALUE, attributeValue);
@@ -322,7 +457,7 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
 
             NamedPreparedStatement listGroupsNamedPreparedStatement = new NamedPreparedStatement(
                     unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_GROUPS_BY_ATTRIBUTE));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_GROUPS_BY_ATTRIBUTE));
             listGroupsNamedPreparedStatement
                     .setString(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_URI, attributeUri);
             listGroupsNamedPreparedStatement
@@ -368,7 +503,7 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
 
             NamedPreparedStatement listGroupsNamedPreparedStatement = new NamedPreparedStatement(
                     unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_GROUPS));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_GROUPS));
             listGroupsNamedPreparedStatement.setInt(JDBCConnectorConstants.SQLPlaceholders.LENGTH, length);
             listGroupsNamedPreparedStatement.setInt(JDBCConnectorConstants.SQLPlaceholders.OFFSET, startIndex);
 
@@ -391,13 +526,39 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         }
     }
 
+    @Override
+    public List<String> listConnectorGroupIdsAfter(String cursor, int length)
+            throws GroupNotFoundException, UserStoreConnectorException {
+
+        try {
+            List<String> groups = listIdsAfter(cursor, length,
+                    JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_GROUPS_FROM_START,
+                    JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_GROUPS_AFTER,
+                    JDBCConnectorConstants.SQLPlaceholders.GROUP_ID, DatabaseColumnNames.Group.GROUP_UNIQUE_ID);
+            if (cursor != null && (length < 0 || groups.size() < length) && !isExisting(cursor,
+                    JDBCConnectorConstants.QueryTypes.SQL_QUERY_IS_GROUP_EXISTS,
+                    JDBCConnectorConstants.SQLPlaceholders.GROUP_ID)) {
+                throw new GroupNotFoundException("Group not found with the given cursor: " + cursor);
+            }
+
+            if (log.isDebugEnabled()) {
+                log.debug(groups.size() + " groups retrieved from identity store: {}.", userStoreId);
+            }
+
+            return groups;
+
+        } catch (SQLException e) {
+            throw new UserStoreConnectorException("Error occurred while retrieving group list.", e);
+        }
+    }
+
     @Override
     public List<Attribute> getGroupAttributeValues(String groupId) throws UserStoreConnectorException {
 
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection())) {
 
             NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_GROUP_ATTRIBUTES));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_GROUP_ATTRIBUTES));
             namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.GROUP_ID, groupId);
 
             try (ResultSet resultSet = namedPreparedStatement.getPreparedStatement().executeQuery()) {
@@ -420,7 +581,50 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
 
     @Override public List<Attribute> getGroupAttributeValues(String groupId, List<String> requiredAttribute)
             throws UserStoreConnectorException {
-        return getGroupAttributeValues(groupId);
+
+        if (requiredAttribute == null || requiredAttribute.isEmpty()) {
+            return getGroupAttributeValues(groupId);
+        }
+
+        List<String> attributeUris = new ArrayList<>(new LinkedHashSet<>(requiredAttribute));
+        try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection())) {
+
+            NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_GROUP_ATTRIBUTES_FROM_URI),
+                    Collections.singletonMap(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_URIS,
+                            attributeUris.size()));
+            namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.GROUP_ID, groupId);
+            namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_URIS, attributeUris);
+
+            try (ResultSet resultSet = namedPreparedStatement.getPreparedStatement().executeQuery()) {
+                List<Attribute> groupAttributes = new ArrayList<>();
+
+                while (resultSet.next()) {
+                    Attribute attribute = new Attribute();
+                    attribute.setAttributeUri(resultSet.getString(DatabaseColumnNames.GroupAttributes.ATTR_URI));
+                    attribute.setAttributeValue(resultSet.getString(DatabaseColumnNames.GroupAttributes.ATTR_VALUE));
+                    groupAttributes.add(attribute);
+                }
+
+                return groupAttributes;
+            }
+        } catch (SQLException e) {
+            throw new UserStoreConnectorException("Error occurred while retrieving attribute values of the group.", e);
+        }
+    }
+
+    @Override
+    public Map<String, List<Attribute>> getGroupsAttributeValues(List<String> groupIds, List<String> requiredAttribute)
+            throws UserStoreConnectorException {
+
+        try {
+            return getAttributeValues(groupIds, requiredAttribute,
+                    JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_ATTRIBUTES_OF_GROUPS,
+                    JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_ATTRIBUTES_OF_GROUPS_FROM_URI,
+                    JDBCConnectorConstants.SQLPlaceholders.GROUP_UNIQUE_IDS, DatabaseColumnNames.Group.GROUP_UNIQUE_ID);
+        } catch (SQLException e) {
+            throw new UserStoreConnectorException("Error occurred while retrieving attribute values of groups.", e);
+        }
     }
 
     @Override
@@ -429,7 +633,7 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection())) {
 
             NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_IS_USER_IN_GROUP));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_IS_USER_IN_GROUP));
             namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.USER_ID, userId);
             namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.GROUP_ID, groupId);
 
@@ -500,13 +704,13 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection(), false)) {
 
             NamedPreparedStatement addUserNamedPreparedStatement = new NamedPreparedStatement(
-                    unitOfWork.getConnection(), sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_USER));
+                    unitOfWork.getConnection(), namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_USER));
             addUserNamedPreparedStatement
                     .setString(JDBCConnectorConstants.SQLPlaceholders.USER_UNIQUE_ID, connectorUniqueId);
             addUserNamedPreparedStatement.getPreparedStatement().executeUpdate();
 
             NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_USER_ATTRIBUTES));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_USER_ATTRIBUTES));
             for (Attribute attribute : attributes) {
                 namedPreparedStatement
                         .setString(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_URI, attribute.getAttributeUri());
@@ -537,14 +741,14 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
             //Delete the existing attributes
             NamedPreparedStatement removeAttributesNamedPreparedStatement = new NamedPreparedStatement(
                     unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_REMOVE_ALL_ATTRIBUTES_OF_USER));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_REMOVE_ALL_ATTRIBUTES_OF_USER));
             removeAttributesNamedPreparedStatement
                     .setString(JDBCConnectorConstants.SQLPlaceholders.USER_UNIQUE_ID, userIdentifier);
             removeAttributesNamedPreparedStatement.getPreparedStatement().executeUpdate();
 
             //Add new user attributes
             NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_USER_ATTRIBUTES));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_USER_ATTRIBUTES));
             for (Attribute attribute : attributes) {
                 namedPreparedStatement
                         .setString(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_URI, attribute.getAttributeUri());
@@ -558,6 +762,8 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         } catch (SQLException e) {
             throw new UserStoreConnectorException("Error occurred while updating user.", e);
         }
+        // the user name may have changed
+        AuthenticationResultCache.invalidateEntry(userIdentifier);
         return userIdentifier;
     }
 
@@ -566,13 +772,14 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
 
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection(), false)) {
             NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_DELETE_USER));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_DELETE_USER));
             namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.USER_UNIQUE_ID, userIdentifier);
             namedPreparedStatement.getPreparedStatement().executeUpdate();
             unitOfWork.endTransaction();
         } catch (SQLException e) {
             throw new UserStoreConnectorException("Error occurred while deleting user.", e);
         }
+        AuthenticationResultCache.invalidateEntry(userIdentifier);
     }
 
     @Override
@@ -583,14 +790,14 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection(), false)) {
             //remove already existing groups
             NamedPreparedStatement deleteNamedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_REMOVE_ALL_GROUPS_OF_USER));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_REMOVE_ALL_GROUPS_OF_USER));
             deleteNamedPreparedStatement
                     .setString(JDBCConnectorConstants.SQLPlaceholders.USER_UNIQUE_ID, userIdentifier);
             deleteNamedPreparedStatement.getPreparedStatement().executeUpdate();
 
             //add new groups
             NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_USER_GROUP));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_USER_GROUP));
             for (String groupIdentifier : groupIdentifiers) {
                 namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.USER_UNIQUE_ID, userIdentifier);
                 namedPreparedStatement
@@ -610,7 +817,7 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection(), false)) {
             //remove already existing groups
             NamedPreparedStatement deleteNamedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_REMOVE_ALL_GROUPS_OF_USER));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_REMOVE_ALL_GROUPS_OF_USER));
             deleteNamedPreparedStatement
                     .setString(JDBCConnectorConstants.SQLPlaceholders.USER_UNIQUE_ID, userIdentifier);
             deleteNamedPreparedStatement.getPreparedStatement().executeUpdate();
@@ -625,7 +832,7 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         List<String> userIdsToReturn = new ArrayList<>();
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection(), false)) {
             NamedPreparedStatement getUsersOfGroupStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_USER_IDS_OF_GROUP));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_USER_IDS_OF_GROUP));
             getUsersOfGroupStatement
                     .setString(JDBCConnectorConstants.SQLPlaceholders.GROUP_UNIQUE_ID, groupIdentifier);
             try (ResultSet resultSet = getUsersOfGroupStatement.getPreparedStatement().executeQuery()) {
@@ -642,12 +849,44 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         }
     }
 
+    @Override
+    public Map<String, List<String>> getUserIdsOfGroups(List<String> groupIdentifiers)
+            throws UserStoreConnectorException {
+
+        Map<String, List<String>> userIdsOfGroups = new HashMap<>();
+        if (groupIdentifiers == null || groupIdentifiers.isEmpty()) {
+            return userIdsOfGroups;
+        }
+
+        List<String> groupIds = new ArrayList<>(new LinkedHashSet<>(groupIdentifiers));
+        try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection(), false)) {
+            for (int from = 0; from < groupIds.size(); from += MAX_IDS_PER_QUERY) {
+                List<String> batch = groupIds.subList(from, Math.min(from + MAX_IDS_PER_QUERY, groupIds.size()));
+                NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
+                        namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_USER_IDS_OF_GROUPS),
+                        Collections.singletonMap(JDBCConnectorConstants.SQLPlaceholders.GROUP_UNIQUE_IDS,
+                                batch.size()));
+                namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.GROUP_UNIQUE_IDS, batch);
+                try (ResultSet resultSet = namedPreparedStatement.getPreparedStatement().executeQuery()) {
+                    while (resultSet.next()) {
+                        String groupId = resultSet.getString(DatabaseColumnNames.Group.GROUP_UNIQUE_ID);
+                        userIdsOfGroups.computeIfAbsent(groupId, id -> new ArrayList<>())
+                                .add(resultSet.getString(DatabaseColumnNames.User.USER_UNIQUE_ID));
+                    }
+                }
+            }
+            return userIdsOfGroups;
+        } catch (SQLException e) {
+            throw new UserStoreConnectorException("Error occurred while retrieving users of groups.", e);
+        }
+    }
+
     @Override
     public List<String> getGroupIdsOfUser(String userIdentifier) throws UserStoreConnectorException {
         List<String> groupIdsToReturn = new ArrayList<>();
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection(), false)) {
             NamedPreparedStatement getUsersOfGroupStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_GROUP_IDS_OF_USER));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_GROUP_IDS_OF_USER));
             getUsersOfGroupStatement
                     .setString(JDBCConnectorConstants.SQLPlaceholders.USER_UNIQUE_ID, userIdentifier);
             try (ResultSet resultSet = getUsersOfGroupStatement.getPreparedStatement().executeQuery()) {
@@ -664,13 +903,45 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         }
     }
 
+    @Override
+    public Map<String, List<String>> getGroupIdsOfUsers(List<String> userIdentifiers)
+            throws UserStoreConnectorException {
+
+        Map<String, List<String>> groupIdsOfUsers = new HashMap<>();
+        if (userIdentifiers == null || userIdentifiers.isEmpty()) {
+            return groupIdsOfUsers;
+        }
+
+        List<String> userIds = new ArrayList<>(new LinkedHashSet<>(userIdentifiers));
+        try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection(), false)) {
+            for (int from = 0; from < userIds.size(); from += MAX_IDS_PER_QUERY) {
+                List<String> batch = userIds.subList(from, Math.min(from + MAX_IDS_PER_QUERY, userIds.size()));
+                NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
+                        namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_GROUP_IDS_OF_USERS),
+                        Collections.singletonMap(JDBCConnectorConstants.SQLPlaceholders.USER_UNIQUE_IDS,
+                                batch.size()));
+                namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.USER_UNIQUE_IDS, batch);
+                try (ResultSet resultSet = namedPreparedStatement.getPreparedStatement().executeQuery()) {
+                    while (resultSet.next()) {
+                        String userId = resultSet.getString(DatabaseColumnNames.User.USER_UNIQUE_ID);
+                        groupIdsOfUsers.computeIfAbsent(userId, id -> new ArrayList<>())
+                                .add(resultSet.getString(DatabaseColumnNames.Group.GROUP_UNIQUE_ID));
+                    }
+                }
+            }
+            return groupIdsOfUsers;
+        } catch (SQLException e) {
+            throw new UserStoreConnectorException("Error occurred while retrieving groups of users.", e);
+        }
+    }
+
     @Override
     public List<String> getGroupsOfUser(String userIdentifier) throws UserStoreConnectorException {
 
         List<String> getGroupNamesToReturn = new ArrayList<>();
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection(), false)) {
             NamedPreparedStatement getUsersOfGroupStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_ROLES_FOR_USER));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_ROLES_FOR_USER));
             getUsersOfGroupStatement
                     .setString(JDBCConnectorConstants.SQLPlaceholders.USER_UNIQUE_ID, userIdentifier);
             getUsersOfGroupStatement.setString(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_URI, UserStoreConstants
@@ -700,13 +971,14 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
 
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection(), false)) {
             NamedPreparedStatement addGroupNamedPreparedStatement = new NamedPreparedStatement(
-                    unitOfWork.getConnection(), sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_GROUP));
+                    unitOfWork.getConnection(),
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_GROUP));
             addGroupNamedPreparedStatement
                     .setString(JDBCConnectorConstants.SQLPlaceholders.GROUP_UNIQUE_ID, connectorUniqueId);
             addGroupNamedPreparedStatement.getPreparedStatement().executeUpdate();
 
             NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_GROUP_ATTRIBUTES));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_GROUP_ATTRIBUTES));
             for (Attribute attribute : attributes) {
                 namedPreparedStatement
                         .setString(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_URI, attribute.getAttributeUri());
@@ -732,9 +1004,10 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         Map<String, String> groupIdsToReturn = new HashMap<>();
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection(), false)) {
             NamedPreparedStatement addGroupNamedPreparedStatement = new NamedPreparedStatement(
-                    unitOfWork.getConnection(), sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_GROUP));
+                    unitOfWork.getConnection(),
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_GROUP));
             NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_GROUP_ATTRIBUTES));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_GROUP_ATTRIBUTES));
             attributes.entrySet().stream().forEach(entry -> {
                 try {
                     String connectorUniqueId = UserStoreUtil.generateUUID();
@@ -786,14 +1059,14 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
             //Delete the existing attributes
             NamedPreparedStatement removeAttributesNamedPreparedStatement = new NamedPreparedStatement(
                     unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_REMOVE_ALL_ATTRIBUTES_OF_GROUP));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_REMOVE_ALL_ATTRIBUTES_OF_GROUP));
             removeAttributesNamedPreparedStatement
                     .setString(JDBCConnectorConstants.SQLPlaceholders.GROUP_UNIQUE_ID, groupIdentifier);
             removeAttributesNamedPreparedStatement.getPreparedStatement().executeUpdate();
 
             //Add new group attributes
             NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_GROUP_ATTRIBUTES));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_GROUP_ATTRIBUTES));
             for (Attribute attribute : attributes) {
                 namedPreparedStatement
                         .setString(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_URI, attribute.getAttributeUri());
@@ -816,7 +1089,7 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
 
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection(), false)) {
             NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_DELETE_GROUP));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_DELETE_GROUP));
             namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.GROUP_UNIQUE_ID, groupIdentifier);
             namedPreparedStatement.getPreparedStatement().executeUpdate();
             unitOfWork.endTransaction();
@@ -833,14 +1106,14 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection(), false)) {
             //remove already existing users
             NamedPreparedStatement deleteNamedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_REMOVE_ALL_USERS_OF_GROUP));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_REMOVE_ALL_USERS_OF_GROUP));
             deleteNamedPreparedStatement
                     .setString(JDBCConnectorConstants.SQLPlaceholders.GROUP_UNIQUE_ID, groupIdentifier);
             deleteNamedPreparedStatement.getPreparedStatement().executeUpdate();
 
             //add new users
             NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_USER_GROUP));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_USER_GROUP));
             for (String userIdentifier : userIdentifiers) {
                 namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.USER_UNIQUE_ID, userIdentifier);
                 namedPreparedStatement
@@ -861,7 +1134,7 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection(), false)) {
             //remove already existing users
             NamedPreparedStatement deleteNamedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_REMOVE_ALL_USERS_OF_GROUP));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_REMOVE_ALL_USERS_OF_GROUP));
             deleteNamedPreparedStatement
                     .setString(JDBCConnectorConstants.SQLPlaceholders.GROUP_UNIQUE_ID, groupIdentifier);
             deleteNamedPreparedStatement.getPreparedStatement().executeUpdate();
@@ -905,19 +1178,16 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
 
         PasswordHandler passwordHandler = new DefaultPasswordHandler();
 
-        passwordHandler.setIterationCount(iterationCount);
-        passwordHandler.setKeyLength(keyLength);
-
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection(), false)) {
             NamedPreparedStatement addPasswordPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_CREDENTIAL));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_CREDENTIAL));
             NamedPreparedStatement addPasswordInfoPreparedStatement = new NamedPreparedStatement(
                     unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_PASSWORD_INFO));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_PASSWORD_INFO));
 
             String hashedPassword;
             try {
-                hashedPassword = passwordHandler.hashPassword(password, salt, hashAlgo);
+                hashedPassword = passwordHandler.hashPassword(password, salt, hashAlgo, iterationCount, keyLength);
             } catch (NoSuchAlgorithmException e) {
                 throw new UserStoreConnectorException("Error while hashing the password.", e);
             }
@@ -958,20 +1228,17 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
 
         PasswordHandler passwordHandler = new DefaultPasswordHandler();
 
-        passwordHandler.setIterationCount(iterationCount);
-        passwordHandler.setKeyLength(keyLength);
-
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection(), false)) {
             NamedPreparedStatement updatePasswordPreparedStatement = new NamedPreparedStatement(
                     unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_UPDATE_CREDENTIAL));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_UPDATE_CREDENTIAL));
             NamedPreparedStatement updatePasswordInfoPreparedStatement = new NamedPreparedStatement(
                     unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_UPDATE_PASSWORD_INFO));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_UPDATE_PASSWORD_INFO));
 
             String hashedPassword;
             try {
-                hashedPassword = passwordHandler.hashPassword(password, salt, hashAlgo);
+                hashedPassword = passwordHandler.hashPassword(password, salt, hashAlgo, iterationCount, keyLength);
             } catch (NoSuchAlgorithmException e) {
                 throw new UserStoreConnectorException("Error while hashing the password.", e);
             }
@@ -997,15 +1264,69 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         } catch (SQLException e) {
             throw new UserStoreConnectorException("Error while updating user credential.", e);
         }
+        AuthenticationResultCache.invalidateEntry(userIdentifier);
         return userIdentifier;
     }
 
+    @Override
+    public boolean updateCredentialsIfUnchanged(String userIdentifier, PasswordCallback passwordCallback,
+            String currentPasswordHash) throws UserStoreConnectorException {
+        char[] password = passwordCallback.getPassword();
+        String hashAlgo = getHashAlgo();
+        int iterationCount = getIterationCount();
+        int keyLength = getKeyLength();
+
+        String salt = UserStoreUtil.generateUUID();
+
+        PasswordHandler passwordHandler = new DefaultPasswordHandler();
+        String hashedPassword;
+        try {
+            hashedPassword = passwordHandler.hashPassword(password, salt, hashAlgo, iterationCount, keyLength);
+        } catch (NoSuchAlgorithmException e) {
+            throw new UserStoreConnectorException("Error while hashing the password.", e);
+        }
+
+        try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection(), false)) {
+            NamedPreparedStatement updatePasswordPreparedStatement = new NamedPreparedStatement(
+                    unitOfWork.getConnection(),
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_UPDATE_CREDENTIAL_IF_UNCHANGED));
+            updatePasswordPreparedStatement
+                    .setString(JDBCConnectorConstants.SQLPlaceholders.USER_UNIQUE_ID, userIdentifier);
+            updatePasswordPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.PASSWORD, hashedPassword);
+            updatePasswordPreparedStatement
+                    .setString(JDBCConnectorConstants.SQLPlaceholders.CURRENT_PASSWORD, currentPasswordHash);
+
+            // the row lock taken by this update keeps the password from changing until the info is updated
+            if (updatePasswordPreparedStatement.getPreparedStatement().executeUpdate() == 0) {
+                unitOfWork.getConnection().rollback();
+                return false;
+            }
+
+            NamedPreparedStatement updatePasswordInfoPreparedStatement = new NamedPreparedStatement(
+                    unitOfWork.getConnection(),
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_UPDATE_PASSWORD_INFO));
+            updatePasswordInfoPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.PASSWORD_SALT, salt);
+            updatePasswordInfoPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.HASH_ALGO, hashAlgo);
+            updatePasswordInfoPreparedStatement
+                    .setInt(JDBCConnectorConstants.SQLPlaceholders.ITERATION_COUNT, iterationCount);
+            updatePasswordInfoPreparedStatement.setInt(JDBCConnectorConstants.SQLPlaceholders.KEY_LENGTH, keyLength);
+            updatePasswordInfoPreparedStatement
+                    .setString(JDBCConnectorConstants.SQLPlaceholders.USER_UNIQUE_ID, userIdentifier);
+            updatePasswordInfoPreparedStatement.getPreparedStatement().executeUpdate();
+            unitOfWork.endTransaction();
+        } catch (SQLException e) {
+            throw new UserStoreConnectorException("Error while updating user credential.", e);
+        }
+        AuthenticationResultCache.invalidateEntry(userIdentifier);
+        return true;
+    }
+
     @Override
     public void deleteCredential(String userIdentifier) throws UserStoreConnectorException {
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection(), false)) {
             NamedPreparedStatement deleteCredentialPreparedStatement = new NamedPreparedStatement(
                     unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_DELETE_CREDENTIAL));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_DELETE_CREDENTIAL));
             deleteCredentialPreparedStatement
                     .setString(JDBCConnectorConstants.SQLPlaceholders.USER_UNIQUE_ID, userIdentifier);
 
@@ -1014,6 +1335,7 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         } catch (SQLException e) {
             throw new UserStoreConnectorException("Error while updating user credential.", e);
         }
+        AuthenticationResultCache.invalidateEntry(userIdentifier);
 
     }
 
@@ -1022,7 +1344,7 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection())) {
 
             NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_PASSWORD_DATA));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_PASSWORD_DATA));
 
             namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.USER_ID, userId);
 
@@ -1051,7 +1373,7 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
     public AttributeConfiguration getAttributeConfigByURI(String uri) throws UserStoreConnectorException {
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection())) {
             NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_ATTR_BY_URI));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_ATTR_BY_URI));
             namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_URI, uri);
 
             try (ResultSet resultSet = namedPreparedStatement.getPreparedStatement().executeQuery()) {
@@ -1076,7 +1398,7 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
     public void addAttribute(AttributeConfiguration config) throws UserStoreConnectorException {
         try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection())) {
             NamedPreparedStatement namedPrepStmt = new NamedPreparedStatement(unitOfWork.getConnection(),
-                    sqlQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_ATTR));
+                    namedQueries.get(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_ATTR));
             namedPrepStmt.setString(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_NAME, config.getAttributeName());
             namedPrepStmt.setString(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_URI, config.getAttributeUri());
             namedPrepStmt.setString(JDBCConnectorConstants.SQLPlaceholders.DISPLAY_NAME, config.getDisplayName());
@@ -1182,6 +1504,132 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
         return null;
     }
 
+    /**
+     * Retrieve the attributes of the users or groups with the given ids, binding at most
+     * {@link #MAX_IDS_PER_QUERY} ids to each query.
+     *
+     * @param ids                 user or group ids
+     * @param requiredAttribute   attribute URIs to retrieve, all the attributes are retrieved if null or empty
+     * @param queryType           query retrieving all the attributes
+     * @param requiredQueryType   query retrieving the attributes with the given URIs
+     * @param idsPlaceholder      placeholder of the ids in the queries
+     * @param idColumn            column holding the id in the result
+     * @return attributes by id
+     * @throws SQLException if error occurred while retrieving the attributes
+     */
+    private Map<String, List<Attribute>> getAttributeValues(List<String> ids, List<String> requiredAttribute,
+            String queryType, String requiredQueryType, String idsPlaceholder, String idColumn) throws SQLException {
+
+        Map<String, List<Attribute>> attributes = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return attributes;
+        }
+
+        List<String> uniqueIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<String> attributeUris = requiredAttribute == null ? Collections.emptyList()
+                : new ArrayList<>(new LinkedHashSet<>(requiredAttribute));
+        NamedQuery namedQuery = namedQueries.get(attributeUris.isEmpty() ? queryType : requiredQueryType);
+        Map<String, Integer> repetition = new HashMap<>();
+        repetition.put(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_URIS, attributeUris.size());
+
+        try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection(), false)) {
+            for (int from = 0; from < uniqueIds.size(); from += MAX_IDS_PER_QUERY) {
+                List<String> batch = uniqueIds.subList(from, Math.min(from + MAX_IDS_PER_QUERY, uniqueIds.size()));
+                repetition.put(idsPlaceholder, batch.size());
+                NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
+                        namedQuery, repetition);
+                namedPreparedStatement.setString(idsPlaceholder, batch);
+                if (!attributeUris.isEmpty()) {
+                    namedPreparedStatement.setString(JDBCConnectorConstants.SQLPlaceholders.ATTRIBUTE_URIS,
+                            attributeUris);
+                }
+                try (ResultSet resultSet = namedPreparedStatement.getPreparedStatement().executeQuery()) {
+                    while (resultSet.next()) {
+                        String id = resultSet.getString(idColumn);
+                        attributes.computeIfAbsent(id, key -> new ArrayList<>()).add(new Attribute(
+                                resultSet.getString(DatabaseColumnNames.UserAttributes.ATTR_URI),
+                                resultSet.getString(DatabaseColumnNames.UserAttributes.ATTR_VALUE)));
+                    }
+                }
+            }
+        }
+
+        if (log.isDebugEnabled()) {
+            log.debug("Attributes of {} out of {} entries retrieved from identity store: {}.", attributes.size(),
+                    uniqueIds.size(), userStoreId);
+        }
+        return attributes;
+    }
+
+    /**
+     * List the unique ids that come after the cursor, ordered by the primary key of the table. Seeking on the key
+     * keeps the cost of a page independent of its position, which LIMIT/OFFSET does not.
+     *
+     * @param cursor             unique id of the last entry of the previous page, null for the first page
+     * @param length             number of entries to retrieve, -1 for the maximum allowed row count
+     * @param fromStartQueryType query listing entries from the start
+     * @param afterQueryType     query listing entries after the cursor
+     * @param cursorPlaceholder  placeholder of the cursor in the query listing entries after the cursor
+     * @param idColumn           column holding the unique id
+     * @return unique ids of the page
+     * @throws SQLException if an error occurs while listing
+     */
+    private List<String> listIdsAfter(String cursor, int length, String fromStartQueryType, String afterQueryType,
+            String cursorPlaceholder, String idColumn) throws SQLException {
+
+        List<String> ids = new ArrayList<>();
+        if (length == 0) {
+            return ids;
+        }
+        // Get the max allowed row count if the length is -1.
+        if (length == -1) {
+            length = getMaxRowRetrievalCount();
+        }
+
+        try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection())) {
+            NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
+                    namedQueries.get(cursor == null ? fromStartQueryType : afterQueryType));
+            if (cursor != null) {
+                namedPreparedStatement.setString(cursorPlaceholder, cursor);
+            }
+            namedPreparedStatement.setInt(JDBCConnectorConstants.SQLPlaceholders.LENGTH, length);
+
+            try (ResultSet resultSet = namedPreparedStatement.getPreparedStatement().executeQuery()) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getString(idColumn));
+                }
+            }
+        }
+        return ids;
+    }
+
+    /**
+     * Check whether an entry exists with the given unique id.
+     *
+     * @param id          unique id of the entry
+     * @param queryType   query selecting the entry by its unique id
+     * @param placeholder placeholder of the unique id in the query
+     * @return true if the entry exists
+     * @throws SQLException if an error occurs while checking
+     */
+    private boolean isExisting(String id, String queryType, String placeholder) throws SQLException {
+
+        try (UnitOfWork unitOfWork = UnitOfWork.beginTransaction(dataSource.getConnection())) {
+            NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(unitOfWork.getConnection(),
+                    namedQueries.get(queryType));
+            namedPreparedStatement.setString(placeholder, id);
+            try (ResultSet resultSet = namedPreparedStatement.getPreparedStatement().executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+
+    private int getExportFetchSize() {
+
+        Object fetchSize = this.properties.get(JDBCConnectorConstants.EXPORT_FETCH_SIZE);
+        return fetchSize == null ? DEFAULT_EXPORT_FETCH_SIZE : Integer.parseInt(fetchSize.toString());
+    }
+
     /**
      * Add default user attributes
      *
@@ -1218,4 +1666,74 @@ public class JDBCUserStoreConnector implements UserStoreConnector {
             }
         }
     }
+
+    /**
+     * Cursor over the rows of the export query, which has one row per user attribute ordered by user. The rows of a
+     * user are folded into the current user as the cursor advances, reading one row past the user to see where it
+     * ends.
+     */
+    private static class JDBCUserCursor implements UserCursor {
+
+        private final Connection connection;
+        private final PreparedStatement preparedStatement;
+        private final ResultSet resultSet;
+        private boolean onRow;
+        private String userId;
+        private List<Attribute> attributes;
+
+        JDBCUserCursor(Connection connection, PreparedStatement preparedStatement, ResultSet resultSet)
+                throws SQLException {
+            this.connection = connection;
+            this.preparedStatement = preparedStatement;
+            this.resultSet = resultSet;
+            this.onRow = resultSet.next();
+        }
+
+        @Override
+        public boolean next() throws UserStoreConnectorException {
+
+            if (!onRow) {
+                userId = null;
+                attributes = null;
+                return false;
+            }
+            try {
+                userId = resultSet.getString(DatabaseColumnNames.User.USER_UNIQUE_ID);
+                attributes = new ArrayList<>();
+                do {
+                    String attributeUri = resultSet.getString(DatabaseColumnNames.UserAttributes.ATTR_URI);
+                    if (attributeUri != null) {
+                        attributes.add(new Attribute(attributeUri,
+                                resultSet.getString(DatabaseColumnNames.UserAttributes.ATTR_VALUE)));
+                    }
+                    onRow = resultSet.next();
+                } while (onRow && userId.equals(resultSet.getString(DatabaseColumnNames.User.USER_UNIQUE_ID)));
+                return true;
+            } catch (SQLException e) {
+                throw new UserStoreConnectorException("Error occurred while exporting users.", e);
+            }
+        }
+
+        @Override
+        public String getUserId() {
+            return userId;
+        }
+
+        @Override
+        public List<Attribute> getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public void close() throws UserStoreConnectorException {
+
+            try (Connection connection = this.connection;
+                    PreparedStatement preparedStatement = this.preparedStatement;
+                    ResultSet resultSet = this.resultSet) {
+                connection.commit();
+            } catch (SQLException e) {
+                throw new UserStoreConnectorException("Error occurred while closing the user export.", e);
+            }
+        }
+    }
 }
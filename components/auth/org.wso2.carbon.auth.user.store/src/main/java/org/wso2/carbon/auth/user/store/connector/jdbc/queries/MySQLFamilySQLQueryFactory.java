@@ -38,7 +38,7 @@ public class MySQLFamilySQLQueryFactory extends SQLQueryFactory {
 
     private static final String GET_USER_FROM_ATTRIBUTE =
             "SELECT AUTH_UM_USER.USER_UNIQUE_ID " +
-                    "FROM AUTH_UM_USER LEFT JOIN AUTH_UM_USER_ATTRIBUTES " +
+                    "FROM AUTH_UM_USER INNER JOIN AUTH_UM_USER_ATTRIBUTES " +
                     "ON AUTH_UM_USER_ATTRIBUTES.USER_ID = AUTH_UM_USER.ID " +
                     "WHERE AUTH_UM_USER_ATTRIBUTES.ATTR_ID = " +
                     "(SELECT ID " +
@@ -48,7 +48,7 @@ public class MySQLFamilySQLQueryFactory extends SQLQueryFactory {
 
     private static final String GET_GROUP_FROM_ATTRIBUTE =
             "SELECT AUTH_UM_GROUP.GROUP_UNIQUE_ID " +
-                    "FROM AUTH_UM_GROUP LEFT JOIN AUTH_UM_GROUP_ATTRIBUTES " +
+                    "FROM AUTH_UM_GROUP INNER JOIN AUTH_UM_GROUP_ATTRIBUTES " +
                     "ON AUTH_UM_GROUP_ATTRIBUTES.GROUP_ID = AUTH_UM_GROUP.ID " +
                     "WHERE AUTH_UM_GROUP_ATTRIBUTES.ATTR_ID = " +
                     "(SELECT ID " +
@@ -93,14 +93,34 @@ public class MySQLFamilySQLQueryFactory extends SQLQueryFactory {
                     "LIMIT :length; " +
                     "OFFSET :offset;";
 
-    private static final String GET_USER_ATTRIBUTES_FROM_NAME =
+    private static final String LIST_USER_IDS_FROM_START =
+            "SELECT USER_UNIQUE_ID " +
+                    "FROM AUTH_UM_USER " +
+                    "ORDER BY ID " +
+                    "LIMIT :length;";
+
+    private static final String LIST_USER_IDS_AFTER =
+            "SELECT USER_UNIQUE_ID " +
+                    "FROM AUTH_UM_USER " +
+                    "WHERE ID > (SELECT ID " +
+                    "FROM AUTH_UM_USER " +
+                    "WHERE USER_UNIQUE_ID = :user_id;) " +
+                    "ORDER BY ID " +
+                    "LIMIT :length;";
+
+    private static final String IS_USER_EXISTS =
+            "SELECT ID " +
+                    "FROM AUTH_UM_USER " +
+                    "WHERE USER_UNIQUE_ID = :user_id;";
+
+    private static final String GET_USER_ATTRIBUTES_FROM_URI =
             "SELECT ATTR_URI, ATTR_VALUE " +
-                    "FROM AUTH_UM_USER_ATTRIBUTES LEFT JOIN AUTH_UM_ATTRIBUTES " +
+                    "FROM AUTH_UM_USER_ATTRIBUTES INNER JOIN AUTH_UM_ATTRIBUTES " +
                     "ON AUTH_UM_USER_ATTRIBUTES.ATTR_ID = AUTH_UM_ATTRIBUTES.ID " +
                     "WHERE USER_ID = (SELECT ID " +
                     "FROM AUTH_UM_USER " +
                     "WHERE USER_UNIQUE_ID = :user_id;) " +
-                    "AND ATTR_NAME IN (:attr_names;)";
+                    "AND ATTR_URI IN (:attr_uris;)";
 
     private static final String IS_USER_IN_GROUP =
             "SELECT ID " +
@@ -138,6 +158,26 @@ public class MySQLFamilySQLQueryFactory extends SQLQueryFactory {
                     "LIMIT :length; " +
                     "OFFSET :offset;";
 
+    private static final String LIST_GROUPS_FROM_START =
+            "SELECT GROUP_UNIQUE_ID " +
+                    "FROM AUTH_UM_GROUP " +
+                    "ORDER BY ID " +
+                    "LIMIT :length;";
+
+    private static final String LIST_GROUPS_AFTER =
+            "SELECT GROUP_UNIQUE_ID " +
+                    "FROM AUTH_UM_GROUP " +
+                    "WHERE ID > (SELECT ID " +
+                    "FROM AUTH_UM_GROUP " +
+                    "WHERE GROUP_UNIQUE_ID = :group_id;) " +
+                    "ORDER BY ID " +
+                    "LIMIT :length;";
+
+    private static final String IS_GROUP_EXISTS =
+            "SELECT ID " +
+                    "FROM AUTH_UM_GROUP " +
+                    "WHERE GROUP_UNIQUE_ID = :group_id;";
+
     private static final String GET_GROUP_ATTRIBUTES =
             "SELECT ATTR_URI, ATTR_VALUE " +
                     "FROM AUTH_UM_GROUP_ATTRIBUTES LEFT JOIN AUTH_UM_ATTRIBUTES " +
@@ -146,14 +186,14 @@ public class MySQLFamilySQLQueryFactory extends SQLQueryFactory {
                     "FROM AUTH_UM_GROUP " +
                     "WHERE GROUP_UNIQUE_ID = :group_id;)";
 
-//    private static final String GET_GROUP_ATTRIBUTES_FROM_NAME =
-//            "SELECT ATTR_NAME, ATTR_VALUE " +
-//                    "FROM AUTH_UM_GROUP_ATTRIBUTES LEFT JOIN AUTH_UM_ATTRIBUTES " +
-//                    "ON AUTH_UM_GROUP_ATTRIBUTES.ATTR_ID = AUTH_UM_ATTRIBUTES.ID " +
-//                    "WHERE GROUP_ID = (SELECT ID " +
-//                    "FROM AUTH_UM_GROUP " +
-//                    "WHERE GROUP_UNIQUE_ID = :group_id;) " +
-//                    "AND ATTR_NAME IN (:attr_names;)";
+    private static final String GET_GROUP_ATTRIBUTES_FROM_URI =
+            "SELECT ATTR_URI, ATTR_VALUE " +
+                    "FROM AUTH_UM_GROUP_ATTRIBUTES INNER JOIN AUTH_UM_ATTRIBUTES " +
+                    "ON AUTH_UM_GROUP_ATTRIBUTES.ATTR_ID = AUTH_UM_ATTRIBUTES.ID " +
+                    "WHERE GROUP_ID = (SELECT ID " +
+                    "FROM AUTH_UM_GROUP " +
+                    "WHERE GROUP_UNIQUE_ID = :group_id;) " +
+                    "AND ATTR_URI IN (:attr_uris;)";
 
     private static final String COUNT_USERS = "SELECT COUNT(*) FROM AUTH_UM_USER";
 
@@ -234,10 +274,59 @@ private static final String GET_GROUP_NAMES_OF_USER = "SELECT ATTR_VALUE from AU
         " (SELECT ID FROM AUTH_UM_GROUP WHERE ID IN (SELECT GROUP_ID FROM AUTH_UM_USER_GROUP " +
         "WHERE USER_ID = (SELECT ID FROM AUTH_UM_USER WHERE USER_UNIQUE_ID = :user_unique_id;)))";
 
+    private static final String GET_GROUP_IDS_OF_USERS = "SELECT USER_UNIQUE_ID, GROUP_UNIQUE_ID " +
+            "FROM AUTH_UM_USER_GROUP INNER JOIN AUTH_UM_USER ON AUTH_UM_USER_GROUP.USER_ID = AUTH_UM_USER.ID " +
+            "INNER JOIN AUTH_UM_GROUP ON AUTH_UM_USER_GROUP.GROUP_ID = AUTH_UM_GROUP.ID " +
+            "WHERE USER_UNIQUE_ID IN (:user_unique_ids;)";
+
+    private static final String GET_ATTRIBUTES_OF_USERS =
+            "SELECT USER_UNIQUE_ID, ATTR_URI, ATTR_VALUE " +
+                    "FROM AUTH_UM_USER_ATTRIBUTES INNER JOIN AUTH_UM_ATTRIBUTES " +
+                    "ON AUTH_UM_USER_ATTRIBUTES.ATTR_ID = AUTH_UM_ATTRIBUTES.ID " +
+                    "INNER JOIN AUTH_UM_USER ON AUTH_UM_USER_ATTRIBUTES.USER_ID = AUTH_UM_USER.ID " +
+                    "WHERE USER_UNIQUE_ID IN (:user_unique_ids;)";
+
+    private static final String GET_ATTRIBUTES_OF_USERS_FROM_URI = GET_ATTRIBUTES_OF_USERS +
+            " AND ATTR_URI IN (:attr_uris;)";
+
+    private static final String EXPORT_USERS =
+            "SELECT USER_UNIQUE_ID, ATTR_URI, ATTR_VALUE " +
+                    "FROM AUTH_UM_USER LEFT JOIN AUTH_UM_USER_ATTRIBUTES " +
+                    "ON AUTH_UM_USER_ATTRIBUTES.USER_ID = AUTH_UM_USER.ID " +
+                    "LEFT JOIN AUTH_UM_ATTRIBUTES " +
+                    "ON AUTH_UM_USER_ATTRIBUTES.ATTR_ID = AUTH_UM_ATTRIBUTES.ID " +
+                    "ORDER BY AUTH_UM_USER.ID";
+
+    private static final String EXPORT_USERS_FROM_URI =
+            "SELECT USER_UNIQUE_ID, ATTR_URI, ATTR_VALUE " +
+                    "FROM AUTH_UM_USER LEFT JOIN AUTH_UM_USER_ATTRIBUTES " +
+                    "ON AUTH_UM_USER_ATTRIBUTES.USER_ID = AUTH_UM_USER.ID " +
+                    "AND AUTH_UM_USER_ATTRIBUTES.ATTR_ID IN (SELECT ID " +
+                    "FROM AUTH_UM_ATTRIBUTES " +
+                    "WHERE ATTR_URI IN (:attr_uris;)) " +
+                    "LEFT JOIN AUTH_UM_ATTRIBUTES " +
+                    "ON AUTH_UM_USER_ATTRIBUTES.ATTR_ID = AUTH_UM_ATTRIBUTES.ID " +
+                    "ORDER BY AUTH_UM_USER.ID";
+
+    private static final String GET_ATTRIBUTES_OF_GROUPS =
+            "SELECT GROUP_UNIQUE_ID, ATTR_URI, ATTR_VALUE " +
+                    "FROM AUTH_UM_GROUP_ATTRIBUTES INNER JOIN AUTH_UM_ATTRIBUTES " +
+                    "ON AUTH_UM_GROUP_ATTRIBUTES.ATTR_ID = AUTH_UM_ATTRIBUTES.ID " +
+                    "INNER JOIN AUTH_UM_GROUP ON AUTH_UM_GROUP_ATTRIBUTES.GROUP_ID = AUTH_UM_GROUP.ID " +
+                    "WHERE GROUP_UNIQUE_ID IN (:group_unique_ids;)";
+
+    private static final String GET_ATTRIBUTES_OF_GROUPS_FROM_URI = GET_ATTRIBUTES_OF_GROUPS +
+            " AND ATTR_URI IN (:attr_uris;)";
+
     private static final String GET_USER_IDS_OF_GROUP = "SELECT USER_UNIQUE_ID FROM AUTH_UM_USER " + 
             "WHERE ID IN (SELECT USER_ID FROM AUTH_UM_USER_GROUP " +
             "WHERE GROUP_ID = (SELECT ID FROM AUTH_UM_GROUP WHERE GROUP_UNIQUE_ID = :group_unique_id;))";
 
+    private static final String GET_USER_IDS_OF_GROUPS = "SELECT GROUP_UNIQUE_ID, USER_UNIQUE_ID " +
+            "FROM AUTH_UM_USER_GROUP INNER JOIN AUTH_UM_USER ON AUTH_UM_USER_GROUP.USER_ID = AUTH_UM_USER.ID " +
+            "INNER JOIN AUTH_UM_GROUP ON AUTH_UM_USER_GROUP.GROUP_ID = AUTH_UM_GROUP.ID " +
+            "WHERE GROUP_UNIQUE_ID IN (:group_unique_ids;)";
+
 
     private static final String ADD_PASSWORD_INFO = "INSERT INTO AUTH_UM_PASSWORD_INFO " +
             "(PASSWORD_SALT, HASH_ALGO, ITERATION_COUNT, KEY_LENGTH, USER_ID) " +
@@ -250,6 +339,9 @@ private static final String GET_GROUP_NAMES_OF_USER = "SELECT ATTR_VALUE from AU
     private static final String UPDATE_CREDENTIAL = "UPDATE AUTH_UM_PASSWORD SET PASSWORD = :password; " +
             "WHERE USER_UNIQUE_ID = :user_unique_id;";
 
+    private static final String UPDATE_CREDENTIAL_IF_UNCHANGED = "UPDATE AUTH_UM_PASSWORD SET PASSWORD = :password; " +
+            "WHERE USER_UNIQUE_ID = :user_unique_id; AND PASSWORD = :current_password;";
+
     private static final String UPDATE_PASSWORD_INFO = "UPDATE AUTH_UM_PASSWORD_INFO SET HASH_ALGO = :hash_algo;, " +
             "ITERATION_COUNT = :iteration_count;, KEY_LENGTH = :key_length;, PASSWORD_SALT = :password_salt; " +
             "WHERE USER_ID = (SELECT ID FROM AUTH_UM_PASSWORD WHERE USER_UNIQUE_ID = :user_unique_id;)";
@@ -275,18 +367,34 @@ private static final String GET_GROUP_NAMES_OF_USER = "SELECT ATTR_VALUE from AU
         sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_USER_IDS_BY_ATTRIBUTE,
                 LIST_USER_IDS_BY_ATTRIBUTE);
         sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_USER_IDS, LIST_USER_IDS);
-        sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_USER_ATTRIBUTES_FROM_NAME,
-                GET_USER_ATTRIBUTES_FROM_NAME);
+        sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_USER_IDS_FROM_START, LIST_USER_IDS_FROM_START);
+        sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_USER_IDS_AFTER, LIST_USER_IDS_AFTER);
+        sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_IS_USER_EXISTS, IS_USER_EXISTS);
+        sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_USER_ATTRIBUTES_FROM_URI,
+                GET_USER_ATTRIBUTES_FROM_URI);
         sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_IS_USER_IN_GROUP, IS_USER_IN_GROUP);
         sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_GROUP_BY_ATTRIBUTE_PATTERN,
                 LIST_GROUP_BY_ATTRIBUTE_PATTERN);
         sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_GROUPS_BY_ATTRIBUTE, LIST_GROUPS_BY_ATTRIBUTE);
         sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_GROUPS, LIST_GROUPS);
+        sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_GROUPS_FROM_START, LIST_GROUPS_FROM_START);
+        sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_GROUPS_AFTER, LIST_GROUPS_AFTER);
+        sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_IS_GROUP_EXISTS, IS_GROUP_EXISTS);
         sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_GROUP_ATTRIBUTES, GET_GROUP_ATTRIBUTES);
         sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_USER_IDS_OF_GROUP, GET_USER_IDS_OF_GROUP);
+        sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_USER_IDS_OF_GROUPS, GET_USER_IDS_OF_GROUPS);
         sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_GROUP_IDS_OF_USER, GET_GROUP_IDS_OF_USER);
-        //        sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_GROUP_ATTRIBUTES_FROM_NAME,
-//                GET_GROUP_ATTRIBUTES_FROM_NAME);
+        sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_LIST_GROUP_IDS_OF_USERS, GET_GROUP_IDS_OF_USERS);
+        sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_EXPORT_USERS, EXPORT_USERS);
+        sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_EXPORT_USERS_FROM_URI, EXPORT_USERS_FROM_URI);
+        sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_ATTRIBUTES_OF_USERS, GET_ATTRIBUTES_OF_USERS);
+        sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_ATTRIBUTES_OF_USERS_FROM_URI,
+                GET_ATTRIBUTES_OF_USERS_FROM_URI);
+        sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_ATTRIBUTES_OF_GROUPS, GET_ATTRIBUTES_OF_GROUPS);
+        sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_ATTRIBUTES_OF_GROUPS_FROM_URI,
+                GET_ATTRIBUTES_OF_GROUPS_FROM_URI);
+        sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_GROUP_ATTRIBUTES_FROM_URI,
+                GET_GROUP_ATTRIBUTES_FROM_URI);
         sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_COUNT_USERS, COUNT_USERS);
         sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_COUNT_GROUPS, COUNT_GROUPS);
 
@@ -317,6 +425,8 @@ private static final String GET_GROUP_NAMES_OF_USER = "SELECT ATTR_VALUE from AU
         sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_PASSWORD_INFO, ADD_PASSWORD_INFO);
         sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_ADD_CREDENTIAL, ADD_CREDENTIAL);
         sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_UPDATE_CREDENTIAL, UPDATE_CREDENTIAL);
+        sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_UPDATE_CREDENTIAL_IF_UNCHANGED,
+                UPDATE_CREDENTIAL_IF_UNCHANGED);
         sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_UPDATE_PASSWORD_INFO, UPDATE_PASSWORD_INFO);
         sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_DELETE_CREDENTIAL, DELETE_CREDENTIAL);
         sqlQueries.put(JDBCConnectorConstants.QueryTypes.SQL_QUERY_GET_ATTR_BY_URI, GET_ATTRIBUTE_BY_URI);
@@ -21,9 +21,13 @@ import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.auth.core.Constants;
+import org.wso2.carbon.auth.user.store.claim.ClaimConstants;
+import org.wso2.carbon.auth.user.store.claim.DefaultClaimManager;
+import org.wso2.carbon.auth.user.store.claim.model.LocalClaim;
 import org.wso2.carbon.auth.user.store.configuration.models.UserStoreConfiguration;
 import org.wso2.carbon.auth.user.store.connector.Attribute;
 import org.wso2.carbon.auth.user.store.connector.PasswordHandler;
+import org.wso2.carbon.auth.user.store.connector.UserCursor;
 import org.wso2.carbon.auth.user.store.connector.UserStoreConnector;
 import org.wso2.carbon.auth.user.store.connector.jdbc.DefaultPasswordHandler;
 import org.wso2.carbon.auth.user.store.constant.LDAPConnectorConstants;
@@ -34,6 +38,7 @@ import org.wso2.carbon.auth.user.store.exception.UserNotFoundException;
 import org.wso2.carbon.auth.user.store.exception.UserStoreConnectorException;
 import org.wso2.carbon.auth.user.store.util.UserStoreUtil;
 
+import java.io.IOException;
 import java.nio.charset.Charset;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
@@ -41,10 +46,14 @@ import java.util.Arrays;
 import java.util.Collections;
 import java.util.Enumeration;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
 
 import javax.naming.CompositeName;
+import javax.naming.InvalidNameException;
 import javax.naming.Name;
 import javax.naming.NameParser;
 import javax.naming.NamingEnumeration;
@@ -54,8 +63,16 @@ import javax.naming.directory.BasicAttribute;
 import javax.naming.directory.BasicAttributes;
 import javax.naming.directory.DirContext;
 import javax.naming.directory.ModificationItem;
+import javax.naming.directory.NoSuchAttributeException;
 import javax.naming.directory.SearchControls;
 import javax.naming.directory.SearchResult;
+import javax.naming.ldap.Control;
+import javax.naming.ldap.LdapContext;
+import javax.naming.ldap.LdapName;
+import javax.naming.ldap.PagedResultsControl;
+import javax.naming.ldap.PagedResultsResponseControl;
+import javax.naming.ldap.Rdn;
+import javax.naming.ldap.SortControl;
 import javax.security.auth.callback.PasswordCallback;
 
 /**
@@ -63,6 +80,14 @@ import javax.security.auth.callback.PasswordCallback;
  */
 public class LDAPUserStoreConnector implements UserStoreConnector {
     private static Logger log = LoggerFactory.getLogger(LDAPUserStoreConnector.class);
+    /**
+     * Maximum number of IDs combined into the filter of a single bulk search.
+     */
+    private static final int MAX_IDS_PER_SEARCH = 100;
+    /**
+     * Number of entries in a page of the paged search used to export users, unless configured otherwise.
+     */
+    private static final int DEFAULT_EXPORT_PAGE_SIZE = 1000;
     private LDAPConnectionContext ldapConnectionContext;
     protected UserStoreConfiguration userStoreConfig;
     private String userSearchBase;
@@ -186,6 +211,12 @@ public class LDAPUserStoreConnector implements UserStoreConnector {
         return userList;
     }
 
+    @Override
+    public List<String> listConnectorUserIdsAfter(String cursor, int length) throws UserStoreConnectorException {
+        return searchIdsAfter(cursor, length, userSearchBase, userNameListFilter,
+                LDAPConnectorConstants.USER_UUID_ATTRIBUTE_NAME);
+    }
+
     @Override
     public List<Attribute> getUserAttributeValues(String userID) throws UserStoreConnectorException {
         DirContext context;
@@ -296,6 +327,51 @@ public class LDAPUserStoreConnector implements UserStoreConnector {
         return attributeList;
     }
 
+    @Override
+    public Map<String, List<Attribute>> getUsersAttributeValues(List<String> userIds, List<String> requiredAttribute)
+            throws UserStoreConnectorException {
+        return searchAttributeValues(userIds, requiredAttribute, userSearchBase, userNameListFilter,
+                LDAPConnectorConstants.USER_UUID_ATTRIBUTE_NAME);
+    }
+
+    @Override
+    public UserCursor exportUsers(List<String> requiredAttribute) throws UserStoreConnectorException {
+        Set<String> attributeNames = new LinkedHashSet<>();
+        if (requiredAttribute != null && !requiredAttribute.isEmpty()) {
+            attributeNames.addAll(requiredAttribute);
+        } else {
+            for (LocalClaim localClaim : DefaultClaimManager.getInstance().getLocalClaims()) {
+                String mappedAttribute = localClaim.getMappedAttribute(ClaimConstants.PRIMARY_DEFAULT_DOMAIN_NAME);
+                if (mappedAttribute != null) {
+                    attributeNames.add(mappedAttribute);
+                }
+            }
+        }
+        // credentials are never exported, even when asked for
+        attributeNames.remove(LDAPConnectorConstants.USER_PASSWORD_ATTRIBUTE_NAME);
+        attributeNames.remove(LDAPConnectorConstants.USER_PASSWORD_SALT_ATTRIBUTE_NAME);
+        List<String> propertyNames = new ArrayList<>(attributeNames);
+        List<String> returnedAtts = new ArrayList<>(propertyNames);
+        returnedAtts.add(LDAPConnectorConstants.USER_UUID_ATTRIBUTE_NAME);
+        SearchControls searchCtls = new SearchControls();
+        searchCtls.setSearchScope(SearchControls.SUBTREE_SCOPE);
+        searchCtls.setReturningAttributes(returnedAtts.toArray(new String[returnedAtts.size()]));
+        String filter = "(&" + userNameListFilter + "(" + LDAPConnectorConstants.USER_UUID_ATTRIBUTE_NAME + "=*))";
+        Object pageSize = properties.get(Constants.LDAP_EXPORT_PAGE_SIZE);
+
+        DirContext context;
+        try {
+            context = ldapConnectionContext.getContext();
+        } catch (LDAPConnectorException e) {
+            throw new UserStoreConnectorException("Error getting LDAP context ", e);
+        }
+        if (!(context instanceof LdapContext)) {
+            throw new UserStoreConnectorException("LDAP context does not support paged search");
+        }
+        return new LDAPUserCursor((LdapContext) context, filter, searchCtls, propertyNames,
+                pageSize == null ? DEFAULT_EXPORT_PAGE_SIZE : Integer.parseInt(pageSize.toString()));
+    }
+
     @Override
     public String getConnectorGroupId(String attributeUri, String attributeValue)
             throws GroupNotFoundException, UserStoreConnectorException {
@@ -390,6 +466,12 @@ public class LDAPUserStoreConnector implements UserStoreConnector {
         return userList;
     }
 
+    @Override
+    public List<String> listConnectorGroupIdsAfter(String cursor, int length) throws UserStoreConnectorException {
+        return searchIdsAfter(cursor, length, groupSearchBase, groupListFilter,
+                LDAPConnectorConstants.GROUP_UUID_ATTRIBUTE_NAME);
+    }
+
     @Override
     public List<Attribute> getGroupAttributeValues(String groupId) throws UserStoreConnectorException {
         DirContext context;
@@ -496,6 +578,13 @@ public class LDAPUserStoreConnector implements UserStoreConnector {
         return attributeList;
     }
 
+    @Override
+    public Map<String, List<Attribute>> getGroupsAttributeValues(List<String> groupIds, List<String> requiredAttribute)
+            throws UserStoreConnectorException {
+        return searchAttributeValues(groupIds, requiredAttribute, groupSearchBase, groupListFilter,
+                LDAPConnectorConstants.GROUP_UUID_ATTRIBUTE_NAME);
+    }
+
     @Override
     public boolean isUserInGroup(String userId, String groupId) throws UserStoreConnectorException {
         DirContext context;
@@ -712,6 +801,73 @@ public class LDAPUserStoreConnector implements UserStoreConnector {
         return userIdList;
     }
 
+    @Override
+    public Map<String, List<String>> getUserIdsOfGroups(List<String> groupIdentifiers)
+            throws UserStoreConnectorException {
+        Map<String, List<String>> userIdsOfGroups = new HashMap<>();
+        if (groupIdentifiers == null || groupIdentifiers.isEmpty()) {
+            return userIdsOfGroups;
+        }
+
+        DirContext context;
+        try {
+            context = ldapConnectionContext.getContext();
+        } catch (LDAPConnectorException e) {
+            throw new UserStoreConnectorException("Error getting LDAP context ", e);
+        }
+
+        List<String> groupIds = new ArrayList<>(new LinkedHashSet<>(groupIdentifiers));
+        SearchControls searchCtls = new SearchControls();
+        searchCtls.setSearchScope(SearchControls.SUBTREE_SCOPE);
+        searchCtls.setTimeLimit(UserStoreConstants.MAX_SEARCH_TIME);
+        try {
+            for (int from = 0; from < groupIds.size(); from += MAX_IDS_PER_SEARCH) {
+                List<String> batch = groupIds.subList(from, Math.min(from + MAX_IDS_PER_SEARCH, groupIds.size()));
+
+                Map<String, List<LdapName>> memberDNsOfGroups = new HashMap<>();
+                Set<LdapName> memberDNs = new LinkedHashSet<>();
+                searchCtls.setReturningAttributes(new String[] { LDAPConnectorConstants.MEMBERSHIP_ATTRIBUTE_NAME,
+                        LDAPConnectorConstants.GROUP_UUID_ATTRIBUTE_NAME });
+                NamingEnumeration<SearchResult> groups = context.search(groupSearchBase,
+                        getSearchFilter(groupListFilter, LDAPConnectorConstants.GROUP_UUID_ATTRIBUTE_NAME, batch),
+                        searchCtls);
+                while (groups.hasMoreElements()) {
+                    Attributes attributes = groups.next().getAttributes();
+                    javax.naming.directory.Attribute groupId =
+                            attributes.get(LDAPConnectorConstants.GROUP_UUID_ATTRIBUTE_NAME);
+                    javax.naming.directory.Attribute members =
+                            attributes.get(LDAPConnectorConstants.MEMBERSHIP_ATTRIBUTE_NAME);
+                    if (groupId == null || members == null) {
+                        continue;
+                    }
+                    List<LdapName> memberDNsOfGroup = new ArrayList<>();
+                    for (NamingEnumeration<?> values = members.getAll(); values.hasMore(); ) {
+                        LdapName memberDN = getLdapName(values.next().toString());
+                        if (memberDN != null && !memberDN.isEmpty()) {
+                            memberDNsOfGroup.add(memberDN);
+                        }
+                    }
+                    memberDNsOfGroups.put((String) groupId.get(), memberDNsOfGroup);
+                    memberDNs.addAll(memberDNsOfGroup);
+                }
+
+                Map<LdapName, String> userIdsByDN = getUserIdsByDN(context, new ArrayList<>(memberDNs));
+                for (Map.Entry<String, List<LdapName>> memberDNsOfGroup : memberDNsOfGroups.entrySet()) {
+                    for (LdapName memberDN : memberDNsOfGroup.getValue()) {
+                        String userId = userIdsByDN.get(memberDN);
+                        if (userId != null) {
+                            userIdsOfGroups.computeIfAbsent(memberDNsOfGroup.getKey(), id -> new ArrayList<>())
+                                    .add(userId);
+                        }
+                    }
+                }
+            }
+        } catch (NamingException e) {
+            throw new UserStoreConnectorException("Error while getting users of groups from LDAP", e);
+        }
+        return userIdsOfGroups;
+    }
+
     @Override
     public List<String> getGroupIdsOfUser(String userIdentifier) throws UserStoreConnectorException {
         int givenMax = UserStoreConstants.MAX_USER_ROLE_LIST;
@@ -758,6 +914,78 @@ public class LDAPUserStoreConnector implements UserStoreConnector {
         return groupIdList;
     }
 
+    @Override
+    public Map<String, List<String>> getGroupIdsOfUsers(List<String> userIdentifiers)
+            throws UserStoreConnectorException {
+        Map<String, List<String>> groupIdsOfUsers = new HashMap<>();
+        if (userIdentifiers == null || userIdentifiers.isEmpty()) {
+            return groupIdsOfUsers;
+        }
+
+        DirContext context;
+        try {
+            context = ldapConnectionContext.getContext();
+        } catch (LDAPConnectorException e) {
+            throw new UserStoreConnectorException("Error getting LDAP context ", e);
+        }
+
+        List<String> userIds = new ArrayList<>(new LinkedHashSet<>(userIdentifiers));
+        SearchControls searchCtls = new SearchControls();
+        searchCtls.setSearchScope(SearchControls.SUBTREE_SCOPE);
+        searchCtls.setTimeLimit(UserStoreConstants.MAX_SEARCH_TIME);
+        try {
+            for (int from = 0; from < userIds.size(); from += MAX_IDS_PER_SEARCH) {
+                List<String> batch = userIds.subList(from, Math.min(from + MAX_IDS_PER_SEARCH, userIds.size()));
+
+                // resolve the DNs of the users with a single search, member values are compared as LDAP names
+                Map<LdapName, String> userIdsByDN = new HashMap<>();
+                searchCtls.setReturningAttributes(new String[] { LDAPConnectorConstants.USER_UUID_ATTRIBUTE_NAME });
+                NamingEnumeration<SearchResult> users = context.search(userSearchBase,
+                        getSearchFilter(userNameListFilter, LDAPConnectorConstants.USER_UUID_ATTRIBUTE_NAME, batch),
+                        searchCtls);
+                while (users.hasMoreElements()) {
+                    SearchResult user = users.next();
+                    javax.naming.directory.Attribute userId =
+                            user.getAttributes().get(LDAPConnectorConstants.USER_UUID_ATTRIBUTE_NAME);
+                    if (userId != null) {
+                        userIdsByDN.put(new LdapName(user.getNameInNamespace()), (String) userId.get());
+                    }
+                }
+                if (userIdsByDN.isEmpty()) {
+                    continue;
+                }
+
+                List<String> userDNs = userIdsByDN.keySet().stream().map(LdapName::toString)
+                        .collect(Collectors.toList());
+                searchCtls.setReturningAttributes(new String[] { LDAPConnectorConstants.MEMBERSHIP_ATTRIBUTE_NAME,
+                        LDAPConnectorConstants.GROUP_UUID_ATTRIBUTE_NAME });
+                NamingEnumeration<SearchResult> groups = context.search(groupSearchBase,
+                        getSearchFilter(groupListFilter, LDAPConnectorConstants.MEMBERSHIP_ATTRIBUTE_NAME, userDNs),
+                        searchCtls);
+                while (groups.hasMoreElements()) {
+                    Attributes attributes = groups.next().getAttributes();
+                    javax.naming.directory.Attribute groupId =
+                            attributes.get(LDAPConnectorConstants.GROUP_UUID_ATTRIBUTE_NAME);
+                    javax.naming.directory.Attribute members =
+                            attributes.get(LDAPConnectorConstants.MEMBERSHIP_ATTRIBUTE_NAME);
+                    if (groupId == null || members == null) {
+                        continue;
+                    }
+                    for (NamingEnumeration<?> values = members.getAll(); values.hasMore(); ) {
+                        String userId = userIdsByDN.get(getLdapName(values.next().toString()));
+                        if (userId != null) {
+                            groupIdsOfUsers.computeIfAbsent(userId, id -> new ArrayList<>())
+                                    .add((String) groupId.get());
+                        }
+                    }
+                }
+            }
+        } catch (NamingException e) {
+            throw new UserStoreConnectorException("Error while getting groups of users from LDAP", e);
+        }
+        return groupIdsOfUsers;
+    }
+
     @Override
     public List<String> getGroupsOfUser(String userIdentifier) throws UserStoreConnectorException {
         String membershipProperty = LDAPConnectorConstants.MEMBERSHIP_ATTRIBUTE_NAME;
@@ -924,12 +1152,10 @@ public class LDAPUserStoreConnector implements UserStoreConnector {
 
         String salt = UserStoreUtil.generateUUID();
         PasswordHandler passwordHandler = new DefaultPasswordHandler();
-        passwordHandler.setIterationCount(iterationCount);
-        passwordHandler.setKeyLength(keyLength);
         String hashedPassword;
         char[] password = passwordCallback.getPassword();
         try {
-            hashedPassword = passwordHandler.hashPassword(password, salt, hashAlgo);
+            hashedPassword = passwordHandler.hashPassword(password, salt, hashAlgo, iterationCount, keyLength);
         } catch (NoSuchAlgorithmException e) {
             throw new UserStoreConnectorException("Error while hashing the password.", e);
         }
@@ -971,11 +1197,9 @@ public class LDAPUserStoreConnector implements UserStoreConnector {
         int iterationCount = getIterationCount();
         int keyLength = getKeyLength();
         PasswordHandler passwordHandler = new DefaultPasswordHandler();
-        passwordHandler.setIterationCount(iterationCount);
-        passwordHandler.setKeyLength(keyLength);
         String hashedPassword;
         try {
-            hashedPassword = passwordHandler.hashPassword(password, salt, hashAlgo);
+            hashedPassword = passwordHandler.hashPassword(password, salt, hashAlgo, iterationCount, keyLength);
         } catch (NoSuchAlgorithmException e) {
             throw new UserStoreConnectorException("Error while hashing the password.", e);
         }
@@ -996,6 +1220,50 @@ public class LDAPUserStoreConnector implements UserStoreConnector {
         return userIdentifier;
     }
 
+    @Override
+    public boolean updateCredentialsIfUnchanged(String userIdentifier, PasswordCallback passwordCallback,
+            String currentPasswordHash) throws UserStoreConnectorException {
+        DirContext context;
+        try {
+            context = ldapConnectionContext.getContext();
+        } catch (LDAPConnectorException e) {
+            throw new UserStoreConnectorException("Error getting LDAP context ", e);
+        }
+
+        char[] password = passwordCallback.getPassword();
+        String salt = UserStoreUtil.generateUUID();
+        String hashAlgo = getHashAlgo();
+        int iterationCount = getIterationCount();
+        int keyLength = getKeyLength();
+        PasswordHandler passwordHandler = new DefaultPasswordHandler();
+        String hashedPassword;
+        try {
+            hashedPassword = passwordHandler.hashPassword(password, salt, hashAlgo, iterationCount, keyLength);
+        } catch (NoSuchAlgorithmException e) {
+            throw new UserStoreConnectorException("Error while hashing the password.", e);
+        }
+
+        // a modification is applied atomically, and removing a value which is not present fails the whole of it
+        ModificationItem[] basicAttributes = new ModificationItem[3];
+        basicAttributes[0] = new ModificationItem(DirContext.REMOVE_ATTRIBUTE,
+                new BasicAttribute(LDAPConnectorConstants.USER_PASSWORD_ATTRIBUTE_NAME, currentPasswordHash));
+        basicAttributes[1] = new ModificationItem(DirContext.ADD_ATTRIBUTE,
+                new BasicAttribute(LDAPConnectorConstants.USER_PASSWORD_ATTRIBUTE_NAME, hashedPassword));
+        basicAttributes[2] = new ModificationItem(DirContext.REPLACE_ATTRIBUTE,
+                new BasicAttribute(LDAPConnectorConstants.USER_PASSWORD_SALT_ATTRIBUTE_NAME, salt));
+        try {
+            NameParser ldapParser = context.getNameParser("");
+            String userName = getUserName(userIdentifier);
+            Name compoundName = ldapParser.parse(usernameAttribute + "=" + userName + "," + userSearchBase);
+            context.modifyAttributes(compoundName, basicAttributes);
+        } catch (NoSuchAttributeException e) {
+            return false;
+        } catch (NamingException e) {
+            throw new UserStoreConnectorException("Error while updating user credential.", e);
+        }
+        return true;
+    }
+
     @Override
     public void deleteCredential(String userIdentifier) throws UserStoreConnectorException {
         DirContext context;
@@ -1148,6 +1416,259 @@ public class LDAPUserStoreConnector implements UserStoreConnector {
         return userStoreConfig.getKeyLength();
     }
 
+    /**
+     * Search the attributes of the entries with the given ids, combining at most {@link #MAX_IDS_PER_SEARCH} ids
+     * into each search filter.
+     *
+     * @param ids               ids of the entries
+     * @param requiredAttribute attributes to retrieve, all the attributes are retrieved if null or empty
+     * @param searchBase        search base of the entries
+     * @param listFilter        filter matching the entries
+     * @param idAttribute       attribute holding the id of an entry
+     * @return attributes by id, multiple values of an attribute are separated by a comma
+     * @throws UserStoreConnectorException if error occurred while searching the entries
+     */
+    private Map<String, List<Attribute>> searchAttributeValues(List<String> ids, List<String> requiredAttribute,
+            String searchBase, String listFilter, String idAttribute) throws UserStoreConnectorException {
+        Map<String, List<Attribute>> attributesById = new HashMap<>();
+        if (ids == null || ids.isEmpty()) {
+            return attributesById;
+        }
+
+        DirContext context;
+        try {
+            context = ldapConnectionContext.getContext();
+        } catch (LDAPConnectorException e) {
+            throw new UserStoreConnectorException("Error getting LDAP context ", e);
+        }
+
+        List<String> uniqueIds = new ArrayList<>(new LinkedHashSet<>(ids));
+        List<String> propertyNames = requiredAttribute == null ? Collections.emptyList()
+                : new ArrayList<>(new LinkedHashSet<>(requiredAttribute));
+        SearchControls searchCtls = new SearchControls();
+        searchCtls.setSearchScope(SearchControls.SUBTREE_SCOPE);
+        searchCtls.setTimeLimit(UserStoreConstants.MAX_SEARCH_TIME);
+        if (!propertyNames.isEmpty()) {
+            List<String> returnedAtts = new ArrayList<>(propertyNames);
+            returnedAtts.add(idAttribute);
+            searchCtls.setReturningAttributes(returnedAtts.toArray(new String[returnedAtts.size()]));
+        }
+
+        try {
+            for (int from = 0; from < uniqueIds.size(); from += MAX_IDS_PER_SEARCH) {
+                List<String> batch = uniqueIds.subList(from, Math.min(from + MAX_IDS_PER_SEARCH, uniqueIds.size()));
+                NamingEnumeration<SearchResult> answer = context.search(searchBase,
+                        getSearchFilter(listFilter, idAttribute, batch), searchCtls);
+                while (answer.hasMoreElements()) {
+                    Attributes attributes = answer.next().getAttributes();
+                    javax.naming.directory.Attribute id = attributes.get(idAttribute);
+                    if (id == null) {
+                        continue;
+                    }
+                    List<Attribute> attributeList = getAttributeList(attributes, propertyNames);
+                    if (!attributeList.isEmpty()) {
+                        attributesById.put((String) id.get(), attributeList);
+                    }
+                }
+            }
+        } catch (NamingException e) {
+            throw new UserStoreConnectorException("Error while getting attributes from LDAP", e);
+        }
+        return attributesById;
+    }
+
+    /**
+     * Get the given attributes of a search result, or all of them other than the password and its salt if none are
+     * given.
+     */
+    private List<Attribute> getAttributeList(Attributes attributes, List<String> propertyNames)
+            throws NamingException {
+        List<Attribute> attributeList = new ArrayList<>();
+        if (propertyNames.isEmpty()) {
+            for (NamingEnumeration<String> names = attributes.getIDs(); names.hasMore(); ) {
+                String name = names.next();
+                if (!LDAPConnectorConstants.USER_PASSWORD_ATTRIBUTE_NAME.equalsIgnoreCase(name)
+                        && !LDAPConnectorConstants.USER_PASSWORD_SALT_ATTRIBUTE_NAME.equalsIgnoreCase(name)) {
+                    addAttributeValue(attributeList, attributes.get(name));
+                }
+            }
+        } else {
+            for (String name : propertyNames) {
+                addAttributeValue(attributeList, attributes.get(name));
+            }
+        }
+        return attributeList;
+    }
+
+    private void addAttributeValue(List<Attribute> attributeList, javax.naming.directory.Attribute attribute)
+            throws NamingException {
+        if (attribute == null) {
+            return;
+        }
+        List<String> values = new ArrayList<>();
+        for (NamingEnumeration<?> attrs = attribute.getAll(); attrs.hasMore(); ) {
+            Object attObject = attrs.next();
+            if (attObject instanceof String && !StringUtils.isBlank((String) attObject)) {
+                values.add((String) attObject);
+            }
+        }
+        if (!values.isEmpty()) {
+            attributeList.add(new Attribute(attribute.getID(), String.join(",", values)));
+        }
+    }
+
+    /**
+     * Search the ids of the entries that sort after the cursor. The server sorts the results on the id attribute and
+     * the cursor is applied as an ordering filter, so a page does not depend on entries before it and a removed
+     * cursor entry does not break the listing.
+     *
+     * @param cursor      id of the last entry of the previous page, null for the first page
+     * @param length      number of entries to retrieve, -1 for no limit
+     * @param searchBase  search base of the entries
+     * @param listFilter  filter matching the entries
+     * @param idAttribute attribute holding the id of an entry
+     * @return ids of the page
+     * @throws UserStoreConnectorException if error occurred while searching the entries
+     */
+    private List<String> searchIdsAfter(String cursor, int length, String searchBase, String listFilter,
+            String idAttribute) throws UserStoreConnectorException {
+        if (length == 0) {
+            return Collections.emptyList();
+        }
+
+        SearchControls searchCtls = new SearchControls();
+        searchCtls.setSearchScope(SearchControls.SUBTREE_SCOPE);
+        if (length > 0) {
+            searchCtls.setCountLimit(length);
+        }
+        searchCtls.setTimeLimit(UserStoreConstants.MAX_SEARCH_TIME);
+        searchCtls.setReturningAttributes(new String[] { idAttribute });
+
+        StringBuilder filter = new StringBuilder("(&").append(listFilter).append("(").append(idAttribute)
+                .append("=*)");
+        if (cursor != null) {
+            String value = escapeFilterValue(cursor);
+            filter.append("(").append(idAttribute).append(">=").append(value).append(")(!(").append(idAttribute)
+                    .append("=").append(value).append("))");
+        }
+        filter.append(")");
+
+        DirContext context;
+        try {
+            context = ldapConnectionContext.getContext();
+        } catch (LDAPConnectorException e) {
+            throw new UserStoreConnectorException("Error getting LDAP context ", e);
+        }
+        if (!(context instanceof LdapContext)) {
+            throw new UserStoreConnectorException("LDAP context does not support sorted search");
+        }
+
+        List<String> ids = new ArrayList<>();
+        try {
+            ((LdapContext) context).setRequestControls(new Control[] { new SortControl(idAttribute,
+                    Control.CRITICAL) });
+            NamingEnumeration<SearchResult> enumeration = context.search(searchBase, filter.toString(), searchCtls);
+            while (enumeration.hasMoreElements()) {
+                javax.naming.directory.Attribute id = enumeration.next().getAttributes().get(idAttribute);
+                if (id != null) {
+                    ids.add((String) id.get());
+                }
+            }
+        } catch (NamingException | IOException e) {
+            throw new UserStoreConnectorException("Error while listing entries from LDAP", e);
+        }
+        return ids;
+    }
+
+    /**
+     * Build a filter matching the entries of the list filter having any of the given values for an attribute.
+     */
+    /**
+     * Parse a member value as an LDAP name, so that it matches the DN of the member regardless of case and spacing.
+     *
+     * @param dn member value
+     * @return LDAP name or null if the value is not a valid DN
+     */
+    /**
+     * Resolve the user ids of the given user DNs, searching the user search base for the relative names of the DNs
+     * in batches instead of reading each entry
+     *
+     * @param context   directory context
+     * @param memberDNs DNs of the users
+     * @return user ids by DN, DNs which are not users are not included
+     * @throws NamingException if the search fails
+     */
+    private Map<LdapName, String> getUserIdsByDN(DirContext context, List<LdapName> memberDNs)
+            throws NamingException {
+        Map<LdapName, String> userIdsByDN = new HashMap<>();
+        SearchControls searchCtls = new SearchControls();
+        searchCtls.setSearchScope(SearchControls.SUBTREE_SCOPE);
+        searchCtls.setTimeLimit(UserStoreConstants.MAX_SEARCH_TIME);
+        searchCtls.setReturningAttributes(new String[] { LDAPConnectorConstants.USER_UUID_ATTRIBUTE_NAME });
+        for (int from = 0; from < memberDNs.size(); from += MAX_IDS_PER_SEARCH) {
+            StringBuilder rdnFilter = new StringBuilder();
+            for (LdapName memberDN : memberDNs.subList(from, Math.min(from + MAX_IDS_PER_SEARCH, memberDNs.size()))) {
+                Rdn rdn = memberDN.getRdn(memberDN.size() - 1);
+                rdnFilter.append("(").append(rdn.getType()).append("=")
+                        .append(escapeFilterValue(rdn.getValue().toString())).append(")");
+            }
+            NamingEnumeration<SearchResult> users = context.search(userSearchBase,
+                    "(&" + userNameListFilter + "(|" + rdnFilter + "))", searchCtls);
+            while (users.hasMoreElements()) {
+                SearchResult user = users.next();
+                javax.naming.directory.Attribute userId =
+                        user.getAttributes().get(LDAPConnectorConstants.USER_UUID_ATTRIBUTE_NAME);
+                if (userId != null) {
+                    userIdsByDN.put(new LdapName(user.getNameInNamespace()), (String) userId.get());
+                }
+            }
+        }
+        return userIdsByDN;
+    }
+
+    private LdapName getLdapName(String dn) {
+        try {
+            return new LdapName(dn);
+        } catch (InvalidNameException e) {
+            log.debug("Ignoring member value {} which is not a valid DN", dn);
+            return null;
+        }
+    }
+
+    private String getSearchFilter(String listFilter, String attributeName, List<String> values) {
+        StringBuilder filter = new StringBuilder("(&").append(listFilter).append("(|");
+        for (String value : values) {
+            filter.append("(").append(attributeName).append("=").append(escapeFilterValue(value)).append(")");
+        }
+        return filter.append("))").toString();
+    }
+
+    private static String escapeFilterValue(String value) {
+        StringBuilder escaped = new StringBuilder(value.length());
+        for (char c : value.toCharArray()) {
+            switch (c) {
+                case '\\':
+                    escaped.append("\\5c");
+                    break;
+                case '*':
+                    escaped.append("\\2a");
+                    break;
+                case '(':
+                    escaped.append("\\28");
+                    break;
+                case ')':
+                    escaped.append("\\29");
+                    break;
+                case '\0':
+                    escaped.append("\\00");
+                    break;
+                default:
+                    escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
     private String getUserName(String userID) throws UserStoreConnectorException {
         DirContext context;
         try {
@@ -1226,4 +1747,97 @@ public class LDAPUserStoreConnector implements UserStoreConnector {
         }
         return null;
     }
+
+    /**
+     * Cursor over a paged search of the users. The next page is requested with the cookie of the previous one once
+     * the entries of a page are consumed, so the server never sends more than a page ahead.
+     */
+    private class LDAPUserCursor implements UserCursor {
+
+        private final LdapContext context;
+        private final String filter;
+        private final SearchControls searchCtls;
+        private final List<String> propertyNames;
+        private final int pageSize;
+        private NamingEnumeration<SearchResult> results;
+        private String userId;
+        private List<Attribute> attributes;
+
+        LDAPUserCursor(LdapContext context, String filter, SearchControls searchCtls, List<String> propertyNames,
+                int pageSize) {
+            this.context = context;
+            this.filter = filter;
+            this.searchCtls = searchCtls;
+            this.propertyNames = propertyNames;
+            this.pageSize = pageSize;
+        }
+
+        @Override
+        public boolean next() throws UserStoreConnectorException {
+            try {
+                if (results == null) {
+                    results = searchPage(null);
+                }
+                while (true) {
+                    while (results.hasMore()) {
+                        Attributes entry = results.next().getAttributes();
+                        javax.naming.directory.Attribute id =
+                                entry.get(LDAPConnectorConstants.USER_UUID_ATTRIBUTE_NAME);
+                        if (id != null) {
+                            userId = (String) id.get();
+                            attributes = getAttributeList(entry, propertyNames);
+                            return true;
+                        }
+                    }
+                    byte[] cookie = getCookie(context.getResponseControls());
+                    if (cookie == null || cookie.length == 0) {
+                        userId = null;
+                        attributes = null;
+                        return false;
+                    }
+                    results = searchPage(cookie);
+                }
+            } catch (NamingException | IOException e) {
+                throw new UserStoreConnectorException("Error while exporting users from LDAP", e);
+            }
+        }
+
+        @Override
+        public String getUserId() {
+            return userId;
+        }
+
+        @Override
+        public List<Attribute> getAttributes() {
+            return attributes;
+        }
+
+        @Override
+        public void close() throws UserStoreConnectorException {
+            try {
+                if (results != null) {
+                    results.close();
+                }
+                context.close();
+            } catch (NamingException e) {
+                throw new UserStoreConnectorException("Error while closing the LDAP user export", e);
+            }
+        }
+
+        private NamingEnumeration<SearchResult> searchPage(byte[] cookie) throws NamingException, IOException {
+            context.setRequestControls(new Control[] { new PagedResultsControl(pageSize, cookie, Control.CRITICAL) });
+            return context.search(userSearchBase, filter, searchCtls);
+        }
+
+        private byte[] getCookie(Control[] controls) {
+            if (controls != null) {
+                for (Control control : controls) {
+                    if (control instanceof PagedResultsResponseControl) {
+                        return ((PagedResultsResponseControl) control).getCookie();
+                    }
+                }
+            }
+            return null;
+        }
+    }
 }
@@ -26,6 +26,7 @@ public class JDBCConnectorConstants {
     public static final String DATA_SOURCE = "dataSource";
     public static final String DATABASE_CLASS_NAME = "databaseClassName";
     public static final String MAX_ROW_LIMIT = "maxRowLimit";
+    public static final String EXPORT_FETCH_SIZE = "exportFetchSize";
 
     //Credential store connector properties
     public static final String HASH_ALGO = "hashAlgorithm";
@@ -50,14 +51,17 @@ public class JDBCConnectorConstants {
         public static final String GROUP_ID = "group_id";
         public static final String LENGTH = "length";
         public static final String OFFSET = "offset";
-        public static final String ATTRIBUTE_NAMES = "attr_names";
+        public static final String ATTRIBUTE_URIS = "attr_uris";
         public static final String USER_UNIQUE_ID = "user_unique_id";
         public static final String GROUP_UNIQUE_ID = "group_unique_id";
+        public static final String USER_UNIQUE_IDS = "user_unique_ids";
+        public static final String GROUP_UNIQUE_IDS = "group_unique_ids";
         public static final String PASSWORD_SALT = "password_salt";
         public static final String HASH_ALGO = "hash_algo";
         public static final String ITERATION_COUNT = "iteration_count";
         public static final String KEY_LENGTH = "key_length";
         public static final String PASSWORD = "password";
+        public static final String CURRENT_PASSWORD = "current_password";
         public static final String ROLE_NAME = "role_name";
         public static final String ROLE_ID = "role_id";
         public static final String PERMISSION_ID = "permission_id";
@@ -93,15 +97,21 @@ public class JDBCConnectorConstants {
                 "sql_query_list_users_by_attribute_pattern";
         public static final String SQL_QUERY_LIST_USER_IDS_BY_ATTRIBUTE = "sql_query_list_user_ids_by_attribute";
         public static final String SQL_QUERY_LIST_USER_IDS = "sql_query_list_user_ids";
-        public static final String SQL_QUERY_GET_USER_ATTRIBUTES_FROM_NAME = "sql_query_get_user_attributes_from_uri";
+        public static final String SQL_QUERY_LIST_USER_IDS_FROM_START = "sql_query_list_user_ids_from_start";
+        public static final String SQL_QUERY_LIST_USER_IDS_AFTER = "sql_query_list_user_ids_after";
+        public static final String SQL_QUERY_IS_USER_EXISTS = "sql_query_is_user_exists";
+        public static final String SQL_QUERY_GET_USER_ATTRIBUTES_FROM_URI = "sql_query_get_user_attributes_from_uri";
         public static final String SQL_QUERY_IS_USER_IN_GROUP = "sql_query_is_user_in_group";
         public static final String SQL_QUERY_LIST_GROUP_BY_ATTRIBUTE_PATTERN =
                 "sql_query_list_group_by_attribute_pattern";
         public static final String SQL_QUERY_LIST_GROUPS_BY_ATTRIBUTE = "sql_query_list_group_by_attribute";
         public static final String SQL_QUERY_LIST_GROUPS = "sql_query_list_group";
+        public static final String SQL_QUERY_LIST_GROUPS_FROM_START = "sql_query_list_group_from_start";
+        public static final String SQL_QUERY_LIST_GROUPS_AFTER = "sql_query_list_group_after";
+        public static final String SQL_QUERY_IS_GROUP_EXISTS = "sql_query_is_group_exists";
         public static final String SQL_QUERY_GET_GROUP_ATTRIBUTES = "sql_query_get_group_attributes";
-//        public static final String SQL_QUERY_GET_GROUP_ATTRIBUTES_FROM_NAME =
-//                "sql_query_get_group_attributes_from_name";
+        public static final String SQL_QUERY_GET_GROUP_ATTRIBUTES_FROM_URI =
+                "sql_query_get_group_attributes_from_uri";
         public static final String SQL_QUERY_COUNT_USERS = "sql_query_count_users";
         public static final String SQL_QUERY_COUNT_GROUPS = "sql_query_count_groups";
         public static final String SQL_QUERY_ADD_USER_ATTRIBUTES = "sql_query_add_user_attributes";
@@ -125,12 +135,24 @@ public class JDBCConnectorConstants {
         public static final String SQL_QUERY_ADD_PASSWORD_INFO = "sql_query_add_password_info";
         public static final String SQL_QUERY_ADD_CREDENTIAL = "sql_query_add_credential";
         public static final String SQL_QUERY_UPDATE_CREDENTIAL = "sql_query_update_credential";
+        public static final String SQL_QUERY_UPDATE_CREDENTIAL_IF_UNCHANGED =
+                "sql_query_update_credential_if_unchanged";
         public static final String SQL_QUERY_UPDATE_PASSWORD_INFO = "sql_query_update_password_info";
         public static final String SQL_QUERY_DELETE_CREDENTIAL = "sql_query_delete_credential";
         public static final String SQL_QUERY_GET_ATTR_BY_URI = "sql_query_get_attr_by_uri";
         public static final String SQL_QUERY_ADD_ATTR = "sql_query_add_attr";
         public static final String SQL_QUERY_LIST_USER_IDS_OF_GROUP = "sql_query_get_users_of_group";
+        public static final String SQL_QUERY_LIST_USER_IDS_OF_GROUPS = "sql_query_get_users_of_groups";
         public static final String SQL_QUERY_LIST_GROUP_IDS_OF_USER = "sql_query_get_groups_of_user";
+        public static final String SQL_QUERY_LIST_GROUP_IDS_OF_USERS = "sql_query_get_groups_of_users";
+        public static final String SQL_QUERY_EXPORT_USERS = "sql_query_export_users";
+        public static final String SQL_QUERY_EXPORT_USERS_FROM_URI = "sql_query_export_users_from_uri";
+        public static final String SQL_QUERY_GET_ATTRIBUTES_OF_USERS = "sql_query_get_attributes_of_users";
+        public static final String SQL_QUERY_GET_ATTRIBUTES_OF_USERS_FROM_URI =
+                "sql_query_get_attributes_of_users_from_uri";
+        public static final String SQL_QUERY_GET_ATTRIBUTES_OF_GROUPS = "sql_query_get_attributes_of_groups";
+        public static final String SQL_QUERY_GET_ATTRIBUTES_OF_GROUPS_FROM_URI =
+                "sql_query_get_attributes_of_groups_from_uri";
 
         public static final String SQL_QUERY_GET_ROLE = "sql_query_get_role";
         public static final String SQL_QUERY_GET_ROLES_FOR_USER = "sql_query_get_roles_for_user";
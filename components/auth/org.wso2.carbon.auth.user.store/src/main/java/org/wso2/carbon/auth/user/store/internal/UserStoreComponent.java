@@ -30,6 +30,8 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.wso2.carbon.auth.user.store.configuration.UserStoreConfigurationService;
 import org.wso2.carbon.auth.user.store.configuration.models.UserStoreConfiguration;
+import org.wso2.carbon.auth.user.store.connector.PasswordHashingExecutor;
+import org.wso2.carbon.auth.user.store.connector.PasswordRehasher;
 import org.wso2.carbon.auth.user.store.exception.UserStoreConnectorException;
 import org.wso2.carbon.config.ConfigurationException;
 import org.wso2.carbon.config.provider.ConfigProvider;
@@ -112,6 +114,8 @@ public class UserStoreComponent {
     @Deactivate
     protected void deactivate() {
         registration.unregister();
+        PasswordHashingExecutor.shutdownInstance();
+        PasswordRehasher.shutdownInstance();
     }
     
 /*    *//**
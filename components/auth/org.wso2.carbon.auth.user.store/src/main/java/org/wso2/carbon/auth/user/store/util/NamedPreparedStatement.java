@@ -21,8 +21,7 @@ package org.wso2.carbon.auth.user.store.util;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
@@ -31,43 +30,47 @@ import java.util.Map;
  */
 public class NamedPreparedStatement {
 
-    private PreparedStatement preparedStatement;
-    private List<String> fields = new ArrayList<>();
+    private final PreparedStatement preparedStatement;
+    private final Map<String, int[]> indexes;
 
     /**
-     * Create a named prepared statement with repeated indexes.
+     * Create a named prepared statement with repeated indexes from a parsed query.
      *
      * @param connection Database connection to be used.
-     * @param sqlQuery   Underlying SQL query.
+     * @param namedQuery Underlying parsed SQL query.
      * @param repetition Repetition of given index.
      * @throws SQLException SQL Exception.
      */
-    public NamedPreparedStatement(Connection connection, String sqlQuery, Map<String, Integer> repetition)
+    public NamedPreparedStatement(Connection connection, NamedQuery namedQuery, Map<String, Integer> repetition)
             throws SQLException {
 
-        int pos;
-        while ((pos = sqlQuery.indexOf(":")) != -1) {
-
-            int end = sqlQuery.substring(pos).indexOf(";");
-            if (end == -1) {
-                throw new SQLException("Cannot find the end of the placeholder.");
-            } else {
-                end += pos;
-            }
-
-            fields.add(sqlQuery.substring(pos + 1, end));
-            StringBuilder builder = new StringBuilder("?");
+        indexes = namedQuery.getIndexes(repetition);
+        preparedStatement = connection.prepareStatement(namedQuery.getPreparedQuery(repetition));
+    }
 
-            if (repetition.get(sqlQuery.substring(pos + 1, end)) != null) {
-                for (int i = 0; i < repetition.get(sqlQuery.substring(pos + 1, end)) - 1; i++) {
-                    builder.append(", ?");
-                }
-            }
+    /**
+     * Create a named prepared statement from a parsed query.
+     *
+     * @param connection Database connection to be used.
+     * @param namedQuery Underlying parsed SQL query.
+     * @throws SQLException SQL Exception.
+     */
+    public NamedPreparedStatement(Connection connection, NamedQuery namedQuery) throws SQLException {
+        this(connection, namedQuery, Collections.emptyMap());
+    }
 
-            sqlQuery = String.format("%s %s %s", sqlQuery.substring(0, pos), builder.toString(),
-                    sqlQuery.substring(end + 1));
-        }
-        preparedStatement = connection.prepareStatement(sqlQuery);
+    /**
+     * Create a named prepared statement with repeated indexes. The query is parsed on every call, use
+     * {@link #NamedPreparedStatement(Connection, NamedQuery, Map)} for queries which are prepared repeatedly.
+     *
+     * @param connection Database connection to be used.
+     * @param sqlQuery   Underlying SQL query.
+     * @param repetition Repetition of given index.
+     * @throws SQLException SQL Exception.
+     */
+    public NamedPreparedStatement(Connection connection, String sqlQuery, Map<String, Integer> repetition)
+            throws SQLException {
+        this(connection, new NamedQuery(sqlQuery), repetition);
     }
 
     /**
@@ -78,7 +81,7 @@ public class NamedPreparedStatement {
      * @throws SQLException SQL Exception.
      */
     public NamedPreparedStatement(Connection connection, String sqlQuery) throws SQLException {
-        this(connection, sqlQuery, new HashMap<>());
+        this(connection, new NamedQuery(sqlQuery));
     }
 
     /**
@@ -98,7 +101,9 @@ public class NamedPreparedStatement {
      * @throws SQLException SQL Exception.
      */
     public void setLong(String name, long value) throws SQLException {
-        preparedStatement.setLong(getIndex(name), value);
+        for (int index : getIndexes(name)) {
+            preparedStatement.setLong(index, value);
+        }
     }
 
     /**
@@ -109,7 +114,9 @@ public class NamedPreparedStatement {
      * @throws SQLException SQL Exception.
      */
     public void setInt(String name, int value) throws SQLException {
-        preparedStatement.setInt(getIndex(name), value);
+        for (int index : getIndexes(name)) {
+            preparedStatement.setInt(index, value);
+        }
     }
 
     /**
@@ -120,7 +127,9 @@ public class NamedPreparedStatement {
      * @throws SQLException SQL Exception
      */
     public void setString(String name, String value) throws SQLException {
-        preparedStatement.setString(getIndex(name), value);
+        for (int index : getIndexes(name)) {
+            preparedStatement.setString(index, value);
+        }
     }
 
     /**
@@ -131,7 +140,9 @@ public class NamedPreparedStatement {
      * @throws SQLException SQL Exception
      */
     public void setBoolean(String name, boolean value) throws SQLException {
-        preparedStatement.setBoolean(getIndex(name), value);
+        for (int index : getIndexes(name)) {
+            preparedStatement.setBoolean(index, value);
+        }
     }
 
     /**
@@ -142,14 +153,20 @@ public class NamedPreparedStatement {
      * @throws SQLException SQL Exception.
      */
     public void setString(String name, List<String> values) throws SQLException {
-        int indexInc = 0;
-        for (String value : values) {
-            preparedStatement.setString(getIndex(name) + indexInc, value);
-            indexInc++;
+        for (int index : getIndexes(name)) {
+            int indexInc = 0;
+            for (String value : values) {
+                preparedStatement.setString(index + indexInc, value);
+                indexInc++;
+            }
         }
     }
 
-    private int getIndex(String name) {
-        return fields.indexOf(name) + 1;
+    private int[] getIndexes(String name) throws SQLException {
+        int[] nameIndexes = indexes.get(name);
+        if (nameIndexes == null) {
+            throw new SQLException("Cannot find the placeholder " + name + " in the query.");
+        }
+        return nameIndexes;
     }
 }
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied. See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.auth.user.store.util;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SQL query with named placeholders, parsed once so that it can be prepared many times. A placeholder is written as
+ * <code>:name;</code> and is replaced with a <code>?</code>, or with a list of them when the placeholder is repeated.
+ */
+public final class NamedQuery {
+
+    private final String sqlQuery;
+    private final String[] segments;
+    private final String[] names;
+    private final String preparedQuery;
+    private final Map<String, int[]> indexes;
+
+    /**
+     * Parse a query with named placeholders.
+     *
+     * @param sqlQuery SQL query with named placeholders.
+     * @throws SQLException if a placeholder is not terminated.
+     */
+    public NamedQuery(String sqlQuery) throws SQLException {
+
+        List<String> segmentList = new ArrayList<>();
+        List<String> nameList = new ArrayList<>();
+        int start = 0;
+        int pos;
+        while ((pos = sqlQuery.indexOf(':', start)) != -1) {
+            int end = sqlQuery.indexOf(';', pos);
+            if (end == -1) {
+                throw new SQLException("Cannot find the end of the placeholder.");
+            }
+            segmentList.add(sqlQuery.substring(start, pos));
+            nameList.add(sqlQuery.substring(pos + 1, end));
+            start = end + 1;
+        }
+        segmentList.add(sqlQuery.substring(start));
+
+        this.sqlQuery = sqlQuery;
+        this.segments = segmentList.toArray(new String[segmentList.size()]);
+        this.names = nameList.toArray(new String[nameList.size()]);
+        this.preparedQuery = buildQuery(Collections.emptyMap());
+        this.indexes = Collections.unmodifiableMap(buildIndexes(Collections.emptyMap()));
+    }
+
+    /**
+     * Get the query with named placeholders, as it was given.
+     *
+     * @return SQL query.
+     */
+    public String getSqlQuery() {
+        return sqlQuery;
+    }
+
+    /**
+     * Get the query with each placeholder replaced with a single <code>?</code>.
+     *
+     * @return SQL query to be prepared.
+     */
+    public String getPreparedQuery() {
+        return preparedQuery;
+    }
+
+    /**
+     * Get the query with each placeholder replaced with as many <code>?</code> as it is repeated.
+     *
+     * @param repetition Repetition of the placeholders, placeholders not in the map are not repeated.
+     * @return SQL query to be prepared.
+     */
+    public String getPreparedQuery(Map<String, Integer> repetition) {
+        return repetition.isEmpty() ? preparedQuery : buildQuery(repetition);
+    }
+
+    /**
+     * Get the parameter indexes of the placeholders in the query without repetition.
+     *
+     * @return First parameter index of each occurrence by placeholder name.
+     */
+    Map<String, int[]> getIndexes() {
+        return indexes;
+    }
+
+    /**
+     * Get the parameter indexes of the placeholders in the query with the given repetition.
+     *
+     * @param repetition Repetition of the placeholders.
+     * @return First parameter index of each occurrence by placeholder name.
+     */
+    Map<String, int[]> getIndexes(Map<String, Integer> repetition) {
+        return repetition.isEmpty() ? indexes : buildIndexes(repetition);
+    }
+
+    private String buildQuery(Map<String, Integer> repetition) {
+
+        StringBuilder builder = new StringBuilder(sqlQuery.length());
+        builder.append(segments[0]);
+        for (int i = 0; i < names.length; i++) {
+            builder.append(" ?");
+            for (int j = 1; j < getRepetition(repetition, names[i]); j++) {
+                builder.append(", ?");
+            }
+            builder.append(' ').append(segments[i + 1]);
+        }
+        return builder.toString();
+    }
+
+    private Map<String, int[]> buildIndexes(Map<String, Integer> repetition) {
+
+        Map<String, int[]> indexMap = new HashMap<>();
+        int index = 1;
+        for (String name : names) {
+            int[] nameIndexes = indexMap.get(name);
+            if (nameIndexes == null) {
+                nameIndexes = new int[]{index};
+            } else {
+                int[] expanded = new int[nameIndexes.length + 1];
+                System.arraycopy(nameIndexes, 0, expanded, 0, nameIndexes.length);
+                expanded[nameIndexes.length] = index;
+                nameIndexes = expanded;
+            }
+            indexMap.put(name, nameIndexes);
+            index += getRepetition(repetition, name);
+        }
+        return indexMap;
+    }
+
+    private static int getRepetition(Map<String, Integer> repetition, String name) {
+
+        Integer count = repetition.get(name);
+        return count == null ? 1 : Math.max(1, count);
+    }
+}
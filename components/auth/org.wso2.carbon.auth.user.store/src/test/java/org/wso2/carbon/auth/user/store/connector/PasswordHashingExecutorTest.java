@@ -0,0 +1,133 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.auth.user.store.connector;
+
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Test;
+import org.wso2.carbon.auth.user.store.configuration.models.PasswordHashingConfiguration;
+import org.wso2.carbon.auth.user.store.connector.jdbc.DefaultPasswordHandler;
+import org.wso2.carbon.auth.user.store.exception.PasswordHashingRejectedException;
+
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+public class PasswordHashingExecutorTest {
+
+    private PasswordHashingExecutor passwordHashingExecutor;
+    private ExecutorService callers;
+
+    @After
+    public void tearDown() {
+        if (passwordHashingExecutor != null) {
+            passwordHashingExecutor.shutdown();
+        }
+        if (callers != null) {
+            callers.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testHashPassword() throws Exception {
+        passwordHashingExecutor = new PasswordHashingExecutor(new PasswordHashingConfiguration());
+        DefaultPasswordHandler passwordHandler = new DefaultPasswordHandler();
+        String expected = passwordHandler.hashPassword("admin".toCharArray(), "salt", "SHA256", 4096, 256);
+
+        Assert.assertEquals(expected, passwordHashingExecutor.hashPassword(passwordHandler, "admin".toCharArray(),
+                "salt", "SHA256", 4096, 256));
+        Assert.assertEquals(1, passwordHashingExecutor.getCompletedCount());
+        Assert.assertTrue(passwordHashingExecutor.getAverageHashTime() > 0);
+    }
+
+    @Test(expected = NoSuchAlgorithmException.class)
+    public void testHashPasswordWithUnknownAlgorithm() throws Exception {
+        passwordHashingExecutor = new PasswordHashingExecutor(new PasswordHashingConfiguration());
+        passwordHashingExecutor.hashPassword(new DefaultPasswordHandler(), "admin".toCharArray(), "salt", "NOSUCH",
+                4096, 256);
+    }
+
+    @Test
+    public void testRejectWhenSaturated() throws Exception {
+        PasswordHashingConfiguration configuration = new PasswordHashingConfiguration();
+        configuration.setPoolSize(1);
+        configuration.setQueueSize(1);
+        passwordHashingExecutor = new PasswordHashingExecutor(configuration);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordHandler blockingHandler = new DefaultPasswordHandler() {
+            @Override
+            public String hashPassword(char[] password, String salt, String hashAlgo, int iterationCount,
+                    int keyLength) {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+        };
+        callers = Executors.newFixedThreadPool(2);
+        callers.submit(() -> passwordHashingExecutor.hashPassword(blockingHandler, new char[0], "salt", "SHA256",
+                1, 1));
+        Assert.assertTrue(started.await(5, TimeUnit.SECONDS));
+        callers.submit(() -> passwordHashingExecutor.hashPassword(blockingHandler, new char[0], "salt", "SHA256",
+                1, 1));
+        while (passwordHashingExecutor.getQueueDepth() == 0) {
+            Thread.sleep(1);
+        }
+
+        try {
+            passwordHashingExecutor.hashPassword(blockingHandler, new char[0], "salt", "SHA256", 1, 1);
+            Assert.fail("Hashing should be rejected while the pool and the queue are full");
+        } catch (PasswordHashingRejectedException e) {
+            Assert.assertEquals(1, passwordHashingExecutor.getRejectedCount());
+        }
+        release.countDown();
+    }
+
+    @Test
+    public void testRejectWhenTimedOut() throws Exception {
+        PasswordHashingConfiguration configuration = new PasswordHashingConfiguration();
+        configuration.setMaxWaitTime(10L);
+        passwordHashingExecutor = new PasswordHashingExecutor(configuration);
+        PasswordHandler slowHandler = new DefaultPasswordHandler() {
+            @Override
+            public String hashPassword(char[] password, String salt, String hashAlgo, int iterationCount,
+                    int keyLength) {
+                try {
+                    Thread.sleep(1000L);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+        };
+
+        try {
+            passwordHashingExecutor.hashPassword(slowHandler, new char[0], "salt", "SHA256", 1, 1);
+            Assert.fail("Hashing should be rejected when it takes longer than the maximum wait time");
+        } catch (PasswordHashingRejectedException e) {
+            Assert.assertEquals(1, passwordHashingExecutor.getTimedOutCount());
+        }
+    }
+}
@@ -17,6 +17,7 @@
  */
 package org.wso2.carbon.auth.user.store.connector.jdbc;
 
+import org.hamcrest.CoreMatchers;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -34,6 +35,7 @@ import org.wso2.carbon.auth.user.store.configuration.UserStoreConfigurationServi
 import org.wso2.carbon.auth.user.store.configuration.models.UserStoreConfiguration;
 import org.wso2.carbon.auth.user.store.connector.Attribute;
 import org.wso2.carbon.auth.user.store.connector.Constants;
+import org.wso2.carbon.auth.user.store.connector.UserCursor;
 import org.wso2.carbon.auth.user.store.connector.UserStoreConnector;
 import org.wso2.carbon.auth.user.store.connector.UserStoreConnectorFactory;
 import org.wso2.carbon.auth.user.store.connector.testutil.Utils;
@@ -52,6 +54,7 @@ import java.util.Arrays;
 import java.util.Base64;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import javax.crypto.SecretKey;
@@ -199,6 +202,72 @@ public class JDBCUserStoreConnectorTest extends AuthDAOIntegrationTestBase {
         Assert.assertTrue(userIds.size() > 0);
     }
 
+    @Test
+    public void testListConnectorUserIdsAfter() throws Exception {
+        List<String> addedIds = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            List<Attribute> attributeList = new ArrayList<>();
+            attributeList.add(new Attribute(Constants.USERNAME_URI, "testListConnectorUserIdsAfter_user" + i));
+            addedIds.add(connector.addUser(attributeList));
+        }
+
+        // Walk the whole list two users at a time, each page continuing from the last id of the previous page.
+        List<String> userIds = new ArrayList<>();
+        String cursor = null;
+        List<String> page;
+        while (!(page = connector.listConnectorUserIdsAfter(cursor, 2)).isEmpty()) {
+            Assert.assertTrue(page.size() <= 2);
+            userIds.addAll(page);
+            cursor = page.get(page.size() - 1);
+        }
+        Assert.assertTrue(userIds.containsAll(addedIds));
+        Assert.assertThat(new HashSet<>(userIds).size(), CoreMatchers.is(userIds.size()));
+        Assert.assertThat(connector.listConnectorUserIdsAfter(addedIds.get(2), 2),
+                CoreMatchers.is(addedIds.subList(3, 5)));
+        Assert.assertThat(connector.listConnectorUserIdsAfter(null, 0).size(), CoreMatchers.is(0));
+
+        try {
+            connector.listConnectorUserIdsAfter("unknown", 2);
+            Assert.fail("Exception expected");
+        } catch (UserNotFoundException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
+
+    @Test
+    public void testExportUsers() throws Exception {
+        String givenName = "givenName";
+        Map<String, String> addedUsers = new HashMap<>();
+        for (int i = 0; i < 3; i++) {
+            List<Attribute> attributeList = new ArrayList<>();
+            attributeList.add(new Attribute(Constants.USERNAME_URI, "testExportUsers_user" + i));
+            attributeList.add(new Attribute(givenName, "testExportUsers_given" + i));
+            addedUsers.put(connector.addUser(attributeList), "testExportUsers_user" + i);
+        }
+
+        Map<String, List<Attribute>> exported = new HashMap<>();
+        try (UserCursor cursor = connector.exportUsers(Collections.singletonList(Constants.USERNAME_URI))) {
+            while (cursor.next()) {
+                Assert.assertNull(exported.put(cursor.getUserId(), cursor.getAttributes()));
+            }
+        }
+        for (Map.Entry<String, String> user : addedUsers.entrySet()) {
+            List<Attribute> attributes = exported.get(user.getKey());
+            Assert.assertNotNull(attributes);
+            Assert.assertThat(attributes.size(), CoreMatchers.is(1));
+            Assert.assertThat(attributes.get(0).getAttributeUri(), CoreMatchers.is(Constants.USERNAME_URI));
+            Assert.assertThat(attributes.get(0).getAttributeValue(), CoreMatchers.is(user.getValue()));
+        }
+
+        try (UserCursor cursor = connector.exportUsers(Collections.emptyList())) {
+            while (cursor.next()) {
+                if (addedUsers.containsKey(cursor.getUserId())) {
+                    Assert.assertThat(cursor.getAttributes().size(), CoreMatchers.is(2));
+                }
+            }
+        }
+    }
+
     @Test
     public void testListConnectorUserIds() throws Exception {
         String givenName = "givenName";
@@ -285,6 +354,37 @@ public class JDBCUserStoreConnectorTest extends AuthDAOIntegrationTestBase {
         }
     }
 
+    @Test
+    public void testGetRequiredUserAttributeValues() throws Exception {
+        String familyName = "familyName";
+
+        List<Attribute> attributeList = new ArrayList<>();
+        attributeList.add(new Attribute(Constants.USERNAME_URI, "jdbcUser"));
+        attributeList.add(new Attribute(Constants.PASSWORD_URI, "pass"));
+        attributeList.add(new Attribute(Constants.GIVEN_NAME_ATTR_NAME, familyName));
+        String userId = Utils.addUser(connector, attributeList);
+        Assert.assertNotNull(userId);
+
+        List<Attribute> attributes = connector.getUserAttributeValues(userId,
+                Arrays.asList(Constants.GIVEN_NAME_ATTR_NAME, Constants.GIVEN_NAME_ATTR_NAME, "noSuchAttribute"));
+        Assert.assertEquals(1, attributes.size());
+        Assert.assertEquals(Constants.GIVEN_NAME_ATTR_NAME, attributes.get(0).getAttributeUri());
+        Assert.assertEquals(familyName, attributes.get(0).getAttributeValue());
+
+        //all the attributes are returned when none are required
+        attributes = connector.getUserAttributeValues(userId, Collections.emptyList());
+        Assert.assertEquals(3, attributes.size());
+
+        //checking SQL exception path
+        super.cleanup();
+        try {
+            connector.getUserAttributeValues(userId, Collections.singletonList(Constants.GIVEN_NAME_ATTR_NAME));
+            Assert.fail("Exception expected");
+        } catch (UserStoreConnectorException e) {
+            Assert.assertTrue(e.getCause() instanceof SQLException);
+        }
+    }
+
     @Test
     public void testGetConnectorGroupId() throws Exception {
         String groupID;
@@ -401,6 +501,35 @@ public class JDBCUserStoreConnectorTest extends AuthDAOIntegrationTestBase {
         Assert.assertTrue(groupIds.size() > 0);
     }
 
+    @Test
+    public void testListConnectorGroupIdsAfter() throws Exception {
+        List<String> addedIds = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            List<Attribute> attributeList = new ArrayList<>();
+            attributeList.add(new Attribute(Constants.GROUP_DISPLAY_NAME_URI, "testListConnectorGroupIdsAfter_" + i));
+            addedIds.add(connector.addGroup(attributeList));
+        }
+
+        List<String> groupIds = new ArrayList<>();
+        String cursor = null;
+        List<String> page;
+        while (!(page = connector.listConnectorGroupIdsAfter(cursor, 2)).isEmpty()) {
+            groupIds.addAll(page);
+            cursor = page.get(page.size() - 1);
+        }
+        Assert.assertTrue(groupIds.containsAll(addedIds));
+        Assert.assertThat(new HashSet<>(groupIds).size(), CoreMatchers.is(groupIds.size()));
+        Assert.assertThat(connector.listConnectorGroupIdsAfter(addedIds.get(0), 2),
+                CoreMatchers.is(addedIds.subList(1, 3)));
+
+        try {
+            connector.listConnectorGroupIdsAfter("unknown", 2);
+            Assert.fail("Exception expected");
+        } catch (GroupNotFoundException e) {
+            Assert.assertNotNull(e.getMessage());
+        }
+    }
+
     @Test
     public void testGetGroupAttributeValues() throws Exception {
         List<Attribute> attributes;
@@ -431,6 +560,82 @@ public class JDBCUserStoreConnectorTest extends AuthDAOIntegrationTestBase {
         }
     }
 
+    @Test
+    public void testGetRequiredGroupAttributeValues() throws Exception {
+        List<Attribute> attributes = connector.getGroupAttributeValues(connectorUniqueId,
+                Collections.singletonList(Constants.GROUP_DISPLAY_NAME_URI));
+        Assert.assertEquals(1, attributes.size());
+        Assert.assertEquals("WSO2_GROUP", attributes.get(0).getAttributeValue());
+
+        attributes = connector.getGroupAttributeValues(connectorUniqueId,
+                Collections.singletonList(Constants.GIVEN_NAME_ATTR_NAME));
+        Assert.assertTrue(attributes.isEmpty());
+
+        //checking SQL exception path
+        super.cleanup();
+        try {
+            connector.getGroupAttributeValues(connectorUniqueId,
+                    Collections.singletonList(Constants.GROUP_DISPLAY_NAME_URI));
+            Assert.fail("Exception expected");
+        } catch (UserStoreConnectorException e) {
+            Assert.assertTrue(e.getCause() instanceof SQLException);
+        }
+    }
+
+    @Test
+    public void testBulkRetrieval() throws Exception {
+        String userId1 = Utils.addUser(connector, "user1", "pass1");
+        String userId2 = Utils.addUser(connector, "user2", "pass2");
+        String groupId = Utils.addGroup(connector, "group1");
+        List<String> groupIds = Collections.singletonList(groupId);
+        Utils.updateGroupsOfUser(connector, userId1, groupIds);
+
+        Map<String, List<Attribute>> attributes = connector.getUsersAttributeValues(
+                Arrays.asList(userId1, userId2, "noSuchId"), Collections.singletonList(Constants.USERNAME_URI));
+        Assert.assertEquals(2, attributes.size());
+        Assert.assertEquals(1, attributes.get(userId1).size());
+        Assert.assertEquals("user1", attributes.get(userId1).get(0).getAttributeValue());
+        Assert.assertEquals("user2", attributes.get(userId2).get(0).getAttributeValue());
+
+        attributes = connector.getUsersAttributeValues(Collections.singletonList(userId1), null);
+        Assert.assertEquals(connector.getUserAttributeValues(userId1).size(), attributes.get(userId1).size());
+
+        attributes = connector.getGroupsAttributeValues(Arrays.asList(groupId, connectorUniqueId),
+                Collections.singletonList(Constants.GROUP_DISPLAY_NAME_URI));
+        Assert.assertEquals("group1", attributes.get(groupId).get(0).getAttributeValue());
+        Assert.assertEquals("WSO2_GROUP", attributes.get(connectorUniqueId).get(0).getAttributeValue());
+
+        Map<String, List<String>> groupIdsOfUsers = connector.getGroupIdsOfUsers(Arrays.asList(userId1, userId2));
+        Assert.assertEquals(groupIds, groupIdsOfUsers.get(userId1));
+        Assert.assertNull(groupIdsOfUsers.get(userId2));
+
+        String emptyGroupId = Utils.addGroup(connector, "group2");
+        Utils.updateGroupsOfUser(connector, userId2, groupIds);
+        Map<String, List<String>> userIdsOfGroups = connector.getUserIdsOfGroups(
+                Arrays.asList(groupId, emptyGroupId, "noSuchId", groupId));
+        Assert.assertEquals(1, userIdsOfGroups.size());
+        Assert.assertEquals(new HashSet<>(Arrays.asList(userId1, userId2)),
+                new HashSet<>(userIdsOfGroups.get(groupId)));
+
+        Assert.assertTrue(connector.getUsersAttributeValues(Collections.emptyList(), null).isEmpty());
+        Assert.assertTrue(connector.getUserIdsOfGroups(Collections.emptyList()).isEmpty());
+
+        //checking SQL exception path
+        super.cleanup();
+        try {
+            connector.getGroupIdsOfUsers(Collections.singletonList(userId1));
+            Assert.fail("Exception expected");
+        } catch (UserStoreConnectorException e) {
+            Assert.assertTrue(e.getCause() instanceof SQLException);
+        }
+        try {
+            connector.getUserIdsOfGroups(Collections.singletonList(groupId));
+            Assert.fail("Exception expected");
+        } catch (UserStoreConnectorException e) {
+            Assert.assertTrue(e.getCause() instanceof SQLException);
+        }
+    }
+
     @Test
     public void testIsUserInGroup() throws Exception {
         String user = "user1";
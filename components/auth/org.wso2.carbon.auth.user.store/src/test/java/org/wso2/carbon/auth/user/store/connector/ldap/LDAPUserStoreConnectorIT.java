@@ -39,6 +39,8 @@ import org.wso2.carbon.datasource.core.api.DataSourceService;
 import java.io.File;
 import java.security.NoSuchAlgorithmException;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -228,6 +230,35 @@ public class LDAPUserStoreConnectorIT {
         Assert.assertTrue(isIn);
     }
 
+    @Test
+    public void testBulkRetrieval() throws Exception {
+        String userId1 = Utils.addUser(connector, "user1", null);
+        String userId2 = Utils.addUser(connector, "user2", null);
+        String groupId = Utils.addGroup(connector, "group1");
+        ArrayList<String> ids = new ArrayList<>();
+        ids.add(groupId);
+        Utils.updateGroupsOfUser(connector, userId1, ids);
+
+        Map<String, List<Attribute>> attributes = connector.getUsersAttributeValues(Arrays.asList(userId1, userId2),
+                Collections.singletonList(Constants.USERNAME_URI));
+        Assert.assertEquals(2, attributes.size());
+        Assert.assertEquals(1, attributes.get(userId1).size());
+        Assert.assertEquals("user1", attributes.get(userId1).get(0).getAttributeValue());
+        Assert.assertEquals("user2", attributes.get(userId2).get(0).getAttributeValue());
+
+        attributes = connector.getGroupsAttributeValues(Collections.singletonList(groupId),
+                Collections.singletonList(displayNameAttrName));
+        Assert.assertEquals("group1", attributes.get(groupId).get(0).getAttributeValue());
+
+        Map<String, List<String>> groupIds = connector.getGroupIdsOfUsers(Arrays.asList(userId1, userId2));
+        Assert.assertEquals(ids, groupIds.get(userId1));
+        Assert.assertNull(groupIds.get(userId2));
+
+        Map<String, List<String>> userIds = connector.getUserIdsOfGroups(Arrays.asList(groupId, "noSuchId"));
+        Assert.assertEquals(1, userIds.size());
+        Assert.assertEquals(Collections.singletonList(userId1), userIds.get(groupId));
+    }
+
     @Test
     public void testAddUser() throws Exception {
         List<Attribute> attributes = new ArrayList<>();
@@ -364,12 +395,10 @@ public class LDAPUserStoreConnectorIT {
         String persistedPass = (String) passInfo.get(UserStoreConstants.PASSWORD);
 
         PasswordHandler passwordHandler = new DefaultPasswordHandler();
-        passwordHandler.setIterationCount(iterationCount);
-        passwordHandler.setKeyLength(keyLength);
         String hashedPassword;
         char[] password = passwordCallback.getPassword();
         try {
-            hashedPassword = passwordHandler.hashPassword(password, salt, hashAlgo);
+            hashedPassword = passwordHandler.hashPassword(password, salt, hashAlgo, iterationCount, keyLength);
         } catch (NoSuchAlgorithmException e) {
             throw new UserStoreConnectorException("Error while hashing the password.", e);
         }
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+ *
+ * WSO2 Inc. licenses this file to you under the Apache License,
+ * Version 2.0 (the "License"); you may not use this file except
+ * in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.wso2.carbon.auth.user.store.util;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.Mockito;
+import org.wso2.carbon.auth.user.store.connector.jdbc.queries.MySQLFamilySQLQueryFactory;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collections;
+
+public class NamedPreparedStatementTest {
+
+    private static final String QUERY = "SELECT ID FROM AUTH_UM_USER WHERE USER_UNIQUE_ID = :user_id; "
+            + "AND ATTR_URI IN (:attr_uri;) AND GROUP_ID <> :user_id;";
+
+    @Test
+    public void testPreparedQuery() throws Exception {
+        NamedQuery namedQuery = new NamedQuery(QUERY);
+        Assert.assertEquals(QUERY, namedQuery.getSqlQuery());
+        Assert.assertEquals("SELECT ID FROM AUTH_UM_USER WHERE USER_UNIQUE_ID =  ?  "
+                + "AND ATTR_URI IN ( ? ) AND GROUP_ID <>  ? ", namedQuery.getPreparedQuery());
+        Assert.assertEquals("SELECT ID FROM AUTH_UM_USER WHERE USER_UNIQUE_ID =  ?  "
+                        + "AND ATTR_URI IN ( ?, ?, ? ) AND GROUP_ID <>  ? ",
+                namedQuery.getPreparedQuery(Collections.singletonMap("attr_uri", 3)));
+    }
+
+    @Test
+    public void testBindRepeatedPlaceholders() throws Exception {
+        Connection connection = Mockito.mock(Connection.class);
+        PreparedStatement preparedStatement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(connection.prepareStatement(Mockito.anyString())).thenReturn(preparedStatement);
+
+        NamedPreparedStatement namedPreparedStatement = new NamedPreparedStatement(connection,
+                new NamedQuery(QUERY), Collections.singletonMap("attr_uri", 3));
+        namedPreparedStatement.setString("user_id", "user");
+        namedPreparedStatement.setString("attr_uri", Arrays.asList("uri1", "uri2", "uri3"));
+
+        Mockito.verify(preparedStatement).setString(1, "user");
+        Mockito.verify(preparedStatement).setString(2, "uri1");
+        Mockito.verify(preparedStatement).setString(3, "uri2");
+        Mockito.verify(preparedStatement).setString(4, "uri3");
+        Mockito.verify(preparedStatement).setString(5, "user");
+    }
+
+    @Test
+    public void testFactoryQueriesParse() throws Exception {
+        for (String query : new MySQLFamilySQLQueryFactory().getQueries().values()) {
+            Assert.assertFalse(query, new NamedQuery(query).getPreparedQuery().contains(":"));
+        }
+    }
+
+    @Test(expected = SQLException.class)
+    public void testUnterminatedPlaceholder() throws Exception {
+        new NamedQuery("SELECT ID FROM AUTH_UM_USER WHERE USER_UNIQUE_ID = :user_id");
+    }
+
+    @Test(expected = SQLException.class)
+    public void testUnknownPlaceholder() throws Exception {
+        Connection connection = Mockito.mock(Connection.class);
+        Mockito.when(connection.prepareStatement(Mockito.anyString()))
+                .thenReturn(Mockito.mock(PreparedStatement.class));
+        new NamedPreparedStatement(connection, QUERY).setString("group_id", "group");
+    }
+}
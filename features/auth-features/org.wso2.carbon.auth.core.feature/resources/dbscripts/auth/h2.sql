@@ -11,9 +11,13 @@ CREATE TABLE IF NOT EXISTS AUTH_OAUTH2_AUTHORIZATION_CODE (
             AUTHORIZATION_CODE VARCHAR(512),
             REDIRECT_URI VARCHAR(1024) DEFAULT NULL,
             SCOPE VARCHAR(2048),
+            TIME_CREATED BIGINT,
             PRIMARY KEY (CODE_ID)
 );
 
+CREATE INDEX IF NOT EXISTS IDX_AUTHORIZATION_CODE ON AUTH_OAUTH2_AUTHORIZATION_CODE (AUTHORIZATION_CODE, CLIENT_ID);
+CREATE INDEX IF NOT EXISTS IDX_AUTHORIZATION_CODE_TIME_CREATED ON AUTH_OAUTH2_AUTHORIZATION_CODE (TIME_CREATED);
+
 CREATE TABLE IF NOT EXISTS AUTH_OAUTH2_APPLICATION (
             ID INTEGER NOT NULL AUTO_INCREMENT,
             CLIENT_ID VARCHAR(255),
@@ -44,8 +48,8 @@ CREATE TABLE IF NOT EXISTS AUTH_OAUTH2_ACCESS_TOKEN (
             REFRESH_TOKEN VARCHAR(512),
             CONSUMER_KEY_ID VARCHAR(255),
             AUTHZ_USER VARCHAR(128),
-            TIME_CREATED VARCHAR(1024) DEFAULT NULL,
-            REFRESH_TOKEN_TIME_CREATED VARCHAR (1024) DEFAULT NULL,
+            TIME_CREATED BIGINT,
+            REFRESH_TOKEN_TIME_CREATED BIGINT,
             VALIDITY_PERIOD BIGINT,
             REFRESH_TOKEN_VALIDITY_PERIOD BIGINT,
             TOKEN_SCOPE_HASH VARCHAR(128),
@@ -56,6 +60,11 @@ CREATE TABLE IF NOT EXISTS AUTH_OAUTH2_ACCESS_TOKEN (
             PRIMARY KEY (ID)
 );
 
+CREATE INDEX IF NOT EXISTS IDX_ACCESS_TOKEN_REFRESH_TOKEN ON AUTH_OAUTH2_ACCESS_TOKEN (REFRESH_TOKEN);
+CREATE INDEX IF NOT EXISTS IDX_ACCESS_TOKEN_USER_GRANT ON AUTH_OAUTH2_ACCESS_TOKEN (AUTHZ_USER, GRANT_TYPE,
+            CONSUMER_KEY_ID, TOKEN_STATE, TOKEN_SCOPE_HASH);
+CREATE INDEX IF NOT EXISTS IDX_ACCESS_TOKEN_TIME_CREATED ON AUTH_OAUTH2_ACCESS_TOKEN (TIME_CREATED);
+
 CREATE TABLE IF NOT EXISTS AUTH_OAUTH2_ACCESS_TOKEN_SCOPE (
             ID INTEGER (255) NOT NULL AUTO_INCREMENT,
             TOKEN_ID INTEGER (255),
@@ -93,3 +102,5 @@ CREATE TABLE IF NOT EXISTS AUTH_USER_NAME_MAPPING (
   USER_IDENTIFIER VARCHAR(255),
   PRIMARY KEY(PSEUDO_NAME)
 );
+
+CREATE INDEX IF NOT EXISTS IDX_USER_NAME_MAPPING_USER_ID ON AUTH_USER_NAME_MAPPING (USER_IDENTIFIER);
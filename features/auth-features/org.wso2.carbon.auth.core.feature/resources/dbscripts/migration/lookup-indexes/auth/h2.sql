@@ -0,0 +1,22 @@
+--
+-- Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+-- Adds the token, authorization code and user name mapping lookup indexes to an existing auth database.
+--
+CREATE INDEX IF NOT EXISTS IDX_ACCESS_TOKEN_REFRESH_TOKEN ON AUTH_OAUTH2_ACCESS_TOKEN (REFRESH_TOKEN);
+CREATE INDEX IF NOT EXISTS IDX_ACCESS_TOKEN_USER_GRANT ON AUTH_OAUTH2_ACCESS_TOKEN (AUTHZ_USER, GRANT_TYPE,
+            CONSUMER_KEY_ID, TOKEN_STATE, TOKEN_SCOPE_HASH);
+CREATE INDEX IF NOT EXISTS IDX_AUTHORIZATION_CODE ON AUTH_OAUTH2_AUTHORIZATION_CODE (AUTHORIZATION_CODE, CLIENT_ID);
+CREATE INDEX IF NOT EXISTS IDX_USER_NAME_MAPPING_USER_ID ON AUTH_USER_NAME_MAPPING (USER_IDENTIFIER);
@@ -0,0 +1,21 @@
+--
+-- Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+-- Adds the attribute and password lookup indexes to an existing user management database.
+--
+CREATE INDEX IF NOT EXISTS IDX_USER_ATTRIBUTES_ATTR_VALUE ON AUTH_UM_USER_ATTRIBUTES (ATTR_ID, ATTR_VALUE);
+CREATE INDEX IF NOT EXISTS IDX_GROUP_ATTRIBUTES_ATTR_VALUE ON AUTH_UM_GROUP_ATTRIBUTES (ATTR_ID, ATTR_VALUE);
+CREATE INDEX IF NOT EXISTS IDX_PASSWORD_USER_UNIQUE_ID ON AUTH_UM_PASSWORD (USER_UNIQUE_ID);
+CREATE INDEX IF NOT EXISTS IDX_PASSWORD_INFO_USER_ID ON AUTH_UM_PASSWORD_INFO (USER_ID);
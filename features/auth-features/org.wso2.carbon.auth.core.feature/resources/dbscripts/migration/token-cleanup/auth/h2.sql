@@ -0,0 +1,23 @@
+--
+-- Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+-- Adds the issue time of authorization codes to an existing auth database, which the token cleanup uses to purge
+-- stale codes. Codes issued before the upgrade get the time of the upgrade, so they are purged once the retention
+-- period has passed.
+--
+ALTER TABLE AUTH_OAUTH2_AUTHORIZATION_CODE ADD COLUMN IF NOT EXISTS TIME_CREATED BIGINT;
+UPDATE AUTH_OAUTH2_AUTHORIZATION_CODE SET TIME_CREATED = DATEDIFF('MILLISECOND', TIMESTAMP '1970-01-01 00:00:00',
+            CURRENT_TIMESTAMP) WHERE TIME_CREATED IS NULL;
+CREATE INDEX IF NOT EXISTS IDX_AUTHORIZATION_CODE_TIME_CREATED ON AUTH_OAUTH2_AUTHORIZATION_CODE (TIME_CREATED);
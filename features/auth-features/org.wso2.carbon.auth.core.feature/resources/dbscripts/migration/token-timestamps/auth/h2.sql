@@ -0,0 +1,41 @@
+--
+-- Copyright (c) 2018, WSO2 Inc. (http://www.wso2.org) All Rights Reserved.
+--
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+--
+--     http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+-- Converts the token creation times of an existing auth database from text to epoch milliseconds. The text values
+-- hold the UTC wall clock time of the token. Run this script once.
+--
+ALTER TABLE AUTH_OAUTH2_ACCESS_TOKEN ADD COLUMN TIME_CREATED_MILLIS BIGINT;
+ALTER TABLE AUTH_OAUTH2_ACCESS_TOKEN ADD COLUMN REFRESH_TOKEN_TIME_CREATED_MILLIS BIGINT;
+
+UPDATE AUTH_OAUTH2_ACCESS_TOKEN SET
+            TIME_CREATED_MILLIS = DATEDIFF('DAY', DATE '1970-01-01',
+                CAST(CAST(TIME_CREATED AS TIMESTAMP) AS DATE)) * 86400000
+                + HOUR(CAST(TIME_CREATED AS TIMESTAMP)) * 3600000
+                + MINUTE(CAST(TIME_CREATED AS TIMESTAMP)) * 60000
+                + SECOND(CAST(TIME_CREATED AS TIMESTAMP)) * 1000
+                + EXTRACT(MILLISECOND FROM CAST(TIME_CREATED AS TIMESTAMP)),
+            REFRESH_TOKEN_TIME_CREATED_MILLIS = DATEDIFF('DAY', DATE '1970-01-01',
+                CAST(CAST(REFRESH_TOKEN_TIME_CREATED AS TIMESTAMP) AS DATE)) * 86400000
+                + HOUR(CAST(REFRESH_TOKEN_TIME_CREATED AS TIMESTAMP)) * 3600000
+                + MINUTE(CAST(REFRESH_TOKEN_TIME_CREATED AS TIMESTAMP)) * 60000
+                + SECOND(CAST(REFRESH_TOKEN_TIME_CREATED AS TIMESTAMP)) * 1000
+                + EXTRACT(MILLISECOND FROM CAST(REFRESH_TOKEN_TIME_CREATED AS TIMESTAMP));
+
+ALTER TABLE AUTH_OAUTH2_ACCESS_TOKEN DROP COLUMN TIME_CREATED;
+ALTER TABLE AUTH_OAUTH2_ACCESS_TOKEN DROP COLUMN REFRESH_TOKEN_TIME_CREATED;
+ALTER TABLE AUTH_OAUTH2_ACCESS_TOKEN ALTER COLUMN TIME_CREATED_MILLIS RENAME TO TIME_CREATED;
+ALTER TABLE AUTH_OAUTH2_ACCESS_TOKEN ALTER COLUMN REFRESH_TOKEN_TIME_CREATED_MILLIS RENAME TO REFRESH_TOKEN_TIME_CREATED;
+
+CREATE INDEX IF NOT EXISTS IDX_ACCESS_TOKEN_TIME_CREATED ON AUTH_OAUTH2_ACCESS_TOKEN (TIME_CREATED);
@@ -86,3 +86,7 @@ CREATE TABLE AUTH_UM_PASSWORD_INFO
 CREATE UNIQUE INDEX unique_ID_INDEX_1 ON AUTH_UM_USER (USER_UNIQUE_ID);
 CREATE UNIQUE INDEX unique_ID_INDEX_2 ON AUTH_UM_GROUP (GROUP_UNIQUE_ID);
 CREATE UNIQUE INDEX unique_ID_INDEX_3 ON AUTH_UM_ATTRIBUTES (ATTR_URI);
+CREATE INDEX IF NOT EXISTS IDX_USER_ATTRIBUTES_ATTR_VALUE ON AUTH_UM_USER_ATTRIBUTES (ATTR_ID, ATTR_VALUE);
+CREATE INDEX IF NOT EXISTS IDX_GROUP_ATTRIBUTES_ATTR_VALUE ON AUTH_UM_GROUP_ATTRIBUTES (ATTR_ID, ATTR_VALUE);
+CREATE INDEX IF NOT EXISTS IDX_PASSWORD_USER_UNIQUE_ID ON AUTH_UM_PASSWORD (USER_UNIQUE_ID);
+CREATE INDEX IF NOT EXISTS IDX_PASSWORD_INFO_USER_ID ON AUTH_UM_PASSWORD_INFO (USER_ID);